@@ -0,0 +1,165 @@
+package com.github.build.deps;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.sax.SAXSource;
+import org.apache.maven.pom._4_0.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLFilter;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+/**
+ * Compares {@link PomReader} with JAXB unmarshalling of generated POM model.
+ * <p>
+ * Corpus consists of real POMs found in the specified directory, local Maven repository by
+ * default. Each benchmark invocation parses a single POM, cycling through the corpus.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PomParsingBenchmark {
+
+  private static final String POM_NAMESPACE = "http://maven.apache.org/POM/4.0.0";
+
+  /**
+   * Directory to search POMs in, local Maven repository if empty.
+   */
+  @Param("")
+  public String pomDirectory;
+
+  /**
+   * Maximum number of POMs in corpus.
+   */
+  @Param("500")
+  public int maxPoms;
+
+  private List<byte[]> poms;
+
+  private JAXBContext sharedContext;
+
+  private int next;
+
+  @Setup
+  public void setUp() throws JAXBException {
+    final Path directory = pomDirectory.isEmpty()
+        ? Path.of(System.getProperty("user.home"), ".m2", "repository")
+        : Path.of(pomDirectory);
+    try (final Stream<Path> files = Files.walk(directory)) {
+      poms = files
+          .filter(file -> file.getFileName().toString().endsWith(".pom"))
+          .sorted()
+          .limit(maxPoms)
+          .map(PomParsingBenchmark::read)
+          .toList();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    if (poms.isEmpty()) {
+      throw new IllegalStateException("No POMs found in " + directory);
+    }
+
+    sharedContext = JAXBContext.newInstance(Model.class);
+  }
+
+  /**
+   * Streaming reader producing {@link Pom} directly.
+   */
+  @Benchmark
+  public Pom stax() {
+    return PomReader.read(new ByteArrayInputStream(nextPom()));
+  }
+
+  /**
+   * JAXB with context created per call, as done by remote repository before.
+   */
+  @Benchmark
+  public Model jaxbContextPerCall() throws Exception {
+    return unmarshal(JAXBContext.newInstance(Model.class), nextPom());
+  }
+
+  /**
+   * JAXB with shared context, to separate context creation cost from unmarshalling cost.
+   */
+  @Benchmark
+  public Model jaxbSharedContext() throws Exception {
+    return unmarshal(sharedContext, nextPom());
+  }
+
+  private byte[] nextPom() {
+    final byte[] result = poms.get(next);
+    next = (next + 1) % poms.size();
+    return result;
+  }
+
+  private static Model unmarshal(
+      final JAXBContext context,
+      final byte[] pom
+  ) throws JAXBException, ParserConfigurationException, SAXException {
+    final var spf = SAXParserFactory.newInstance();
+    spf.setNamespaceAware(true);
+
+    final XMLFilter filter = new NamespaceAddingFilter();
+    filter.setParent(spf.newSAXParser().getXMLReader());
+
+    final var saxSource = new SAXSource(filter, new InputSource(new ByteArrayInputStream(pom)));
+    @SuppressWarnings("unchecked")
+    final var element = (JAXBElement<Model>) context.createUnmarshaller().unmarshal(saxSource);
+    return element.getValue();
+  }
+
+  private static byte[] read(final Path file) {
+    try {
+      return Files.readAllBytes(file);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Adds POM namespace if it's missing, since JAXB unmarshalling requires it.
+   */
+  private static final class NamespaceAddingFilter extends XMLFilterImpl {
+
+    @Override
+    public void startElement(
+        final String uri,
+        final String localName,
+        final String qName,
+        final Attributes attributes
+    ) throws SAXException {
+      final boolean uriPresent = uri != null && !uri.isBlank();
+      super.startElement(uriPresent ? uri : POM_NAMESPACE, localName, qName, attributes);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.github.build.deps;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link SemVer} parsing and sorting on a large list of versions.
+ * <p>
+ * Each invocation processes all versions. Parsing baseline matches version core with a regular
+ * expression, the way parsing was done before the hand-written parser.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SemVerBenchmark {
+
+  private static final Pattern VERSION_CORE_FORMAT = Pattern.compile(
+      "^(?<major>\\d+)\\.(?<minor>\\d+)\\.(?<patch>\\d+)$"
+  );
+
+  /**
+   * Number of versions.
+   */
+  @Param("1000000")
+  public int size;
+
+  /**
+   * Percentage of pre-release versions.
+   */
+  @Param("10")
+  public int preReleasePercentage;
+
+  private String[] values;
+
+  private SemVer[] versions;
+
+  private long[] orderingKeys;
+
+  @Setup
+  public void setUp() {
+    final var random = new Random(42);
+    values = new String[size];
+    versions = new SemVer[size];
+    orderingKeys = new long[size];
+    for (int i = 0; i < size; i++) {
+      final var value = new StringBuilder()
+          .append(random.nextInt(50))
+          .append('.')
+          .append(random.nextInt(30))
+          .append('.')
+          .append(random.nextInt(200));
+      if (random.nextInt(100) < preReleasePercentage) {
+        value.append("-rc.").append(random.nextInt(5));
+      }
+
+      values[i] = value.toString();
+      versions[i] = SemVer.parse(values[i]);
+      orderingKeys[i] = versions[i].orderingKey();
+    }
+  }
+
+  @Benchmark
+  public SemVer[] parse() {
+    final var result = new SemVer[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = SemVer.parse(values[i]);
+    }
+
+    return result;
+  }
+
+  @Benchmark
+  public SemVer[] parseWithRegex() {
+    final var result = new SemVer[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = parseWithRegex(values[i]);
+    }
+
+    return result;
+  }
+
+  @Benchmark
+  public SemVer[] sort() {
+    final SemVer[] result = versions.clone();
+    Arrays.sort(result);
+    return result;
+  }
+
+  @Benchmark
+  public long[] sortOrderingKeys() {
+    final long[] result = orderingKeys.clone();
+    Arrays.sort(result);
+    return result;
+  }
+
+  private static SemVer parseWithRegex(final String value) {
+    final String trimmedValue = value.strip();
+    final int hyphenIndex = trimmedValue.indexOf('-');
+    final String versionCore = hyphenIndex == -1
+        ? trimmedValue
+        : trimmedValue.substring(0, hyphenIndex);
+    final String preRelease = hyphenIndex == -1 ? null : trimmedValue.substring(hyphenIndex + 1);
+    final Matcher matcher = VERSION_CORE_FORMAT.matcher(versionCore);
+    if (!matcher.matches()) {
+      throw new IllegalArgumentException("Invalid version core");
+    }
+
+    return SemVer.of(
+        Integer.parseInt(matcher.group("major")),
+        Integer.parseInt(matcher.group("minor")),
+        Integer.parseInt(matcher.group("patch")),
+        preRelease,
+        null
+    );
+  }
+}
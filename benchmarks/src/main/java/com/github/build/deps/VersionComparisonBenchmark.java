@@ -0,0 +1,143 @@
+package com.github.build.deps;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link VersionKey} with {@link ComparableVersion} for version comparison and range
+ * lookup.
+ * <p>
+ * Range lookup baseline constructs comparable bounds on each call, the way range lookup was done
+ * before versions got their interned comparable form.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VersionComparisonBenchmark {
+
+  private static final String[] NUMERIC = {
+      "1.0.0", "1.2.3", "2.17.1", "3.2.5", "10.1.20", "1.0", "4.13.2", "33.0.0", "2.0.12",
+      "5.10.2", "6.1.6", "1.7.36", "0.9.29", "3.14.0", "2.15.4", "1.1.1",
+  };
+
+  private static final String[] QUALIFIED = {
+      "1.0.0-SNAPSHOT", "1.2.3.Final", "2.17.1-rc1", "3.2.5", "10.1.20", "1.0-alpha-1",
+      "4.13.2", "33.0.0-jre", "2.0.12", "5.10.2-M1", "6.1.6", "1.7.36", "0.9.29-beta",
+      "3.14.0", "2.15.4.1", "1.1.1-sp1",
+  };
+
+  private static final String RANGE = "[1.5.0,4.0.0)";
+
+  /**
+   * Kind of compared versions, either purely numeric or including qualifiers.
+   */
+  @Param({"numeric", "qualified"})
+  public String versions;
+
+  private ComparableVersion[] comparableVersions;
+
+  private VersionKey[] keys;
+
+  private MavenVersion.Range range;
+
+  @Setup
+  public void setUp() {
+    final String[] values = versions.equals("numeric") ? NUMERIC : QUALIFIED;
+    comparableVersions = new ComparableVersion[values.length];
+    keys = new VersionKey[values.length];
+    for (int i = 0; i < values.length; i++) {
+      comparableVersions[i] = new ComparableVersion(values[i]);
+      keys[i] = VersionKey.of(values[i]);
+    }
+
+    range = (MavenVersion.Range) MavenVersion.parse(RANGE);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(256)
+  public int compareComparableVersions() {
+    int result = 0;
+    for (final ComparableVersion first : comparableVersions) {
+      for (final ComparableVersion second : comparableVersions) {
+        result += first.compareTo(second);
+      }
+    }
+
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(256)
+  public int compareKeys() {
+    int result = 0;
+    for (final VersionKey first : keys) {
+      for (final VersionKey second : keys) {
+        result += first.compareTo(second);
+      }
+    }
+
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(16)
+  public int rangeContainsComparableVersion() {
+    int result = 0;
+    for (final ComparableVersion version : comparableVersions) {
+      if (contains(range, version)) {
+        result++;
+      }
+    }
+
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(16)
+  public int rangeContainsKey() {
+    int result = 0;
+    for (final VersionKey version : keys) {
+      if (range.contains(version)) {
+        result++;
+      }
+    }
+
+    return result;
+  }
+
+  private static boolean contains(final MavenVersion.Range range, final ComparableVersion version) {
+    final MavenVersion.Range.Bound lower = range.lower();
+    if (lower != null) {
+      final int comparison = version.compareTo(new ComparableVersion(lower.value()));
+      if (comparison < 0 || comparison == 0 && !lower.including()) {
+        return false;
+      }
+    }
+
+    final MavenVersion.Range.Bound upper = range.upper();
+    if (upper != null) {
+      final int comparison = version.compareTo(new ComparableVersion(upper.value()));
+      return comparison < 0 || comparison == 0 && upper.including();
+    }
+
+    return true;
+  }
+}
@@ -0,0 +1,113 @@
+package com.github.build.deps.graph;
+
+import com.github.build.deps.GroupArtifactVersion;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Graph} insertion cost on synthetic graphs.
+ * <p>
+ * Each benchmark builds a graph of {@value #NODES} nodes and reports time per inserted node, so
+ * time staying the same as depth grows means insertion does not depend on path length.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GraphBenchmark {
+
+  private static final int NODES = 2048;
+
+  /**
+   * Depth of graph, each level having the same number of nodes.
+   */
+  @Param({"2", "16", "128", "2048"})
+  public int depth;
+
+  private List<GraphValue> values;
+
+  @Setup
+  public void setUp() {
+    values = new ArrayList<>(NODES);
+    for (int i = 0; i < NODES; i++) {
+      values.add(GraphValue.of(new GroupArtifactVersion("org.example", "artifact-" + i, "1.0.0")));
+    }
+  }
+
+  /**
+   * Builds graph level by level, every node of a level being a child of the first node of the
+   * previous level, the same way dependency service does.
+   */
+  @Benchmark
+  @OperationsPerInvocation(NODES)
+  public Graph insert() {
+    final var graph = new Graph();
+    final int width = NODES / depth;
+    GraphPath parent = GraphPath.ROOT;
+    for (int level = 0; level < depth; level++) {
+      @Nullable GraphPath first = null;
+      for (int i = 0; i < width; i++) {
+        final GraphValue value = values.get(level * width + i);
+        graph.add(value, Set.of(), parent);
+        if (first == null) {
+          first = parent.addLast(value);
+        }
+      }
+
+      parent = Objects.requireNonNull(first);
+    }
+
+    return graph;
+  }
+
+  /**
+   * Builds the same graph, then checks each node path is present.
+   */
+  @Benchmark
+  @OperationsPerInvocation(NODES)
+  public int insertAndLookup() {
+    final var graph = new Graph();
+    final var paths = new ArrayList<GraphPath>(NODES);
+    final int width = NODES / depth;
+    GraphPath parent = GraphPath.ROOT;
+    for (int level = 0; level < depth; level++) {
+      for (int i = 0; i < width; i++) {
+        final GraphValue value = values.get(level * width + i);
+        graph.add(value, Set.of(), parent);
+        paths.add(parent.addLast(value));
+      }
+
+      parent = paths.get(level * width);
+    }
+
+    int found = 0;
+    for (final GraphPath path : paths) {
+      if (graph.contains(path)) {
+        found++;
+      }
+    }
+
+    return found;
+  }
+}
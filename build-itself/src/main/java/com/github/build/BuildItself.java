@@ -2,38 +2,30 @@ package com.github.build;
 
 import com.github.build.compile.CompileService;
 import com.github.build.compile.CompilerOptions;
+import com.github.build.deps.CachingDependencyService;
 import com.github.build.deps.DependencyConstraints;
 import com.github.build.deps.DependencyService;
 import com.github.build.deps.DependencyServiceImpl;
 import com.github.build.deps.GroupArtifactVersion;
 import com.github.build.deps.LocalRepository;
 import com.github.build.deps.MavenArtifactResolverDependencyService;
+import com.github.build.deps.MetadataCache;
+import com.github.build.deps.PomCache;
 import com.github.build.deps.RemoteRepositoryImpl;
 import com.github.build.jar.JarService;
+import com.github.build.schedule.BuildScheduler;
+import com.github.build.schedule.TaskGraph;
 import com.github.build.test.JUnitTestArgs;
 import com.github.build.test.TestResults;
 import com.github.build.test.TestService;
-import com.sun.codemodel.CodeWriter;
-import com.sun.codemodel.JCodeModel;
-import com.sun.codemodel.JPackage;
-import com.sun.codemodel.writer.FilterCodeWriter;
-import com.sun.tools.xjc.AbortException;
-import com.sun.tools.xjc.ErrorReceiver;
-import com.sun.tools.xjc.Language;
-import com.sun.tools.xjc.ModelLoader;
-import com.sun.tools.xjc.Options;
-import com.sun.tools.xjc.model.Model;
-import com.sun.tools.xjc.outline.Outline;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.io.UncheckedIOException;
-import java.io.Writer;
 import java.net.URI;
 import java.net.http.HttpClient;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -44,15 +36,15 @@ import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.supplier.RepositorySystemSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXParseException;
 import tools.jackson.databind.ObjectMapper;
 
 public class BuildItself {
 
   private static final Logger log = LoggerFactory.getLogger(BuildItself.class);
 
-  private static final DependencyService dependencyService = mavenArtifactResolver();
+  private static final DependencyService dependencyService = new CachingDependencyService(
+      mavenArtifactResolver()
+  );
 
   private static final TestService testService = new TestService(dependencyService);
 
@@ -62,12 +54,21 @@ public class BuildItself {
       new JarService()
   );
 
+  /**
+   * Builds the build system itself.
+   * <p>
+   * Arguments are {@code [--clean] [workdir]}. Build output is kept between runs by default, so
+   * unchanged steps are skipped and lockfiles are reused; {@code --clean} deletes it first.
+   */
   public static void main(final String[] args) {
-    final Path workdir;
-    if (args.length == 0) {
-      workdir = Path.of("").toAbsolutePath();
-    } else {
-      workdir = Path.of(args[0]);
+    boolean clean = false;
+    Path workdir = Path.of("").toAbsolutePath();
+    for (final String arg : args) {
+      if (arg.equals("--clean")) {
+        clean = true;
+      } else {
+        workdir = Path.of(arg).toAbsolutePath();
+      }
     }
 
     final DependencyConstraints junitBom = dependencyService.getConstraints(
@@ -82,16 +83,16 @@ public class BuildItself {
     final Project projectTestUtils = createProjectTestUtils(junitBom);
     final Project projectLib = createProjectLib(junitBom, projectTestUtils);
 
-    buildService.clean(workdir, projectTestUtils);
-    buildService.clean(workdir, projectLib);
-
-    if (!buildTestUtils(workdir, projectTestUtils, java21)) {
-      log.info("Build failed");
-      System.exit(1);
-      return;
+    if (clean) {
+      buildService.clean(workdir, projectTestUtils);
+      buildService.clean(workdir, projectLib);
     }
 
-    if (!buildLib(workdir, projectLib, java21)) {
+    final var graph = TaskGraph.builder();
+    addProjectTasks(graph, workdir, projectTestUtils, java21);
+    addProjectTasks(graph, workdir, projectLib, java21);
+
+    if (!new BuildScheduler().run(graph.build())) {
       log.info("Build failed");
       System.exit(1);
       return;
@@ -125,14 +126,12 @@ public class BuildItself {
   ) {
     final var main = SourceSet
         .withMainDefaults()
-        .withSourceDir(Path.of("build").resolve("generated-sources").resolve("xjc"))
         .compileAndRunWith("org.apache.maven:maven-artifact:3.9.11")
         .compileWith(
             "org.jspecify:jspecify:1.0.0",
             "org.slf4j:slf4j-api:2.0.17",
             "org.apache.maven:maven-resolver-provider:3.9.9",
             "org.apache.maven.resolver:maven-resolver-supplier:1.9.22",
-            "jakarta.xml.bind:jakarta.xml.bind-api:4.0.2",
             "org.junit.platform:junit-platform-launcher:1.13.4",
             "tools.jackson.core:jackson-databind:3.0.3"
         )
@@ -152,10 +151,7 @@ public class BuildItself {
             "com.fasterxml.jackson.dataformat:jackson-dataformat-yaml:2.20.0",
             "tools.jackson.core:jackson-databind:3.0.3"
         )
-        .runWith(
-            "org.junit.jupiter:junit-jupiter-engine",
-            "com.sun.xml.bind:jaxb-impl:4.0.5"
-        )
+        .runWith("org.junit.jupiter:junit-jupiter-engine")
         .build();
     return Project
         .withId("build-system-lib")
@@ -165,173 +161,47 @@ public class BuildItself {
         .build();
   }
 
-  private static boolean buildTestUtils(
-      final Path workdir,
-      final Project project,
-      final CompilerOptions compilerOptions
-  ) {
-    log.info("Building {}", project.id());
-    final boolean mainCompiled = buildService.compileMain(workdir, project, compilerOptions);
-    if (!mainCompiled) {
-      return false;
-    }
-
-    buildService.copyResources(workdir, project, SourceSet.Id.MAIN);
-    buildService.createJar(workdir, project, Map.of(), null);
-
-    final boolean testCompiled = buildService.compileTest(workdir, project, compilerOptions);
-    if (!testCompiled) {
-      return false;
-    }
-
-    buildService.copyResources(workdir, project, SourceSet.Id.TEST);
-
-    final String buildRuntimePathStr = System.getProperty("buildRuntimePath");
-    final List<Path> buildRuntimePath = Stream
-        .of(buildRuntimePathStr.split(",", -1))
-        .map(Path::of)
-        .toList();
-    final var testArgs = new JUnitTestArgs(buildRuntimePath, ClassLoader.getSystemClassLoader());
-    final TestResults results = testService.withJUnit(workdir, project, testArgs);
-    return results.testsFailedCount() <= 0;
-  }
-
-  private static boolean buildLib(
+  private static void addProjectTasks(
+      final TaskGraph.Builder graph,
       final Path workdir,
       final Project project,
       final CompilerOptions compilerOptions
   ) {
-    log.info("Building {}", project.id());
-    generateSourcesFromMavenXsd(workdir, project);
-    final boolean mainCompiled = buildService.compileMain(workdir, project, compilerOptions);
-    if (!mainCompiled) {
-      return false;
-    }
-
-    buildService.copyResources(workdir, project, SourceSet.Id.MAIN);
-    buildService.createJar(workdir, project, Map.of(), null);
-
-    final boolean testCompiled = buildService.compileTest(workdir, project, compilerOptions);
-    if (!testCompiled) {
-      return false;
-    }
-
-    buildService.copyResources(workdir, project, SourceSet.Id.TEST);
-
-    final String buildRuntimePathStr = System.getProperty("buildRuntimePath");
-    final List<Path> buildRuntimePath = Stream
-        .of(buildRuntimePathStr.split(",", -1))
-        .map(Path::of)
-        .toList();
-    final var testArgs = new JUnitTestArgs(buildRuntimePath, ClassLoader.getSystemClassLoader());
-    final TestResults results = testService.withJUnit(workdir, project, testArgs);
-    return results.testsFailedCount() <= 0;
-  }
-
-  private static void generateSourcesFromMavenXsd(final Path workdir, final Project project) {
-    log.info("[project={}] Generating Maven XSD sources with XJC", project.id());
-
-    final var errorReceiver = new LoggingErrorReceiver();
-    final var files = List.of(
-        workdir
-            .resolve(project.path())
-            .resolve("maven-schemas")
-            .resolve("maven-4.0.0.xsd"),
-        workdir
-            .resolve(project.path())
-            .resolve("maven-schemas")
-            .resolve("repository-metadata-1.1.0.xsd")
-    );
-    final Path targetDir = workdir
-        .resolve(project.path())
-        .resolve(project.artifactLayout().rootDir())
-        .resolve("generated-sources")
-        .resolve("xjc");
-    try {
-      Files.createDirectories(targetDir);
-    } catch (final IOException e) {
-      throw new UncheckedIOException(e);
-    }
-
-    for (final Path xsdPath : files) {
-      final Options options;
-      {
-        options = new Options();
-
-        final var inputSource = new InputSource();
-        inputSource.setSystemId(xsdPath.toString());
-        options.addGrammar(inputSource);
-        options.targetDir = targetDir.toFile();
-        options.encoding = StandardCharsets.UTF_8.name();
-        options.setSchemaLanguage(Language.XMLSCHEMA);
-      }
-
-      final Model model = ModelLoader.load(options, new JCodeModel(), errorReceiver);
-      if (model == null) {
-        throw new IllegalStateException();
-      }
-
-      options.classNameReplacer.forEach(model.codeModel::addClassNameReplacer);
-      final Outline outline = model.generateCode(model.options, errorReceiver);
-      if (outline == null) {
-        throw new IllegalStateException();
-      }
-
-      final CodeWriter codeWriter;
-      try {
-        codeWriter = outline.getModel().options.createCodeWriter();
-      } catch (IOException e) {
-        throw new UncheckedIOException(e);
-      }
-
-      try {
-        outline.getModel().codeModel.build(new LoggingCodeWriter(codeWriter));
-      } catch (final IOException e) {
-        throw new UncheckedIOException(e);
-      }
-    }
-  }
-
-  private static final class LoggingErrorReceiver extends ErrorReceiver {
-
-    @Override
-    public void error(final SAXParseException exception) throws AbortException {
-      log.error("Failed to parse Maven XSD", exception);
-    }
-
-    @Override
-    public void fatalError(final SAXParseException exception) throws AbortException {
-      log.error("Failed to parse Maven XSD", exception);
-    }
-
-    @Override
-    public void warning(final SAXParseException exception) throws AbortException {
-      log.warn("Failed to parse Maven XSD", exception);
-    }
-
-    @Override
-    public void info(final SAXParseException exception) {
-      log.info("Failed to parse Maven XSD", exception);
-    }
-  }
-
-  private static final class LoggingCodeWriter extends FilterCodeWriter {
-
-    public LoggingCodeWriter(final CodeWriter core) {
-      super(core);
-    }
-
-    @Override
-    public Writer openSource(final JPackage pkg, final String fileName) throws IOException {
-      log.debug("XJC writing source {} {}", pkg, fileName);
-      return super.openSource(pkg, fileName);
-    }
-
-    @Override
-    public OutputStream openBinary(final JPackage pkg, final String fileName) throws IOException {
-      log.debug("XJC writing binary {} {}", pkg, fileName);
-      return super.openBinary(pkg, fileName);
-    }
+    graph
+        .compile(
+            project,
+            SourceSet.Id.MAIN,
+            () -> buildService.compileMain(workdir, project, compilerOptions)
+        )
+        .copyResources(
+            project,
+            SourceSet.Id.MAIN,
+            () -> buildService.copyResources(workdir, project, SourceSet.Id.MAIN)
+        )
+        .createJar(project, () -> buildService.createJar(workdir, project, Map.of(), null))
+        .compile(
+            project,
+            SourceSet.Id.TEST,
+            () -> buildService.compileTest(workdir, project, compilerOptions)
+        )
+        .copyResources(
+            project,
+            SourceSet.Id.TEST,
+            () -> buildService.copyResources(workdir, project, SourceSet.Id.TEST)
+        )
+        .test(project, () -> {
+          final String buildRuntimePathStr = System.getProperty("buildRuntimePath");
+          final List<Path> buildRuntimePath = Stream
+              .of(buildRuntimePathStr.split(",", -1))
+              .map(Path::of)
+              .toList();
+          final var testArgs = new JUnitTestArgs(
+              buildRuntimePath,
+              ClassLoader.getSystemClassLoader()
+          );
+          final TestResults results = testService.withJUnit(workdir, project, testArgs);
+          return results.testsFailedCount() <= 0;
+        });
   }
 
   private static DependencyService nativeDependencyService() {
@@ -340,12 +210,6 @@ public class BuildItself {
         System.getenv("NEXUS_HOST"),
         "localhost"
     );
-    final var nexusDocker = new RemoteRepositoryImpl(
-        URI.create("http://" + nexusHost + ":8081/repository/maven-central"),
-        httpClient,
-        new ObjectMapper()
-    );
-
     final Path localRepositoryBasePath;
     try {
       localRepositoryBasePath = Files.createTempDirectory("build-local");
@@ -353,6 +217,18 @@ public class BuildItself {
       throw new UncheckedIOException(e);
     }
 
+    final var nexusDocker = new RemoteRepositoryImpl(
+        URI.create("http://" + nexusHost + ":8081/repository/maven-central"),
+        httpClient,
+        new ObjectMapper(),
+        new PomCache(localRepositoryBasePath, Duration.ofHours(1)),
+        new MetadataCache(
+            localRepositoryBasePath,
+            "nexus",
+            MetadataCache.DEFAULT_REFRESH_INTERVAL
+        )
+    );
+
     try {
       Files.createDirectory(localRepositoryBasePath);
     } catch (final IOException e) {
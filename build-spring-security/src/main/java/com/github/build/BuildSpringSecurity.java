@@ -2,6 +2,8 @@ package com.github.build;
 
 import com.github.build.compile.CompileService;
 import com.github.build.compile.CompilerOptions;
+import com.github.build.deps.CachingDependencyService;
+import com.github.build.deps.Coordinates;
 import com.github.build.deps.DependencyConstraints;
 import com.github.build.deps.DependencyService;
 import com.github.build.deps.GroupArtifact;
@@ -10,15 +12,19 @@ import com.github.build.deps.MavenArtifactResolverDependencyService;
 import com.github.build.jar.JarArgs;
 import com.github.build.jar.JarManifest;
 import com.github.build.jar.JarService;
+import com.github.build.schedule.BuildScheduler;
+import com.github.build.schedule.BuildTask;
+import com.github.build.schedule.TaskGraph;
 import com.github.build.test.JUnitTestArgs;
 import com.github.build.test.TestResults;
 import com.github.build.test.TestService;
+import com.github.build.uptodate.Step;
+import com.github.build.uptodate.UpToDateChecker;
 import com.github.build.util.JavaCommandBuilder;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
@@ -40,6 +46,20 @@ public final class BuildSpringSecurity {
 
   private static final Logger log = LoggerFactory.getLogger(BuildSpringSecurity.class);
 
+  private static final Project.ArtifactLayout ARTIFACT_LAYOUT = new Project.ArtifactLayout(
+      Path.of("build-system"),
+      Path.of("classes"),
+      Path.of("resources")
+  );
+
+  /**
+   * Directory of generated main resources, relative to project directory.
+   */
+  private static final Path GENERATED_RESOURCES_DIR = ARTIFACT_LAYOUT
+      .rootDir()
+      .resolve("generated-resources")
+      .resolve("main");
+
   private BuildSpringSecurity() {
   }
 
@@ -52,7 +72,7 @@ public final class BuildSpringSecurity {
     }
 
     final var compileService = new CompileService();
-    final var dependencyService = mavenArtifactResolver();
+    final var dependencyService = new CachingDependencyService(mavenArtifactResolver());
     final var testService = new TestService(dependencyService);
     final var jarService = new JarService();
     final BuildService service = new BuildService(compileService, dependencyService, jarService);
@@ -79,102 +99,150 @@ public final class BuildSpringSecurity {
     final var mockitoPath = dependencyService.fetchToLocal(mockito, null);
     final var jacocoPath = dependencyService.fetchToLocal(jacoco, "runtime");
 
-    for (final Project project : projects) {
-      log.info("[project={}] Compiling main source set", project.id());
-      final boolean mainCompiled = service.compileMain(workdir, project, compilerOptions);
-      if (!mainCompiled) {
-        log.error("Build failed");
-        System.exit(1);
-        return;
-      }
-      service.copyResources(workdir, project, SourceSet.Id.MAIN);
-      if (project == core) {
-        generateSpringVersionsFile(workdir, project, springCoreVersion);
-      }
+    final String buildRuntimePathStr = System.getProperty("buildRuntimePath");
+    final List<Path> buildRuntimePath = Stream
+        .of(buildRuntimePathStr.split(",", -1))
+        .map(Path::of)
+        .toList();
 
-      final var additionalEntries = new HashMap<Path, JarArgs.Content>();
-      additionalEntries.put(Path.of("META-INF/LICENSE.txt"), new JarArgs.Content.File(license));
+    final var graph = TaskGraph.builder();
+    for (final Project project : projects) {
+      graph
+          .compile(
+              project,
+              SourceSet.Id.MAIN,
+              () -> service.compileMain(workdir, project, compilerOptions)
+          )
+          .copyResources(
+              project,
+              SourceSet.Id.MAIN,
+              () -> service.copyResources(workdir, project, SourceSet.Id.MAIN)
+          )
+          .createJar(project, () -> {
+            final var additionalEntries = new HashMap<Path, JarArgs.Content>();
+            additionalEntries.put(
+                Path.of("META-INF/LICENSE.txt"),
+                new JarArgs.Content.File(license)
+            );
 
-      final var manifest = JarManifest
-          .builder()
-          .setVersion("1.0")
-          .setCreatedBy(
-              System.getProperty("java.version") + " (" + System.getProperty("java.vendor") + ')'
+            final var manifest = JarManifest
+                .builder()
+                .setVersion("1.0")
+                .setCreatedBy(
+                    System.getProperty("java.version")
+                        + " (" + System.getProperty("java.vendor") + ')'
+                )
+                .setImplementationTitle(project.id().value())
+                .setImplementationVersion("7.0.0")
+                .build();
+            service.createJar(workdir, project, additionalEntries, manifest);
+          })
+          .compile(
+              project,
+              SourceSet.Id.TEST,
+              () -> service.compileTest(workdir, project, compilerOptions)
+          )
+          .copyResources(
+              project,
+              SourceSet.Id.TEST,
+              () -> service.copyResources(workdir, project, SourceSet.Id.TEST)
           )
-          .setImplementationTitle(project.id().value())
-          .setImplementationVersion("7.0.0")
-          .build();
-      service.createJar(workdir, project, additionalEntries, manifest);
+          .test(project, () -> {
+            final var testArgs = new JUnitTestArgs(
+                buildRuntimePath,
+                ClassLoader.getSystemClassLoader()
+            );
+            log.info("[project={}] Running tests", project.id());
 
-      log.info("[project={}] Compiling test source set", project.id());
-      final boolean testCompiled = service.compileTest(workdir, project, compilerOptions);
-      if (!testCompiled) {
-        log.error("Build failed");
-        System.exit(1);
-        return;
-      }
-      service.copyResources(workdir, project, SourceSet.Id.TEST);
+            final var jacocoExecReportPath = workdir
+                .resolve(project.path())
+                .resolve(project.artifactLayout().rootDir())
+                .resolve("jacoco")
+                .resolve("test.exec");
+            final List<JavaCommandBuilder.Agent> agents = List.of(
+                new JavaCommandBuilder.Agent(mockitoPath, null),
+                new JavaCommandBuilder.Agent(jacocoPath, "destfile=" + jacocoExecReportPath)
+            );
+            final TestResults results = testService.withJUnitAsProcess(
+                workdir,
+                project,
+                testArgs,
+                agents,
+                List.of("springSecurityVersion=7.0.0", "springVersion=" + springCoreVersion),
+                Duration.ofMinutes(10)
+            );
 
-      final String buildRuntimePathStr = System.getProperty("buildRuntimePath");
-      final List<Path> buildRuntimePath = Stream
-          .of(buildRuntimePathStr.split(",", -1))
-          .map(Path::of)
-          .toList();
-      final var testArgs = new JUnitTestArgs(buildRuntimePath, ClassLoader.getSystemClassLoader());
-      log.info("[project={}] Running tests", project.id());
+            log.info("[project={}] {} tests succeeded, {} tests failed, {} tests skipped",
+                project.id(),
+                results.testsSucceededCount(),
+                results.testsFailedCount(),
+                results.testsSkippedCount()
+            );
+            return results.testsFailedCount() <= 0;
+          });
+    }
 
-      final var jacocoExecReportPath = workdir
-          .resolve(project.path())
-          .resolve(project.artifactLayout().rootDir())
-          .resolve("jacoco")
-          .resolve("test.exec");
-      final List<JavaCommandBuilder.Agent> agents = List.of(
-          new JavaCommandBuilder.Agent(mockitoPath, null),
-          new JavaCommandBuilder.Agent(jacocoPath, "destfile=" + jacocoExecReportPath)
-      );
-      final TestResults results = testService.withJUnitAsProcess(
-          workdir,
-          project,
-          testArgs,
-          agents,
-          List.of("springSecurityVersion=7.0.0", "springVersion=" + springCoreVersion),
-          Duration.ofMinutes(10)
-      );
+    // versions file is generated into resource directory, so it must be done before copying
+    final var springVersions = new BuildTask.Id(core.id(), "spring-versions");
+    final var upToDateChecker = new UpToDateChecker();
+    graph
+        .task(
+            core,
+            springVersions.name(),
+            1,
+            () -> generateSpringVersionsFile(upToDateChecker, workdir, core, springCoreVersion)
+        )
+        .dependsOn(BuildTask.Id.copyResources(core.id(), SourceSet.Id.MAIN), springVersions);
 
-      log.info("[project={}] {} tests succeeded, {} tests failed, {} tests skipped",
-          project.id(),
-          results.testsSucceededCount(),
-          results.testsFailedCount(),
-          results.testsSkippedCount()
-      );
-      if (results.testsFailedCount() > 0) {
-        log.error("Build failed");
-        System.exit(1);
-      }
+    final boolean succeeded = new BuildScheduler().run(graph.build());
+    log.debug("Dependency resolution cache: {} hits, {} misses",
+        dependencyService.hits(),
+        dependencyService.misses()
+    );
+    log.debug("Interned coordinates: {} interned, {} lookups served",
+        Coordinates.misses(),
+        Coordinates.hits()
+    );
+    if (!succeeded) {
+      log.error("Build failed");
+      System.exit(1);
     }
   }
 
-  private static void generateSpringVersionsFile(
+  private static boolean generateSpringVersionsFile(
+      final UpToDateChecker upToDateChecker,
       final Path workdir,
       final Project project,
       final String springCoreVersion
   ) {
-    final Path filePath = workdir
-        .resolve(project.path())
-        .resolve(project.artifactLayout().rootDir())
-        .resolve(project.artifactLayout().resourcesDir())
-        .resolve("main")
+    final Path projectDir = workdir.resolve(project.path());
+    final Path filePath = projectDir
+        .resolve(GENERATED_RESOURCES_DIR)
         .resolve("META-INF")
         .resolve("spring-security.versions");
+    final Step step = Step
+        .named(project.id() + ":spring-versions")
+        .value("org.springframework:spring-core", springCoreVersion)
+        .output(filePath)
+        .build();
+    final Path snapshotFile = projectDir
+        .resolve(project.artifactLayout().rootDir())
+        .resolve("snapshots")
+        .resolve("spring-versions.snapshot");
+    return upToDateChecker.run(snapshotFile, step, () -> {
+      final var properties = new Properties();
+      properties.setProperty("org.springframework:spring-core", springCoreVersion);
+      try {
+        Files.createDirectories(filePath.getParent());
+        try (final var out = Files.newOutputStream(filePath)) {
+          properties.store(out, null);
+        }
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
 
-    final var properties = new Properties();
-    properties.setProperty("org.springframework:spring-core", springCoreVersion);
-
-    try (final var out = Files.newOutputStream(filePath, StandardOpenOption.CREATE)) {
-      properties.store(out, null);
-    } catch (final IOException e) {
-      throw new UncheckedIOException(e);
-    }
+      return true;
+    });
   }
 
   private static DependencyConstraints getPlatform(final DependencyService service) {
@@ -274,15 +342,10 @@ public final class BuildSpringSecurity {
         )
         .withDependencyConstraints(platform)
         .build();
-    final var artifactLayout = new Project.ArtifactLayout(
-        Path.of("build-system"),
-        Path.of("classes"),
-        Path.of("resources")
-    );
     return Project
         .withId("spring-security-crypto")
         .withPath(Path.of("crypto"))
-        .withArtifactLayout(artifactLayout)
+        .withArtifactLayout(ARTIFACT_LAYOUT)
         .withSourceSet(main)
         .withSourceSet(test)
         .build();
@@ -294,6 +357,7 @@ public final class BuildSpringSecurity {
   ) {
     final var main = SourceSet
         .withMainDefaults()
+        .withResourceDir(GENERATED_RESOURCES_DIR)
         .compileAndRunWith(crypto)
         .compileAndRunWith(
             // api
@@ -344,15 +408,10 @@ public final class BuildSpringSecurity {
         )
         .withDependencyConstraints(platform)
         .build();
-    final var artifactLayout = new Project.ArtifactLayout(
-        Path.of("build-system"),
-        Path.of("classes"),
-        Path.of("resources")
-    );
     return Project
         .withId("spring-security-core")
         .withPath(Path.of("core"))
-        .withArtifactLayout(artifactLayout)
+        .withArtifactLayout(ARTIFACT_LAYOUT)
         .withSourceSet(main)
         .withSourceSet(test)
         .build();
@@ -1,8 +1,11 @@
 package com.github.build;
 
+import com.github.build.cache.BuildCache;
+import com.github.build.compile.AbiSnapshot;
 import com.github.build.compile.CompileArgs;
 import com.github.build.compile.CompileService;
 import com.github.build.compile.CompilerOptions;
+import com.github.build.compile.IncrementalCompiler;
 import com.github.build.deps.Dependency;
 import com.github.build.deps.DependencyConstraints;
 import com.github.build.deps.DependencyService;
@@ -10,6 +13,8 @@ import com.github.build.deps.GroupArtifactVersion;
 import com.github.build.jar.JarArgs;
 import com.github.build.jar.JarManifest;
 import com.github.build.jar.JarService;
+import com.github.build.uptodate.Step;
+import com.github.build.uptodate.UpToDateChecker;
 import com.github.build.util.FileUtils;
 import com.github.build.util.PathUtils;
 import java.io.IOException;
@@ -19,10 +24,13 @@ import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -46,14 +54,52 @@ public final class BuildService {
 
   private final JarService jarService;
 
+  @Nullable
+  private final IncrementalCompiler incrementalCompiler;
+
+  private final UpToDateChecker upToDateChecker;
+
   public BuildService(
       final CompileService compileService,
       final DependencyService dependencyService,
       final JarService jarService
   ) {
-    this.compileService = Objects.requireNonNull(compileService);
-    this.dependencyService = Objects.requireNonNull(dependencyService);
-    this.jarService = jarService;
+    this(compileService, dependencyService, jarService, false);
+  }
+
+  /**
+   * @param incrementalCompilation Whether to recompile only changed sources and their dependents
+   *                               instead of whole source sets
+   * @see IncrementalCompiler
+   */
+  public BuildService(
+      final CompileService compileService,
+      final DependencyService dependencyService,
+      final JarService jarService,
+      final boolean incrementalCompilation
+  ) {
+    this(
+        builder(compileService, dependencyService, jarService)
+            .withIncrementalCompilation(incrementalCompilation)
+    );
+  }
+
+  private BuildService(final Builder builder) {
+    this.compileService = builder.compileService;
+    this.dependencyService = builder.dependencyService;
+    this.jarService = builder.jarService;
+    this.incrementalCompiler = builder.incrementalCompilation
+        ? new IncrementalCompiler(compileService)
+        : null;
+    this.upToDateChecker = new UpToDateChecker(builder.buildCache);
+  }
+
+  public static Builder builder(
+      final CompileService compileService,
+      final DependencyService dependencyService,
+      final JarService jarService
+  ) {
+    return new Builder(compileService, dependencyService, jarService);
   }
 
   public boolean compileMain(
@@ -100,15 +146,28 @@ public final class BuildService {
       throw new UncheckedIOException(e);
     }
 
+    // stored outside classes directory, since the latter is emptied on full recompilation
+    final Path incrementalStateFile = workdir
+        .resolve(project.path())
+        .resolve(project.artifactLayout().rootDir())
+        .resolve("incremental")
+        .resolve(sourceSetId + ".state");
+
     final Set<Path> sources = collectSources(workdir, project, sourceSetId);
     if (sources.isEmpty()) {
       log.info("[project={}] [ss={}] No sources found, do nothing", project.id(), sourceSetId);
+      if (incrementalCompiler != null) {
+        // removing class files left from previously compiled sources
+        incrementalCompiler.clean(classesDir, incrementalStateFile);
+      }
+      writeAbiSnapshot(workdir, project, sourceSetId, classesDir);
       return true;
     }
 
     final Set<Path> classpath = new HashSet<>();
+    final Map<Path, Path> abiSnapshots = new HashMap<>();
     try {
-      addSourceSetCompileClasspath(workdir, project, sourceSet, classpath);
+      addSourceSetCompileClasspath(workdir, project, sourceSet, classpath, abiSnapshots);
     } catch (final IllegalStateException e) {
       log.error("[project={}] [ss={}] Failed to gather compilation classpath",
           project.id(),
@@ -119,14 +178,82 @@ public final class BuildService {
     }
 
     final var compileArgs = new CompileArgs(sources, classesDir, classpath, compilerOptions);
-    return compileService.compile(compileArgs);
+    // classes of other projects are fingerprinted by their API, so that changes not affecting
+    // API don't cause recompilation
+    final List<Path> classpathInputs = compileArgs
+        .classpath()
+        .stream()
+        .filter(entry -> !abiSnapshots.containsKey(entry))
+        .toList();
+    final Step step = Step
+        .named(project.id() + ":compile:" + sourceSetId)
+        .value("options", String.join(" ", compilerOptions.toList()))
+        // compiler version affects generated class files
+        .value("java.version", Runtime.version().toString())
+        .inputs(compileArgs.sources())
+        .inputs(classpathInputs)
+        .inputs(abiSnapshots.values())
+        .output(classesDir)
+        .localState(incrementalStateFile)
+        .cacheable(workdir)
+        .build();
+    final Path snapshotFile = snapshotFile(workdir, project, "compile-" + sourceSetId);
+    final boolean compiled = upToDateChecker.run(snapshotFile, step, () -> {
+      if (incrementalCompiler != null) {
+        return incrementalCompiler.compile(compileArgs, incrementalStateFile);
+      }
+
+      return compileService.compile(compileArgs);
+    });
+    if (compiled) {
+      writeAbiSnapshot(workdir, project, sourceSetId, classesDir);
+    }
+
+    return compiled;
+  }
+
+  /**
+   * Writes API snapshot of main source set classes, which dependent projects are compiled against.
+   *
+   * @see AbiSnapshot
+   */
+  private void writeAbiSnapshot(
+      final Path workdir,
+      final Project project,
+      final SourceSet.Id sourceSetId,
+      final Path classesDir
+  ) {
+    if (!sourceSetId.equals(project.mainSourceSet().id())) {
+      return;
+    }
+
+    final Path abiSnapshotFile = abiSnapshotFile(workdir, project);
+    final Step step = Step
+        .named(project.id() + ":abi:" + sourceSetId)
+        .input(classesDir)
+        .output(abiSnapshotFile)
+        .build();
+    final Path snapshotFile = snapshotFile(workdir, project, "abi-" + sourceSetId);
+    upToDateChecker.run(snapshotFile, step, () -> {
+      AbiSnapshot.write(classesDir, abiSnapshotFile);
+      return true;
+    });
+  }
+
+  private static Path abiSnapshotFile(final Path workdir, final Project project) {
+    return workdir
+        .resolve(project.path())
+        .resolve(project.artifactLayout().rootDir())
+        .resolve("abi")
+        .resolve(project.mainSourceSet().id() + ".abi");
   }
 
   private void addSourceSetCompileClasspath(
       final Path workdir,
       final Project project,
       final SourceSet sourceSet,
-      final Collection<Path> classpath
+      final Collection<Path> classpath,
+      final Map<Path, Path> abiSnapshots
   ) {
     final List<GroupArtifactVersion> toResolveTransitive = new ArrayList<>();
     for (final Dependency dependency : sourceSet.compileClasspath()) {
@@ -139,6 +266,10 @@ public final class BuildService {
               .resolve(dependingProject.artifactLayout().classesDir())
               .resolve(dependingProject.mainSourceSet().id().toString());
           classpath.add(mainSourceSetClassesDir);
+          abiSnapshots.put(
+              mainSourceSetClassesDir.normalize().toAbsolutePath(),
+              abiSnapshotFile(workdir, dependingProject)
+          );
         }
         case Dependency.OnSourceSet onSourceSet -> {
           final Path sourceSetClassesDir = workdir
@@ -148,7 +279,13 @@ public final class BuildService {
               .resolve(onSourceSet.sourceSet().id().toString());
           classpath.add(sourceSetClassesDir);
           // TODO: make this clear whether we should add source set dependency compilation classpath
-          addSourceSetCompileClasspath(workdir, project, onSourceSet.sourceSet(), classpath);
+          addSourceSetCompileClasspath(
+              workdir,
+              project,
+              onSourceSet.sourceSet(),
+              classpath,
+              abiSnapshots
+          );
         }
         case Dependency.Jar file -> classpath.add(file.path());
         case Dependency.Remote.WithVersion withVersion ->
@@ -168,12 +305,10 @@ public final class BuildService {
     }
 
     if (!toResolveTransitive.isEmpty()) {
-      final Set<GroupArtifactVersion> artifacts = dependencyService.resolveTransitive(
+      final Map<GroupArtifactVersion, Path> localArtifacts = dependencyService.resolveToLocal(
           toResolveTransitive,
-          sourceSet.dependencyConstraints()
-      );
-      final Map<GroupArtifactVersion, Path> localArtifacts = dependencyService.fetchToLocal(
-          artifacts
+          sourceSet.dependencyConstraints(),
+          lockfile(workdir, project, "compile-" + sourceSet.id())
       );
       classpath.addAll(localArtifacts.values());
     }
@@ -305,29 +440,41 @@ public final class BuildService {
         .resolve(project.artifactLayout().resourcesDir())
         .resolve(sourceSetId.value());
 
-    if (Files.isDirectory(targetDir)) {
-      FileUtils.delete(targetDir);
-    }
+    final SourceSet sourceSet = project.sourceSet(sourceSetId);
+    final List<Path> resourceDirs = sourceSet
+        .resourceDirectories()
+        .stream()
+        .map(dir -> workdir.resolve(project.path()).resolve(dir))
+        .toList();
+    final Step step = Step
+        .named(project.id() + ":resources:" + sourceSetId)
+        .inputs(resourceDirs)
+        .output(targetDir)
+        .build();
+    final Path snapshotFile = snapshotFile(workdir, project, "resources-" + sourceSetId);
+    upToDateChecker.run(snapshotFile, step, () -> {
+      if (Files.isDirectory(targetDir)) {
+        FileUtils.delete(targetDir);
+      }
 
-    try {
-      // always creating directory, even if there's nothing to copy
-      Files.createDirectories(targetDir);
-    } catch (final IOException e) {
-      throw new UncheckedIOException(e);
-    }
+      try {
+        // always creating directory, even if there's nothing to copy
+        Files.createDirectories(targetDir);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
 
-    final SourceSet sourceSet = project.sourceSet(sourceSetId);
-    for (final Path dir : sourceSet.resourceDirectories()) {
-      final var absolutePath = workdir
-          .resolve(project.path())
-          .resolve(dir);
-      log.info("[project={}][ss={}] Copying resources from {}",
-          project.id(),
-          sourceSetId,
-          absolutePath
-      );
-      FileUtils.copyDirectory(absolutePath, targetDir);
-    }
+      for (final Path absolutePath : resourceDirs) {
+        log.info("[project={}][ss={}] Copying resources from {}",
+            project.id(),
+            sourceSetId,
+            absolutePath
+        );
+        FileUtils.copyDirectory(absolutePath, targetDir);
+      }
+
+      return true;
+    });
   }
 
   public void createJar(
@@ -349,34 +496,101 @@ public final class BuildService {
         .resolve(project.artifactLayout().rootDir())
         // TODO: customize JAR path/filename
         .resolve(project.id() + ".jar");
-    final var content = new HashMap<Path, JarArgs.Content>();
-
-    // collect compiled classes
     final Path classesDir = workdir
         .resolve(project.path()).resolve(project.artifactLayout().rootDir())
         .resolve(project.artifactLayout().classesDir())
         .resolve(SourceSet.Id.MAIN.value());
-    try {
-      Files.walkFileTree(classesDir, new CollectJarContent(classesDir, content));
-    } catch (final IOException e) {
-      throw new UncheckedIOException(e);
-    }
-
-    // collect resources
     final Path resourcesDir = workdir
         .resolve(project.path()).resolve(project.artifactLayout().rootDir())
         .resolve(project.artifactLayout().resourcesDir())
         .resolve(SourceSet.Id.MAIN.value());
+
+    final Step.Builder step = Step
+        .named(project.id() + ":jar")
+        .value("manifest", manifest == null ? "" : manifest.toString())
+        .input(classesDir)
+        .input(resourcesDir)
+        .output(jarPath)
+        .cacheable(workdir);
+    additionalEntries.forEach((pathInJar, entry) -> {
+      switch (entry) {
+        case JarArgs.Content.Bytes bytes -> step.value("entry:" + pathInJar, sha256(bytes.value()));
+        case JarArgs.Content.File file -> {
+          step.value("entry:" + pathInJar, file.path().toString());
+          step.input(file.path());
+        }
+      }
+    });
+
+    final Path snapshotFile = snapshotFile(workdir, project, "jar");
+    upToDateChecker.run(snapshotFile, step.build(), () -> {
+      final var content = new HashMap<Path, JarArgs.Content>();
+
+      // collect compiled classes
+      try {
+        Files.walkFileTree(classesDir, new CollectJarContent(classesDir, content));
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+
+      // collect resources
+      try {
+        Files.walkFileTree(resourcesDir, new CollectJarContent(resourcesDir, content));
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+
+      content.putAll(additionalEntries);
+
+      final var args = new JarArgs(jarPath, content, manifest);
+      jarService.create(args);
+      return true;
+    });
+  }
+
+  /**
+   * Returns path to a file storing snapshot of the specified step.
+   *
+   * @see UpToDateChecker
+   */
+  private static Path snapshotFile(
+      final Path workdir,
+      final Project project,
+      final String stepName
+  ) {
+    return workdir
+        .resolve(project.path())
+        .resolve(project.artifactLayout().rootDir())
+        .resolve("snapshots")
+        .resolve(stepName + ".snapshot");
+  }
+
+  /**
+   * Returns path to a lockfile storing resolved dependencies of the specified classpath.
+   *
+   * @see DependencyService#resolveToLocal(List, DependencyConstraints, Path)
+   */
+  private static Path lockfile(
+      final Path workdir,
+      final Project project,
+      final String classpathName
+  ) {
+    return workdir
+        .resolve(project.path())
+        .resolve(project.artifactLayout().rootDir())
+        .resolve("locks")
+        .resolve(classpathName + ".lock");
+  }
+
+  private static String sha256(final byte[] value) {
+    final MessageDigest digest;
     try {
-      Files.walkFileTree(resourcesDir, new CollectJarContent(resourcesDir, content));
-    } catch (final IOException e) {
-      throw new UncheckedIOException(e);
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
     }
 
-    content.putAll(additionalEntries);
-
-    final var args = new JarArgs(jarPath, content, manifest);
-    jarService.create(args);
+    return HexFormat.of().formatHex(digest.digest(value));
   }
 
   /**
@@ -436,4 +650,52 @@ public final class BuildService {
         .resolve(project.artifactLayout().rootDir());
     FileUtils.delete(buildOutputDir);
   }
+
+  public static final class Builder {
+
+    private final CompileService compileService;
+
+    private final DependencyService dependencyService;
+
+    private final JarService jarService;
+
+    private boolean incrementalCompilation;
+
+    @Nullable
+    private BuildCache buildCache;
+
+    private Builder(
+        final CompileService compileService,
+        final DependencyService dependencyService,
+        final JarService jarService
+    ) {
+      this.compileService = Objects.requireNonNull(compileService);
+      this.dependencyService = Objects.requireNonNull(dependencyService);
+      this.jarService = Objects.requireNonNull(jarService);
+    }
+
+    /**
+     * @param incrementalCompilation Whether to recompile only changed sources and their
+     *                               dependents instead of whole source sets
+     * @return This builder
+     * @see IncrementalCompiler
+     */
+    public Builder withIncrementalCompilation(final boolean incrementalCompilation) {
+      this.incrementalCompilation = incrementalCompilation;
+      return this;
+    }
+
+    /**
+     * @param buildCache Cache for compiled classes and JARs, null to disable caching
+     * @return This builder
+     */
+    public Builder withBuildCache(@Nullable final BuildCache buildCache) {
+      this.buildCache = buildCache;
+      return this;
+    }
+
+    public BuildService build() {
+      return new BuildService(this);
+    }
+  }
 }
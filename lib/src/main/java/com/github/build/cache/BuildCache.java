@@ -0,0 +1,38 @@
+package com.github.build.cache;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Stores build step outputs by cache key, so that steps with the same inputs are not executed
+ * again. Entries are immutable: the same key always corresponds to the same outputs.
+ * <p>
+ * Implementations must not fail the build on storage errors: failing to load an entry is
+ * reported as a miss, failing to store an entry is logged.
+ *
+ * @author noavarice
+ * @see LocalBuildCache
+ * @see HttpBuildCache
+ * @since 1.0.0
+ */
+public interface BuildCache {
+
+  /**
+   * Restores step outputs from cache entry.
+   *
+   * @param key     Cache key, alphanumeric
+   * @param root    Root directory containing all outputs
+   * @param outputs Output files and directories, replaced with entry contents on hit
+   * @return True if entry found and restored, false otherwise
+   */
+  boolean load(String key, Path root, Set<Path> outputs);
+
+  /**
+   * Stores step outputs as a cache entry.
+   *
+   * @param key     Cache key, alphanumeric
+   * @param root    Root directory containing all outputs
+   * @param outputs Output files and directories
+   */
+  void store(String key, Path root, Set<Path> outputs);
+}
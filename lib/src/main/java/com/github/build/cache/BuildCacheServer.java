@@ -0,0 +1,204 @@
+package com.github.build.cache;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP server for sharing build cache between machines, counterpart of {@link HttpBuildCache}.
+ * <p>
+ * Entries are stored in {@link LocalBuildCache}, so the same size limit and eviction policy
+ * apply. Supported requests for entry with key {@code K}:
+ * <ul>
+ *   <li>{@code GET /K} and {@code HEAD /K}, with {@code If-None-Match} support (entry key serves as
+ *   its ETag) and gzip response encoding if requested;</li>
+ *   <li>{@code PUT /K}, optionally gzip-encoded; with {@code If-None-Match: *}, existing entry is
+ *   not replaced and 412 status is returned.</li>
+ * </ul>
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class BuildCacheServer implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(BuildCacheServer.class);
+
+  private static final String GZIP = "gzip";
+
+  private final HttpServer server;
+
+  private final ExecutorService executor;
+
+  private final LocalBuildCache storage;
+
+  /**
+   * Creates and starts server.
+   *
+   * @param address Address to listen on, port 0 means any free port
+   * @param storage Entry storage
+   */
+  public BuildCacheServer(final InetSocketAddress address, final LocalBuildCache storage) {
+    Objects.requireNonNull(address);
+    this.storage = Objects.requireNonNull(storage);
+    try {
+      this.server = HttpServer.create(address, 0);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+    server.start();
+    log.info("Build cache server listening on {}", server.getAddress());
+  }
+
+  /**
+   * Runs server until the process is terminated.
+   *
+   * @param args Port, cache directory and maximum cache size in megabytes
+   */
+  public static void main(final String[] args) {
+    if (args.length != 3) {
+      System.err.println("Usage: BuildCacheServer <port> <cache directory> <max size in MB>");
+      System.exit(1);
+    }
+
+    final int port = Integer.parseInt(args[0]);
+    final Path directory = Path.of(args[1]).toAbsolutePath();
+    final long maxSizeBytes = Long.parseLong(args[2]) * 1024 * 1024;
+    final var server = new BuildCacheServer(
+        new InetSocketAddress(port),
+        new LocalBuildCache(directory, maxSizeBytes)
+    );
+    Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+  }
+
+  /**
+   * Returns base URI of cache entries, suitable for {@link HttpBuildCache}.
+   */
+  public URI uri() {
+    final InetSocketAddress address = server.getAddress();
+    return URI.create("http://" + address.getHostString() + ':' + address.getPort() + '/');
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.close();
+  }
+
+  private void handle(final HttpExchange exchange) throws IOException {
+    try (exchange) {
+      final String key = exchange.getRequestURI().getPath().substring(1);
+      if (!LocalBuildCache.isValidKey(key)) {
+        exchange.sendResponseHeaders(400, -1);
+        return;
+      }
+
+      switch (exchange.getRequestMethod()) {
+        case "GET" -> get(exchange, key, true);
+        case "HEAD" -> get(exchange, key, false);
+        case "PUT" -> put(exchange, key);
+        default -> {
+          exchange.getResponseHeaders().set("Allow", "GET, HEAD, PUT");
+          exchange.sendResponseHeaders(405, -1);
+        }
+      }
+    } catch (final IOException | RuntimeException e) {
+      log.error("Failed to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+      throw e;
+    }
+  }
+
+  private void get(
+      final HttpExchange exchange,
+      final String key,
+      final boolean sendBody
+  ) throws IOException {
+    final String etag = '"' + key + '"';
+    final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+    if (storage.containsEntry(key) && (etag.equals(ifNoneMatch) || "*".equals(ifNoneMatch))) {
+      exchange.getResponseHeaders().set("ETag", etag);
+      exchange.sendResponseHeaders(304, -1);
+      return;
+    }
+
+    try (final InputStream in = storage.openEntry(key)) {
+      if (in == null) {
+        exchange.sendResponseHeaders(404, -1);
+        return;
+      }
+
+      exchange.getResponseHeaders().set("ETag", etag);
+      exchange.getResponseHeaders().set("Content-Type", "application/zip");
+      if (!sendBody) {
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+
+      if (acceptsGzip(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+        exchange.getResponseHeaders().set("Content-Encoding", GZIP);
+        // chunked, since compressed size is unknown in advance
+        exchange.sendResponseHeaders(200, 0);
+        try (final OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+          in.transferTo(out);
+        }
+      } else {
+        exchange.sendResponseHeaders(200, 0);
+        try (final OutputStream out = exchange.getResponseBody()) {
+          in.transferTo(out);
+        }
+      }
+    }
+  }
+
+  private void put(final HttpExchange exchange, final String key) throws IOException {
+    final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+    if ("*".equals(ifNoneMatch) && storage.containsEntry(key)) {
+      exchange.sendResponseHeaders(412, -1);
+      return;
+    }
+
+    final String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+    try (final InputStream body = exchange.getRequestBody()) {
+      final InputStream in = GZIP.equalsIgnoreCase(contentEncoding)
+          ? new GZIPInputStream(body)
+          : body;
+      storage.writeEntry(key, in::transferTo);
+    }
+
+    log.debug("Cache entry {} stored", key);
+    exchange.sendResponseHeaders(201, -1);
+  }
+
+  private static boolean acceptsGzip(@Nullable final String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+
+    for (final String encoding : acceptEncoding.split(",")) {
+      final String name = encoding.split(";")[0].strip().toLowerCase(Locale.ROOT);
+      if (name.equals(GZIP)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+}
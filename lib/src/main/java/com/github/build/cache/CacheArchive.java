@@ -0,0 +1,105 @@
+package com.github.build.cache;
+
+import com.github.build.util.FileUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Packs step outputs into a ZIP archive and unpacks them back. Entry names are output paths
+ * relative to a root directory, so archive can be unpacked into a different location.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+final class CacheArchive {
+
+  private CacheArchive() {
+  }
+
+  /**
+   * Writes outputs to archive. Missing outputs are not written and thus are restored as missing.
+   *
+   * @param root    Root directory containing all outputs
+   * @param outputs Output files and directories
+   * @param out     Stream to write archive to, not closed by this method
+   */
+  static void pack(final Path root, final Set<Path> outputs, final OutputStream out)
+      throws IOException {
+    final var zip = new ZipOutputStream(out);
+    final List<Path> sortedOutputs = outputs
+        .stream()
+        .sorted()
+        .toList();
+    for (final Path output : sortedOutputs) {
+      if (Files.notExists(output)) {
+        continue;
+      }
+
+      for (final Path path : FileUtils.listAll(output, Comparator.naturalOrder())) {
+        final String name = entryName(root, path);
+        if (Files.isDirectory(path)) {
+          zip.putNextEntry(new ZipEntry(name + '/'));
+          zip.closeEntry();
+        } else {
+          zip.putNextEntry(new ZipEntry(name));
+          Files.copy(path, zip);
+          zip.closeEntry();
+        }
+      }
+    }
+
+    zip.finish();
+  }
+
+  /**
+   * Replaces outputs with archive contents.
+   *
+   * @param root    Root directory to unpack archive into
+   * @param outputs Output files and directories, only entries inside them are unpacked
+   * @param in      Stream to read archive from, not closed by this method
+   */
+  static void unpack(final Path root, final Set<Path> outputs, final InputStream in)
+      throws IOException {
+    outputs.forEach(FileUtils::delete);
+
+    final var zip = new ZipInputStream(in);
+    ZipEntry entry;
+    while ((entry = zip.getNextEntry()) != null) {
+      final Path path = root.resolve(entry.getName()).normalize();
+      final boolean insideOutputs = outputs
+          .stream()
+          .anyMatch(path::startsWith);
+      if (!insideOutputs) {
+        throw new IOException("Entry " + entry.getName() + " is outside of step outputs");
+      }
+
+      if (entry.isDirectory()) {
+        Files.createDirectories(path);
+      } else {
+        Files.createDirectories(path.getParent());
+        Files.copy(zip, path);
+      }
+    }
+  }
+
+  private static String entryName(final Path root, final Path path) {
+    final var sb = new StringBuilder();
+    for (final Path part : root.relativize(path)) {
+      if (!sb.isEmpty()) {
+        sb.append('/');
+      }
+      sb.append(part);
+    }
+
+    return sb.toString();
+  }
+}
@@ -0,0 +1,189 @@
+package com.github.build.cache;
+
+import com.github.build.util.FileUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build cache stored on a remote HTTP server, e.g. {@link BuildCacheServer}.
+ * <p>
+ * Entry with key {@code K} is available at {@code <baseUri>/K}: it is loaded with {@code GET} and
+ * stored with {@code PUT}. Since entries are immutable, stores are conditional
+ * ({@code If-None-Match: *}), so that existing entries are never overwritten. Request and response
+ * bodies are gzip-encoded.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class HttpBuildCache implements BuildCache {
+
+  private static final Logger log = LoggerFactory.getLogger(HttpBuildCache.class);
+
+  private static final String GZIP = "gzip";
+
+  private final URI baseUri;
+
+  private final HttpClient client;
+
+  /**
+   * @param baseUri Base URI of cache entries
+   * @param client  HTTP client
+   */
+  public HttpBuildCache(final URI baseUri, final HttpClient client) {
+    Objects.requireNonNull(baseUri);
+    final String uri = baseUri.toString();
+    this.baseUri = uri.endsWith("/") ? baseUri : URI.create(uri + '/');
+    this.client = Objects.requireNonNull(client);
+  }
+
+  @Override
+  public String toString() {
+    return baseUri.toString();
+  }
+
+  @Override
+  public boolean load(final String key, final Path root, final Set<Path> outputs) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(root);
+    Objects.requireNonNull(outputs);
+
+    final URI uri = entryUri(key);
+    final var request = HttpRequest
+        .newBuilder(uri)
+        .header("Accept-Encoding", GZIP)
+        .GET()
+        .build();
+    final HttpResponse<InputStream> response;
+    try {
+      response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+    } catch (final IOException e) {
+      log.warn("Failed to load cache entry {} from {}", key, uri, e);
+      return false;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("Interrupted while loading cache entry {} from {}", key, uri);
+      return false;
+    }
+
+    try (final InputStream body = response.body()) {
+      if (response.statusCode() == 404) {
+        log.debug("Cache entry {} not found", key);
+        return false;
+      }
+
+      if (response.statusCode() != 200) {
+        log.warn("Failed to load cache entry {}, response status: {}",
+            key,
+            response.statusCode()
+        );
+        return false;
+      }
+
+      final boolean gzipped = response
+          .headers()
+          .firstValue("Content-Encoding")
+          .filter(GZIP::equalsIgnoreCase)
+          .isPresent();
+      final InputStream in = gzipped ? new GZIPInputStream(body) : body;
+      CacheArchive.unpack(root, outputs, in);
+      log.debug("Cache entry {} loaded from {}", key, uri);
+      return true;
+    } catch (final IOException e) {
+      log.warn("Failed to load cache entry {} from {}", key, uri, e);
+      outputs.forEach(FileUtils::delete);
+      return false;
+    }
+  }
+
+  @Override
+  public void store(final String key, final Path root, final Set<Path> outputs) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(root);
+    Objects.requireNonNull(outputs);
+
+    final URI uri = entryUri(key);
+    final Path archive;
+    try {
+      archive = Files.createTempFile("build-cache-" + key, ".gz");
+    } catch (final IOException e) {
+      log.warn("Failed to create temporary file for cache entry {}", key, e);
+      return;
+    }
+
+    try {
+      store(key, uri, root, outputs, archive);
+    } finally {
+      try {
+        Files.deleteIfExists(archive);
+      } catch (final IOException e) {
+        log.warn("Failed to delete {}", archive, e);
+      }
+    }
+  }
+
+  /**
+   * Packs entry into temporary file and uploads it from there, so entry is never held in memory
+   * as a whole.
+   */
+  private void store(
+      final String key,
+      final URI uri,
+      final Path root,
+      final Set<Path> outputs,
+      final Path archive
+  ) {
+    try (final var gzip = new GZIPOutputStream(Files.newOutputStream(archive))) {
+      CacheArchive.pack(root, outputs, gzip);
+    } catch (final IOException e) {
+      log.warn("Failed to pack cache entry {}", key, e);
+      return;
+    }
+
+    final HttpResponse<Void> response;
+    try {
+      final var request = HttpRequest
+          .newBuilder(uri)
+          .header("Content-Encoding", GZIP)
+          .header("If-None-Match", "*")
+          .PUT(HttpRequest.BodyPublishers.ofFile(archive))
+          .build();
+      response = client.send(request, HttpResponse.BodyHandlers.discarding());
+    } catch (final IOException e) {
+      log.warn("Failed to store cache entry {} to {}", key, uri, e);
+      return;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("Interrupted while storing cache entry {} to {}, skipping", key, uri);
+      return;
+    }
+
+    final int status = response.statusCode();
+    if (status == 412) {
+      log.debug("Cache entry {} already stored", key);
+    } else if (status >= 200 && status < 300) {
+      log.debug("Cache entry {} stored to {}", key, uri);
+    } else {
+      log.warn("Failed to store cache entry {}, response status: {}", key, status);
+    }
+  }
+
+  private URI entryUri(final String key) {
+    if (!LocalBuildCache.isValidKey(key)) {
+      throw new IllegalArgumentException("Cache key must be alphanumeric");
+    }
+
+    return baseUri.resolve(key);
+  }
+}
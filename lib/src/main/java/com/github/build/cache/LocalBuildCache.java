@@ -0,0 +1,211 @@
+package com.github.build.cache;
+
+import com.github.build.util.FileUtils;
+import com.github.build.util.PathUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build cache storing entries as ZIP archives in a local directory.
+ * <p>
+ * Entry modification time serves as its last access time and is updated on every load. When
+ * total size of entries exceeds the limit, least recently used entries are evicted.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class LocalBuildCache implements BuildCache {
+
+  private static final Logger log = LoggerFactory.getLogger(LocalBuildCache.class);
+
+  private static final String ENTRY_EXTENSION = ".zip";
+
+  private final Path directory;
+
+  private final long maxSizeBytes;
+
+  /**
+   * @param directory    Cache directory, must be absolute
+   * @param maxSizeBytes Maximum total size of cache entries, must be positive
+   */
+  public LocalBuildCache(final Path directory, final long maxSizeBytes) {
+    Objects.requireNonNull(directory);
+    PathUtils.checkAbsolute(directory);
+    if (maxSizeBytes <= 0) {
+      throw new IllegalArgumentException("Cache size must be positive");
+    }
+
+    this.directory = directory.normalize();
+    this.maxSizeBytes = maxSizeBytes;
+  }
+
+  @Override
+  public boolean load(final String key, final Path root, final Set<Path> outputs) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(root);
+    Objects.requireNonNull(outputs);
+
+    try (final InputStream in = openEntry(key)) {
+      if (in == null) {
+        log.debug("Cache entry {} not found", key);
+        return false;
+      }
+
+      CacheArchive.unpack(root, outputs, in);
+      log.debug("Cache entry {} loaded", key);
+      return true;
+    } catch (final IOException e) {
+      log.warn("Failed to load cache entry {}, removing it", key, e);
+      outputs.forEach(FileUtils::delete);
+      deleteQuietly(entryPath(key));
+      return false;
+    }
+  }
+
+  @Override
+  public void store(final String key, final Path root, final Set<Path> outputs) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(root);
+    Objects.requireNonNull(outputs);
+
+    try {
+      writeEntry(key, out -> CacheArchive.pack(root, outputs, out));
+      log.debug("Cache entry {} stored", key);
+    } catch (final IOException e) {
+      log.warn("Failed to store cache entry {}", key, e);
+    }
+  }
+
+  /**
+   * Opens raw entry content and marks entry as recently used.
+   *
+   * @param key Cache key
+   * @return Entry content, null if there's no such entry
+   */
+  @Nullable
+  InputStream openEntry(final String key) throws IOException {
+    final Path entry = entryPath(key);
+    try {
+      final InputStream in = new BufferedInputStream(Files.newInputStream(entry));
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+      return in;
+    } catch (final NoSuchFileException e) {
+      return null;
+    }
+  }
+
+  boolean containsEntry(final String key) {
+    return Files.isRegularFile(entryPath(key));
+  }
+
+  /**
+   * Writes raw entry content, replacing existing entry, and evicts least recently used entries if
+   * cache size limit is exceeded.
+   *
+   * @param key    Cache key
+   * @param writer Writes entry content
+   */
+  void writeEntry(final String key, final EntryWriter writer) throws IOException {
+    final Path entry = entryPath(key);
+    Files.createDirectories(directory);
+    // unique temporary file, so that concurrent writers do not corrupt each other's entries
+    final Path tempFile = Files.createTempFile(directory, key, ".tmp");
+    try {
+      try (final OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+        writer.write(out);
+      }
+
+      Files.move(tempFile, entry, StandardCopyOption.REPLACE_EXISTING);
+    } catch (final IOException e) {
+      deleteQuietly(tempFile);
+      throw e;
+    }
+
+    evict();
+  }
+
+  private synchronized void evict() throws IOException {
+    final List<Entry> entries = new ArrayList<>();
+    long totalSize = 0;
+    try (final DirectoryStream<Path> stream = Files.newDirectoryStream(
+        directory,
+        "*" + ENTRY_EXTENSION
+    )) {
+      for (final Path path : stream) {
+        final BasicFileAttributes attributes;
+        try {
+          attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (final NoSuchFileException e) {
+          // removed concurrently
+          continue;
+        }
+
+        entries.add(new Entry(path, attributes.size(), attributes.lastModifiedTime()));
+        totalSize += attributes.size();
+      }
+    }
+
+    if (totalSize <= maxSizeBytes) {
+      return;
+    }
+
+    entries.sort(Comparator.comparing(Entry::lastAccess));
+    for (final Entry entry : entries) {
+      if (totalSize <= maxSizeBytes) {
+        break;
+      }
+
+      log.debug("Evicting cache entry {}", entry.path().getFileName());
+      deleteQuietly(entry.path());
+      totalSize -= entry.size();
+    }
+  }
+
+  private Path entryPath(final String key) {
+    if (!isValidKey(key)) {
+      throw new IllegalArgumentException("Cache key must be alphanumeric");
+    }
+
+    return directory.resolve(key + ENTRY_EXTENSION);
+  }
+
+  static boolean isValidKey(final String key) {
+    return !key.isBlank() && key.chars().allMatch(Character::isLetterOrDigit);
+  }
+
+  private static void deleteQuietly(final Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (final IOException e) {
+      log.warn("Failed to delete {}", path, e);
+    }
+  }
+
+  @FunctionalInterface
+  interface EntryWriter {
+
+    void write(OutputStream out) throws IOException;
+  }
+
+  private record Entry(Path path, long size, FileTime lastAccess) {
+
+  }
+}
@@ -0,0 +1,129 @@
+package com.github.build.compile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Snapshot of API of compiled classes, used for compile avoidance.
+ * <p>
+ * Snapshot is a text file listing {@link ClassFile#abiHash(boolean) ABI hash} of every class
+ * other classes can be compiled against. It changes only if API of some class changes, so
+ * fingerprinting classes directory by its snapshot instead of its content lets dependent
+ * compilations be skipped when only method bodies or private members were changed. Anonymous and
+ * local classes are not included, since no other class can refer to them.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class AbiSnapshot {
+
+  private static final Logger log = LoggerFactory.getLogger(AbiSnapshot.class);
+
+  private static final String CLASS_EXTENSION = ".class";
+
+  private AbiSnapshot() {
+  }
+
+  /**
+   * Writes snapshot of classes in specified directory. Snapshot file is not modified if its
+   * content is not changed.
+   *
+   * @param classesDir   Classes directory, may not exist
+   * @param snapshotFile Snapshot file
+   */
+  public static void write(final Path classesDir, final Path snapshotFile) {
+    Objects.requireNonNull(classesDir);
+    Objects.requireNonNull(snapshotFile);
+
+    final Map<String, String> hashes = new TreeMap<>();
+    if (Files.isDirectory(classesDir)) {
+      try (final Stream<Path> files = Files.walk(classesDir)) {
+        files
+            .filter(file -> file.getFileName().toString().endsWith(CLASS_EXTENSION))
+            .filter(Files::isRegularFile)
+            .forEach(file -> {
+              final String relativePath = classesDir.relativize(file).toString().replace('\\', '/');
+              final String name = relativePath.substring(
+                  0,
+                  relativePath.length() - CLASS_EXTENSION.length()
+              );
+              if (!isAnonymousOrLocal(name)) {
+                hashes.put(name, abiHash(file));
+              }
+            });
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    final var content = new StringBuilder();
+    hashes.forEach((name, hash) -> content.append(name).append(' ').append(hash).append('\n'));
+    final byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+    try {
+      if (Files.isRegularFile(snapshotFile)
+          && Arrays.equals(Files.readAllBytes(snapshotFile), bytes)) {
+        log.debug("ABI of {} not changed", classesDir);
+        return;
+      }
+
+      Files.createDirectories(snapshotFile.getParent());
+      Files.write(snapshotFile, bytes);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    log.debug("ABI of {} changed, {} classes", classesDir, hashes.size());
+  }
+
+  private static String abiHash(final Path classFile) {
+    final byte[] bytes;
+    try {
+      bytes = Files.readAllBytes(classFile);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    try {
+      return ClassFile.parse(bytes).abiHash(true);
+    } catch (final IllegalArgumentException e) {
+      // not a valid class file, so any change is considered an API change
+      log.warn("Failed to parse {}, using its content hash", classFile, e);
+      return sha256(bytes);
+    }
+  }
+
+  /**
+   * Checks whether class is anonymous or local by its binary name: compilers name such classes
+   * by appending a number to enclosing class name, e.g. {@code Outer$1} or {@code Outer$1Local}.
+   */
+  private static boolean isAnonymousOrLocal(final String name) {
+    final int lastDollar = name.lastIndexOf('$');
+    return lastDollar != -1
+        && lastDollar + 1 < name.length()
+        && Character.isDigit(name.charAt(lastDollar + 1));
+  }
+
+  private static String sha256(final byte[] value) {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    return HexFormat.of().formatHex(digest.digest(value));
+  }
+}
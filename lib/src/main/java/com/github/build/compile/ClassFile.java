@@ -0,0 +1,673 @@
+package com.github.build.compile;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Parts of a class file relevant for build avoidance: class signature, non-code members, API
+ * attributes and classes referenced from the constant pool.
+ * <p>
+ * API attributes are attributes affecting compilation of other classes besides the ones parsed
+ * into dedicated components, e.g. annotations, nested class modifiers or record components. They
+ * are decoded into text not depending on constant pool layout, so recompiling unchanged source
+ * produces the same attributes.
+ * <p>
+ * All class names are in internal form (e.g., {@code java/lang/Object}).
+ *
+ * @param access              Class access flags
+ * @param name                Class name
+ * @param superName           Superclass name, null only for {@code java/lang/Object} and modules
+ * @param interfaces          Implemented interfaces
+ * @param signature           Generic signature
+ * @param sourceFile          Source file name without directories (e.g., {@code Calculator.java})
+ * @param permittedSubclasses Permitted subclasses of a sealed class
+ * @param attributes          Decoded API attributes of the class
+ * @param fields              Declared fields
+ * @param methods             Declared methods
+ * @param referencedClasses   Classes referenced by this class, including itself
+ * @author noavarice
+ * @since 1.0.0
+ */
+public record ClassFile(
+    int access,
+    String name,
+    @Nullable String superName,
+    List<String> interfaces,
+    @Nullable String signature,
+    @Nullable String sourceFile,
+    List<String> permittedSubclasses,
+    List<String> attributes,
+    List<Member> fields,
+    List<Member> methods,
+    Set<String> referencedClasses
+) {
+
+  public static final int ACC_PUBLIC = 0x0001;
+
+  public static final int ACC_PRIVATE = 0x0002;
+
+  public static final int ACC_PROTECTED = 0x0004;
+
+  public static final int ACC_STATIC = 0x0008;
+
+  public static final int ACC_FINAL = 0x0010;
+
+  /**
+   * Set by compilers for every class, has no meaning for class API.
+   */
+  private static final int ACC_SUPER = 0x0020;
+
+  private static final int MAGIC = 0xCAFEBABE;
+
+  private static final int CONSTANT_UTF8 = 1;
+
+  private static final int CONSTANT_INTEGER = 3;
+
+  private static final int CONSTANT_FLOAT = 4;
+
+  private static final int CONSTANT_LONG = 5;
+
+  private static final int CONSTANT_DOUBLE = 6;
+
+  private static final int CONSTANT_CLASS = 7;
+
+  private static final int CONSTANT_STRING = 8;
+
+  private static final int CONSTANT_FIELDREF = 9;
+
+  private static final int CONSTANT_METHODREF = 10;
+
+  private static final int CONSTANT_INTERFACE_METHODREF = 11;
+
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+  private static final int CONSTANT_METHOD_HANDLE = 15;
+
+  private static final int CONSTANT_METHOD_TYPE = 16;
+
+  private static final int CONSTANT_DYNAMIC = 17;
+
+  private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+
+  private static final int CONSTANT_MODULE = 19;
+
+  private static final int CONSTANT_PACKAGE = 20;
+
+  public ClassFile {
+    Objects.requireNonNull(name);
+    interfaces = List.copyOf(interfaces);
+    permittedSubclasses = List.copyOf(permittedSubclasses);
+    attributes = List.copyOf(attributes);
+    fields = List.copyOf(fields);
+    methods = List.copyOf(methods);
+    referencedClasses = Set.copyOf(referencedClasses);
+  }
+
+  /**
+   * Parses class file.
+   *
+   * @param bytes Class file content
+   * @return Parsed class file, never null
+   * @throws IllegalArgumentException if bytes are not a valid class file
+   */
+  public static ClassFile parse(final byte[] bytes) {
+    Objects.requireNonNull(bytes);
+    try {
+      return new Parser(new DataInputStream(new ByteArrayInputStream(bytes))).parse();
+    } catch (final IOException e) {
+      throw new IllegalArgumentException("Malformed class file", e);
+    }
+  }
+
+  /**
+   * Returns package name in internal form, empty string for the unnamed package.
+   */
+  public String packageName() {
+    final int lastSlash = name.lastIndexOf('/');
+    return lastSlash == -1 ? "" : name.substring(0, lastSlash);
+  }
+
+  /**
+   * Computes hash of the class API, i.e. everything other classes may depend on when compiled
+   * against this class, including annotations and other API attributes. Method bodies, private
+   * members and debug information do not affect the result.
+   *
+   * @param includePackagePrivate Whether package-private members are considered part of API,
+   *                              which is the case for classes compiled together
+   * @return Hex-encoded SHA-256 hash
+   */
+  public String abiHash(final boolean includePackagePrivate) {
+    final var sb = new StringBuilder()
+        .append(access & ~ACC_SUPER).append(' ').append(name)
+        .append(" extends ").append(superName)
+        .append(" implements ").append(interfaces.stream().sorted().toList())
+        .append(" signature ").append(signature)
+        .append(" permits ").append(permittedSubclasses.stream().sorted().toList())
+        .append(" attributes ").append(attributes)
+        .append('\n');
+    appendMembers(sb, "field", fields, includePackagePrivate);
+    appendMembers(sb, "method", methods, includePackagePrivate);
+    return sha256(sb.toString());
+  }
+
+  /**
+   * Computes hash of compile-time constants declared by this class.
+   * <p>
+   * Compilers inline constant values into using classes without leaving any reference to the
+   * declaring class, so changing a constant may require recompiling classes that seemingly do
+   * not depend on this class at all.
+   *
+   * @return Hex-encoded SHA-256 hash
+   */
+  public String constantsHash() {
+    final var sb = new StringBuilder();
+    fields
+        .stream()
+        .filter(field -> field.constantValue() != null)
+        .sorted(Comparator.comparing(Member::name))
+        .forEach(field -> sb
+            .append(field.name())
+            .append('=')
+            .append(field.constantValue())
+            .append('\n')
+        );
+    return sha256(sb.toString());
+  }
+
+  private static void appendMembers(
+      final StringBuilder sb,
+      final String kind,
+      final List<Member> members,
+      final boolean includePackagePrivate
+  ) {
+    members
+        .stream()
+        .filter(member -> member.visible(includePackagePrivate))
+        .sorted(Comparator.comparing(Member::name).thenComparing(Member::descriptor))
+        .forEach(member -> sb
+            .append(kind).append(' ')
+            .append(member.access()).append(' ')
+            .append(member.name()).append(' ')
+            .append(member.descriptor())
+            .append(" signature ").append(member.signature())
+            .append(" value ").append(member.constantValue())
+            .append(" throws ").append(member.exceptions().stream().sorted().toList())
+            .append(" attributes ").append(member.attributes())
+            .append('\n')
+        );
+  }
+
+  private static String sha256(final String value) {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    final byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+    return HexFormat.of().formatHex(hash);
+  }
+
+  /**
+   * Field or method.
+   *
+   * @param access        Access flags
+   * @param name          Member name
+   * @param descriptor    Member descriptor
+   * @param signature     Generic signature
+   * @param constantValue Constant value of a field, if any
+   * @param exceptions    Exceptions declared by a method
+   * @param attributes    Decoded API attributes of a member
+   */
+  public record Member(
+      int access,
+      String name,
+      String descriptor,
+      @Nullable String signature,
+      @Nullable Object constantValue,
+      List<String> exceptions,
+      List<String> attributes
+  ) {
+
+    public Member {
+      Objects.requireNonNull(name);
+      Objects.requireNonNull(descriptor);
+      exceptions = List.copyOf(exceptions);
+      attributes = List.copyOf(attributes);
+    }
+
+    public boolean visible(final boolean includePackagePrivate) {
+      if ((access & ACC_PRIVATE) != 0) {
+        return false;
+      }
+
+      return includePackagePrivate || (access & (ACC_PUBLIC | ACC_PROTECTED)) != 0;
+    }
+  }
+
+  private static final class Parser {
+
+    private final DataInputStream in;
+
+    private int[] tags = new int[0];
+
+    private Object[] values = new Object[0];
+
+    private final Set<String> referencedClasses = new HashSet<>();
+
+    private Parser(final DataInputStream in) {
+      this.in = in;
+    }
+
+    private ClassFile parse() throws IOException {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not a class file");
+      }
+
+      in.readUnsignedShort(); // minor version
+      in.readUnsignedShort(); // major version
+      readConstantPool();
+
+      final int access = in.readUnsignedShort();
+      final String name = classAt(in.readUnsignedShort());
+      final int superIndex = in.readUnsignedShort();
+      final String superName = superIndex == 0 ? null : classAt(superIndex);
+
+      final int interfaceCount = in.readUnsignedShort();
+      final var interfaces = new ArrayList<String>(interfaceCount);
+      for (int i = 0; i < interfaceCount; i++) {
+        interfaces.add(classAt(in.readUnsignedShort()));
+      }
+
+      final List<Member> fields = readMembers();
+      final List<Member> methods = readMembers();
+
+      String signature = null;
+      String sourceFile = null;
+      final var permittedSubclasses = new ArrayList<String>();
+      final var attributes = new ArrayList<String>();
+      final int attributeCount = in.readUnsignedShort();
+      for (int i = 0; i < attributeCount; i++) {
+        final String attributeName = utf8At(in.readUnsignedShort());
+        final int length = in.readInt();
+        switch (attributeName) {
+          case "Signature" -> signature = utf8At(in.readUnsignedShort());
+          case "SourceFile" -> sourceFile = utf8At(in.readUnsignedShort());
+          case "PermittedSubclasses" -> {
+            final int count = in.readUnsignedShort();
+            for (int j = 0; j < count; j++) {
+              permittedSubclasses.add(classAt(in.readUnsignedShort()));
+            }
+          }
+          case "RuntimeVisibleAnnotations", "RuntimeInvisibleAnnotations",
+               "RuntimeVisibleTypeAnnotations", "RuntimeInvisibleTypeAnnotations",
+               "Deprecated" -> attributes.add(readApiAttribute(attributeName));
+          case "Record" -> attributes.add(readRecord());
+          case "InnerClasses" -> {
+            final @Nullable String modifiers = readInnerClassModifiers(name);
+            if (modifiers != null) {
+              attributes.add(modifiers);
+            }
+          }
+          default -> in.skipNBytes(length);
+        }
+      }
+
+      collectReferencedClasses();
+      return new ClassFile(
+          access,
+          name,
+          superName,
+          interfaces,
+          signature,
+          sourceFile,
+          permittedSubclasses,
+          attributes,
+          fields,
+          methods,
+          referencedClasses
+      );
+    }
+
+    private void readConstantPool() throws IOException {
+      final int count = in.readUnsignedShort();
+      tags = new int[count];
+      values = new Object[count];
+      for (int i = 1; i < count; i++) {
+        final int tag = in.readUnsignedByte();
+        tags[i] = tag;
+        switch (tag) {
+          case CONSTANT_UTF8 -> values[i] = in.readUTF();
+          case CONSTANT_INTEGER -> values[i] = in.readInt();
+          case CONSTANT_FLOAT -> values[i] = in.readFloat();
+          case CONSTANT_LONG -> {
+            values[i] = in.readLong();
+            i++; // long constants take two entries
+          }
+          case CONSTANT_DOUBLE -> {
+            values[i] = in.readDouble();
+            i++; // double constants take two entries
+          }
+          case CONSTANT_CLASS, CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE,
+               CONSTANT_PACKAGE -> values[i] = in.readUnsignedShort();
+          case CONSTANT_FIELDREF, CONSTANT_METHODREF, CONSTANT_INTERFACE_METHODREF,
+               CONSTANT_NAME_AND_TYPE, CONSTANT_DYNAMIC, CONSTANT_INVOKE_DYNAMIC -> {
+            in.readUnsignedShort();
+            values[i] = in.readUnsignedShort();
+          }
+          case CONSTANT_METHOD_HANDLE -> {
+            in.readUnsignedByte();
+            in.readUnsignedShort();
+          }
+          default -> throw new IOException("Unknown constant pool tag " + tag);
+        }
+      }
+    }
+
+    private List<Member> readMembers() throws IOException {
+      final int count = in.readUnsignedShort();
+      final var result = new ArrayList<Member>(count);
+      for (int i = 0; i < count; i++) {
+        final int access = in.readUnsignedShort();
+        final String name = utf8At(in.readUnsignedShort());
+        final String descriptor = utf8At(in.readUnsignedShort());
+        String signature = null;
+        Object constantValue = null;
+        final var exceptions = new ArrayList<String>();
+        final var attributes = new ArrayList<String>();
+
+        final int attributeCount = in.readUnsignedShort();
+        for (int j = 0; j < attributeCount; j++) {
+          final String attributeName = utf8At(in.readUnsignedShort());
+          final int length = in.readInt();
+          switch (attributeName) {
+            case "Signature" -> signature = utf8At(in.readUnsignedShort());
+            case "ConstantValue" -> constantValue = constantAt(in.readUnsignedShort());
+            case "Exceptions" -> {
+              final int exceptionCount = in.readUnsignedShort();
+              for (int k = 0; k < exceptionCount; k++) {
+                exceptions.add(classAt(in.readUnsignedShort()));
+              }
+            }
+            case "RuntimeVisibleAnnotations", "RuntimeInvisibleAnnotations",
+                 "RuntimeVisibleParameterAnnotations", "RuntimeInvisibleParameterAnnotations",
+                 "RuntimeVisibleTypeAnnotations", "RuntimeInvisibleTypeAnnotations",
+                 "AnnotationDefault", "Deprecated" ->
+                attributes.add(readApiAttribute(attributeName));
+            default -> in.skipNBytes(length);
+          }
+        }
+
+        result.add(new Member(
+            access,
+            name,
+            descriptor,
+            signature,
+            constantValue,
+            exceptions,
+            attributes
+        ));
+      }
+
+      return result;
+    }
+
+    /**
+     * Reads annotations, annotation default or deprecation attribute.
+     *
+     * @param attributeName Attribute name
+     * @return Attribute name followed by decoded attribute content
+     */
+    private String readApiAttribute(final String attributeName) throws IOException {
+      final var sb = new StringBuilder(attributeName);
+      switch (attributeName) {
+        case "RuntimeVisibleAnnotations", "RuntimeInvisibleAnnotations" -> appendAnnotations(sb);
+        case "RuntimeVisibleParameterAnnotations", "RuntimeInvisibleParameterAnnotations" -> {
+          final int parameterCount = in.readUnsignedByte();
+          for (int i = 0; i < parameterCount; i++) {
+            sb.append(" param").append(i);
+            appendAnnotations(sb);
+          }
+        }
+        case "RuntimeVisibleTypeAnnotations", "RuntimeInvisibleTypeAnnotations" -> {
+          final int count = in.readUnsignedShort();
+          for (int i = 0; i < count; i++) {
+            sb.append(' ');
+            appendTypeAnnotation(sb);
+          }
+        }
+        case "AnnotationDefault" -> {
+          sb.append(' ');
+          appendElementValue(sb);
+        }
+        case "Deprecated" -> {
+          // no content
+        }
+        default -> throw new IOException("Unexpected API attribute " + attributeName);
+      }
+
+      return sb.toString();
+    }
+
+    private String readRecord() throws IOException {
+      final var sb = new StringBuilder("Record");
+      final int componentCount = in.readUnsignedShort();
+      for (int i = 0; i < componentCount; i++) {
+        sb
+            .append(' ').append(utf8At(in.readUnsignedShort()))
+            .append(' ').append(utf8At(in.readUnsignedShort()));
+        final int attributeCount = in.readUnsignedShort();
+        for (int j = 0; j < attributeCount; j++) {
+          final String attributeName = utf8At(in.readUnsignedShort());
+          final int length = in.readInt();
+          switch (attributeName) {
+            case "Signature" -> sb.append(" signature ").append(utf8At(in.readUnsignedShort()));
+            case "RuntimeVisibleAnnotations", "RuntimeInvisibleAnnotations",
+                 "RuntimeVisibleTypeAnnotations", "RuntimeInvisibleTypeAnnotations" ->
+                sb.append(' ').append(readApiAttribute(attributeName));
+            default -> in.skipNBytes(length);
+          }
+        }
+
+        sb.append(';');
+      }
+
+      return sb.toString();
+    }
+
+    /**
+     * Reads modifiers of class itself from inner classes attribute. Nested classes keep modifiers
+     * like {@code static} or {@code private} only there, while entries of other classes depend on
+     * what method bodies refer to, so they are skipped.
+     *
+     * @param className Class name
+     * @return Modifiers of nested class, null for top-level class
+     */
+    @Nullable
+    private String readInnerClassModifiers(final String className) throws IOException {
+      String result = null;
+      final int count = in.readUnsignedShort();
+      for (int i = 0; i < count; i++) {
+        final String innerClass = classAt(in.readUnsignedShort());
+        in.readUnsignedShort(); // outer class
+        in.readUnsignedShort(); // inner name
+        final int access = in.readUnsignedShort();
+        if (innerClass.equals(className)) {
+          result = "InnerClasses " + access;
+        }
+      }
+
+      return result;
+    }
+
+    private void appendAnnotations(final StringBuilder sb) throws IOException {
+      final int count = in.readUnsignedShort();
+      for (int i = 0; i < count; i++) {
+        sb.append(' ');
+        appendAnnotation(sb);
+      }
+    }
+
+    private void appendAnnotation(final StringBuilder sb) throws IOException {
+      sb.append(utf8At(in.readUnsignedShort())).append('(');
+      final int pairCount = in.readUnsignedShort();
+      for (int i = 0; i < pairCount; i++) {
+        if (i > 0) {
+          sb.append(',');
+        }
+
+        sb.append(utf8At(in.readUnsignedShort())).append('=');
+        appendElementValue(sb);
+      }
+
+      sb.append(')');
+    }
+
+    private void appendTypeAnnotation(final StringBuilder sb) throws IOException {
+      final int targetType = in.readUnsignedByte();
+      sb.append(Integer.toHexString(targetType)).append(':');
+      switch (targetType) {
+        // type parameter, method formal parameter
+        case 0x00, 0x01, 0x16 -> sb.append(in.readUnsignedByte());
+        // supertype, throws
+        case 0x10, 0x17 -> sb.append(in.readUnsignedShort());
+        // type parameter bound
+        case 0x11, 0x12 -> sb
+            .append(in.readUnsignedByte())
+            .append('.')
+            .append(in.readUnsignedByte());
+        // field, method return type, receiver
+        case 0x13, 0x14, 0x15 -> {
+          // no target info
+        }
+        default -> throw new IOException("Unexpected type annotation target " + targetType);
+      }
+
+      final int pathLength = in.readUnsignedByte();
+      for (int i = 0; i < pathLength; i++) {
+        sb.append('/').append(in.readUnsignedByte()).append('.').append(in.readUnsignedByte());
+      }
+
+      sb.append(' ');
+      appendAnnotation(sb);
+    }
+
+    private void appendElementValue(final StringBuilder sb) throws IOException {
+      final char tag = (char) in.readUnsignedByte();
+      sb.append(tag);
+      switch (tag) {
+        case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z' ->
+            sb.append(constantAt(in.readUnsignedShort()));
+        case 's' -> sb.append('"').append(utf8At(in.readUnsignedShort())).append('"');
+        case 'e' -> sb
+            .append(utf8At(in.readUnsignedShort()))
+            .append('.')
+            .append(utf8At(in.readUnsignedShort()));
+        case 'c' -> sb.append(utf8At(in.readUnsignedShort()));
+        case '@' -> appendAnnotation(sb);
+        case '[' -> {
+          sb.append('{');
+          final int count = in.readUnsignedShort();
+          for (int i = 0; i < count; i++) {
+            if (i > 0) {
+              sb.append(',');
+            }
+
+            appendElementValue(sb);
+          }
+
+          sb.append('}');
+        }
+        default -> throw new IOException("Unknown element value tag " + tag);
+      }
+    }
+
+    private String utf8At(final int index) throws IOException {
+      if (index <= 0 || index >= tags.length || tags[index] != CONSTANT_UTF8) {
+        throw new IOException("Expected UTF-8 constant at index " + index);
+      }
+
+      return (String) values[index];
+    }
+
+    private String classAt(final int index) throws IOException {
+      if (index <= 0 || index >= tags.length || tags[index] != CONSTANT_CLASS) {
+        throw new IOException("Expected class constant at index " + index);
+      }
+
+      return utf8At((Integer) values[index]);
+    }
+
+    private Object constantAt(final int index) throws IOException {
+      if (index <= 0 || index >= tags.length) {
+        throw new IOException("Invalid constant index " + index);
+      }
+
+      return switch (tags[index]) {
+        case CONSTANT_INTEGER, CONSTANT_FLOAT, CONSTANT_LONG, CONSTANT_DOUBLE -> values[index];
+        case CONSTANT_STRING -> '"' + utf8At((Integer) values[index]) + '"';
+        default -> throw new IOException("Unexpected constant value tag " + tags[index]);
+      };
+    }
+
+    /**
+     * Collects class names from class constants and from every descriptor-like UTF-8 constant
+     * (descriptors, generic signatures, annotation types). Extra names picked up from unrelated
+     * string constants only make dependency tracking more conservative.
+     */
+    private void collectReferencedClasses() {
+      for (int i = 1; i < tags.length; i++) {
+        if (tags[i] == CONSTANT_CLASS) {
+          final String value = (String) values[(Integer) values[i]];
+          if (value.startsWith("[")) {
+            collectFromDescriptor(value);
+          } else {
+            referencedClasses.add(value);
+          }
+        } else if (tags[i] == CONSTANT_UTF8) {
+          collectFromDescriptor((String) values[i]);
+        }
+      }
+    }
+
+    private void collectFromDescriptor(final String value) {
+      int start = value.indexOf('L');
+      while (start != -1) {
+        int end = start + 1;
+        while (end < value.length()) {
+          final char c = value.charAt(end);
+          if (c == ';' || c == '<') {
+            break;
+          }
+
+          if (c == '.' || c == '(' || c == ')' || c == '[' || Character.isWhitespace(c)) {
+            end = -1;
+            break;
+          }
+          end++;
+        }
+
+        if (end > start + 1 && end < value.length()) {
+          referencedClasses.add(value.substring(start + 1, end));
+          start = value.indexOf('L', end);
+        } else {
+          start = value.indexOf('L', start + 1);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.github.build.compile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process-wide cache of {@link JarIndex JAR indexes}, shared by all compilations.
+ * <p>
+ * Index is keyed by JAR path, size and last modification time, so it's rebuilt once JAR is
+ * changed. Total estimated size of indexes is bounded: least recently used ones are evicted once
+ * bound is exceeded.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+final class ClasspathIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(ClasspathIndex.class);
+
+  private static final long DEFAULT_MAX_SIZE_BYTES = 64L * 1024 * 1024;
+
+  private static final ClasspathIndex SHARED = new ClasspathIndex(DEFAULT_MAX_SIZE_BYTES);
+
+  private final long maxSizeBytes;
+
+  private final LinkedHashMap<Key, JarIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long sizeBytes;
+
+  /**
+   * @param maxSizeBytes Maximum total estimated size of indexes in heap
+   */
+  ClasspathIndex(final long maxSizeBytes) {
+    if (maxSizeBytes <= 0) {
+      throw new IllegalArgumentException("Maximum size must be positive");
+    }
+
+    this.maxSizeBytes = maxSizeBytes;
+  }
+
+  /**
+   * Returns instance shared by all compilations in the current process.
+   */
+  static ClasspathIndex shared() {
+    return SHARED;
+  }
+
+  /**
+   * Returns index of specified JAR, building it if JAR was not indexed yet or was changed since.
+   *
+   * @param jar JAR path
+   * @return JAR index, or null if path does not exist or is not a regular file, which javac
+   *     ignores as well
+   * @throws IOException if JAR cannot be read or is not a valid JAR
+   */
+  @Nullable
+  JarIndex get(final Path jar) throws IOException {
+    Objects.requireNonNull(jar);
+    final BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+    } catch (final NoSuchFileException e) {
+      return null;
+    }
+
+    if (!attributes.isRegularFile()) {
+      return null;
+    }
+
+    final long lastModified = attributes.lastModifiedTime().toMillis();
+    final var key = new Key(jar.toAbsolutePath().normalize(), attributes.size(), lastModified);
+    synchronized (this) {
+      final JarIndex index = indexes.get(key);
+      if (index != null) {
+        return index;
+      }
+    }
+
+    // indexing is done without holding the lock, the same JAR may rarely be indexed twice
+    final JarIndex index;
+    try {
+      index = JarIndex.read(key.path(), lastModified);
+    } catch (final IOException e) {
+      throw new IOException("Failed to index classpath JAR " + jar, e);
+    }
+
+    log.debug("Indexed {}", jar);
+    synchronized (this) {
+      final JarIndex existing = indexes.get(key);
+      if (existing != null) {
+        return existing;
+      }
+
+      // index of previous JAR version is not needed anymore
+      indexes.entrySet().removeIf(entry -> {
+        if (entry.getKey().path().equals(key.path())) {
+          sizeBytes -= entry.getValue().estimatedSize();
+          return true;
+        }
+
+        return false;
+      });
+      indexes.put(key, index);
+      sizeBytes += index.estimatedSize();
+      evict();
+      return index;
+    }
+  }
+
+  private void evict() {
+    final Iterator<Map.Entry<Key, JarIndex>> iterator = indexes.entrySet().iterator();
+    // the most recently added index is kept even if it exceeds the bound alone
+    while (sizeBytes > maxSizeBytes && indexes.size() > 1) {
+      final Map.Entry<Key, JarIndex> eldest = iterator.next();
+      sizeBytes -= eldest.getValue().estimatedSize();
+      iterator.remove();
+      log.debug("Evicted index of {}", eldest.getKey().path());
+    }
+  }
+
+  /**
+   * @param path         Absolute normalized JAR path
+   * @param size         JAR size in bytes
+   * @param lastModified JAR last modification time in milliseconds
+   */
+  private record Key(Path path, long size, long lastModified) {
+  }
+}
@@ -0,0 +1,413 @@
+package com.github.build.compile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long-lived compiler process serving {@link CompileService} requests over a Unix domain socket.
+ * <p>
+ * Daemon keeps JIT-compiled javac, file managers and {@link ClasspathIndex classpath JAR indexes}
+ * between builds. File manager is recreated if one of the JARs it has opened was changed on disk.
+ * Daemon exits when it has been idle for too long, or when heap usage after garbage collection
+ * exceeds specified fraction of maximum heap size, so that client starts a fresh one.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class CompileDaemon {
+
+  private static final Logger log = LoggerFactory.getLogger(CompileDaemon.class);
+
+  private static final double DEFAULT_MAX_HEAP_USAGE = 0.75;
+
+  private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofHours(1);
+
+  private final Path socketPath;
+
+  private final double maxHeapUsage;
+
+  private final Duration idleTimeout;
+
+  private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+  private final Deque<PooledFileManager> fileManagers = new ConcurrentLinkedDeque<>();
+
+  private final AtomicInteger activeRequests = new AtomicInteger();
+
+  private final AtomicLong lastActivityNanos = new AtomicLong(System.nanoTime());
+
+  @Nullable
+  private volatile ServerSocketChannel server;
+
+  /**
+   * @param socketPath   Path to a Unix domain socket to listen on
+   * @param maxHeapUsage Fraction of maximum heap size, after exceeding which daemon exits
+   * @param idleTimeout  Time without requests, after which daemon exits
+   */
+  public CompileDaemon(
+      final Path socketPath,
+      final double maxHeapUsage,
+      final Duration idleTimeout
+  ) {
+    this.socketPath = socketPath.toAbsolutePath();
+    if (maxHeapUsage <= 0 || maxHeapUsage > 1) {
+      throw new IllegalArgumentException("Maximum heap usage must be in range (0, 1]");
+    }
+
+    this.maxHeapUsage = maxHeapUsage;
+    this.idleTimeout = Objects.requireNonNull(idleTimeout);
+    if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+      throw new IllegalArgumentException("Idle timeout must be positive");
+    }
+  }
+
+  /**
+   * Runs daemon until it becomes idle or exceeds heap limit.
+   *
+   * @param args Socket path
+   */
+  public static void main(final String[] args) {
+    if (args.length != 1) {
+      System.err.println("Usage: CompileDaemon <socket path>");
+      System.exit(1);
+    }
+
+    final var daemon = new CompileDaemon(
+        Path.of(args[0]),
+        DEFAULT_MAX_HEAP_USAGE,
+        DEFAULT_IDLE_TIMEOUT
+    );
+    daemon.run();
+  }
+
+  /**
+   * Accepts requests until daemon is stopped. Returns immediately if another daemon is already
+   * listening on the same socket.
+   */
+  public void run() {
+    final ServerSocketChannel channel = bind();
+    if (channel == null) {
+      log.info("Another compile daemon is listening on {}", socketPath);
+      return;
+    }
+
+    server = channel;
+    log.info("Compile daemon listening on {}", socketPath);
+    final Thread idleWatcher = Thread.ofVirtual().start(this::watchIdle);
+    try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      while (true) {
+        final SocketChannel connection;
+        try {
+          connection = channel.accept();
+        } catch (final ClosedChannelException e) {
+          break;
+        } catch (final IOException e) {
+          throw new UncheckedIOException(e);
+        }
+
+        activeRequests.incrementAndGet();
+        executor.execute(() -> handle(connection));
+      }
+    } finally {
+      idleWatcher.interrupt();
+      stop();
+      PooledFileManager fileManager;
+      while ((fileManager = fileManagers.poll()) != null) {
+        fileManager.close();
+      }
+    }
+
+    log.info("Compile daemon stopped");
+  }
+
+  /**
+   * Stops accepting new requests. Requests in progress are completed.
+   */
+  public void stop() {
+    final ServerSocketChannel channel = server;
+    if (channel == null) {
+      return;
+    }
+
+    // socket file is deleted before the channel is closed, so that it never belongs to a
+    // daemon started in between
+    try {
+      Files.deleteIfExists(socketPath);
+    } catch (final IOException e) {
+      log.warn("Failed to delete socket file {}", socketPath, e);
+    }
+
+    try {
+      channel.close();
+    } catch (final IOException e) {
+      log.warn("Failed to close socket {}", socketPath, e);
+    }
+  }
+
+  @Nullable
+  private ServerSocketChannel bind() {
+    if (Files.exists(socketPath)) {
+      try (final var ignored = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+        return null;
+      } catch (final IOException e) {
+        log.debug("Deleting stale socket file {}", socketPath);
+      }
+
+      try {
+        Files.deleteIfExists(socketPath);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    try {
+      Files.createDirectories(socketPath.getParent());
+      final var channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+      try {
+        channel.bind(UnixDomainSocketAddress.of(socketPath));
+      } catch (final IOException e) {
+        channel.close();
+        // another daemon has just bound the same path
+        log.debug("Failed to bind to {}", socketPath, e);
+        return null;
+      }
+
+      return channel;
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void handle(final SocketChannel connection) {
+    try (connection) {
+      final var in = new DataInputStream(
+          new BufferedInputStream(Channels.newInputStream(connection))
+      );
+      final var out = new DataOutputStream(
+          new BufferedOutputStream(Channels.newOutputStream(connection))
+      );
+      final CompileDaemonProtocol.Request request = CompileDaemonProtocol.readRequest(in);
+      final boolean result = compile(request, out);
+      CompileDaemonProtocol.writeResult(out, result);
+    } catch (final IOException | RuntimeException e) {
+      log.error("Failed to handle compile request", e);
+    } finally {
+      lastActivityNanos.set(System.nanoTime());
+      activeRequests.decrementAndGet();
+    }
+
+    if (heapLimitExceeded()) {
+      log.info("Heap usage exceeds {}% of maximum heap size, stopping", maxHeapUsage * 100);
+      stop();
+    }
+  }
+
+  private boolean compile(
+      final CompileDaemonProtocol.Request request,
+      final DataOutputStream out
+  ) throws IOException {
+    final DiagnosticListener<JavaFileObject> diagnosticListener = diagnostic -> send(
+        out,
+        new CompileResult.Message(diagnostic.getKind(), diagnostic.toString())
+    );
+    final Writer writer = new CompileService.MessageWriter(message -> send(out, message));
+
+    final PooledFileManager fileManager = acquire(request.classpath());
+    boolean reusable = false;
+    try {
+      final boolean result = CompileService.run(
+          compiler,
+          fileManager.fileManager(),
+          diagnosticListener,
+          writer,
+          request.sources(),
+          request.classesDir(),
+          request.classpath(),
+          request.options()
+      );
+      reusable = true;
+      return result;
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      if (reusable) {
+        fileManager.fileManager().flush();
+        fileManagers.push(fileManager);
+      } else {
+        fileManager.close();
+      }
+    }
+  }
+
+  private static void send(final DataOutputStream out, final CompileResult.Message message) {
+    try {
+      CompileDaemonProtocol.writeDiagnostic(out, message);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Takes file manager from the pool, discarding the ones which have opened changed JARs.
+   */
+  private PooledFileManager acquire(final Collection<Path> classpath) {
+    final Map<Path, JarState> jars = new HashMap<>();
+    for (final Path path : classpath) {
+      final JarState state = JarState.of(path);
+      if (state != null) {
+        jars.put(path, state);
+      }
+    }
+
+    PooledFileManager fileManager;
+    while ((fileManager = fileManagers.poll()) != null) {
+      if (fileManager.isUpToDate(jars)) {
+        fileManager.jars().putAll(jars);
+        return fileManager;
+      }
+
+      log.debug("Classpath JARs changed, discarding file manager");
+      fileManager.close();
+    }
+
+    final StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(
+        null,
+        Locale.US,
+        StandardCharsets.UTF_8
+    );
+    return new PooledFileManager(
+        new IndexedFileManager(standardFileManager, ClasspathIndex.shared()),
+        jars
+    );
+  }
+
+  private boolean heapLimitExceeded() {
+    final long max = Runtime.getRuntime().maxMemory();
+    if (max == Long.MAX_VALUE) {
+      return false;
+    }
+
+    long used = 0;
+    for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() != MemoryType.HEAP) {
+        continue;
+      }
+
+      // usage after the last collection reflects retained memory rather than garbage
+      final MemoryUsage usage = pool.getCollectionUsage();
+      if (usage != null) {
+        used += usage.getUsed();
+      }
+    }
+
+    return used > max * maxHeapUsage;
+  }
+
+  private void watchIdle() {
+    final long timeoutNanos = idleTimeout.toNanos();
+    try {
+      while (true) {
+        Thread.sleep(Math.min(idleTimeout.toMillis(), Duration.ofMinutes(1).toMillis()));
+        final long idleNanos = System.nanoTime() - lastActivityNanos.get();
+        if (activeRequests.get() == 0 && idleNanos >= timeoutNanos) {
+          log.info("Compile daemon has been idle for {}, stopping", idleTimeout);
+          stop();
+          return;
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @param fileManager File manager
+   * @param jars        JARs file manager has opened, with their state at the time
+   */
+  private record PooledFileManager(
+      StandardJavaFileManager fileManager,
+      Map<Path, JarState> jars
+  ) {
+
+    boolean isUpToDate(final Map<Path, JarState> current) {
+      for (final Map.Entry<Path, JarState> entry : current.entrySet()) {
+        final JarState previous = jars.get(entry.getKey());
+        if (previous != null && !previous.equals(entry.getValue())) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    void close() {
+      try {
+        fileManager.close();
+      } catch (final IOException e) {
+        log.warn("Failed to close file manager", e);
+      }
+    }
+  }
+
+  /**
+   * @param size         JAR size in bytes
+   * @param lastModified JAR last modification time in milliseconds
+   */
+  private record JarState(long size, long lastModified) {
+
+    @Nullable
+    static JarState of(final Path path) {
+      final BasicFileAttributes attributes;
+      try {
+        attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      } catch (final IOException e) {
+        return null;
+      }
+
+      if (!attributes.isRegularFile()) {
+        return null;
+      }
+
+      return new JarState(attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.github.build.compile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends compile requests to {@link CompileDaemon}, starting it if necessary.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+final class CompileDaemonClient {
+
+  private static final Logger log = LoggerFactory.getLogger(CompileDaemonClient.class);
+
+  private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+
+  private static final Duration CONNECT_RETRY_INTERVAL = Duration.ofMillis(50);
+
+  private final Path socketPath;
+
+  private final Object startLock = new Object();
+
+  CompileDaemonClient(final Path socketPath) {
+    this.socketPath = socketPath.toAbsolutePath();
+  }
+
+  /**
+   * Compiles sources in daemon.
+   *
+   * @param args        Compilation arguments
+   * @param diagnostics Receives compiler diagnostics
+   * @return Compilation result, or null if daemon is not available
+   */
+  @Nullable
+  Boolean compile(final CompileArgs args, final Consumer<CompileResult.Message> diagnostics) {
+    Objects.requireNonNull(args);
+    Objects.requireNonNull(diagnostics);
+    final SocketChannel channel = connectOrStart();
+    if (channel == null) {
+      return null;
+    }
+
+    final var request = new CompileDaemonProtocol.Request(
+        List.copyOf(args.sources()),
+        args.classesDir(),
+        List.copyOf(args.classpath()),
+        args.options().toList()
+    );
+    try (channel) {
+      final var out = new DataOutputStream(
+          new BufferedOutputStream(Channels.newOutputStream(channel))
+      );
+      CompileDaemonProtocol.writeRequest(out, request);
+
+      final var in = new DataInputStream(
+          new BufferedInputStream(Channels.newInputStream(channel))
+      );
+      return CompileDaemonProtocol.readResponse(in, diagnostics);
+    } catch (final IOException e) {
+      log.warn("Compile daemon on {} failed to handle request", socketPath, e);
+      return null;
+    }
+  }
+
+  @Nullable
+  private SocketChannel connectOrStart() {
+    final SocketChannel channel = connect();
+    if (channel != null) {
+      return channel;
+    }
+
+    synchronized (startLock) {
+      final SocketChannel started = connect();
+      if (started != null) {
+        return started;
+      }
+
+      final Process process;
+      try {
+        process = startDaemon();
+      } catch (final IOException e) {
+        log.warn("Failed to start compile daemon", e);
+        return null;
+      }
+
+      final long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+      while (System.nanoTime() < deadline) {
+        final SocketChannel result = connect();
+        if (result != null) {
+          return result;
+        }
+
+        if (!process.isAlive() && process.exitValue() != 0) {
+          log.warn("Compile daemon exited with code {}", process.exitValue());
+          return null;
+        }
+
+        try {
+          Thread.sleep(CONNECT_RETRY_INTERVAL);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException(e);
+        }
+      }
+
+      log.warn("Compile daemon did not start within {}", STARTUP_TIMEOUT);
+      return null;
+    }
+  }
+
+  @Nullable
+  private SocketChannel connect() {
+    if (!Files.exists(socketPath)) {
+      return null;
+    }
+
+    try {
+      return SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+    } catch (final IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Starts daemon with the same JVM and classpath as the current process, so that compiled
+   * classes are the same as produced in-process.
+   */
+  private Process startDaemon() throws IOException {
+    final String java = ProcessHandle
+        .current()
+        .info()
+        .command()
+        .orElse("java");
+    final List<String> command = new ArrayList<>();
+    command.add(java);
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(CompileDaemon.class.getName());
+    command.add(socketPath.toString());
+
+    Files.createDirectories(socketPath.getParent());
+    final File logFile = socketPath.resolveSibling(socketPath.getFileName() + ".log").toFile();
+    log.info("Starting compile daemon on {}", socketPath);
+    return new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile))
+        .start();
+  }
+}
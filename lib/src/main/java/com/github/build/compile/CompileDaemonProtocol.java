@@ -0,0 +1,170 @@
+package com.github.build.compile;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import javax.tools.Diagnostic;
+
+/**
+ * Wire format of {@link CompileDaemon} requests and responses.
+ * <p>
+ * Connection carries a single request: protocol version, sources, classes directory, classpath
+ * and compiler options. Daemon responds with any number of diagnostic messages followed by
+ * compilation result. Strings are written as length-prefixed UTF-8, since diagnostics may exceed
+ * {@link DataOutputStream#writeUTF(String)} limit.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+final class CompileDaemonProtocol {
+
+  /**
+   * Changed on any wire format change, so daemon started by an older build rejects request instead
+   * of sending responses client can't read.
+   */
+  static final int VERSION = 2;
+
+  private static final byte DIAGNOSTIC = 1;
+
+  private static final byte RESULT = 2;
+
+  private CompileDaemonProtocol() {
+  }
+
+  /**
+   * @param sources    Source files
+   * @param classesDir Classes directory
+   * @param classpath  Compilation classpath
+   * @param options    Compiler options
+   */
+  record Request(List<Path> sources, Path classesDir, List<Path> classpath, List<String> options) {
+
+    Request {
+      sources = List.copyOf(sources);
+      Objects.requireNonNull(classesDir);
+      classpath = List.copyOf(classpath);
+      options = List.copyOf(options);
+    }
+  }
+
+  static void writeRequest(final DataOutputStream out, final Request request) throws IOException {
+    out.writeInt(VERSION);
+    writePaths(out, request.sources());
+    writeString(out, request.classesDir().toString());
+    writePaths(out, request.classpath());
+    out.writeInt(request.options().size());
+    for (final String option : request.options()) {
+      writeString(out, option);
+    }
+    out.flush();
+  }
+
+  /**
+   * @throws IOException if request is malformed or has unsupported protocol version
+   */
+  static Request readRequest(final DataInputStream in) throws IOException {
+    final int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported protocol version " + version);
+    }
+
+    final List<Path> sources = readPaths(in);
+    final Path classesDir = Path.of(readString(in));
+    final List<Path> classpath = readPaths(in);
+    final int optionCount = in.readInt();
+    final var options = new ArrayList<String>(optionCount);
+    for (int i = 0; i < optionCount; i++) {
+      options.add(readString(in));
+    }
+
+    return new Request(sources, classesDir, classpath, options);
+  }
+
+  static void writeDiagnostic(
+      final DataOutputStream out,
+      final CompileResult.Message message
+  ) throws IOException {
+    out.writeByte(DIAGNOSTIC);
+    writeString(out, message.kind().name());
+    writeString(out, message.text());
+  }
+
+  static void writeResult(final DataOutputStream out, final boolean result) throws IOException {
+    out.writeByte(RESULT);
+    out.writeBoolean(result);
+    out.flush();
+  }
+
+  /**
+   * Reads diagnostics until compilation result.
+   *
+   * @return Compilation result
+   */
+  static boolean readResponse(
+      final DataInputStream in,
+      final Consumer<CompileResult.Message> diagnostics
+  ) throws IOException {
+    while (true) {
+      final byte type = in.readByte();
+      switch (type) {
+        case DIAGNOSTIC -> {
+          final Diagnostic.Kind kind;
+          try {
+            kind = Diagnostic.Kind.valueOf(readString(in));
+          } catch (final IllegalArgumentException e) {
+            throw new IOException("Unknown diagnostic kind", e);
+          }
+
+          diagnostics.accept(new CompileResult.Message(kind, readString(in)));
+        }
+        case RESULT -> {
+          return in.readBoolean();
+        }
+        default -> throw new IOException("Unknown response type " + type);
+      }
+    }
+  }
+
+  private static void writePaths(
+      final DataOutputStream out,
+      final Collection<Path> paths
+  ) throws IOException {
+    out.writeInt(paths.size());
+    for (final Path path : paths) {
+      writeString(out, path.toString());
+    }
+  }
+
+  private static List<Path> readPaths(final DataInputStream in) throws IOException {
+    final int count = in.readInt();
+    final var result = new ArrayList<Path>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(Path.of(readString(in)));
+    }
+
+    return result;
+  }
+
+  private static void writeString(final DataOutputStream out, final String value)
+      throws IOException {
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(final DataInputStream in) throws IOException {
+    final int length = in.readInt();
+    if (length < 0) {
+      throw new IOException("Negative string length");
+    }
+
+    return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,44 @@
+package com.github.build.compile;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import javax.tools.Diagnostic;
+
+/**
+ * Result of a single compilation.
+ *
+ * @param args        Compilation arguments
+ * @param succeeded   True if compilation succeeded, false if it failed or was not started
+ * @param duration    Compilation wall time
+ * @param diagnostics Compiler diagnostics and output, in the order of reporting
+ * @author noavarice
+ * @since 1.0.0
+ */
+public record CompileResult(
+    CompileArgs args,
+    boolean succeeded,
+    Duration duration,
+    List<Message> diagnostics
+) {
+
+  public CompileResult {
+    Objects.requireNonNull(args);
+    Objects.requireNonNull(duration);
+    diagnostics = List.copyOf(diagnostics);
+  }
+
+  /**
+   * Compiler message.
+   *
+   * @param kind Message kind, {@link Diagnostic.Kind#OTHER} for raw compiler output
+   * @param text Message text
+   */
+  public record Message(Diagnostic.Kind kind, String text) {
+
+    public Message {
+      Objects.requireNonNull(kind);
+      Objects.requireNonNull(text);
+    }
+  }
+}
@@ -6,14 +6,21 @@ import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.function.Consumer;
+import javax.tools.Diagnostic;
 import javax.tools.DiagnosticListener;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
 import javax.tools.StandardLocation;
 import javax.tools.ToolProvider;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
@@ -25,8 +32,33 @@ public final class CompileService {
 
   private static final Logger log = LoggerFactory.getLogger(CompileService.class);
 
+  @Nullable
+  private final CompileDaemonClient daemonClient;
+
+  /**
+   * Creates service compiling sources in the current process.
+   */
+  public CompileService() {
+    this.daemonClient = null;
+  }
+
+  /**
+   * Creates service compiling sources in a long-lived {@link CompileDaemon}, which keeps compiler
+   * warm between builds. Daemon is started on first compilation if it's not running yet. If
+   * daemon cannot be reached, sources are compiled in the current process.
+   *
+   * @param daemonSocket Path to a Unix domain socket daemon listens on
+   */
+  public CompileService(final Path daemonSocket) {
+    this.daemonClient = new CompileDaemonClient(daemonSocket);
+  }
+
   /**
    * Performs compilation with specified arguments.
+   * <p>
+   * Diagnostics are collected and logged together once compilation finishes, along with its wall
+   * time, so output of compilations run concurrently by
+   * {@link com.github.build.schedule.BuildScheduler} is not interleaved.
    *
    * @param args Compilation arguments (sources, classes directory, etc.)
    * @return True if compilation succeeds, false otherwise
@@ -35,24 +67,98 @@ public final class CompileService {
     Objects.requireNonNull(args);
     log.debug("Compiling {} files: {}", args.sources().size(), args.sources());
 
-    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-    final DiagnosticListener<JavaFileObject> diagnosticListener = diagnostic -> {
-      final Level level = switch (diagnostic.getKind()) {
-        case ERROR -> Level.ERROR;
-        case WARNING, MANDATORY_WARNING -> Level.WARN;
-        case NOTE -> Level.INFO;
-        case OTHER -> Level.DEBUG;
-      };
-      log.atLevel(level).log("{}", diagnostic);
-    };
+    final CompileResult result = execute(args);
+    logResult(result);
+    return result.succeeded();
+  }
 
-    final var fileManager = compiler.getStandardFileManager(
-        diagnosticListener,
-        Locale.US,
-        StandardCharsets.UTF_8
+  private static void logResult(final CompileResult result) {
+    final Path classesDir = result.args().classesDir();
+    for (final CompileResult.Message message : result.diagnostics()) {
+      log.atLevel(level(message.kind())).log("[classes={}] {}", classesDir, message.text());
+    }
+
+    final long millis = result.duration().toMillis();
+    if (result.succeeded()) {
+      log.info("[classes={}] Compilation succeeded in {} ms", classesDir, millis);
+    } else {
+      log.error("[classes={}] Compilation failed in {} ms", classesDir, millis);
+    }
+  }
+
+  /**
+   * Compiles sources in daemon if available, otherwise in the current process, collecting
+   * diagnostics instead of logging them.
+   */
+  private CompileResult execute(final CompileArgs args) {
+    final long start = System.nanoTime();
+    final List<CompileResult.Message> diagnostics = new ArrayList<>();
+    final Boolean daemonResult = daemonClient == null
+        ? null
+        : daemonClient.compile(args, diagnostics::add);
+
+    final boolean succeeded;
+    if (daemonResult != null) {
+      succeeded = daemonResult;
+    } else {
+      if (daemonClient != null) {
+        log.warn("Compile daemon is not available, compiling in current process");
+        diagnostics.clear();
+      }
+
+      final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      final DiagnosticListener<JavaFileObject> diagnosticListener = diagnostic -> diagnostics.add(
+          new CompileResult.Message(diagnostic.getKind(), diagnostic.toString())
+      );
+
+      final var standardFileManager = compiler.getStandardFileManager(
+          diagnosticListener,
+          Locale.US,
+          StandardCharsets.UTF_8
+      );
+      try (final var fileManager = new IndexedFileManager(
+          standardFileManager,
+          ClasspathIndex.shared()
+      )) {
+        succeeded = run(
+            compiler,
+            fileManager,
+            diagnosticListener,
+            new MessageWriter(diagnostics::add),
+            args.sources(),
+            args.classesDir(),
+            args.classpath(),
+            args.options().toList()
+        );
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    return new CompileResult(
+        args,
+        succeeded,
+        Duration.ofNanos(System.nanoTime() - start),
+        diagnostics
     );
+  }
 
-    final var classPathFiles = args.classpath()
+  /**
+   * Runs compiler with specified file manager, which may be reused between compilations.
+   *
+   * @return True if compilation succeeds, false otherwise
+   */
+  static boolean run(
+      final JavaCompiler compiler,
+      final StandardJavaFileManager fileManager,
+      final DiagnosticListener<JavaFileObject> diagnosticListener,
+      final Writer out,
+      final Collection<Path> sources,
+      final Path classesDir,
+      final Collection<Path> classpath,
+      final List<String> options
+  ) {
+    final var classPathFiles = classpath
         .stream()
         .map(Path::toFile)
         .toList();
@@ -63,45 +169,55 @@ public final class CompileService {
     }
 
     try {
-      Files.createDirectories(args.classesDir());
+      Files.createDirectories(classesDir);
       fileManager.setLocation(
           StandardLocation.CLASS_OUTPUT,
-          List.of(args.classesDir().toFile())
+          List.of(classesDir.toFile())
       );
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     }
 
-    final var compUnits = fileManager.getJavaFileObjectsFromPaths(args.sources());
-    final List<String> compilerOptions = args.options().toList();
+    final var compUnits = fileManager.getJavaFileObjectsFromPaths(sources);
     final var task = compiler.getTask(
-        new LogWriter(),
+        out,
         fileManager,
         diagnosticListener,
-        compilerOptions,
+        options,
         null,
         compUnits
     );
     task.setLocale(Locale.US);
-    final boolean result = task.call();
-    if (result) {
-      log.info("Compilation succeeded");
-    } else {
-      log.error("Compilation failed");
-    }
+    return task.call();
+  }
 
-    return result;
+  private static Level level(final Diagnostic.Kind kind) {
+    return switch (kind) {
+      case ERROR -> Level.ERROR;
+      case WARNING, MANDATORY_WARNING -> Level.WARN;
+      case NOTE -> Level.INFO;
+      case OTHER -> Level.DEBUG;
+    };
   }
 
   /**
-   * Writes compiler output to {@link Logger}.
+   * Reports raw compiler output as {@link Diagnostic.Kind#OTHER} messages.
    */
-  private static final class LogWriter extends Writer {
+  static final class MessageWriter extends Writer {
+
+    private final Consumer<CompileResult.Message> consumer;
+
+    MessageWriter(final Consumer<CompileResult.Message> consumer) {
+      this.consumer = consumer;
+    }
 
     @Override
     public void write(final char[] cbuf, final int off, final int len) {
-      final var compilerMessage = new String(cbuf);
-      log.debug("[compiler] {}", compilerMessage);
+      final var compilerMessage = new String(cbuf, off, len);
+      consumer.accept(new CompileResult.Message(
+          Diagnostic.Kind.OTHER,
+          "[compiler] " + compilerMessage
+      ));
     }
 
     @Override
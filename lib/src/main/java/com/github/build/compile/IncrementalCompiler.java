@@ -0,0 +1,609 @@
+package com.github.build.compile;
+
+import com.github.build.util.FileUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles only sources changed since the previous compilation, plus sources depending on
+ * classes whose API changed as a result.
+ * <p>
+ * Compilation state is persisted between runs in a state file and consists of:
+ * <ul>
+ *   <li>hash of compiler options and classpath, any change of which causes full recompilation;</li>
+ *   <li>content hash of every source and names of classes compiled from it;</li>
+ *   <li>API hash (see {@link ClassFile#abiHash(boolean)}) of every class along with classes it
+ *   references and its direct supertypes.</li>
+ * </ul>
+ * API change of a class is treated as API change of all its subclasses and implementations, since
+ * their inherited members change as well, while their dependents do not reference the supertype.
+ * Class files of changed and removed sources are deleted before recompilation. Changing a
+ * compile-time constant causes full recompilation, since using classes do not reference the
+ * declaring class. If state is missing or cannot be read, all sources are compiled from scratch
+ * into an emptied classes directory.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class IncrementalCompiler {
+
+  private static final Logger log = LoggerFactory.getLogger(IncrementalCompiler.class);
+
+  private static final int STATE_FORMAT_VERSION = 2;
+
+  private static final String CLASS_FILE_EXTENSION = ".class";
+
+  private final CompileService compileService;
+
+  public IncrementalCompiler(final CompileService compileService) {
+    this.compileService = Objects.requireNonNull(compileService);
+  }
+
+  /**
+   * Performs incremental compilation.
+   *
+   * @param args      Compilation arguments, classes directory is assumed to be exclusively owned by
+   *                  this compiler
+   * @param stateFile Path to a file for storing compilation state
+   * @return True if compilation succeeds, false otherwise
+   */
+  public boolean compile(final CompileArgs args, final Path stateFile) {
+    Objects.requireNonNull(args);
+    Objects.requireNonNull(stateFile);
+
+    final String configurationHash = configurationHash(args);
+    final Map<Path, String> sourceHashes = new HashMap<>();
+    for (final Path source : args.sources()) {
+      sourceHashes.put(source, hashFile(source));
+    }
+
+    final State previous = State.read(stateFile);
+    if (previous == null) {
+      log.info("No previous compilation state found, compiling all sources");
+      return compileAll(args, stateFile, configurationHash, sourceHashes);
+    }
+
+    if (!previous.configurationHash().equals(configurationHash)) {
+      log.info("Compiler options or classpath changed, compiling all sources");
+      return compileAll(args, stateFile, configurationHash, sourceHashes);
+    }
+
+    final var sources = new HashMap<>(previous.sources());
+    final var classes = new HashMap<>(previous.classes());
+    final Set<Path> toCompile = new HashSet<>();
+    final Set<String> staleClasses = new HashSet<>();
+    for (final Map.Entry<Path, String> entry : sourceHashes.entrySet()) {
+      final SourceState sourceState = sources.get(entry.getKey());
+      if (sourceState == null) {
+        toCompile.add(entry.getKey());
+      } else if (!sourceState.hash().equals(entry.getValue())) {
+        toCompile.add(entry.getKey());
+        staleClasses.addAll(sourceState.classes());
+      }
+    }
+
+    final var removed = new HashSet<>(sources.keySet());
+    removed.removeAll(sourceHashes.keySet());
+    for (final Path source : removed) {
+      staleClasses.addAll(sources.remove(source).classes());
+    }
+
+    if (toCompile.isEmpty() && staleClasses.isEmpty()) {
+      log.info("Sources not changed, nothing to compile");
+      return true;
+    }
+
+    log.info("{} sources added or changed, {} sources removed", toCompile.size(), removed.size());
+    final Set<Path> compiled = new HashSet<>();
+    while (true) {
+      final var previousClasses = new HashMap<String, ClassState>();
+      for (final String className : staleClasses) {
+        deleteClassFile(args.classesDir(), className);
+        final ClassState classState = classes.remove(className);
+        if (classState != null) {
+          previousClasses.put(className, classState);
+        }
+      }
+
+      if (!toCompile.isEmpty()) {
+        final var classpath = new HashSet<>(args.classpath());
+        classpath.add(args.classesDir());
+        final var partialArgs = new CompileArgs(
+            toCompile,
+            args.classesDir(),
+            classpath,
+            args.options()
+        );
+        if (!compileService.compile(partialArgs)) {
+          FileUtils.delete(stateFile);
+          return false;
+        }
+
+        compiled.addAll(toCompile);
+        final Map<Path, List<String>> sourceClasses = collectNewClasses(
+            args.classesDir(),
+            toCompile,
+            classes
+        );
+        if (sourceClasses == null) {
+          log.warn("Failed to map class files to sources, compiling all sources");
+          return compileAll(args, stateFile, configurationHash, sourceHashes);
+        }
+
+        for (final Path source : toCompile) {
+          final var sourceState = new SourceState(
+              sourceHashes.get(source),
+              sourceClasses.getOrDefault(source, List.of())
+          );
+          sources.put(source, sourceState);
+        }
+      }
+
+      final Set<String> changedApi = new HashSet<>();
+      for (final Map.Entry<String, ClassState> entry : previousClasses.entrySet()) {
+        final ClassState current = classes.get(entry.getKey());
+        final ClassState old = entry.getValue();
+        final String currentConstantsHash = current == null ? "" : current.constantsHash();
+        if (!old.constantsHash().equals(currentConstantsHash)) {
+          log.info("Compile-time constants of {} changed, compiling all sources", entry.getKey());
+          return compileAll(args, stateFile, configurationHash, sourceHashes);
+        }
+
+        if (current == null || !current.abiHash().equals(old.abiHash())) {
+          changedApi.add(entry.getKey());
+        }
+      }
+
+      addSubtypes(changedApi, classes);
+      toCompile.clear();
+      staleClasses.clear();
+      if (changedApi.isEmpty()) {
+        break;
+      }
+
+      for (final Map.Entry<Path, SourceState> entry : sources.entrySet()) {
+        if (compiled.contains(entry.getKey())) {
+          continue;
+        }
+
+        final boolean dependsOnChangedApi = entry
+            .getValue()
+            .classes()
+            .stream()
+            .map(classes::get)
+            .filter(Objects::nonNull)
+            .anyMatch(classState -> classState
+                .referencedClasses()
+                .stream()
+                .anyMatch(changedApi::contains)
+            );
+        if (dependsOnChangedApi) {
+          toCompile.add(entry.getKey());
+          staleClasses.addAll(entry.getValue().classes());
+        }
+      }
+
+      if (toCompile.isEmpty()) {
+        break;
+      }
+
+      log.info("API of {} classes changed, recompiling {} dependent sources",
+          changedApi.size(),
+          toCompile.size()
+      );
+    }
+
+    new State(configurationHash, sources, classes).write(stateFile);
+    log.info("Compiled {} of {} sources incrementally", compiled.size(), sourceHashes.size());
+    return true;
+  }
+
+  /**
+   * Removes compilation output along with compilation state.
+   *
+   * @param classesDir Classes directory
+   * @param stateFile  Path to a file storing compilation state
+   */
+  public void clean(final Path classesDir, final Path stateFile) {
+    Objects.requireNonNull(classesDir);
+    Objects.requireNonNull(stateFile);
+    if (Files.notExists(stateFile)) {
+      return;
+    }
+
+    FileUtils.delete(classesDir);
+    FileUtils.delete(stateFile);
+  }
+
+  private boolean compileAll(
+      final CompileArgs args,
+      final Path stateFile,
+      final String configurationHash,
+      final Map<Path, String> sourceHashes
+  ) {
+    FileUtils.delete(stateFile);
+    FileUtils.delete(args.classesDir());
+    if (!compileService.compile(args)) {
+      return false;
+    }
+
+    final var classes = new HashMap<String, ClassState>();
+    final Map<Path, List<String>> sourceClasses = collectNewClasses(
+        args.classesDir(),
+        args.sources(),
+        classes
+    );
+    if (sourceClasses == null) {
+      log.warn("Failed to map class files to sources, incremental compilation disabled");
+      return true;
+    }
+
+    final var sources = new HashMap<Path, SourceState>();
+    for (final Path source : args.sources()) {
+      final var sourceState = new SourceState(
+          sourceHashes.get(source),
+          sourceClasses.getOrDefault(source, List.of())
+      );
+      sources.put(source, sourceState);
+    }
+
+    new State(configurationHash, sources, classes).write(stateFile);
+    return true;
+  }
+
+  /**
+   * Parses class files not yet present in {@code classes}, adds them to {@code classes} and maps
+   * them to sources they are compiled from.
+   *
+   * @return Mapping from source to class names, or null if some class cannot be mapped to a source
+   */
+  private static @Nullable Map<Path, List<String>> collectNewClasses(
+      final Path classesDir,
+      final Set<Path> sources,
+      final Map<String, ClassState> classes
+  ) {
+    final Map<Path, List<String>> result = new HashMap<>();
+    for (final Path classFilePath : listClassFiles(classesDir)) {
+      final String relativePath = classesDir.relativize(classFilePath).toString();
+      final String className = relativePath
+          .substring(0, relativePath.length() - CLASS_FILE_EXTENSION.length())
+          .replace(classFilePath.getFileSystem().getSeparator(), "/");
+      if (classes.containsKey(className)) {
+        continue;
+      }
+
+      final ClassFile classFile;
+      try {
+        classFile = ClassFile.parse(Files.readAllBytes(classFilePath));
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+
+      final Path source = findSource(classFile, sources);
+      if (source == null) {
+        log.debug("Cannot find source of class {}", className);
+        return null;
+      }
+
+      final boolean hasConstants = classFile
+          .fields()
+          .stream()
+          .anyMatch(field -> field.constantValue() != null);
+      final var supertypes = new ArrayList<String>(classFile.interfaces());
+      if (classFile.superName() != null) {
+        supertypes.add(classFile.superName());
+      }
+
+      final var classState = new ClassState(
+          classFile.abiHash(true),
+          hasConstants ? classFile.constantsHash() : "",
+          classFile.referencedClasses(),
+          supertypes
+      );
+      classes.put(className, classState);
+      result.computeIfAbsent(source, ignored -> new ArrayList<>()).add(className);
+    }
+
+    return result;
+  }
+
+  /**
+   * Adds subclasses and implementations of classes with changed API, transitively.
+   *
+   * @param changedApi Names of classes with changed API
+   * @param classes    Current state of compiled classes
+   */
+  private static void addSubtypes(
+      final Set<String> changedApi,
+      final Map<String, ClassState> classes
+  ) {
+    boolean added;
+    do {
+      added = false;
+      for (final Map.Entry<String, ClassState> entry : classes.entrySet()) {
+        if (!changedApi.contains(entry.getKey())
+            && entry.getValue().supertypes().stream().anyMatch(changedApi::contains)) {
+          changedApi.add(entry.getKey());
+          added = true;
+        }
+      }
+    } while (added);
+  }
+
+  private static @Nullable Path findSource(final ClassFile classFile, final Set<Path> sources) {
+    final String sourceFile = classFile.sourceFile();
+    if (sourceFile == null) {
+      return null;
+    }
+
+    final String packageName = classFile.packageName();
+    final String relativePath = packageName.isEmpty()
+        ? sourceFile
+        : packageName + '/' + sourceFile;
+    for (final Path source : sources) {
+      if (source.endsWith(relativePath)) {
+        return source;
+      }
+    }
+
+    return null;
+  }
+
+  private static List<Path> listClassFiles(final Path classesDir) {
+    if (Files.notExists(classesDir)) {
+      return List.of();
+    }
+
+    try (final Stream<Path> stream = Files.walk(classesDir)) {
+      return stream
+          .filter(path -> path.getFileName().toString().endsWith(CLASS_FILE_EXTENSION))
+          .filter(Files::isRegularFile)
+          .toList();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void deleteClassFile(final Path classesDir, final String className) {
+    final Path classFile = classesDir.resolve(className + CLASS_FILE_EXTENSION);
+    try {
+      Files.deleteIfExists(classFile);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Computes hash of everything affecting compilation besides sources: compiler options and
+   * classpath entries. Classpath entries are fingerprinted by size and modification time of their
+   * files rather than content, which is enough to detect rebuilt JARs and class directories.
+   */
+  private static String configurationHash(final CompileArgs args) {
+    final MessageDigest digest = sha256();
+    for (final String option : args.options().toList()) {
+      update(digest, option);
+    }
+
+    final List<Path> classpath = args.classpath()
+        .stream()
+        .sorted()
+        .toList();
+    for (final Path entry : classpath) {
+      update(digest, entry.toString());
+      if (Files.notExists(entry)) {
+        update(digest, "missing");
+        continue;
+      }
+
+      final List<Path> files;
+      if (Files.isDirectory(entry)) {
+        files = FileUtils.listAll(entry, Comparator.naturalOrder());
+      } else {
+        files = List.of(entry);
+      }
+
+      for (final Path file : files) {
+        final BasicFileAttributes attributes;
+        try {
+          attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (final IOException e) {
+          throw new UncheckedIOException(e);
+        }
+
+        if (attributes.isRegularFile()) {
+          update(digest, entry.relativize(file).toString());
+          update(digest, Long.toString(attributes.size()));
+          update(digest, Long.toString(attributes.lastModifiedTime().toMillis()));
+        }
+      }
+    }
+
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static String hashFile(final Path file) {
+    final MessageDigest digest = sha256();
+    try {
+      digest.update(Files.readAllBytes(file));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static void update(final MessageDigest digest, final String value) {
+    digest.update(value.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @param hash    Source content hash
+   * @param classes Names of classes compiled from source
+   */
+  private record SourceState(String hash, List<String> classes) {
+
+    private SourceState {
+      Objects.requireNonNull(hash);
+      classes = List.copyOf(classes);
+    }
+  }
+
+  /**
+   * @param abiHash           Class API hash
+   * @param constantsHash     Hash of compile-time constants, empty if class declares none
+   * @param referencedClasses Classes referenced by class
+   * @param supertypes        Direct superclass and implemented interfaces
+   */
+  private record ClassState(
+      String abiHash,
+      String constantsHash,
+      Set<String> referencedClasses,
+      List<String> supertypes
+  ) {
+
+    private ClassState {
+      Objects.requireNonNull(abiHash);
+      Objects.requireNonNull(constantsHash);
+      referencedClasses = Set.copyOf(referencedClasses);
+      supertypes = List.copyOf(supertypes);
+    }
+  }
+
+  private record State(
+      String configurationHash,
+      Map<Path, SourceState> sources,
+      Map<String, ClassState> classes
+  ) {
+
+    private static @Nullable State read(final Path file) {
+      if (Files.notExists(file)) {
+        return null;
+      }
+
+      try (final var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+        if (in.readInt() != STATE_FORMAT_VERSION) {
+          log.debug("Compilation state {} has unsupported format", file);
+          return null;
+        }
+
+        final String configurationHash = in.readUTF();
+        final int sourceCount = in.readInt();
+        final var sources = new HashMap<Path, SourceState>(sourceCount);
+        for (int i = 0; i < sourceCount; i++) {
+          final Path source = Path.of(in.readUTF());
+          final String hash = in.readUTF();
+          sources.put(source, new SourceState(hash, readStrings(in)));
+        }
+
+        final int classCount = in.readInt();
+        final var classes = new HashMap<String, ClassState>(classCount);
+        for (int i = 0; i < classCount; i++) {
+          final String className = in.readUTF();
+          final String abiHash = in.readUTF();
+          final String constantsHash = in.readUTF();
+          final var referencedClasses = Set.copyOf(readStrings(in));
+          final List<String> supertypes = readStrings(in);
+          classes.put(
+              className,
+              new ClassState(abiHash, constantsHash, referencedClasses, supertypes)
+          );
+        }
+
+        return new State(configurationHash, sources, classes);
+      } catch (final IOException e) {
+        log.warn("Failed to read compilation state {}", file, e);
+        return null;
+      }
+    }
+
+    private static List<String> readStrings(final DataInputStream in) throws IOException {
+      final int count = in.readInt();
+      final var result = new ArrayList<String>(count);
+      for (int i = 0; i < count; i++) {
+        result.add(in.readUTF());
+      }
+
+      return result;
+    }
+
+    /**
+     * Writes state to a temporary file first, so that interrupted write never leaves corrupted
+     * state behind.
+     */
+    private void write(final Path file) {
+      final Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+      try {
+        Files.createDirectories(file.getParent());
+        try (final var out = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(tempFile))
+        )) {
+          out.writeInt(STATE_FORMAT_VERSION);
+          out.writeUTF(configurationHash);
+          out.writeInt(sources.size());
+          for (final Map.Entry<Path, SourceState> entry : sources.entrySet()) {
+            out.writeUTF(entry.getKey().toString());
+            out.writeUTF(entry.getValue().hash());
+            writeStrings(out, entry.getValue().classes());
+          }
+
+          out.writeInt(classes.size());
+          for (final Map.Entry<String, ClassState> entry : classes.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(entry.getValue().abiHash());
+            out.writeUTF(entry.getValue().constantsHash());
+            writeStrings(out, entry.getValue().referencedClasses());
+            writeStrings(out, entry.getValue().supertypes());
+          }
+        }
+
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private static void writeStrings(
+        final DataOutputStream out,
+        final Collection<String> values
+    ) throws IOException {
+      out.writeInt(values.size());
+      for (final String value : values) {
+        out.writeUTF(value);
+      }
+    }
+  }
+}
@@ -0,0 +1,519 @@
+package com.github.build.compile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * File manager serving class path lookups from {@link ClasspathIndex}, so that classpath JARs are
+ * not reopened and rescanned by every compilation.
+ * <p>
+ * Only class and source files on {@link StandardLocation#CLASS_PATH class path} are served from
+ * index; everything else is delegated to the standard file manager.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+final class IndexedFileManager
+    extends ForwardingJavaFileManager<StandardJavaFileManager>
+    implements StandardJavaFileManager {
+
+  private static final String MULTI_RELEASE_OPTION = "--multi-release";
+
+  private static final Set<JavaFileObject.Kind> INDEXED_KINDS = EnumSet.of(
+      JavaFileObject.Kind.CLASS,
+      JavaFileObject.Kind.SOURCE
+  );
+
+  private final ClasspathIndex index;
+
+  /**
+   * Release used to select multi-release JAR entries, set by compiler.
+   */
+  private int release;
+
+  @Nullable
+  private List<Container> classpath;
+
+  IndexedFileManager(final StandardJavaFileManager fileManager, final ClasspathIndex index) {
+    super(fileManager);
+    this.index = index;
+  }
+
+  @Override
+  public Iterable<JavaFileObject> list(
+      final Location location,
+      final String packageName,
+      final Set<JavaFileObject.Kind> kinds,
+      final boolean recurse
+  ) throws IOException {
+    if (location != StandardLocation.CLASS_PATH || !INDEXED_KINDS.containsAll(kinds)) {
+      return super.list(location, packageName, kinds, recurse);
+    }
+
+    final List<JavaFileObject> result = new ArrayList<>();
+    for (final Container container : classpath()) {
+      container.list(packageName, kinds, recurse, release, result);
+    }
+
+    return result;
+  }
+
+  @Override
+  public String inferBinaryName(final Location location, final JavaFileObject file) {
+    if (file instanceof ClasspathFileObject classpathFile) {
+      return classpathFile.binaryName;
+    }
+
+    return super.inferBinaryName(location, file);
+  }
+
+  @Override
+  @Nullable
+  public JavaFileObject getJavaFileForInput(
+      final Location location,
+      final String className,
+      final JavaFileObject.Kind kind
+  ) throws IOException {
+    if (location != StandardLocation.CLASS_PATH || !INDEXED_KINDS.contains(kind)) {
+      return super.getJavaFileForInput(location, className, kind);
+    }
+
+    for (final Container container : classpath()) {
+      final JavaFileObject file = container.find(className, kind, release);
+      if (file != null) {
+        return file;
+      }
+    }
+
+    return null;
+  }
+
+  @Override
+  public boolean isSameFile(final FileObject a, final FileObject b) {
+    if (a instanceof ClasspathFileObject || b instanceof ClasspathFileObject) {
+      return a.equals(b);
+    }
+
+    return super.isSameFile(a, b);
+  }
+
+  @Override
+  public boolean contains(final Location location, final FileObject file) throws IOException {
+    if (file instanceof ClasspathFileObject) {
+      return location == StandardLocation.CLASS_PATH;
+    }
+
+    return super.contains(location, file);
+  }
+
+  @Override
+  public boolean handleOption(final String current, final Iterator<String> remaining) {
+    if (!current.equals(MULTI_RELEASE_OPTION) || !remaining.hasNext()) {
+      return super.handleOption(current, remaining);
+    }
+
+    final String value = remaining.next();
+    try {
+      release = Integer.parseInt(value);
+    } catch (final NumberFormatException e) {
+      release = 0;
+    }
+
+    return super.handleOption(current, List.of(value).iterator());
+  }
+
+  @Override
+  public Iterable<? extends JavaFileObject> getJavaFileObjectsFromFiles(
+      final Iterable<? extends File> files
+  ) {
+    return fileManager.getJavaFileObjectsFromFiles(files);
+  }
+
+  @Override
+  public Iterable<? extends JavaFileObject> getJavaFileObjectsFromPaths(
+      final Collection<? extends Path> paths
+  ) {
+    return fileManager.getJavaFileObjectsFromPaths(paths);
+  }
+
+  @Override
+  public Iterable<? extends JavaFileObject> getJavaFileObjects(final File... files) {
+    return fileManager.getJavaFileObjects(files);
+  }
+
+  @Override
+  public Iterable<? extends JavaFileObject> getJavaFileObjects(final Path... paths) {
+    return fileManager.getJavaFileObjects(paths);
+  }
+
+  @Override
+  public Iterable<? extends JavaFileObject> getJavaFileObjectsFromStrings(
+      final Iterable<String> names
+  ) {
+    return fileManager.getJavaFileObjectsFromStrings(names);
+  }
+
+  @Override
+  public Iterable<? extends JavaFileObject> getJavaFileObjects(final String... names) {
+    return fileManager.getJavaFileObjects(names);
+  }
+
+  @Override
+  public void setLocation(
+      final Location location,
+      final Iterable<? extends File> files
+  ) throws IOException {
+    fileManager.setLocation(location, files);
+    if (location == StandardLocation.CLASS_PATH) {
+      classpath = null;
+    }
+  }
+
+  @Override
+  public void setLocationFromPaths(
+      final Location location,
+      final Collection<? extends Path> paths
+  ) throws IOException {
+    fileManager.setLocationFromPaths(location, paths);
+    if (location == StandardLocation.CLASS_PATH) {
+      classpath = null;
+    }
+  }
+
+  @Override
+  public void setLocationForModule(
+      final Location location,
+      final String moduleName,
+      final Collection<? extends Path> paths
+  ) throws IOException {
+    fileManager.setLocationForModule(location, moduleName, paths);
+  }
+
+  @Override
+  @Nullable
+  public Iterable<? extends File> getLocation(final Location location) {
+    return fileManager.getLocation(location);
+  }
+
+  @Override
+  @Nullable
+  public Iterable<? extends Path> getLocationAsPaths(final Location location) {
+    return fileManager.getLocationAsPaths(location);
+  }
+
+  @Override
+  public Path asPath(final FileObject file) {
+    if (file instanceof ClasspathFileObject classpathFile) {
+      if (classpathFile.path == null) {
+        throw new IllegalArgumentException(file + " is not a file");
+      }
+
+      return classpathFile.path;
+    }
+
+    return fileManager.asPath(file);
+  }
+
+  @Override
+  public void setPathFactory(final PathFactory factory) {
+    fileManager.setPathFactory(factory);
+  }
+
+  /**
+   * Resolves class path entries once per {@link #setLocation} call, so that JARs are looked up in
+   * index once per compilation rather than once per listed package.
+   *
+   * @throws IOException if some class path JAR cannot be read, so that compiler reports it instead
+   *                     of compiling against incomplete class path
+   */
+  private List<Container> classpath() throws IOException {
+    if (classpath != null) {
+      return classpath;
+    }
+
+    final Iterable<? extends Path> paths = fileManager.getLocationAsPaths(
+        StandardLocation.CLASS_PATH
+    );
+    final List<Container> result = new ArrayList<>();
+    if (paths != null) {
+      for (final Path path : paths) {
+        if (Files.isDirectory(path)) {
+          result.add(new DirectoryContainer(path));
+          continue;
+        }
+
+        final JarIndex jarIndex = index.get(path);
+        if (jarIndex != null) {
+          result.add(new JarContainer(jarIndex));
+        }
+      }
+    }
+
+    classpath = List.copyOf(result);
+    return classpath;
+  }
+
+  private static JavaFileObject.@Nullable Kind kind(final String fileName) {
+    for (final JavaFileObject.Kind kind : INDEXED_KINDS) {
+      if (fileName.endsWith(kind.extension)) {
+        return kind;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Class path entry.
+   */
+  private sealed interface Container permits JarContainer, DirectoryContainer {
+
+    void list(
+        String packageName,
+        Set<JavaFileObject.Kind> kinds,
+        boolean recurse,
+        int release,
+        List<JavaFileObject> result
+    ) throws IOException;
+
+    @Nullable
+    JavaFileObject find(String binaryName, JavaFileObject.Kind kind, int release)
+        throws IOException;
+  }
+
+  private record JarContainer(JarIndex index) implements Container {
+
+    @Override
+    public void list(
+        final String packageName,
+        final Set<JavaFileObject.Kind> kinds,
+        final boolean recurse,
+        final int release,
+        final List<JavaFileObject> result
+    ) {
+      final List<String> packageNames = new ArrayList<>();
+      if (recurse) {
+        final String prefix = packageName + '.';
+        for (final String name : index.packageNames()) {
+          if (packageName.isEmpty() || name.equals(packageName) || name.startsWith(prefix)) {
+            packageNames.add(name);
+          }
+        }
+      } else {
+        packageNames.add(packageName);
+      }
+
+      for (final String name : packageNames) {
+        for (final JarIndex.Entry entry : index.list(name, release)) {
+          if (kinds.contains(entry.kind())) {
+            result.add(fileObject(entry));
+          }
+        }
+      }
+    }
+
+    @Override
+    @Nullable
+    public JavaFileObject find(
+        final String binaryName,
+        final JavaFileObject.Kind kind,
+        final int release
+    ) {
+      final JarIndex.@Nullable Entry entry = index.find(
+          binaryName.replace('.', '/') + kind.extension,
+          release
+      );
+      return entry == null ? null : fileObject(entry);
+    }
+
+    private ClasspathFileObject fileObject(final JarIndex.Entry entry) {
+      final URI uri = URI.create("jar:" + index.path().toUri() + "!/" + entry.name());
+      return new ClasspathFileObject(
+          uri,
+          entry.kind(),
+          entry.binaryName(),
+          index.path() + "(" + entry.name() + ")",
+          null,
+          index.lastModified(),
+          () -> index.read(entry)
+      );
+    }
+  }
+
+  private record DirectoryContainer(Path directory) implements Container {
+
+    @Override
+    public void list(
+        final String packageName,
+        final Set<JavaFileObject.Kind> kinds,
+        final boolean recurse,
+        final int release,
+        final List<JavaFileObject> result
+    ) throws IOException {
+      final Path packageDir = resolve(packageName);
+      if (!Files.isDirectory(packageDir)) {
+        return;
+      }
+
+      try (final Stream<Path> files = recurse ? Files.walk(packageDir) : Files.list(packageDir)) {
+        final Iterator<Path> iterator = files.iterator();
+        while (iterator.hasNext()) {
+          final Path file = iterator.next();
+          final JavaFileObject.Kind kind = kind(file.getFileName().toString());
+          if (kind != null && kinds.contains(kind) && Files.isRegularFile(file)) {
+            result.add(fileObject(file, kind));
+          }
+        }
+      }
+    }
+
+    @Override
+    @Nullable
+    public JavaFileObject find(
+        final String binaryName,
+        final JavaFileObject.Kind kind,
+        final int release
+    ) throws IOException {
+      final int lastDot = binaryName.lastIndexOf('.');
+      final String packageName = lastDot < 0 ? "" : binaryName.substring(0, lastDot);
+      final Path file = resolve(packageName).resolve(
+          binaryName.substring(lastDot + 1) + kind.extension
+      );
+      return Files.isRegularFile(file) ? fileObject(file, kind) : null;
+    }
+
+    private Path resolve(final String packageName) {
+      Path result = directory;
+      if (!packageName.isEmpty()) {
+        for (final String part : packageName.split("\\.")) {
+          result = result.resolve(part);
+        }
+      }
+
+      return result;
+    }
+
+    private ClasspathFileObject fileObject(
+        final Path file,
+        final JavaFileObject.Kind kind
+    ) throws IOException {
+      final String relativePath = directory.relativize(file).toString();
+      final String binaryName = relativePath
+          .substring(0, relativePath.length() - kind.extension.length())
+          .replace(file.getFileSystem().getSeparator(), ".");
+      return new ClasspathFileObject(
+          file.toUri(),
+          kind,
+          binaryName,
+          file.toString(),
+          file,
+          Files.getLastModifiedTime(file).toMillis(),
+          () -> Files.readAllBytes(file)
+      );
+    }
+  }
+
+  /**
+   * Reads file content.
+   */
+  @FunctionalInterface
+  private interface ContentReader {
+
+    byte[] read() throws IOException;
+  }
+
+  /**
+   * Class or source file on class path.
+   */
+  private static final class ClasspathFileObject extends SimpleJavaFileObject {
+
+    private final String binaryName;
+
+    private final String name;
+
+    @Nullable
+    private final Path path;
+
+    private final long lastModified;
+
+    private final ContentReader reader;
+
+    private ClasspathFileObject(
+        final URI uri,
+        final Kind kind,
+        final String binaryName,
+        final String name,
+        @Nullable final Path path,
+        final long lastModified,
+        final ContentReader reader
+    ) {
+      super(uri, kind);
+      this.binaryName = binaryName;
+      this.name = name;
+      this.path = path;
+      this.lastModified = lastModified;
+      this.reader = reader;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public boolean isNameCompatible(final String simpleName, final Kind kind) {
+      final String simpleBinaryName = binaryName.substring(binaryName.lastIndexOf('.') + 1);
+      return this.kind == kind && simpleBinaryName.equals(simpleName);
+    }
+
+    @Override
+    public InputStream openInputStream() throws IOException {
+      return new ByteArrayInputStream(reader.read());
+    }
+
+    @Override
+    public CharSequence getCharContent(final boolean ignoreEncodingErrors) throws IOException {
+      return new String(reader.read(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public long getLastModified() {
+      return lastModified;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      return other instanceof ClasspathFileObject file && uri.equals(file.uri);
+    }
+
+    @Override
+    public int hashCode() {
+      return uri.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+}
@@ -0,0 +1,490 @@
+package com.github.build.compile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.tools.JavaFileObject;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Index of class and source files in a JAR, grouped by package and keyed by entry name, so both
+ * listing a package and looking up a single file are direct lookups.
+ * <p>
+ * Index is built from JAR central directory, which is read through a memory-mapped buffer, so
+ * that entries are never decompressed or copied into heap until they are actually read. For
+ * multi-release JARs, versioned entries are indexed as well.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+final class JarIndex {
+
+  private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+
+  private static final int ZIP64_END_OF_CENTRAL_DIRECTORY = 0x06064b50;
+
+  private static final int ZIP64_LOCATOR = 0x07064b50;
+
+  private static final int CENTRAL_DIRECTORY_HEADER = 0x02014b50;
+
+  private static final int LOCAL_FILE_HEADER = 0x04034b50;
+
+  private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+
+  private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+
+  private static final int LOCAL_FILE_HEADER_SIZE = 30;
+
+  private static final int ZIP64_EXTRA_FIELD = 0x0001;
+
+  private static final int STORED = 0;
+
+  private static final int DEFLATED = 8;
+
+  private static final String VERSIONS_PREFIX = "META-INF/versions/";
+
+  /**
+   * Rough size of a single entry in heap, including its lookup by name, excluding its name.
+   */
+  private static final long ENTRY_OVERHEAD_BYTES = 160;
+
+  private final Path path;
+
+  private final long lastModified;
+
+  private final boolean multiRelease;
+
+  private final Map<String, List<Entry>> packages;
+
+  /**
+   * Entries keyed by name, with all versions of multi-release entries.
+   */
+  private final Map<String, List<Entry>> entries;
+
+  private final long estimatedSize;
+
+  private JarIndex(
+      final Path path,
+      final long lastModified,
+      final boolean multiRelease,
+      final Map<String, List<Entry>> packages,
+      final long estimatedSize
+  ) {
+    this.path = path;
+    this.lastModified = lastModified;
+    this.multiRelease = multiRelease;
+    this.packages = packages;
+    this.entries = new HashMap<>();
+    for (final List<Entry> packageEntries : packages.values()) {
+      for (final Entry entry : packageEntries) {
+        entries.computeIfAbsent(entry.name(), ignored -> new ArrayList<>(1)).add(entry);
+      }
+    }
+
+    this.estimatedSize = estimatedSize;
+  }
+
+  /**
+   * Indexed JAR entry.
+   *
+   * @param name           Entry name without version prefix, e.g. {@code org/example/Main.class}
+   * @param kind           File kind
+   * @param version        Multi-release version, 0 for base entries
+   * @param method         Compression method
+   * @param compressedSize Compressed size in bytes
+   * @param size           Uncompressed size in bytes
+   * @param offset         Local file header offset
+   */
+  record Entry(
+      String name,
+      JavaFileObject.Kind kind,
+      int version,
+      int method,
+      long compressedSize,
+      long size,
+      long offset
+  ) {
+
+    /**
+     * Returns binary name of class or source file, e.g. {@code org.example.Main}.
+     */
+    String binaryName() {
+      return name
+          .substring(0, name.length() - kind.extension.length())
+          .replace('/', '.');
+    }
+  }
+
+  /**
+   * Reads JAR central directory.
+   *
+   * @param path         JAR path
+   * @param lastModified JAR last modification time, reported for its entries
+   * @throws IOException if JAR cannot be read or is malformed
+   */
+  static JarIndex read(final Path path, final long lastModified) throws IOException {
+    Objects.requireNonNull(path);
+    try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final ByteBuffer centralDirectory = mapCentralDirectory(channel);
+      final Map<String, List<Entry>> packages = new HashMap<>();
+      @Nullable Entry manifest = null;
+      long estimatedSize = 0;
+      int position = 0;
+      while (position < centralDirectory.limit()) {
+        if (centralDirectory.getInt(position) != CENTRAL_DIRECTORY_HEADER) {
+          throw new IOException("Malformed central directory of " + path);
+        }
+
+        final int method = centralDirectory.getShort(position + 10) & 0xFFFF;
+        long compressedSize = centralDirectory.getInt(position + 20) & 0xFFFFFFFFL;
+        long size = centralDirectory.getInt(position + 24) & 0xFFFFFFFFL;
+        final int nameLength = centralDirectory.getShort(position + 28) & 0xFFFF;
+        final int extraLength = centralDirectory.getShort(position + 30) & 0xFFFF;
+        final int commentLength = centralDirectory.getShort(position + 32) & 0xFFFF;
+        long offset = centralDirectory.getInt(position + 42) & 0xFFFFFFFFL;
+        final String name = string(
+            centralDirectory,
+            position + CENTRAL_DIRECTORY_HEADER_SIZE,
+            nameLength
+        );
+
+        if (size == 0xFFFFFFFFL || compressedSize == 0xFFFFFFFFL || offset == 0xFFFFFFFFL) {
+          // actual values are in ZIP64 extra field, in this order, only if they overflow
+          final int extraStart = position + CENTRAL_DIRECTORY_HEADER_SIZE + nameLength;
+          final long[] values = zip64Values(centralDirectory, extraStart, extraLength);
+          int i = 0;
+          if (size == 0xFFFFFFFFL) {
+            size = values[i++];
+          }
+          if (compressedSize == 0xFFFFFFFFL) {
+            compressedSize = values[i++];
+          }
+          if (offset == 0xFFFFFFFFL) {
+            offset = values[i];
+          }
+        }
+
+        position += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+
+        if (name.equals(JarFile.MANIFEST_NAME)) {
+          manifest = new Entry(
+              name,
+              JavaFileObject.Kind.OTHER,
+              0,
+              method,
+              compressedSize,
+              size,
+              offset
+          );
+          continue;
+        }
+
+        final JavaFileObject.Kind kind = kind(name);
+        if (kind == null) {
+          continue;
+        }
+
+        int version = 0;
+        String entryName = name;
+        if (name.startsWith(VERSIONS_PREFIX)) {
+          final int slash = name.indexOf('/', VERSIONS_PREFIX.length());
+          if (slash < 0) {
+            continue;
+          }
+
+          try {
+            version = Integer.parseInt(name.substring(VERSIONS_PREFIX.length(), slash));
+          } catch (final NumberFormatException e) {
+            continue;
+          }
+
+          entryName = name.substring(slash + 1);
+        }
+
+        final var entry = new Entry(entryName, kind, version, method, compressedSize, size, offset);
+        packages
+            .computeIfAbsent(packageName(entryName), ignored -> new ArrayList<>())
+            .add(entry);
+        estimatedSize += ENTRY_OVERHEAD_BYTES + 2L * entryName.length();
+      }
+
+      final boolean multiRelease = manifest != null && isMultiRelease(
+          read(channel, path, manifest)
+      );
+      if (!multiRelease) {
+        packages.values().forEach(entries -> entries.removeIf(entry -> entry.version() != 0));
+      }
+
+      return new JarIndex(path, lastModified, multiRelease, packages, estimatedSize);
+    }
+  }
+
+  Path path() {
+    return path;
+  }
+
+  long lastModified() {
+    return lastModified;
+  }
+
+  /**
+   * Returns rough size of this index in heap.
+   */
+  long estimatedSize() {
+    return estimatedSize;
+  }
+
+  /**
+   * Returns entries of specified package, resolving multi-release entries the same way
+   * {@link JarFile} does: for each file, entry with the highest version not exceeding specified
+   * release is taken.
+   *
+   * @param packageName Package name, e.g. {@code org.example}
+   * @param release     Target release, or 0 to ignore versioned entries
+   */
+  List<Entry> list(final String packageName, final int release) {
+    final List<Entry> entries = packages.getOrDefault(packageName, List.of());
+    if (!multiRelease) {
+      return entries;
+    }
+
+    final Map<String, Entry> result = new LinkedHashMap<>();
+    for (final Entry entry : entries) {
+      if (entry.version() > release) {
+        continue;
+      }
+
+      result.merge(entry.name(), entry, (a, b) -> a.version() >= b.version() ? a : b);
+    }
+
+    return List.copyOf(result.values());
+  }
+
+  /**
+   * Finds entry by name, resolving multi-release entries the same way {@link #list(String, int)}
+   * does.
+   *
+   * @param name    Entry name, e.g. {@code org/example/Main.class}
+   * @param release Target release, or 0 to ignore versioned entries
+   * @return Found entry, null if there is none
+   */
+  @Nullable
+  Entry find(final String name, final int release) {
+    final @Nullable List<Entry> versions = entries.get(name);
+    if (versions == null) {
+      return null;
+    }
+
+    @Nullable Entry result = null;
+    for (final Entry entry : versions) {
+      if (entry.version() <= release && (result == null || entry.version() > result.version())) {
+        result = entry;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns names of all indexed packages.
+   */
+  Iterable<String> packageNames() {
+    return packages.keySet();
+  }
+
+  /**
+   * Reads entry content.
+   *
+   * @throws IOException if JAR cannot be read or entry is malformed
+   */
+  byte[] read(final Entry entry) throws IOException {
+    try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return read(channel, path, entry);
+    }
+  }
+
+  private static byte[] read(
+      final FileChannel channel,
+      final Path path,
+      final Entry entry
+  ) throws IOException {
+    if (entry.size() > Integer.MAX_VALUE || entry.compressedSize() > Integer.MAX_VALUE) {
+      throw new IOException("Entry " + entry.name() + " of " + path + " is too large");
+    }
+
+    final ByteBuffer header = readFully(channel, entry.offset(), LOCAL_FILE_HEADER_SIZE);
+    if (header.getInt(0) != LOCAL_FILE_HEADER) {
+      throw new IOException("Malformed local header of " + entry.name() + " in " + path);
+    }
+
+    final int nameLength = header.getShort(26) & 0xFFFF;
+    final int extraLength = header.getShort(28) & 0xFFFF;
+    final long dataOffset = entry.offset() + LOCAL_FILE_HEADER_SIZE + nameLength + extraLength;
+    final ByteBuffer data = readFully(channel, dataOffset, (int) entry.compressedSize());
+    return switch (entry.method()) {
+      case STORED -> data.array();
+      case DEFLATED -> inflate(data.array(), (int) entry.size(), entry, path);
+      default -> throw new IOException(
+          "Unsupported compression method " + entry.method() + " of " + entry.name() + " in " + path
+      );
+    };
+  }
+
+  private static byte[] inflate(
+      final byte[] compressed,
+      final int size,
+      final Entry entry,
+      final Path path
+  ) throws IOException {
+    final var inflater = new Inflater(true);
+    try {
+      inflater.setInput(compressed);
+      final byte[] result = new byte[size];
+      int length = 0;
+      while (length < size) {
+        final int inflated = inflater.inflate(result, length, size - length);
+        if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+          break;
+        }
+
+        length += inflated;
+      }
+
+      if (length != size) {
+        throw new IOException("Truncated entry " + entry.name() + " in " + path);
+      }
+
+      return result;
+    } catch (final DataFormatException e) {
+      throw new IOException("Malformed entry " + entry.name() + " in " + path, e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static ByteBuffer mapCentralDirectory(final FileChannel channel) throws IOException {
+    final long fileSize = channel.size();
+    final int tailSize = (int) Math.min(fileSize, END_OF_CENTRAL_DIRECTORY_SIZE + 0xFFFF);
+    final ByteBuffer tail = channel
+        .map(FileChannel.MapMode.READ_ONLY, fileSize - tailSize, tailSize)
+        .order(ByteOrder.LITTLE_ENDIAN);
+
+    int end = -1;
+    for (int i = tailSize - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--) {
+      if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY) {
+        end = i;
+        break;
+      }
+    }
+
+    if (end < 0) {
+      throw new IOException("End of central directory not found");
+    }
+
+    long size = tail.getInt(end + 12) & 0xFFFFFFFFL;
+    long offset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+    if ((size == 0xFFFFFFFFL || offset == 0xFFFFFFFFL) && end >= 20
+        && tail.getInt(end - 20) == ZIP64_LOCATOR) {
+      final long zip64EndOffset = tail.getLong(end - 20 + 8);
+      final ByteBuffer zip64End = readFully(channel, zip64EndOffset, 56);
+      if (zip64End.getInt(0) != ZIP64_END_OF_CENTRAL_DIRECTORY) {
+        throw new IOException("Malformed ZIP64 end of central directory");
+      }
+
+      size = zip64End.getLong(40);
+      offset = zip64End.getLong(48);
+    }
+
+    if (size > Integer.MAX_VALUE || offset + size > fileSize) {
+      throw new IOException("Malformed central directory");
+    }
+
+    return channel
+        .map(FileChannel.MapMode.READ_ONLY, offset, size)
+        .order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static long[] zip64Values(
+      final ByteBuffer buffer,
+      final int start,
+      final int length
+  ) throws IOException {
+    int position = start;
+    while (position + 4 <= start + length) {
+      final int id = buffer.getShort(position) & 0xFFFF;
+      final int size = buffer.getShort(position + 2) & 0xFFFF;
+      if (id == ZIP64_EXTRA_FIELD) {
+        final long[] values = new long[size / 8];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = buffer.getLong(position + 4 + i * 8);
+        }
+
+        return values;
+      }
+
+      position += 4 + size;
+    }
+
+    throw new IOException("ZIP64 extra field not found");
+  }
+
+  private static ByteBuffer readFully(
+      final FileChannel channel,
+      final long position,
+      final int size
+  ) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of file");
+      }
+    }
+
+    return buffer.flip();
+  }
+
+  private static boolean isMultiRelease(final byte[] manifest) throws IOException {
+    final var attributes = new Manifest(new ByteArrayInputStream(manifest))
+        .getMainAttributes();
+    return Boolean.parseBoolean(attributes.getValue(Attributes.Name.MULTI_RELEASE));
+  }
+
+  private static String string(final ByteBuffer buffer, final int position, final int length) {
+    final byte[] bytes = new byte[length];
+    buffer.get(position, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static JavaFileObject.@Nullable Kind kind(final String name) {
+    if (name.endsWith(JavaFileObject.Kind.CLASS.extension)) {
+      return JavaFileObject.Kind.CLASS;
+    }
+
+    if (name.endsWith(JavaFileObject.Kind.SOURCE.extension)) {
+      return JavaFileObject.Kind.SOURCE;
+    }
+
+    return null;
+  }
+
+  private static String packageName(final String name) {
+    final int slash = name.lastIndexOf('/');
+    return slash < 0 ? "" : name.substring(0, slash).replace('/', '.');
+  }
+}
@@ -0,0 +1,143 @@
+package com.github.build.deps;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dependency service decorator memoizing transitive resolution results.
+ * <p>
+ * Within a single build, the same dependencies are often resolved several times, e.g. for main
+ * and test source sets or for several projects sharing the same dependencies. Results are keyed on
+ * root artifacts along with constraints, so each distinct resolution is done once. Roots are kept
+ * in declaration order, since it affects conflict resolution. Concurrent requests for the same key
+ * wait for a single resolution, and failed resolutions are not cached.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class CachingDependencyService implements DependencyService {
+
+  private static final Logger log = LoggerFactory.getLogger(CachingDependencyService.class);
+
+  private final DependencyService delegate;
+
+  private final Map<Key, FutureTask<Set<GroupArtifactVersion>>> results =
+      new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  public CachingDependencyService(final DependencyService delegate) {
+    this.delegate = Objects.requireNonNull(delegate);
+  }
+
+  @Override
+  @SuppressWarnings("removal")
+  public Set<GroupArtifactVersion> resolveTransitive(final GroupArtifactVersion artifact) {
+    Objects.requireNonNull(artifact);
+    return resolve(new Key(List.of(artifact), null), () -> delegate.resolveTransitive(artifact));
+  }
+
+  @Override
+  public Set<GroupArtifactVersion> resolveTransitive(
+      final List<GroupArtifactVersion> artifacts,
+      final DependencyConstraints constraints
+  ) {
+    Objects.requireNonNull(artifacts);
+    Objects.requireNonNull(constraints);
+    return resolve(
+        new Key(artifacts, constraints),
+        () -> delegate.resolveTransitive(artifacts, constraints)
+    );
+  }
+
+  @Override
+  public Map<GroupArtifactVersion, Path> fetchToLocal(final Set<GroupArtifactVersion> artifacts) {
+    return delegate.fetchToLocal(artifacts);
+  }
+
+  @Override
+  public Path fetchToLocal(final GroupArtifactVersion artifact, final String classifier) {
+    return delegate.fetchToLocal(artifact, classifier);
+  }
+
+  @Nullable
+  @Override
+  public String checksum(final GroupArtifactVersion artifact, final Path jarPath) {
+    return delegate.checksum(artifact, jarPath);
+  }
+
+  @Override
+  public DependencyConstraints getConstraints(
+      final GroupArtifactVersion bom,
+      final GroupArtifactVersion... other
+  ) {
+    return delegate.getConstraints(bom, other);
+  }
+
+  /**
+   * @return Number of resolutions served from cache, including ones that waited for concurrent
+   *     resolution of the same key
+   */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return Number of resolutions delegated to the underlying service
+   */
+  public long misses() {
+    return misses.sum();
+  }
+
+  private Set<GroupArtifactVersion> resolve(
+      final Key key,
+      final Supplier<Set<GroupArtifactVersion>> resolution
+  ) {
+    final var task = new FutureTask<>(() -> Set.copyOf(resolution.get()));
+    final FutureTask<Set<GroupArtifactVersion>> existing = results.putIfAbsent(key, task);
+    if (existing != null) {
+      hits.increment();
+      log.debug("Resolution of {} served from cache", key.artifacts());
+      return Futures.join(existing);
+    }
+
+    misses.increment();
+    task.run();
+    try {
+      return Futures.join(task);
+    } catch (final RuntimeException e) {
+      // not caching failures, so resolution can be retried later
+      results.remove(key, task);
+      throw e;
+    }
+  }
+
+  /**
+   * Resolution cache key.
+   *
+   * @param artifacts   Root artifacts in declaration order
+   * @param constraints Dependency constraints, null for single artifact resolution without
+   *                    constraints
+   */
+  private record Key(
+      List<GroupArtifactVersion> artifacts,
+      @Nullable DependencyConstraints constraints
+  ) {
+
+    private Key {
+      artifacts = List.copyOf(artifacts);
+    }
+  }
+}
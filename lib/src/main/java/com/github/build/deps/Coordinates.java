@@ -0,0 +1,166 @@
+package com.github.build.deps;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Interning table of artifact coordinates.
+ * <p>
+ * The same coordinates are read from many POMs, each read producing fresh strings. Interned
+ * coordinates share canonical strings and instances, so equal coordinates are usually the same
+ * instance, hash codes of their strings, cached by strings themselves, are computed once, and
+ * comparing them is resolved by identity. Once coordinates are interned, looking them up does not
+ * allocate.
+ * <p>
+ * Table is shared by the whole process and never shrinks, which is fine since the number of
+ * distinct coordinates seen by a build is limited.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class Coordinates {
+
+  private static final Map<String, String> STRINGS = new ConcurrentHashMap<>();
+
+  private static final Map<String, Map<String, GroupArtifact>> GROUP_ARTIFACTS =
+      new ConcurrentHashMap<>();
+
+  private static final Map<GroupArtifact, Map<String, GroupArtifactVersion>> VERSIONS =
+      new ConcurrentHashMap<>();
+
+  private static final LongAdder HITS = new LongAdder();
+
+  private static final LongAdder MISSES = new LongAdder();
+
+  private Coordinates() {
+  }
+
+  /**
+   * @param value String value, e.g. group ID or version
+   * @return Canonical instance of stripped value
+   */
+  public static String string(final String value) {
+    Objects.requireNonNull(value);
+    // stripping returns the same instance if there is nothing to strip, so it does not allocate
+    final String stripped = value.strip();
+    final @Nullable String existing = STRINGS.get(stripped);
+    if (existing != null) {
+      return existing;
+    }
+
+    return STRINGS.computeIfAbsent(stripped, ignored -> stripped);
+  }
+
+  /**
+   * @return Canonical instance of group artifact
+   * @throws IllegalArgumentException If any part is blank
+   */
+  public static GroupArtifact groupArtifact(final String groupId, final String artifactId) {
+    Objects.requireNonNull(groupId);
+    Objects.requireNonNull(artifactId);
+    // tables are keyed by canonical strings, so values differing only by whitespace are the same
+    final String group = string(groupId);
+    final String artifact = string(artifactId);
+    final Map<String, GroupArtifact> artifacts = table(GROUP_ARTIFACTS, group);
+    final @Nullable GroupArtifact existing = artifacts.get(artifact);
+    if (existing != null) {
+      HITS.increment();
+      return existing;
+    }
+
+    final var created = new GroupArtifact(group, artifact);
+    final @Nullable GroupArtifact raced = artifacts.putIfAbsent(artifact, created);
+    return counted(created, raced);
+  }
+
+  /**
+   * @return Canonical instance of artifact version
+   * @throws IllegalArgumentException If any part is blank
+   */
+  public static GroupArtifactVersion groupArtifactVersion(
+      final String groupId,
+      final String artifactId,
+      final String version
+  ) {
+    return groupArtifactVersion(groupArtifact(groupId, artifactId), version);
+  }
+
+  /**
+   * @return Canonical instance of artifact version
+   * @throws IllegalArgumentException If version is blank
+   */
+  public static GroupArtifactVersion groupArtifactVersion(
+      final GroupArtifact groupArtifact,
+      final String version
+  ) {
+    Objects.requireNonNull(groupArtifact);
+    Objects.requireNonNull(version);
+    final String canonicalVersion = string(version);
+    final Map<String, GroupArtifactVersion> versions = table(VERSIONS, groupArtifact);
+    final @Nullable GroupArtifactVersion existing = versions.get(canonicalVersion);
+    if (existing != null) {
+      HITS.increment();
+      return existing;
+    }
+
+    final GroupArtifact canonical = groupArtifact(
+        groupArtifact.groupId(),
+        groupArtifact.artifactId()
+    );
+    final var created = new GroupArtifactVersion(
+        canonical.groupId(),
+        canonical.artifactId(),
+        canonicalVersion
+    );
+    final @Nullable GroupArtifactVersion raced = versions.putIfAbsent(canonicalVersion, created);
+    return counted(created, raced);
+  }
+
+  /**
+   * Counts interning attempt as a miss only if it actually interned new coordinates, and as a hit
+   * if concurrent attempt interned them first.
+   *
+   * @param created Coordinates created by this attempt
+   * @param raced   Coordinates interned by concurrent attempt, if any
+   * @return Canonical coordinates
+   */
+  private static <T> T counted(final T created, @Nullable final T raced) {
+    if (raced == null) {
+      MISSES.increment();
+      return created;
+    }
+
+    HITS.increment();
+    return raced;
+  }
+
+  private static <K, T> Map<String, T> table(
+      final Map<K, Map<String, T>> tables,
+      final K key
+  ) {
+    final @Nullable Map<String, T> existing = tables.get(key);
+    if (existing != null) {
+      return existing;
+    }
+
+    return tables.computeIfAbsent(key, ignored -> new ConcurrentHashMap<>());
+  }
+
+  /**
+   * @return Number of lookups served by already interned coordinates
+   */
+  public static long hits() {
+    return HITS.sum();
+  }
+
+  /**
+   * @return Number of lookups that interned new coordinates, i.e. number of interned group
+   *     artifacts and artifact versions
+   */
+  public static long misses() {
+    return MISSES.sum();
+  }
+}
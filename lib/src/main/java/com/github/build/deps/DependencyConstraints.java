@@ -52,6 +52,11 @@ public final class DependencyConstraints {
     }
   }
 
+  @Override
+  public int hashCode() {
+    return constraints.hashCode();
+  }
+
   public static final class Builder {
 
     private final Map<GroupArtifact, String> constraints;
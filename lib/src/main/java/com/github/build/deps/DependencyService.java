@@ -1,9 +1,13 @@
 package com.github.build.deps;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author noavarice
@@ -23,6 +27,66 @@ public interface DependencyService {
 
   Map<GroupArtifactVersion, Path> fetchToLocal(Set<GroupArtifactVersion> artifacts);
 
+  /**
+   * Resolves transitive dependencies and fetches them to local repository, skipping resolution
+   * when possible.
+   * <p>
+   * Resolution result is written to lockfile. If lockfile was written for the same direct
+   * dependencies and constraints, locked artifacts are fetched without resolution and verified
+   * against locked {@link #checksum(GroupArtifactVersion, Path) checksums}. Lockfile is rewritten
+   * if verification fails, including the case of missing or unreadable JAR.
+   *
+   * @param artifacts   Direct dependencies
+   * @param constraints Dependency constraints
+   * @param lockfile    Lockfile path
+   * @return Mapping from resolved artifact to its path in the file system
+   */
+  default Map<GroupArtifactVersion, Path> resolveToLocal(
+      final List<GroupArtifactVersion> artifacts,
+      final DependencyConstraints constraints,
+      final Path lockfile
+  ) {
+    Objects.requireNonNull(artifacts);
+    Objects.requireNonNull(constraints);
+    Objects.requireNonNull(lockfile);
+
+    final @Nullable Lockfile locked = Lockfile.read(lockfile);
+    if (locked != null && locked.matches(artifacts, constraints)) {
+      final Map<GroupArtifactVersion, Path> fetched = fetchToLocal(locked.checksums().keySet());
+      if (locked.verify(fetched, this::checksum)) {
+        return fetched;
+      }
+
+      LoggerFactory
+          .getLogger(DependencyService.class)
+          .warn("Lockfile {} verification failed, resolving dependencies again", lockfile);
+    }
+
+    final Set<GroupArtifactVersion> resolved = resolveTransitive(artifacts, constraints);
+    final Map<GroupArtifactVersion, Path> fetched = fetchToLocal(resolved);
+    Lockfile.of(artifacts, constraints, fetched, this::checksum).write(lockfile);
+    return fetched;
+  }
+
+  /**
+   * Computes SHA-256 of fetched JAR, used to verify lockfiles. Default implementation hashes JAR
+   * content.
+   *
+   * @param artifact Artifact
+   * @param jarPath  Artifact JAR path
+   * @return Hex-encoded SHA-256, null if JAR is missing or cannot be read
+   */
+  @Nullable
+  default String checksum(final GroupArtifactVersion artifact, final Path jarPath) {
+    Objects.requireNonNull(artifact);
+    Objects.requireNonNull(jarPath);
+    try {
+      return LocalRepository.sha256(jarPath);
+    } catch (final IOException e) {
+      return null;
+    }
+  }
+
   Path fetchToLocal(GroupArtifactVersion artifact, String classifier);
 
   DependencyConstraints getConstraints(
@@ -6,15 +6,26 @@ import com.github.build.deps.graph.GraphValue;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,144 +38,261 @@ public final class DependencyServiceImpl implements DependencyService {
 
   private static final Logger log = LoggerFactory.getLogger(DependencyServiceImpl.class);
 
+  /**
+   * Default maximum number of simultaneous downloads from a single remote repository.
+   */
+  public static final int DEFAULT_MAX_DOWNLOADS_PER_REPOSITORY = 8;
+
   private final List<RemoteRepository> remoteRepositories;
 
   private final LocalRepository localRepository;
 
-  private final Map<GroupArtifactVersion, Pom> poms = new ConcurrentHashMap<>();
+  /**
+   * POMs fetched or being fetched, so each POM is fetched once even if requested concurrently.
+   */
+  private final Map<GroupArtifactVersion, FutureTask<Pom>> poms = new ConcurrentHashMap<>();
+
+  /**
+   * Direct dependencies resolved so far, so subgraphs shared between resolutions are not resolved
+   * again.
+   */
+  private final Map<GroupArtifactVersion, DirectDependencies> directDependencies =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Limits simultaneous calls per remote repository, so fetching many artifacts at once does not
+   * overload repository host.
+   */
+  private final Map<RemoteRepository, Semaphore> downloadPermits;
 
   public DependencyServiceImpl(
       final List<RemoteRepository> remoteRepositories,
       final LocalRepository localRepository
+  ) {
+    this(remoteRepositories, localRepository, DEFAULT_MAX_DOWNLOADS_PER_REPOSITORY);
+  }
+
+  /**
+   * @param remoteRepositories        Remote repositories to resolve artifacts from, in order of
+   *                                  preference
+   * @param localRepository           Local repository to fetch artifacts to
+   * @param maxDownloadsPerRepository Maximum number of simultaneous downloads from a single remote
+   *                                  repository
+   */
+  public DependencyServiceImpl(
+      final List<RemoteRepository> remoteRepositories,
+      final LocalRepository localRepository,
+      final int maxDownloadsPerRepository
   ) {
     if (remoteRepositories.isEmpty()) {
       throw new IllegalArgumentException();
     }
+    if (maxDownloadsPerRepository < 1) {
+      throw new IllegalArgumentException(
+          "Max downloads per repository must be positive, got " + maxDownloadsPerRepository
+      );
+    }
     this.remoteRepositories = List.copyOf(remoteRepositories);
     this.localRepository = Objects.requireNonNull(localRepository);
+
+    final var permits = new IdentityHashMap<RemoteRepository, Semaphore>();
+    for (final RemoteRepository remoteRepository : this.remoteRepositories) {
+      permits.put(remoteRepository, new Semaphore(maxDownloadsPerRepository));
+    }
+    this.downloadPermits = permits;
   }
 
+  /**
+   * Resolves transitive dependencies of artifact.
+   * <p>
+   * Dependency graph is resolved level by level: POMs of all artifacts of the current level, along
+   * with their parents, are fetched concurrently, after which their dependencies are added to graph
+   * sequentially in a fixed order, so resolution result does not depend on fetching order.
+   *
+   * @param artifact Artifact to resolve dependencies for
+   * @return Artifact and its transitive dependencies
+   */
   @Override
   public Set<GroupArtifactVersion> resolveTransitive(final GroupArtifactVersion artifact) {
-    final var queue = new ArrayList<GraphPath>();
-    queue.addLast(new GraphPath(GraphValue.of(artifact)));
-
     final var graph = new Graph();
     graph.add(GraphValue.of(artifact), Set.of(), GraphPath.ROOT);
 
-    while (!queue.isEmpty()) {
-      final GraphPath currentPath = queue.removeLast();
-      final GraphValue current = currentPath.getLast();
-
-      log.debug("Resolving direct dependencies for {}", current);
+    List<GraphPath> level = List.of(new GraphPath(GraphValue.of(artifact)));
+    int depth = 0;
+    while (!level.isEmpty()) {
+      final var unresolved = new LinkedHashSet<GroupArtifactVersion>();
+      for (final GraphPath path : level) {
+        final GroupArtifactVersion gav = toExactGav(path.getLast());
+        if (!directDependencies.containsKey(gav)) {
+          unresolved.add(gav);
+        }
+      }
 
-      // resolve POM and all of its parents, so it's possible to resolve versions
-      // for transitive dependencies (e.g., when dependency version is set implicitly
-      // or explicitly but via POM property)
-      final GroupArtifactVersion currentGav = switch (current.version()) {
-        case MavenVersion.Exact exact -> current.groupArtifact().withVersion(exact.value());
-        case MavenVersion.Range ignored -> throw new IllegalStateException(
-            "Only exact versions can be resolved"
+      log.debug("Resolving level {}: {} paths, {} new artifacts",
+          depth,
+          level.size(),
+          unresolved.size()
+      );
+      directDependencies.putAll(resolveDirectDependencies(unresolved));
+
+      final var nextLevel = new ArrayList<GraphPath>();
+      for (final GraphPath path : level) {
+        final DirectDependencies dependencies = directDependencies.get(
+            toExactGav(path.getLast())
         );
-      };
-      final Pom pom = poms.computeIfAbsent(currentGav, this::findPom);
-      final List<Pom> parents = resolveParents(pom);
-      log.debug("Resolved {} parents: {}", current, parents.stream().map(Pom::gav).toList());
-
-      final var properties = new HashMap<String, String>();
-      final var dependencyManagement = new HashMap<GroupArtifact, String>();
-      final var dependencies = new HashMap<GroupArtifact, String>();
-
-      final var parentsAndCurrent = new ArrayList<>(parents);
-      parentsAndCurrent.add(pom);
-
-      for (final Pom parent : parentsAndCurrent) {
-        // accumulating parent properties
-        properties.put("project.version", parent.version());
-        if (parent.parent() != null) {
-          properties.put("project.parent.version", parent.parent().version());
+        for (final DirectDependencies.Declared declared : dependencies.declared()) {
+          graph.add(GraphValue.of(declared.gav()), declared.exclusions(), path);
         }
-        properties.putAll(parent.properties());
-
-        // resolving dependency management versions and accumulating them
-        for (final Pom.Dependency d : parent.dependencyManagement()) {
-          if (d.scope() == Pom.Dependency.Scope.IMPORT) {
-            final String version = resolveVersionString(d, properties, dependencyManagement);
-            final GroupArtifactVersion gav = d.groupArtifact()
-                .withVersion(version);
-            importDependencyManagement(gav, dependencyManagement);
-            continue;
-          }
 
-          final String version = Objects.requireNonNull(d.version());
-          final String exactVersion = resolveVersionString(version, properties);
-          dependencyManagement.put(d.groupArtifact(), exactVersion);
+        for (final GroupArtifactVersion gav : dependencies.toResolve()) {
+          nextLevel.add(path.addLast(GraphValue.of(gav)));
         }
+      }
 
-        // resolving and accumulating explicit dependencies
-        for (final Pom.Dependency d : parent.dependencies()) {
-          if (d.optional()) {
-            log.debug("Skipping optional dependency {}", d.groupArtifact());
-            continue;
-          }
+      level = nextLevel;
+      depth++;
+    }
 
-          switch (d.scope()) {
-            case COMPILE, RUNTIME -> {
-              final String versionString = resolveVersionString(
-                  d, properties, dependencyManagement
-              );
-              final var mavenVersion = MavenVersion.parse(versionString);
-              final String exactVersion = switch (mavenVersion) {
-                case MavenVersion.Exact exact -> exact.value();
-                case MavenVersion.Range range -> {
-                  // FIXME: temporary solution, does not account for conflicts
-                  for (final RemoteRepository remoteRepository : remoteRepositories) {
-                    final Optional<String> exactVersionOpt = remoteRepository.findMax(
-                        d.groupArtifact(),
-                        range
-                    );
-                    if (exactVersionOpt.isPresent()) {
-                      yield exactVersionOpt.get();
-                    }
-                  }
+    return graph.resolveDependencies();
+  }
 
-                  throw new IllegalStateException(
-                      "Failed to find suitable version in any repository for range " + range
+  private static GroupArtifactVersion toExactGav(final GraphValue value) {
+    return switch (value.version()) {
+      case MavenVersion.Exact exact -> value.groupArtifact().withVersion(exact.value());
+      case MavenVersion.Range ignored -> throw new IllegalStateException(
+          "Only exact versions can be resolved"
+      );
+    };
+  }
+
+  /**
+   * Resolves direct dependencies of artifacts concurrently.
+   *
+   * @param artifacts Artifacts to resolve dependencies for
+   * @return Mapping from artifact to its direct dependencies
+   */
+  private Map<GroupArtifactVersion, DirectDependencies> resolveDirectDependencies(
+      final Set<GroupArtifactVersion> artifacts
+  ) {
+    if (artifacts.size() == 1) {
+      final GroupArtifactVersion gav = artifacts.iterator().next();
+      return Map.of(gav, resolveDirectDependencies(gav));
+    }
+
+    final var futures = new LinkedHashMap<GroupArtifactVersion, Future<DirectDependencies>>();
+    try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (final GroupArtifactVersion gav : artifacts) {
+        futures.put(gav, executor.submit(() -> resolveDirectDependencies(gav)));
+      }
+    }
+
+    final var result = new HashMap<GroupArtifactVersion, DirectDependencies>();
+    futures.forEach((gav, future) -> result.put(gav, Futures.join(future)));
+    return result;
+  }
+
+  /**
+   * Resolves direct dependencies of artifact from its POM and all of its parents.
+   *
+   * @param currentGav Artifact to resolve dependencies for
+   * @return Direct dependencies
+   */
+  private DirectDependencies resolveDirectDependencies(final GroupArtifactVersion currentGav) {
+    log.debug("Resolving direct dependencies for {}", currentGav);
+
+    // resolve POM and all of its parents, so it's possible to resolve versions
+    // for transitive dependencies (e.g., when dependency version is set implicitly
+    // or explicitly but via POM property)
+    final Pom pom = getPom(currentGav);
+    final List<Pom> parents = resolveParents(pom);
+    log.debug("Resolved {} parents: {}", currentGav, parents.stream().map(Pom::gav).toList());
+
+    final var properties = new HashMap<String, String>();
+    final var dependencyManagement = new HashMap<GroupArtifact, String>();
+    final var dependencies = new LinkedHashMap<GroupArtifact, String>();
+    final var declared = new ArrayList<DirectDependencies.Declared>();
+
+    final var parentsAndCurrent = new ArrayList<>(parents);
+    parentsAndCurrent.add(pom);
+
+    for (final Pom parent : parentsAndCurrent) {
+      // accumulating parent properties
+      properties.put("project.version", parent.version());
+      if (parent.parent() != null) {
+        properties.put("project.parent.version", parent.parent().version());
+      }
+      properties.putAll(parent.properties());
+
+      // resolving dependency management versions and accumulating them
+      for (final Pom.Dependency d : parent.dependencyManagement()) {
+        if (d.scope() == Pom.Dependency.Scope.IMPORT) {
+          final String version = resolveVersionString(d, properties, dependencyManagement);
+          final GroupArtifactVersion gav = d.groupArtifact()
+              .withVersion(version);
+          importDependencyManagement(gav, dependencyManagement);
+          continue;
+        }
+
+        final String version = Objects.requireNonNull(d.version());
+        final String exactVersion = resolveVersionString(version, properties);
+        dependencyManagement.put(d.groupArtifact(), exactVersion);
+      }
+
+      // resolving and accumulating explicit dependencies
+      for (final Pom.Dependency d : parent.dependencies()) {
+        if (d.optional()) {
+          log.debug("Skipping optional dependency {}", d.groupArtifact());
+          continue;
+        }
+
+        switch (d.scope()) {
+          case COMPILE, RUNTIME -> {
+            final String versionString = resolveVersionString(
+                d, properties, dependencyManagement
+            );
+            final var mavenVersion = MavenVersion.parse(versionString);
+            final String exactVersion = switch (mavenVersion) {
+              case MavenVersion.Exact exact -> exact.value();
+              case MavenVersion.Range range -> {
+                // FIXME: temporary solution, does not account for conflicts
+                for (final RemoteRepository remoteRepository : remoteRepositories) {
+                  final Optional<String> exactVersionOpt = withPermit(
+                      remoteRepository,
+                      () -> remoteRepository.findMax(d.groupArtifact(), range)
                   );
+                  if (exactVersionOpt.isPresent()) {
+                    yield exactVersionOpt.get();
+                  }
                 }
-              };
-
-              dependencies.put(d.groupArtifact(), exactVersion);
-              graph.add(
-                  GraphValue.of(d.groupArtifact().withVersion(exactVersion)),
-                  d.exclusions(),
-                  currentPath
-              );
-            }
-            default -> log.debug("Skipping non-compile, non-runtime dependency {} (scope {})",
-                d.groupArtifact(),
-                d.scope()
-            );
+
+                throw new IllegalStateException(
+                    "Failed to find suitable version in any repository for range " + range
+                );
+              }
+            };
+
+            dependencies.put(d.groupArtifact(), exactVersion);
+            declared.add(new DirectDependencies.Declared(
+                d.groupArtifact().withVersion(exactVersion),
+                d.exclusions()
+            ));
           }
+          default -> log.debug("Skipping non-compile, non-runtime dependency {} (scope {})",
+              d.groupArtifact(),
+              d.scope()
+          );
         }
       }
-
-      final var moreToResolve = new ArrayList<GroupArtifactVersion>(dependencies.size());
-      dependencies.forEach((artifactCoordinates, version) -> {
-        final GroupArtifactVersion gav = artifactCoordinates.withVersion(version);
-        moreToResolve.add(gav);
-      });
-
-      log.debug("Found {} dependencies for resolution: {}", moreToResolve.size(), moreToResolve);
-      moreToResolve
-          .stream()
-          .map(GraphValue::of)
-          .map(currentPath::addLast)
-          .forEach(queue::addLast);
     }
 
-    final Graph resolved = graph.resolve();
-    return resolved.toDependencies();
+    final var toResolve = new ArrayList<GroupArtifactVersion>(dependencies.size());
+    dependencies.forEach((artifactCoordinates, version) -> {
+      final GroupArtifactVersion gav = artifactCoordinates.withVersion(version);
+      toResolve.add(gav);
+    });
+
+    log.debug("Found {} dependencies for resolution: {}", toResolve.size(), toResolve);
+    return new DirectDependencies(declared, toResolve);
   }
 
   @Override
@@ -181,7 +309,7 @@ public final class DependencyServiceImpl implements DependencyService {
       final GroupArtifactVersion importing,
       final Map<GroupArtifact, String> importTo
   ) {
-    final Pom pom = poms.computeIfAbsent(importing, this::findPom);
+    final Pom pom = getPom(importing);
     final List<Pom> parents = resolveParents(pom);
     final var parentsAndCurrent = new ArrayList<>(parents);
     parentsAndCurrent.add(pom);
@@ -281,12 +409,16 @@ public final class DependencyServiceImpl implements DependencyService {
 
   /**
    * Fetches dependencies from remote repositories and saves them to local repository.
+   * <p>
+   * Missing artifacts are fetched concurrently, each on its own virtual thread, with number of
+   * simultaneous downloads from each remote repository limited. Fetching does not stop on first
+   * failure, so all failed artifacts are reported at once.
    *
    * @param artifacts Artifacts to fetch
    * @return Mapping from artifact to its path in the file system
+   * @throws IllegalStateException If some artifacts failed to be fetched
    */
   @Override
-  @SuppressWarnings("resource")
   public Map<GroupArtifactVersion, Path> fetchToLocal(final Set<GroupArtifactVersion> artifacts) {
     Objects.requireNonNull(artifacts);
     if (artifacts.isEmpty()) {
@@ -294,47 +426,103 @@ public final class DependencyServiceImpl implements DependencyService {
     }
 
     final var result = new HashMap<GroupArtifactVersion, Path>();
+    final var missing = new ArrayList<GroupArtifactVersion>();
     for (final GroupArtifactVersion gav : artifacts) {
       if (localRepository.jarPresent(gav)) {
         final Path path = localRepository.getPath(gav);
-        log.debug("{} already fetched to {}", gav, path);
-        result.put(gav, path);
-        continue;
+        if (Files.isRegularFile(path)) {
+          log.debug("{} already fetched to {}", gav, path);
+          result.put(gav, path);
+          continue;
+        }
+
+        // index is not aware of JARs removed from disk by other tools
+        log.info("{} is indexed but missing at {}, fetching again", gav, path);
+        localRepository.invalidate(gav);
+        missing.add(gav);
+      } else {
+        log.debug("{} is missing locally, fetching", gav);
+        missing.add(gav);
+      }
+    }
+
+    if (missing.isEmpty()) {
+      return Map.copyOf(result);
+    }
+
+    log.info("Fetching {} artifacts", missing.size());
+    final var fetched = new AtomicInteger();
+    final var futures = new LinkedHashMap<GroupArtifactVersion, Future<Path>>();
+    try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (final GroupArtifactVersion gav : missing) {
+        final Future<Path> future = executor.submit(() -> {
+          final Path jarPath = fetchJar(gav);
+          log.info("Fetched {}/{}: {}", fetched.incrementAndGet(), missing.size(), gav);
+          return jarPath;
+        });
+        futures.put(gav, future);
+      }
+    }
+
+    final var failures = new LinkedHashMap<GroupArtifactVersion, Throwable>();
+    futures.forEach((gav, future) -> {
+      switch (future.state()) {
+        case SUCCESS -> result.put(gav, future.resultNow());
+        case FAILED -> failures.put(gav, future.exceptionNow());
+        case CANCELLED, RUNNING -> throw new IllegalStateException(
+            "Fetching " + gav + " is not completed"
+        );
       }
+    });
+
+    if (!failures.isEmpty()) {
+      final var exception = new IllegalStateException(
+          "Failed to fetch " + failures.size() + " of " + missing.size() + " artifacts: "
+              + failures.keySet()
+      );
+      failures.forEach((gav, cause) -> {
+        log.error("Failed to fetch {}", gav, cause);
+        exception.addSuppressed(cause);
+      });
+      throw exception;
+    }
 
-      log.debug("{} is missing locally, fetching", gav);
-      @Nullable InputStream jarInputStream = null;
-      for (final RemoteRepository remoteRepository : remoteRepositories) {
+    return Map.copyOf(result);
+  }
+
+  /**
+   * Fetches single artifact from first remote repository having it.
+   *
+   * @param gav Artifact to fetch
+   * @return JAR path in local repository
+   */
+  private Path fetchJar(final GroupArtifactVersion gav) {
+    for (final RemoteRepository remoteRepository : remoteRepositories) {
+      final @Nullable Path jarPath = withPermit(remoteRepository, () -> {
         final Optional<ArtifactDownloadResult> artifactResolutionResult = remoteRepository.download(
             gav
         );
         if (artifactResolutionResult.isEmpty()) {
           log.debug("{} JAR in {}: not found", gav, remoteRepository);
-        } else {
-          log.debug("{} JAR in {}: found", gav, remoteRepository);
-          jarInputStream = artifactResolutionResult.get().stream();
-          break;
+          return null;
         }
-      }
 
-      if (jarInputStream == null) {
-        // TODO: introduce specific exception
-        throw new IllegalStateException(gav + " JAR not found in any remote repository");
-      }
+        log.debug("{} JAR in {}: found", gav, remoteRepository);
+        try (final InputStream jarInputStream = artifactResolutionResult.get().stream()) {
+          return localRepository.saveJar(gav, jarInputStream);
+        } catch (final IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
 
-      final byte[] jarBytes;
-      try {
-        jarBytes = jarInputStream.readAllBytes();
-      } catch (final IOException e) {
-        throw new UncheckedIOException(e);
+      if (jarPath != null) {
+        log.debug("{} fetched and saved to {}", gav, jarPath);
+        return jarPath;
       }
-
-      final Path jarPath = localRepository.saveJar(gav, jarBytes);
-      log.debug("{} fetched and saved to {}", gav, jarPath);
-      result.put(gav, jarPath);
     }
 
-    return Map.copyOf(result);
+    // TODO: introduce specific exception
+    throw new IllegalStateException(gav + " JAR not found in any remote repository");
   }
 
   @Override
@@ -342,6 +530,15 @@ public final class DependencyServiceImpl implements DependencyService {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Takes checksum from local repository index, so unchanged JARs are not hashed again.
+   */
+  @Nullable
+  @Override
+  public String checksum(final GroupArtifactVersion artifact, final Path jarPath) {
+    return localRepository.checksum(artifact, jarPath);
+  }
+
   @Override
   public DependencyConstraints getConstraints(
       final GroupArtifactVersion bom,
@@ -387,7 +584,7 @@ public final class DependencyServiceImpl implements DependencyService {
     final var result = new ArrayList<Pom>();
     Pom.Parent parent = pom.parent();
     while (parent != null) {
-      final Pom parentPom = poms.computeIfAbsent(parent.gav(), this::findPom);
+      final Pom parentPom = getPom(parent.gav());
       parent = parentPom.parent();
       result.addFirst(parentPom);
     }
@@ -395,9 +592,26 @@ public final class DependencyServiceImpl implements DependencyService {
     return result;
   }
 
+  private Pom getPom(final GroupArtifactVersion gav) {
+    final var task = new FutureTask<>(() -> findPom(gav));
+    final FutureTask<Pom> existing = poms.putIfAbsent(gav, task);
+    if (existing != null) {
+      return Futures.join(existing);
+    }
+
+    task.run();
+    try {
+      return Futures.join(task);
+    } catch (final RuntimeException e) {
+      // not caching failures, so POM can be fetched again later
+      poms.remove(gav, task);
+      throw e;
+    }
+  }
+
   private Pom findPom(final GroupArtifactVersion gav) {
     for (final RemoteRepository repository : remoteRepositories) {
-      final Optional<Pom> pomOpt = repository.getPom(gav);
+      final Optional<Pom> pomOpt = withPermit(repository, () -> repository.getPom(gav));
       if (pomOpt.isPresent()) {
         return pomOpt.get();
       }
@@ -409,4 +623,47 @@ public final class DependencyServiceImpl implements DependencyService {
     );
     throw new IllegalStateException();
   }
+
+  /**
+   * Calls remote repository, waiting if too many calls to it are already in progress.
+   */
+  private <T extends @Nullable Object> T withPermit(
+      final RemoteRepository repository,
+      final Supplier<T> call
+  ) {
+    final Semaphore permits = Objects.requireNonNull(downloadPermits.get(repository));
+    try {
+      permits.acquire();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+
+    try {
+      return call.get();
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * Direct dependencies of artifact.
+   *
+   * @param declared  Dependencies declared in artifact POM and its parents, in order of declaration
+   * @param toResolve Dependencies to resolve further, one per group-artifact
+   */
+  private record DirectDependencies(
+      List<Declared> declared,
+      List<GroupArtifactVersion> toResolve
+  ) {
+
+    private DirectDependencies {
+      declared = List.copyOf(declared);
+      toResolve = List.copyOf(toResolve);
+    }
+
+    private record Declared(GroupArtifactVersion gav, Set<GroupArtifact> exclusions) {
+
+    }
+  }
 }
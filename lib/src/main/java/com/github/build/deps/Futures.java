@@ -0,0 +1,39 @@
+package com.github.build.deps;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * @author noavarice
+ * @since 1.0.0
+ */
+final class Futures {
+
+  private Futures() {
+  }
+
+  /**
+   * Waits for future, rethrowing its failure as is if it's unchecked.
+   *
+   * @param future Future to wait for
+   * @return Future result
+   * @throws IllegalStateException If waiting is interrupted or future failed with checked
+   *                               exception
+   */
+  static <T> T join(final Future<T> future) {
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
@@ -30,7 +30,20 @@ public record GroupArtifact(String groupId, String artifactId) {
   }
 
   public GroupArtifactVersion withVersion(final String version) {
-    return new GroupArtifactVersion(groupId, artifactId, version);
+    return Coordinates.groupArtifactVersion(this, version);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    // interned instances are the same, so checking identity first
+    return this == obj || obj instanceof GroupArtifact other
+        && groupId.equals(other.groupId)
+        && artifactId.equals(other.artifactId);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * groupId.hashCode() + artifactId.hashCode();
   }
 
   @Override
@@ -36,7 +36,21 @@ public record GroupArtifactVersion(String groupId, String artifactId, String ver
   }
 
   public GroupArtifact groupArtifact() {
-    return new GroupArtifact(groupId, artifactId);
+    return Coordinates.groupArtifact(groupId, artifactId);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    // interned instances are the same, so checking identity first
+    return this == obj || obj instanceof GroupArtifactVersion other
+        && groupId.equals(other.groupId)
+        && artifactId.equals(other.artifactId)
+        && version.equals(other.version);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * groupId.hashCode() + artifactId.hashCode()) + version.hashCode();
   }
 
   @Override
@@ -1,20 +1,44 @@
 package com.github.build.deps;
 
 import com.github.build.util.PathUtils;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Local repository of JARs.
+ * <p>
+ * Stored JARs are tracked by {@link LocalRepositoryIndex index}, loaded on first use, so presence
+ * checks and path lookups of indexed JARs don't touch file system. JARs missing from index are
+ * looked up on disk once and indexed if found, e.g. when put into repository by other tools.
+ * Conversely, JARs removed from disk by other tools stay indexed until they are
+ * {@link #invalidate(GroupArtifactVersion) invalidated} or index is {@link #rebuildIndex() rebuilt}.
+ * <p>
+ * Repository may be shared by several builds running concurrently, in the same process or not.
+ * JARs and hash files are moved into place atomically, so readers never observe them partially
+ * written, and saves of the same artifact are serialized by artifact lock file, so JAR and its hash
+ * files always come from the same save. Saves of different artifacts don't block each other.
+ *
  * @author noavarice
  * TODO: follow .m2 local repository structure
  */
@@ -22,10 +46,38 @@ public final class LocalRepository {
 
   private static final Logger log = LoggerFactory.getLogger(LocalRepository.class);
 
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Locks serializing saves within process, since file locks are held on behalf of the whole
+   * process and locking the same file twice from one process fails instead of blocking.
+   */
+  private static final ReentrantLock[] SAVE_LOCKS = IntStream
+      .range(0, 64)
+      .mapToObj(i -> new ReentrantLock())
+      .toArray(ReentrantLock[]::new);
+
   private final Path basePath;
 
   private final Map<String, String> idToMessageDigest;
 
+  @Nullable
+  private volatile LocalRepositoryIndex index;
+
+  /**
+   * Rebuilds index of local repository from JARs stored on disk.
+   *
+   * @param args Local repository directory
+   */
+  public static void main(final String[] args) {
+    if (args.length != 1) {
+      System.err.println("Usage: LocalRepository <local repository directory>");
+      System.exit(1);
+    }
+
+    new LocalRepository(Path.of(args[0]).toAbsolutePath(), Map.of()).rebuildIndex();
+  }
+
   public LocalRepository(final Path basePath, final Map<String, String> idToMessageDigest) {
     this.idToMessageDigest = idToMessageDigest;
     Objects.requireNonNull(basePath);
@@ -35,65 +87,312 @@ public final class LocalRepository {
   }
 
   public Path saveJar(final GroupArtifactVersion gav, final byte[] bytes) {
+    Objects.requireNonNull(bytes);
+    return saveJar(gav, new ByteArrayInputStream(bytes));
+  }
+
+  /**
+   * Saves JAR and its hash files to local repository, reading JAR content from stream.
+   * <p>
+   * Content is written to temporary file in the artifact directory and hashed in a single pass
+   * with constant memory, then hash files and JAR are atomically moved into place, so they are
+   * never observed partially written. Concurrent saves of the same artifact, including ones made
+   * by other processes, wait for each other, the last one winning.
+   *
+   * @param gav     Artifact
+   * @param content JAR content, not closed by this method
+   * @return JAR path, never null
+   */
+  public Path saveJar(final GroupArtifactVersion gav, final InputStream content) {
+    Objects.requireNonNull(gav);
+    Objects.requireNonNull(content);
     log.debug("Saving {} JAR to local repository", gav);
     final Path dir = basePath
         .resolve(gav.groupId().replace('.', '/'))
         .resolve(gav.artifactId())
         .resolve(gav.version());
     final String fileName = gav.artifactId() + '-' + gav.version();
-    final Path jarPath = dir.resolve(fileName + ".jar");
+
+    final var digests = new LinkedHashMap<String, MessageDigest>();
+    idToMessageDigest.forEach((id, algo) -> {
+      try {
+        digests.put(id, MessageDigest.getInstance(algo));
+      } catch (final NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    final Path lockPath = dir.resolve(fileName + ".jar.lock");
+    final ReentrantLock saveLock = SAVE_LOCKS[
+        Math.floorMod(lockPath.hashCode(), SAVE_LOCKS.length)
+    ];
+    saveLock.lock();
     try {
       Files.createDirectories(dir);
-      Files.write(jarPath, bytes, StandardOpenOption.CREATE);
+      try (
+          final FileChannel lockChannel = FileChannel.open(
+              lockPath,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE
+          );
+          final FileLock ignored = lockChannel.lock()
+      ) {
+        final LocalRepositoryIndex.Entry entry = writeJar(gav, dir, fileName, content, digests);
+        index().add(entry);
+        return entry.path();
+      }
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
+    } finally {
+      saveLock.unlock();
     }
+  }
 
-    for (final String id : idToMessageDigest.keySet()) {
-      final Path hashFilePath = dir.resolve(fileName + '.' + id);
+  private static LocalRepositoryIndex.Entry writeJar(
+      final GroupArtifactVersion gav,
+      final Path dir,
+      final String fileName,
+      final InputStream content,
+      final Map<String, MessageDigest> digests
+  ) {
+    final Path jarPath = dir.resolve(fileName + ".jar");
+    Path tempPath = null;
+    long size = 0;
+    @Nullable String sha256 = null;
+    try {
+      tempPath = Files.createTempFile(dir, fileName, ".jar.tmp");
+      try (final FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+          size += read;
+          for (final MessageDigest digest : digests.values()) {
+            digest.update(buffer, 0, read);
+          }
 
-      final String algo = Objects.requireNonNull(idToMessageDigest.get(id));
-      final MessageDigest messageDigest;
-      try {
-        messageDigest = MessageDigest.getInstance(algo);
-      } catch (final NoSuchAlgorithmException e) {
-        throw new IllegalStateException(e);
+          byteBuffer.clear().limit(read);
+          while (byteBuffer.hasRemaining()) {
+            channel.write(byteBuffer);
+          }
+        }
       }
 
-      final byte[] hashBytes = messageDigest.digest(bytes);
-      final String hash = HexFormat.of().formatHex(hashBytes);
-
-      try {
-        Files.writeString(hashFilePath, hash);
-      } catch (final IOException e) {
-        throw new UncheckedIOException(e);
+      for (final Map.Entry<String, MessageDigest> entry : digests.entrySet()) {
+        final String hash = HexFormat.of().formatHex(entry.getValue().digest());
+        writeAtomically(dir, fileName + '.' + entry.getKey(), hash);
+        if (entry.getValue().getAlgorithm().equals("SHA-256")) {
+          sha256 = hash;
+        }
       }
+
+      Files.move(
+          tempPath,
+          jarPath,
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING
+      );
+    } catch (final IOException e) {
+      deleteQuietly(tempPath);
+      throw new UncheckedIOException(e);
+    } catch (final RuntimeException e) {
+      deleteQuietly(tempPath);
+      throw e;
+    }
+
+    final long lastModified;
+    try {
+      lastModified = Files.getLastModifiedTime(jarPath).toMillis();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
     }
 
-    return jarPath;
+    return new LocalRepositoryIndex.Entry(gav, jarPath, size, lastModified, sha256);
+  }
+
+  private static void writeAtomically(
+      final Path dir,
+      final String fileName,
+      final String content
+  ) throws IOException {
+    final Path tempPath = Files.createTempFile(dir, fileName, ".tmp");
+    try {
+      Files.writeString(tempPath, content);
+      Files.move(
+          tempPath,
+          dir.resolve(fileName),
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING
+      );
+    } finally {
+      Files.deleteIfExists(tempPath);
+    }
+  }
+
+  private static void deleteQuietly(@Nullable final Path path) {
+    if (path == null) {
+      return;
+    }
+
+    try {
+      Files.deleteIfExists(path);
+    } catch (final IOException e) {
+      log.warn("Failed to delete {}", path, e);
+    }
   }
 
   /**
-   * Checks if artifact JAR is present in file system.
+   * Checks if artifact JAR is present in repository.
    *
    * @param gav Artifact
    * @return True if JAR exists, false otherwise
    */
   public boolean jarPresent(final GroupArtifactVersion gav) {
     Objects.requireNonNull(gav);
+    final LocalRepositoryIndex currentIndex = index();
+    if (currentIndex.get(gav) != null) {
+      return true;
+    }
+
     final Path jarPath = getPathInternal(gav);
-    return Files.isRegularFile(jarPath);
+    if (!Files.isRegularFile(jarPath)) {
+      return false;
+    }
+
+    final LocalRepositoryIndex.@Nullable Entry entry = currentIndex.scan(jarPath);
+    if (entry != null) {
+      log.debug("Indexing {} JAR found in local repository", gav);
+      currentIndex.add(entry);
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns SHA-256 of artifact JAR.
+   * <p>
+   * Checksum is taken from index as long as JAR size and modification time match indexed ones, so
+   * unchanged JAR is not read. Otherwise JAR content is hashed, and indexed JAR is indexed again
+   * with the new checksum.
+   *
+   * @param gav     Artifact
+   * @param jarPath JAR path
+   * @return Hex-encoded SHA-256, null if JAR is missing or cannot be read
+   */
+  @Nullable
+  public String checksum(final GroupArtifactVersion gav, final Path jarPath) {
+    Objects.requireNonNull(gav);
+    Objects.requireNonNull(jarPath);
+    final BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(jarPath, BasicFileAttributes.class);
+    } catch (final IOException e) {
+      log.debug("Failed to read attributes of {}", jarPath, e);
+      return null;
+    }
+
+    final long lastModified = attributes.lastModifiedTime().toMillis();
+    final LocalRepositoryIndex currentIndex = index();
+    final LocalRepositoryIndex.@Nullable Entry entry = currentIndex.get(gav);
+    final boolean indexed = entry != null && entry.path().equals(jarPath);
+    if (indexed
+        && entry.sha256() != null
+        && entry.size() == attributes.size()
+        && entry.lastModified() == lastModified) {
+      return entry.sha256();
+    }
+
+    final String sha256;
+    try {
+      sha256 = sha256(jarPath);
+    } catch (final IOException e) {
+      log.debug("Failed to hash {}", jarPath, e);
+      return null;
+    }
+
+    if (indexed) {
+      currentIndex.add(new LocalRepositoryIndex.Entry(
+          gav,
+          jarPath,
+          attributes.size(),
+          lastModified,
+          sha256
+      ));
+    }
+
+    return sha256;
+  }
+
+  /**
+   * Computes SHA-256 of file content.
+   *
+   * @param path File path
+   * @return Hex-encoded SHA-256
+   * @throws IOException If file cannot be read
+   */
+  static String sha256(final Path path) throws IOException {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    try (final InputStream in = Files.newInputStream(path)) {
+      final byte[] buffer = new byte[BUFFER_SIZE];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    }
+
+    return HexFormat.of().formatHex(digest.digest());
   }
 
   /**
-   * Constructs JAR file path for artifact without checking file presence.
+   * Gets JAR file path for artifact without checking file presence.
    *
    * @param gav Artifact
    * @return JAR path, never null
    */
   public Path getPath(final GroupArtifactVersion gav) {
     Objects.requireNonNull(gav);
-    return getPathInternal(gav);
+    final LocalRepositoryIndex.@Nullable Entry entry = index().get(gav);
+    return entry != null ? entry.path() : getPathInternal(gav);
+  }
+
+  /**
+   * Removes artifact from index, so its presence is checked on disk again, e.g. once its indexed
+   * JAR turned out to be removed from disk.
+   *
+   * @param gav Artifact
+   */
+  public void invalidate(final GroupArtifactVersion gav) {
+    Objects.requireNonNull(gav);
+    index().remove(gav);
+  }
+
+  /**
+   * Rebuilds repository index from JARs stored on disk, e.g. after JARs were removed manually.
+   * Also available as {@link #main(String[]) command}.
+   */
+  public void rebuildIndex() {
+    index().rebuild();
+  }
+
+  private LocalRepositoryIndex index() {
+    LocalRepositoryIndex result = index;
+    if (result == null) {
+      synchronized (this) {
+        result = index;
+        if (result == null) {
+          result = LocalRepositoryIndex.load(basePath);
+          index = result;
+        }
+      }
+    }
+
+    return result;
   }
 
   private Path getPathInternal(final GroupArtifactVersion gav) {
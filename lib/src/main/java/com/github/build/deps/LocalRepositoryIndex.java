@@ -0,0 +1,376 @@
+package com.github.build.deps;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of JARs stored in local repository.
+ * <p>
+ * Index file starts with format version, followed by appended records, each being payload length,
+ * payload and CRC32 of payload. File is memory-mapped and read once, then lookups are served from
+ * memory. Records are appended under file lock with a single write, and records torn by a crash
+ * are detected by length or checksum and truncated on the next load, so a crash loses at most the
+ * records being appended. Later records of the same artifact override earlier ones.
+ * <p>
+ * File lock is taken by all index instances of the same repository, in the same process or not.
+ * Since file lock is held by the whole process and can't be taken twice by it, instances of the
+ * same process additionally take the same in-process lock before taking file lock. Rebuilding
+ * rewrites file in place under file lock instead of replacing it, so records appended by other
+ * processes waiting for the lock don't end up in a replaced file.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+final class LocalRepositoryIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(LocalRepositoryIndex.class);
+
+  private static final int FORMAT_VERSION = 2;
+
+  private static final int HEADER_SIZE = Integer.BYTES;
+
+  static final String FILE_NAME = "artifacts.index";
+
+  private static final Map<Path, ReentrantLock> FILE_LOCKS = new ConcurrentHashMap<>();
+
+  private final Path basePath;
+
+  private final Path file;
+
+  private final ReentrantLock fileLock;
+
+  private final Map<GroupArtifactVersion, Entry> entries = new ConcurrentHashMap<>();
+
+  private LocalRepositoryIndex(final Path basePath) {
+    this.basePath = basePath;
+    this.file = basePath.resolve(FILE_NAME);
+    this.fileLock = FILE_LOCKS.computeIfAbsent(
+        file.toAbsolutePath().normalize(),
+        ignored -> new ReentrantLock()
+    );
+  }
+
+  /**
+   * Loads index of repository, rebuilding it from stored JARs if index file is absent or has
+   * unsupported format.
+   *
+   * @param basePath Local repository base path
+   * @return Loaded index
+   */
+  static LocalRepositoryIndex load(final Path basePath) {
+    Objects.requireNonNull(basePath);
+    final var result = new LocalRepositoryIndex(basePath);
+    if (!result.read()) {
+      result.rebuild();
+    }
+
+    return result;
+  }
+
+  @Nullable
+  Entry get(final GroupArtifactVersion gav) {
+    Objects.requireNonNull(gav);
+    return entries.get(gav);
+  }
+
+  /**
+   * Removes artifact from index in memory, e.g. once its JAR turned out to be removed from disk.
+   * <p>
+   * Index file is not changed, since record of artifact is overridden once it is saved again.
+   *
+   * @param gav Artifact
+   */
+  void remove(final GroupArtifactVersion gav) {
+    Objects.requireNonNull(gav);
+    entries.remove(gav);
+  }
+
+  Collection<Entry> entries() {
+    return entries.values();
+  }
+
+  /**
+   * Adds artifact to index, appending record to index file.
+   *
+   * @param entry Indexed artifact
+   */
+  void add(final Entry entry) {
+    Objects.requireNonNull(entry);
+    final byte[] record = record(entry);
+    fileLock.lock();
+    try (
+        final FileChannel channel = FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND
+        );
+        final FileLock ignored = channel.lock()
+    ) {
+      if (channel.size() == 0) {
+        channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(0, FORMAT_VERSION));
+      }
+
+      final ByteBuffer buffer = ByteBuffer.wrap(record);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+
+      entries.put(entry.gav(), entry);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      fileLock.unlock();
+    }
+  }
+
+  /**
+   * Rebuilds index from JARs stored in repository, rewriting index file under file lock.
+   */
+  void rebuild() {
+    log.info("Rebuilding local repository index {}", file);
+    fileLock.lock();
+    try (
+        final FileChannel channel = FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE
+        );
+        final FileLock ignored = channel.lock()
+    ) {
+      final var rebuilt = new ConcurrentHashMap<GroupArtifactVersion, Entry>();
+      try (final Stream<Path> files = Files.walk(basePath)) {
+        files
+            .filter(path -> path.getFileName().toString().endsWith(".jar"))
+            .filter(Files::isRegularFile)
+            .forEach(path -> {
+              final @Nullable Entry entry = scan(path);
+              if (entry != null) {
+                rebuilt.put(entry.gav(), entry);
+              }
+            });
+      }
+
+      final var content = new ByteArrayOutputStream();
+      content.writeBytes(ByteBuffer.allocate(HEADER_SIZE).putInt(0, FORMAT_VERSION).array());
+      for (final Entry entry : rebuilt.values()) {
+        content.writeBytes(record(entry));
+      }
+
+      channel.truncate(0);
+      final ByteBuffer buffer = ByteBuffer.wrap(content.toByteArray());
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+
+      entries.clear();
+      entries.putAll(rebuilt);
+      log.info("Indexed {} artifacts of local repository {}", rebuilt.size(), basePath);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      fileLock.unlock();
+    }
+  }
+
+  /**
+   * Creates index entry of JAR stored in repository layout.
+   * <p>
+   * SHA-256 is not taken from hash file, since hash file is not updated when JAR is changed by
+   * other tools, so it is left to be computed on first use.
+   *
+   * @param jarPath JAR path
+   * @return Index entry, null if path does not follow repository layout
+   */
+  @Nullable
+  Entry scan(final Path jarPath) {
+    final Path relativePath = basePath.relativize(jarPath);
+    final int count = relativePath.getNameCount();
+    if (count < 4) {
+      return null;
+    }
+
+    final String version = relativePath.getName(count - 2).toString();
+    final String artifactId = relativePath.getName(count - 3).toString();
+    final String fileName = relativePath.getFileName().toString();
+    if (!fileName.equals(artifactId + '-' + version + ".jar")) {
+      return null;
+    }
+
+    final String groupId = relativePath
+        .subpath(0, count - 3)
+        .toString()
+        .replace(relativePath.getFileSystem().getSeparator(), ".");
+    try {
+      final BasicFileAttributes attributes = Files.readAttributes(
+          jarPath,
+          BasicFileAttributes.class
+      );
+      return new Entry(
+          Coordinates.groupArtifactVersion(groupId, artifactId, version),
+          jarPath,
+          attributes.size(),
+          attributes.lastModifiedTime().toMillis(),
+          null
+      );
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads index file, truncating records torn by crash.
+   * <p>
+   * File is locked while reading, so records being appended are not mistaken for torn ones.
+   *
+   * @return True if index was read, false if index file is absent or has unsupported format
+   */
+  private boolean read() {
+    fileLock.lock();
+    try (
+        final FileChannel channel = FileChannel.open(
+            file,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        );
+        final FileLock ignored = channel.lock()
+    ) {
+      final long size = channel.size();
+      if (size < HEADER_SIZE) {
+        return false;
+      }
+
+      final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (buffer.getInt() != FORMAT_VERSION) {
+        log.info("Local repository index {} has unsupported format", file);
+        return false;
+      }
+
+      long valid = buffer.position();
+      final var checksum = new CRC32();
+      while (buffer.remaining() >= Integer.BYTES) {
+        final int length = buffer.getInt();
+        if (length <= 0 || buffer.remaining() < length + Integer.BYTES) {
+          break;
+        }
+
+        final byte[] payload = new byte[length];
+        buffer.get(payload);
+        checksum.reset();
+        checksum.update(payload);
+        if ((int) checksum.getValue() != buffer.getInt()) {
+          break;
+        }
+
+        final Entry entry = entry(payload);
+        entries.put(entry.gav(), entry);
+        valid = buffer.position();
+      }
+
+      if (valid < size) {
+        log.warn("Truncating {} bytes of torn records of local repository index {}",
+            size - valid,
+            file
+        );
+        channel.truncate(valid);
+      }
+    } catch (final NoSuchFileException e) {
+      return false;
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      fileLock.unlock();
+    }
+
+    return true;
+  }
+
+  private byte[] record(final Entry entry) {
+    final var payload = new ByteArrayOutputStream();
+    try (final var out = new DataOutputStream(payload)) {
+      out.writeUTF(entry.gav().groupId());
+      out.writeUTF(entry.gav().artifactId());
+      out.writeUTF(entry.gav().version());
+      out.writeUTF(basePath.relativize(entry.path()).toString());
+      out.writeLong(entry.size());
+      out.writeLong(entry.lastModified());
+      out.writeBoolean(entry.sha256() != null);
+      if (entry.sha256() != null) {
+        out.writeUTF(entry.sha256());
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    final byte[] bytes = payload.toByteArray();
+    final var checksum = new CRC32();
+    checksum.update(bytes);
+    return ByteBuffer
+        .allocate(Integer.BYTES + bytes.length + Integer.BYTES)
+        .putInt(bytes.length)
+        .put(bytes)
+        .putInt((int) checksum.getValue())
+        .array();
+  }
+
+  private Entry entry(final byte[] payload) throws IOException {
+    try (final var in = new DataInputStream(new ByteArrayInputStream(payload))) {
+      final GroupArtifactVersion gav = Coordinates.groupArtifactVersion(
+          in.readUTF(),
+          in.readUTF(),
+          in.readUTF()
+      );
+      final Path path = basePath.resolve(in.readUTF());
+      final long size = in.readLong();
+      final long lastModified = in.readLong();
+      final @Nullable String sha256 = in.readBoolean() ? in.readUTF() : null;
+      return new Entry(gav, path, size, lastModified, sha256);
+    }
+  }
+
+  /**
+   * Indexed artifact.
+   *
+   * @param gav          Artifact
+   * @param path         Absolute JAR path
+   * @param size         JAR size in bytes
+   * @param lastModified JAR last modification time in milliseconds
+   * @param sha256       Hex-encoded SHA-256 of JAR, null if not computed yet
+   */
+  record Entry(
+      GroupArtifactVersion gav,
+      Path path,
+      long size,
+      long lastModified,
+      @Nullable String sha256
+  ) {
+
+    Entry {
+      Objects.requireNonNull(gav);
+      Objects.requireNonNull(path);
+    }
+  }
+}
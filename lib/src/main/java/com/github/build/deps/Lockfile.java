@@ -0,0 +1,253 @@
+package com.github.build.deps;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Result of transitive dependency resolution along with hashes of its inputs.
+ * <p>
+ * As long as direct dependencies and constraints hash to the same values, resolution result is
+ * the same, so locked artifacts are used as is without fetching or parsing any POM. Each locked
+ * artifact carries SHA-256 of its JAR, so changed local artifacts are detected. Checksums are
+ * provided by {@link Checksums}, so they may come from local repository index instead of hashing
+ * JAR content on every build.
+ *
+ * @param dependenciesHash Hash of direct dependencies, in declaration order
+ * @param constraintsHash  Hash of dependency constraints
+ * @param checksums        Mapping from resolved artifact to SHA-256 of its JAR
+ * @author noavarice
+ * @since 1.0.0
+ */
+record Lockfile(
+    String dependenciesHash,
+    String constraintsHash,
+    Map<GroupArtifactVersion, String> checksums
+) {
+
+  private static final Logger log = LoggerFactory.getLogger(Lockfile.class);
+
+  private static final int FORMAT_VERSION = 1;
+
+  Lockfile {
+    Objects.requireNonNull(dependenciesHash);
+    Objects.requireNonNull(constraintsHash);
+    checksums = Map.copyOf(checksums);
+  }
+
+  /**
+   * Creates lockfile for resolution result.
+   *
+   * @param artifacts   Direct dependencies
+   * @param constraints Dependency constraints
+   * @param resolved    Mapping from resolved artifact to its JAR path
+   * @param sums        Checksums of resolved JARs
+   * @return New lockfile
+   * @throws IllegalStateException If checksum of some JAR cannot be computed
+   */
+  static Lockfile of(
+      final List<GroupArtifactVersion> artifacts,
+      final DependencyConstraints constraints,
+      final Map<GroupArtifactVersion, Path> resolved,
+      final Checksums sums
+  ) {
+    final var checksums = new HashMap<GroupArtifactVersion, String>();
+    resolved.forEach((gav, path) -> {
+      final @Nullable String checksum = sums.sha256(gav, path);
+      if (checksum == null) {
+        throw new IllegalStateException("Failed to compute checksum of " + path);
+      }
+
+      checksums.put(gav, checksum);
+    });
+    return new Lockfile(hash(artifacts), hash(constraints), checksums);
+  }
+
+  /**
+   * Checks whether lockfile was created for the same resolution inputs.
+   */
+  boolean matches(
+      final List<GroupArtifactVersion> artifacts,
+      final DependencyConstraints constraints
+  ) {
+    return dependenciesHash.equals(hash(artifacts)) && constraintsHash.equals(hash(constraints));
+  }
+
+  /**
+   * Checks whether fetched artifacts are exactly the locked ones.
+   *
+   * @param fetched Mapping from artifact to its JAR path
+   * @param sums    Checksums of fetched JARs
+   * @return True if every locked artifact is fetched and has the locked checksum, false otherwise,
+   *     including the case of missing or unreadable JAR
+   */
+  boolean verify(final Map<GroupArtifactVersion, Path> fetched, final Checksums sums) {
+    if (!fetched.keySet().equals(checksums.keySet())) {
+      return false;
+    }
+
+    for (final Map.Entry<GroupArtifactVersion, String> entry : checksums.entrySet()) {
+      final Path jarPath = fetched.get(entry.getKey());
+      final @Nullable String actual = sums.sha256(entry.getKey(), jarPath);
+      if (actual == null) {
+        log.warn("{} checksum cannot be computed, JAR {} is missing or unreadable",
+            entry.getKey(),
+            jarPath
+        );
+        return false;
+      }
+
+      if (!actual.equals(entry.getValue())) {
+        log.warn("{} checksum {} does not match locked checksum {}",
+            entry.getKey(),
+            actual,
+            entry.getValue()
+        );
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Reads lockfile.
+   *
+   * @param path Lockfile path
+   * @return Lockfile, null if file does not exist or is unreadable
+   */
+  static @Nullable Lockfile read(final Path path) {
+    Objects.requireNonNull(path);
+    if (Files.notExists(path)) {
+      return null;
+    }
+
+    try (final var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        log.debug("Lockfile {} has unsupported format", path);
+        return null;
+      }
+
+      final String dependenciesHash = in.readUTF();
+      final String constraintsHash = in.readUTF();
+      final int count = in.readInt();
+      final var checksums = new HashMap<GroupArtifactVersion, String>(count);
+      for (int i = 0; i < count; i++) {
+        checksums.put(GroupArtifactVersion.parse(in.readUTF()), in.readUTF());
+      }
+
+      return new Lockfile(dependenciesHash, constraintsHash, checksums);
+    } catch (final IOException | RuntimeException e) {
+      log.warn("Failed to read lockfile {}", path, e);
+      return null;
+    }
+  }
+
+  /**
+   * Writes lockfile, atomically replacing existing one.
+   *
+   * @param path Lockfile path
+   */
+  void write(final Path path) {
+    Objects.requireNonNull(path);
+    final var content = new ByteArrayOutputStream();
+    try (final var out = new DataOutputStream(content)) {
+      out.writeInt(FORMAT_VERSION);
+      out.writeUTF(dependenciesHash);
+      out.writeUTF(constraintsHash);
+      out.writeInt(checksums.size());
+      final var sorted = new TreeMap<String, String>();
+      checksums.forEach((gav, checksum) -> sorted.put(gav.toString(), checksum));
+      for (final Map.Entry<String, String> entry : sorted.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeUTF(entry.getValue());
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    try {
+      Files.createDirectories(path.toAbsolutePath().getParent());
+      final Path tempPath = Files.createTempFile(
+          path.toAbsolutePath().getParent(),
+          path.getFileName().toString(),
+          ".tmp"
+      );
+      try {
+        Files.write(tempPath, content.toByteArray());
+        Files.move(
+            tempPath,
+            path,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING
+        );
+      } finally {
+        Files.deleteIfExists(tempPath);
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String hash(final List<GroupArtifactVersion> artifacts) {
+    final MessageDigest digest = newDigest();
+    for (final GroupArtifactVersion artifact : artifacts) {
+      digest.update((artifact + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static String hash(final DependencyConstraints constraints) {
+    final MessageDigest digest = newDigest();
+    constraints
+        .stream()
+        .map(GroupArtifactVersion::toString)
+        .sorted()
+        .forEach(constraint -> digest.update(
+            (constraint + "\n").getBytes(StandardCharsets.UTF_8)
+        ));
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Source of JAR checksums.
+   */
+  @FunctionalInterface
+  interface Checksums {
+
+    /**
+     * @param gav     Artifact
+     * @param jarPath Artifact JAR path
+     * @return Hex-encoded SHA-256 of JAR, null if JAR is missing or cannot be read
+     */
+    @Nullable
+    String sha256(GroupArtifactVersion gav, Path jarPath);
+  }
+}
@@ -96,7 +96,7 @@ public final class MavenArtifactResolverDependencyService implements DependencyS
     collectResult.getRoot().getChildren().forEach(queue::addLast);
     while (!queue.isEmpty()) {
       final DependencyNode node = queue.removeFirst();
-      final var gav = new GroupArtifactVersion(
+      final var gav = Coordinates.groupArtifactVersion(
           node.getArtifact().getGroupId(),
           node.getArtifact().getArtifactId(),
           node.getArtifact().getVersion()
@@ -165,7 +165,7 @@ public final class MavenArtifactResolverDependencyService implements DependencyS
     collectResult.getRoot().getChildren().forEach(queue::addLast);
     while (!queue.isEmpty()) {
       final DependencyNode node = queue.removeFirst();
-      final var gav = new GroupArtifactVersion(
+      final var gav = Coordinates.groupArtifactVersion(
           node.getArtifact().getGroupId(),
           node.getArtifact().getArtifactId(),
           node.getArtifact().getVersion()
@@ -217,7 +217,7 @@ public final class MavenArtifactResolverDependencyService implements DependencyS
           .find(repositorySystemSession, localArtifactRequest)
           .getFile();
       Objects.requireNonNull(file);
-      final var gav = new GroupArtifactVersion(
+      final var gav = Coordinates.groupArtifactVersion(
           artifactResult.getArtifact().getGroupId(),
           artifactResult.getArtifact().getArtifactId(),
           artifactResult.getArtifact().getVersion()
@@ -298,7 +298,7 @@ public final class MavenArtifactResolverDependencyService implements DependencyS
       }
 
       for (final Dependency managedDependency : result.getManagedDependencies()) {
-        final var managedGav = new GroupArtifactVersion(
+        final var managedGav = Coordinates.groupArtifactVersion(
             managedDependency.getArtifact().getGroupId(),
             managedDependency.getArtifact().getArtifactId(),
             managedDependency.getArtifact().getVersion()
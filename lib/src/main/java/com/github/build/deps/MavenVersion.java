@@ -1,7 +1,6 @@
 package com.github.build.deps;
 
 import java.util.Objects;
-import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -78,6 +77,13 @@ public sealed interface MavenVersion {
       value = value.strip();
     }
 
+    /**
+     * @return Interned comparable form of version
+     */
+    public VersionKey key() {
+      return VersionKey.of(value);
+    }
+
     @Override
     public String toString() {
       return value;
@@ -102,21 +108,21 @@ public sealed interface MavenVersion {
         return false;
       }
 
-      final var comparableLower = new ComparableVersion(lower.value);
-      final var comparableUpper = new ComparableVersion(upper.value);
-      return comparableLower.compareTo(comparableUpper) == 0;
+      return lower.key().compareTo(upper.key()) == 0;
     }
 
     public boolean invalid() {
-      final var comparableLower = new ComparableVersion(lower.value);
-      final var comparableUpper = new ComparableVersion(upper.value);
-      return comparableLower.compareTo(comparableUpper) > 0;
+      if (lower == null || upper == null) {
+        return false;
+      }
+
+      return lower.key().compareTo(upper.key()) > 0;
     }
 
-    public boolean contains(final ComparableVersion version) {
-      // TODO: suboptimal performance because of constructing the same ComparableVersion instances
+    public boolean contains(final VersionKey version) {
+      Objects.requireNonNull(version);
       if (lower != null) {
-        final int comparison = version.compareTo(new ComparableVersion(lower.value));
+        final int comparison = version.compareTo(lower.key());
         final boolean moreThanLower = comparison > 0 || comparison == 0 && lower.including;
         if (!moreThanLower) {
           return false;
@@ -124,7 +130,7 @@ public sealed interface MavenVersion {
       }
 
       if (upper != null) {
-        final int comparison = version.compareTo(new ComparableVersion(upper.value));
+        final int comparison = version.compareTo(upper.key());
         return comparison < 0 || comparison == 0 && upper.including;
       }
 
@@ -141,6 +147,13 @@ public sealed interface MavenVersion {
 
         value = value.strip();
       }
+
+      /**
+       * @return Interned comparable form of bound version
+       */
+      public VersionKey key() {
+        return VersionKey.of(value);
+      }
     }
 
     @Override
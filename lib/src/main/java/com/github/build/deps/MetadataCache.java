@@ -0,0 +1,309 @@
+package com.github.build.deps;
+
+import com.github.build.util.PathUtils;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of artifact versions listed in {@code maven-metadata.xml} of a single remote repository.
+ * <p>
+ * Entries are kept in memory and, if base path is specified, persisted to disk following local
+ * repository layout as {@code maven-metadata-<repositoryId>.bin}. Entry is revalidated with
+ * conditional request once refresh interval has passed since it was last fetched or revalidated.
+ * Versions are kept sorted, so looking up the highest version in range is a binary search.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class MetadataCache {
+
+  private static final Logger log = LoggerFactory.getLogger(MetadataCache.class);
+
+  /**
+   * Default refresh interval, same as Maven's default daily update policy.
+   */
+  public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofDays(1);
+
+  private static final int FORMAT_VERSION = 1;
+
+  private final @Nullable Path basePath;
+
+  private final String repositoryId;
+
+  private final Duration refreshInterval;
+
+  private final Map<GroupArtifact, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Creates cache persisting entries to disk.
+   *
+   * @param basePath        Cache base directory, usually local repository base directory
+   * @param repositoryId    Remote repository identifier, used in file names to separate metadata
+   *                        of different repositories
+   * @param refreshInterval Time after which entries are revalidated, zero to revalidate on every
+   *                        lookup
+   */
+  public MetadataCache(
+      final Path basePath,
+      final String repositoryId,
+      final Duration refreshInterval
+  ) {
+    Objects.requireNonNull(basePath);
+    PathUtils.checkAbsolute(basePath);
+    PathUtils.checkDirectory(basePath);
+    this.basePath = basePath;
+
+    this.repositoryId = Objects.requireNonNull(repositoryId).strip();
+    if (this.repositoryId.isEmpty()) {
+      throw new IllegalArgumentException("Repository ID must not be blank");
+    }
+
+    this.refreshInterval = checkRefreshInterval(refreshInterval);
+  }
+
+  private MetadataCache(final Duration refreshInterval) {
+    this.basePath = null;
+    this.repositoryId = "memory";
+    this.refreshInterval = checkRefreshInterval(refreshInterval);
+  }
+
+  /**
+   * Creates cache keeping entries in memory only.
+   *
+   * @param refreshInterval Time after which entries are revalidated, zero to revalidate on every
+   *                        lookup
+   * @return New cache
+   */
+  public static MetadataCache inMemory(final Duration refreshInterval) {
+    return new MetadataCache(refreshInterval);
+  }
+
+  private static Duration checkRefreshInterval(final Duration refreshInterval) {
+    Objects.requireNonNull(refreshInterval);
+    if (refreshInterval.isNegative()) {
+      throw new IllegalArgumentException(
+          "Refresh interval must not be negative, got " + refreshInterval
+      );
+    }
+
+    return refreshInterval;
+  }
+
+  /**
+   * Gets cached entry, loading it from disk if necessary.
+   *
+   * @param ga Artifact
+   * @return Cached entry, possibly requiring refresh, null if there is none
+   */
+  @Nullable Entry get(final GroupArtifact ga) {
+    Objects.requireNonNull(ga);
+    final @Nullable Entry entry = entries.get(ga);
+    if (entry != null || basePath == null) {
+      return entry;
+    }
+
+    final @Nullable Entry loaded = read(ga);
+    if (loaded != null) {
+      entries.putIfAbsent(ga, loaded);
+    }
+
+    return loaded;
+  }
+
+  /**
+   * Checks whether entry must be revalidated before use.
+   */
+  boolean needsRefresh(final Entry entry) {
+    return !entry.fetchedAt().plus(refreshInterval).isAfter(Instant.now());
+  }
+
+  /**
+   * Puts entry to cache, replacing existing one. Failing to persist entry is logged, entry is
+   * still kept in memory.
+   */
+  void put(final GroupArtifact ga, final Entry entry) {
+    Objects.requireNonNull(ga);
+    Objects.requireNonNull(entry);
+    entries.put(ga, entry);
+    if (basePath != null) {
+      write(ga, entry);
+    }
+  }
+
+  private @Nullable Entry read(final GroupArtifact ga) {
+    final Path path = path(ga);
+    if (Files.notExists(path)) {
+      return null;
+    }
+
+    try (final var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        log.debug("Cached {} metadata has unsupported format", ga);
+        return null;
+      }
+
+      final @Nullable String etag = in.readBoolean() ? in.readUTF() : null;
+      final @Nullable String lastModified = in.readBoolean() ? in.readUTF() : null;
+      final Instant fetchedAt = Instant.ofEpochMilli(in.readLong());
+      final int count = in.readInt();
+      final var versions = new ArrayList<String>(count);
+      for (int i = 0; i < count; i++) {
+        versions.add(in.readUTF());
+      }
+
+      return new Entry(Entry.sorted(versions), etag, lastModified, fetchedAt);
+    } catch (final IOException e) {
+      log.warn("Failed to read cached {} metadata from {}", ga, path, e);
+      return null;
+    }
+  }
+
+  private void write(final GroupArtifact ga, final Entry entry) {
+    final Path path = path(ga);
+    final var content = new ByteArrayOutputStream();
+    try {
+      try (final var out = new DataOutputStream(content)) {
+        out.writeInt(FORMAT_VERSION);
+        writeNullableString(out, entry.etag());
+        writeNullableString(out, entry.lastModified());
+        out.writeLong(entry.fetchedAt().toEpochMilli());
+        out.writeInt(entry.versions().size());
+        for (final VersionKey version : entry.versions()) {
+          out.writeUTF(version.toString());
+        }
+      }
+
+      Files.createDirectories(path.getParent());
+      final Path tempPath = Files.createTempFile(
+          path.getParent(),
+          path.getFileName().toString(),
+          ".tmp"
+      );
+      try {
+        Files.write(tempPath, content.toByteArray());
+        Files.move(
+            tempPath,
+            path,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING
+        );
+      } finally {
+        Files.deleteIfExists(tempPath);
+      }
+    } catch (final IOException e) {
+      log.warn("Failed to cache {} metadata to {}", ga, path, e);
+    }
+  }
+
+  private static void writeNullableString(
+      final DataOutputStream out,
+      final @Nullable String value
+  ) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private Path path(final GroupArtifact ga) {
+    return Objects.requireNonNull(basePath)
+        .resolve(ga.groupId().replace('.', '/'))
+        .resolve(ga.artifactId())
+        .resolve("maven-metadata-" + repositoryId + ".bin");
+  }
+
+  /**
+   * Cached metadata.
+   *
+   * @param versions     Versions sorted in ascending order
+   * @param etag         Entity tag of metadata response, null if not provided by repository
+   * @param lastModified Last modification date of metadata response, null if not provided by
+   *                     repository
+   * @param fetchedAt    Time metadata was last fetched or revalidated
+   */
+  record Entry(
+      List<VersionKey> versions,
+      @Nullable String etag,
+      @Nullable String lastModified,
+      Instant fetchedAt
+  ) {
+
+    Entry {
+      versions = List.copyOf(versions);
+      Objects.requireNonNull(fetchedAt);
+    }
+
+    static List<VersionKey> sorted(final List<String> versions) {
+      final var result = new ArrayList<VersionKey>(versions.size());
+      for (final String version : versions) {
+        result.add(VersionKey.of(version));
+      }
+      Collections.sort(result);
+      return result;
+    }
+
+    Entry revalidatedAt(final Instant time) {
+      return new Entry(versions, etag, lastModified, time);
+    }
+
+    /**
+     * Finds the highest version in range.
+     *
+     * @param range Version range
+     * @return Version as listed in metadata, empty if no version is in range
+     */
+    Optional<String> findMax(final MavenVersion.Range range) {
+      if (versions.isEmpty()) {
+        return Optional.empty();
+      }
+
+      // index of the highest version not exceeding upper bound
+      int index = versions.size() - 1;
+      final MavenVersion.Range.Bound upper = range.upper();
+      if (upper != null) {
+        final VersionKey upperVersion = upper.key();
+        final int position = Collections.binarySearch(versions, upperVersion);
+        if (position >= 0) {
+          index = position;
+          if (upper.including()) {
+            while (index + 1 < versions.size()
+                && versions.get(index + 1).compareTo(upperVersion) == 0) {
+              index++;
+            }
+          } else {
+            while (index >= 0 && versions.get(index).compareTo(upperVersion) == 0) {
+              index--;
+            }
+          }
+        } else {
+          index = -position - 2;
+        }
+      }
+
+      // versions below the candidate are lower, so they can't match lower bound either
+      if (index < 0 || !range.contains(versions.get(index))) {
+        return Optional.empty();
+      }
+
+      return Optional.of(versions.get(index).toString());
+    }
+  }
+}
@@ -43,7 +43,7 @@ public record Pom(
   }
 
   public GroupArtifactVersion gav() {
-    return new GroupArtifactVersion(groupId, artifactId, version);
+    return Coordinates.groupArtifactVersion(groupId, artifactId, version);
   }
 
   @Override
@@ -77,7 +77,7 @@ public record Pom(
     }
 
     public GroupArtifactVersion gav() {
-      return new GroupArtifactVersion(groupId, artifactId, version);
+      return Coordinates.groupArtifactVersion(groupId, artifactId, version);
     }
   }
 
@@ -102,7 +102,7 @@ public record Pom(
     }
 
     public GroupArtifact groupArtifact() {
-      return new GroupArtifact(groupId, artifactId);
+      return Coordinates.groupArtifact(groupId, artifactId);
     }
 
     public enum Scope {
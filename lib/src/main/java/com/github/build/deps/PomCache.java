@@ -0,0 +1,283 @@
+package com.github.build.deps;
+
+import com.github.build.util.PathUtils;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of POMs fetched from remote repositories.
+ * <p>
+ * Cache follows local repository layout: for each artifact, raw POM is stored as
+ * {@code <artifactId>-<version>.pom} and parsed {@link Pom} as
+ * {@code <artifactId>-<version>.pom.bin} in compact binary form, so cached POMs are read without
+ * XML parsing. Release POMs never change
+ * once published, so they are never revalidated. Snapshot POMs are considered stale after
+ * configured time to live.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class PomCache {
+
+  private static final Logger log = LoggerFactory.getLogger(PomCache.class);
+
+  private static final int FORMAT_VERSION = 1;
+
+  private static final String SNAPSHOT_SUFFIX = "-SNAPSHOT";
+
+  private final Path basePath;
+
+  private final Duration snapshotTtl;
+
+  /**
+   * @param basePath    Cache base directory, usually local repository base directory
+   * @param snapshotTtl Time after which cached snapshot POMs are fetched again
+   */
+  public PomCache(final Path basePath, final Duration snapshotTtl) {
+    Objects.requireNonNull(basePath);
+    PathUtils.checkAbsolute(basePath);
+    PathUtils.checkDirectory(basePath);
+    this.basePath = basePath;
+    this.snapshotTtl = Objects.requireNonNull(snapshotTtl);
+    if (snapshotTtl.isNegative()) {
+      throw new IllegalArgumentException("Snapshot TTL must not be negative, got " + snapshotTtl);
+    }
+  }
+
+  /**
+   * Gets cached POM.
+   *
+   * @param gav Artifact coordinates
+   * @return Parsed POM, empty if POM is not cached, cached snapshot is stale or cache entry is
+   *     unreadable
+   */
+  public Optional<Pom> get(final GroupArtifactVersion gav) {
+    Objects.requireNonNull(gav);
+    final Path modelPath = modelPath(gav);
+    if (Files.notExists(modelPath)) {
+      return Optional.empty();
+    }
+
+    if (gav.version().endsWith(SNAPSHOT_SUFFIX)) {
+      try {
+        final Instant cachedAt = Files.getLastModifiedTime(modelPath).toInstant();
+        if (cachedAt.plus(snapshotTtl).isBefore(Instant.now())) {
+          log.debug("Cached {} POM is stale", gav);
+          return Optional.empty();
+        }
+      } catch (final IOException e) {
+        log.warn("Failed to check cached {} POM age", gav, e);
+        return Optional.empty();
+      }
+    }
+
+    try (final var in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(modelPath))
+    )) {
+      if (in.readInt() != FORMAT_VERSION) {
+        log.debug("Cached {} POM has unsupported format", gav);
+        return Optional.empty();
+      }
+
+      return Optional.of(readPom(in));
+    } catch (final IOException | IllegalArgumentException e) {
+      log.warn("Failed to read cached {} POM from {}", gav, modelPath, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Puts POM to cache, replacing existing entry if any.
+   * <p>
+   * Failing to write entry, e.g. because of unwritable directory or POM that cannot be represented
+   * in binary form, is logged and does not fail the caller, since POM is just fetched again next
+   * time.
+   *
+   * @param gav Artifact coordinates
+   * @param raw Raw POM content
+   * @param pom Parsed POM
+   */
+  public void put(final GroupArtifactVersion gav, final byte[] raw, final Pom pom) {
+    Objects.requireNonNull(gav);
+    Objects.requireNonNull(raw);
+    Objects.requireNonNull(pom);
+
+    final Path modelPath = modelPath(gav);
+    final Path rawPath = modelPath.resolveSibling(gav.artifactId() + '-' + gav.version() + ".pom");
+    try {
+      final var model = new ByteArrayOutputStream();
+      try (final var out = new DataOutputStream(model)) {
+        out.writeInt(FORMAT_VERSION);
+        writePom(out, pom);
+      }
+
+      Files.createDirectories(modelPath.getParent());
+      // parsed POM is written last, so it's never present without raw POM
+      writeAtomically(rawPath, raw);
+      writeAtomically(modelPath, model.toByteArray());
+    } catch (final IOException e) {
+      log.warn("Failed to cache {} POM to {}", gav, modelPath, e);
+      return;
+    }
+
+    log.debug("Cached {} POM to {}", gav, modelPath);
+  }
+
+  /**
+   * Writes file to a temporary file first, so that concurrent readers never see partially written
+   * content.
+   */
+  private static void writeAtomically(final Path file, final byte[] content) throws IOException {
+    final Path tempFile = Files.createTempFile(
+        file.getParent(),
+        file.getFileName().toString(),
+        ".tmp"
+    );
+    try {
+      Files.write(tempFile, content);
+      Files.move(
+          tempFile,
+          file,
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING
+      );
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  private Path modelPath(final GroupArtifactVersion gav) {
+    return basePath
+        .resolve(gav.groupId().replace('.', '/'))
+        .resolve(gav.artifactId())
+        .resolve(gav.version())
+        .resolve(gav.artifactId() + '-' + gav.version() + ".pom.bin");
+  }
+
+  private static void writePom(final DataOutputStream out, final Pom pom) throws IOException {
+    out.writeUTF(pom.groupId());
+    out.writeUTF(pom.artifactId());
+    out.writeUTF(pom.version());
+
+    final Pom.Parent parent = pom.parent();
+    out.writeBoolean(parent != null);
+    if (parent != null) {
+      out.writeUTF(parent.groupId());
+      out.writeUTF(parent.artifactId());
+      out.writeUTF(parent.version());
+    }
+
+    out.writeInt(pom.properties().size());
+    for (final Map.Entry<String, String> property : pom.properties().entrySet()) {
+      out.writeUTF(property.getKey());
+      out.writeUTF(property.getValue());
+    }
+
+    writeDependencies(out, pom.dependencyManagement());
+    writeDependencies(out, pom.dependencies());
+  }
+
+  private static void writeDependencies(
+      final DataOutputStream out,
+      final List<Pom.Dependency> dependencies
+  ) throws IOException {
+    out.writeInt(dependencies.size());
+    for (final Pom.Dependency dependency : dependencies) {
+      out.writeUTF(dependency.groupId());
+      out.writeUTF(dependency.artifactId());
+      writeNullableString(out, dependency.version());
+      out.writeUTF(dependency.scope().name());
+      out.writeInt(dependency.exclusions().size());
+      for (final GroupArtifact exclusion : dependency.exclusions()) {
+        out.writeUTF(exclusion.groupId());
+        out.writeUTF(exclusion.artifactId());
+      }
+      out.writeBoolean(dependency.optional());
+    }
+  }
+
+  private static void writeNullableString(
+      final DataOutputStream out,
+      final @Nullable String value
+  ) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static Pom readPom(final DataInputStream in) throws IOException {
+    final String groupId = Coordinates.string(in.readUTF());
+    final String artifactId = Coordinates.string(in.readUTF());
+    final String version = Coordinates.string(in.readUTF());
+
+    final Pom.@Nullable Parent parent = in.readBoolean()
+        ? new Pom.Parent(
+            Coordinates.string(in.readUTF()),
+            Coordinates.string(in.readUTF()),
+            Coordinates.string(in.readUTF())
+        )
+        : null;
+
+    final int propertyCount = in.readInt();
+    final var properties = new HashMap<String, String>(propertyCount);
+    for (int i = 0; i < propertyCount; i++) {
+      properties.put(in.readUTF(), in.readUTF());
+    }
+
+    final List<Pom.Dependency> dependencyManagement = readDependencies(in);
+    final List<Pom.Dependency> dependencies = readDependencies(in);
+    return new Pom(
+        groupId,
+        artifactId,
+        version,
+        parent,
+        properties,
+        dependencyManagement,
+        dependencies
+    );
+  }
+
+  private static List<Pom.Dependency> readDependencies(
+      final DataInputStream in
+  ) throws IOException {
+    final int count = in.readInt();
+    final var result = new ArrayList<Pom.Dependency>(count);
+    for (int i = 0; i < count; i++) {
+      final String groupId = Coordinates.string(in.readUTF());
+      final String artifactId = Coordinates.string(in.readUTF());
+      final @Nullable String version = in.readBoolean()
+          ? Coordinates.string(in.readUTF())
+          : null;
+      final var scope = Pom.Dependency.Scope.valueOf(in.readUTF());
+      final int exclusionCount = in.readInt();
+      final Set<GroupArtifact> exclusions = new HashSet<>(exclusionCount);
+      for (int j = 0; j < exclusionCount; j++) {
+        exclusions.add(Coordinates.groupArtifact(in.readUTF(), in.readUTF()));
+      }
+      final boolean optional = in.readBoolean();
+      result.add(new Pom.Dependency(groupId, artifactId, version, scope, exclusions, optional));
+    }
+
+    return List.copyOf(result);
+  }
+}
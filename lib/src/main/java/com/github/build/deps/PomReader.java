@@ -0,0 +1,375 @@
+package com.github.build.deps;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Streaming reader of Maven XML documents.
+ * <p>
+ * Only elements necessary for dependency resolution are read, everything else is skipped without
+ * building any intermediate document model. Namespaces are ignored, so documents lacking namespace
+ * declaration are read the same way.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+final class PomReader {
+
+  private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+  private PomReader() {
+  }
+
+  /**
+   * Reads POM.
+   *
+   * @param is POM content, not closed by this method
+   * @return Parsed POM
+   * @throws IllegalStateException If content is not a well-formed XML
+   */
+  static Pom read(final InputStream is) {
+    try {
+      final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(is);
+      try {
+        moveToRoot(reader);
+        return readProject(reader);
+      } finally {
+        reader.close();
+      }
+    } catch (final XMLStreamException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Reads versions listed in repository metadata.
+   *
+   * @param is Metadata content, not closed by this method
+   * @return Versions in the order of appearance
+   * @throws IllegalStateException If content is not a well-formed XML
+   */
+  static List<String> readVersions(final InputStream is) {
+    final var result = new ArrayList<String>();
+    try {
+      final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(is);
+      try {
+        moveToRoot(reader);
+        while (nextChild(reader)) {
+          if (!reader.getLocalName().equals("versioning")) {
+            skip(reader);
+            continue;
+          }
+
+          while (nextChild(reader)) {
+            if (!reader.getLocalName().equals("versions")) {
+              skip(reader);
+              continue;
+            }
+
+            while (nextChild(reader)) {
+              if (!reader.getLocalName().equals("version")) {
+                skip(reader);
+                continue;
+              }
+
+              final @Nullable String version = readText(reader);
+              if (version != null && !version.isBlank()) {
+                result.add(version.strip());
+              }
+            }
+          }
+        }
+      } finally {
+        reader.close();
+      }
+    } catch (final XMLStreamException e) {
+      throw new IllegalStateException(e);
+    }
+
+    return result;
+  }
+
+  private static Pom readProject(final XMLStreamReader reader) throws XMLStreamException {
+    @Nullable String groupId = null;
+    @Nullable String artifactId = null;
+    @Nullable String version = null;
+    Pom.@Nullable Parent parent = null;
+    Map<String, String> properties = Map.of();
+    List<Pom.Dependency> dependencyManagement = List.of();
+    List<Pom.Dependency> dependencies = List.of();
+    while (nextChild(reader)) {
+      switch (reader.getLocalName()) {
+        case "groupId" -> groupId = readCoordinate(reader);
+        case "artifactId" -> artifactId = readCoordinate(reader);
+        case "version" -> version = readCoordinate(reader);
+        case "parent" -> parent = readParent(reader);
+        case "properties" -> properties = readProperties(reader);
+        case "dependencyManagement" -> dependencyManagement = readDependencyManagement(reader);
+        case "dependencies" -> dependencies = readDependencies(reader);
+        default -> skip(reader);
+      }
+    }
+
+    if (groupId == null && parent != null) {
+      groupId = parent.groupId();
+    }
+
+    if (version == null && parent != null) {
+      version = parent.version();
+    }
+
+    return new Pom(
+        require(groupId, "groupId"),
+        require(artifactId, "artifactId"),
+        require(version, "version"),
+        parent,
+        properties,
+        dependencyManagement,
+        dependencies
+    );
+  }
+
+  private static Pom.Parent readParent(final XMLStreamReader reader) throws XMLStreamException {
+    @Nullable String groupId = null;
+    @Nullable String artifactId = null;
+    @Nullable String version = null;
+    while (nextChild(reader)) {
+      switch (reader.getLocalName()) {
+        case "groupId" -> groupId = readCoordinate(reader);
+        case "artifactId" -> artifactId = readCoordinate(reader);
+        case "version" -> version = readCoordinate(reader);
+        default -> skip(reader);
+      }
+    }
+
+    return new Pom.Parent(
+        require(groupId, "parent groupId"),
+        require(artifactId, "parent artifactId"),
+        require(version, "parent version")
+    );
+  }
+
+  private static Map<String, String> readProperties(
+      final XMLStreamReader reader
+  ) throws XMLStreamException {
+    final var result = new HashMap<String, String>();
+    while (nextChild(reader)) {
+      final String name = reader.getLocalName();
+      final @Nullable String value = readText(reader);
+      // empty properties are not defined, same as in Maven
+      if (value != null) {
+        result.put(name, value);
+      }
+    }
+
+    return result;
+  }
+
+  private static List<Pom.Dependency> readDependencyManagement(
+      final XMLStreamReader reader
+  ) throws XMLStreamException {
+    List<Pom.Dependency> result = List.of();
+    while (nextChild(reader)) {
+      if (reader.getLocalName().equals("dependencies")) {
+        result = readDependencies(reader);
+      } else {
+        skip(reader);
+      }
+    }
+
+    return result;
+  }
+
+  private static List<Pom.Dependency> readDependencies(
+      final XMLStreamReader reader
+  ) throws XMLStreamException {
+    final var result = new ArrayList<Pom.Dependency>();
+    while (nextChild(reader)) {
+      if (reader.getLocalName().equals("dependency")) {
+        result.add(readDependency(reader));
+      } else {
+        skip(reader);
+      }
+    }
+
+    return result;
+  }
+
+  private static Pom.Dependency readDependency(
+      final XMLStreamReader reader
+  ) throws XMLStreamException {
+    @Nullable String groupId = null;
+    @Nullable String artifactId = null;
+    @Nullable String version = null;
+    @Nullable String scope = null;
+    @Nullable String optional = null;
+    Set<GroupArtifact> exclusions = Set.of();
+    while (nextChild(reader)) {
+      switch (reader.getLocalName()) {
+        case "groupId" -> groupId = readCoordinate(reader);
+        case "artifactId" -> artifactId = readCoordinate(reader);
+        case "version" -> version = readCoordinate(reader);
+        case "scope" -> scope = readText(reader);
+        case "optional" -> optional = readText(reader);
+        case "exclusions" -> exclusions = readExclusions(reader);
+        default -> skip(reader);
+      }
+    }
+
+    return new Pom.Dependency(
+        require(groupId, "dependency groupId"),
+        require(artifactId, "dependency artifactId"),
+        version,
+        scope == null
+            ? Pom.Dependency.Scope.COMPILE
+            : Pom.Dependency.Scope.valueOf(scope.strip().toUpperCase(Locale.US)),
+        exclusions,
+        optional != null && optional.strip().equals("true")
+    );
+  }
+
+  private static Set<GroupArtifact> readExclusions(
+      final XMLStreamReader reader
+  ) throws XMLStreamException {
+    final var result = new HashSet<GroupArtifact>();
+    while (nextChild(reader)) {
+      if (!reader.getLocalName().equals("exclusion")) {
+        skip(reader);
+        continue;
+      }
+
+      @Nullable String groupId = null;
+      @Nullable String artifactId = null;
+      while (nextChild(reader)) {
+        switch (reader.getLocalName()) {
+          case "groupId" -> groupId = readCoordinate(reader);
+          case "artifactId" -> artifactId = readCoordinate(reader);
+          default -> skip(reader);
+        }
+      }
+
+      result.add(Coordinates.groupArtifact(
+          require(groupId, "exclusion groupId"),
+          require(artifactId, "exclusion artifactId")
+      ));
+    }
+
+    return result;
+  }
+
+  private static void moveToRoot(final XMLStreamReader reader) throws XMLStreamException {
+    if (!nextChild(reader)) {
+      throw new XMLStreamException("Root element not found");
+    }
+  }
+
+  /**
+   * Moves to the next child element of the current element.
+   *
+   * @return True if reader is positioned at child element start, false if reader is positioned at
+   *     the current element end
+   */
+  private static boolean nextChild(final XMLStreamReader reader) throws XMLStreamException {
+    while (reader.hasNext()) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT -> {
+          return true;
+        }
+        case XMLStreamConstants.END_ELEMENT -> {
+          return false;
+        }
+        default -> {
+          // skipping text, comments and processing instructions between elements
+        }
+      }
+    }
+
+    throw new XMLStreamException("Unexpected end of document");
+  }
+
+  /**
+   * Reads text content of the current element, skipping nested elements.
+   *
+   * @return Text content, null if element has no content
+   */
+  private static @Nullable String readText(final XMLStreamReader reader) throws XMLStreamException {
+    @Nullable StringBuilder result = null;
+    while (true) {
+      switch (reader.next()) {
+        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA,
+             XMLStreamConstants.SPACE -> {
+          if (result == null) {
+            result = new StringBuilder();
+          }
+          result.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+        }
+        case XMLStreamConstants.START_ELEMENT -> skip(reader);
+        case XMLStreamConstants.END_ELEMENT -> {
+          return result != null ? result.toString() : null;
+        }
+        case XMLStreamConstants.END_DOCUMENT ->
+            throw new XMLStreamException("Unexpected end of document");
+        default -> {
+          // skipping comments and processing instructions
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads coordinate part, like group ID or version, which is repeated across POMs.
+   *
+   * @return Interned text content, null if element has no content
+   */
+  private static @Nullable String readCoordinate(
+      final XMLStreamReader reader
+  ) throws XMLStreamException {
+    final @Nullable String result = readText(reader);
+    return result != null ? Coordinates.string(result) : null;
+  }
+
+  /**
+   * Skips the current element with all of its content.
+   */
+  private static void skip(final XMLStreamReader reader) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT -> depth++;
+        case XMLStreamConstants.END_ELEMENT -> depth--;
+        case XMLStreamConstants.END_DOCUMENT ->
+            throw new XMLStreamException("Unexpected end of document");
+        default -> {
+          // skipping content
+        }
+      }
+    }
+  }
+
+  private static String require(final @Nullable String value, final String name) {
+    if (value == null) {
+      throw new IllegalStateException("Missing " + name);
+    }
+
+    return value;
+  }
+
+  private static XMLInputFactory createInputFactory() {
+    final XMLInputFactory result = XMLInputFactory.newFactory();
+    result.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    result.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    result.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    return result;
+  }
+}
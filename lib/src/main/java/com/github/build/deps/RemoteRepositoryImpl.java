@@ -1,12 +1,6 @@
 package com.github.build.deps;
 
-import static java.util.Comparator.naturalOrder;
-import static java.util.stream.Collectors.toUnmodifiableMap;
-import static java.util.stream.Collectors.toUnmodifiableSet;
-
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBElement;
-import jakarta.xml.bind.JAXBException;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
@@ -15,29 +9,13 @@ import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Instant;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
-import javax.xml.transform.sax.SAXSource;
-import org.apache.maven.artifact.versioning.ComparableVersion;
-import org.apache.maven.metadata._1_1.Metadata;
-import org.apache.maven.pom._4_0.DependencyManagement;
-import org.apache.maven.pom._4_0.Model;
-import org.apache.maven.pom._4_0.Parent;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Node;
-import org.xml.sax.Attributes;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-import org.xml.sax.XMLFilter;
-import org.xml.sax.XMLReader;
-import org.xml.sax.helpers.XMLFilterImpl;
 import tools.jackson.databind.ObjectMapper;
 
 /**
@@ -56,14 +34,58 @@ public final class RemoteRepositoryImpl implements RemoteRepository {
 
   private final ObjectMapper objectMapper;
 
+  private final @Nullable PomCache pomCache;
+
+  private final MetadataCache metadataCache;
+
   public RemoteRepositoryImpl(
       final URI baseUri,
       final HttpClient client,
       final ObjectMapper objectMapper
+  ) {
+    this(baseUri, client, objectMapper, null);
+  }
+
+  /**
+   * @param baseUri      Repository base URI
+   * @param client       HTTP client
+   * @param objectMapper JSON object mapper
+   * @param pomCache     Persistent POM cache, null to fetch POMs on every call
+   */
+  public RemoteRepositoryImpl(
+      final URI baseUri,
+      final HttpClient client,
+      final ObjectMapper objectMapper,
+      final @Nullable PomCache pomCache
+  ) {
+    this(
+        baseUri,
+        client,
+        objectMapper,
+        pomCache,
+        MetadataCache.inMemory(MetadataCache.DEFAULT_REFRESH_INTERVAL)
+    );
+  }
+
+  /**
+   * @param baseUri       Repository base URI
+   * @param client        HTTP client
+   * @param objectMapper  JSON object mapper
+   * @param pomCache      Persistent POM cache, null to fetch POMs on every call
+   * @param metadataCache Cache of artifact metadata, used for version range lookup
+   */
+  public RemoteRepositoryImpl(
+      final URI baseUri,
+      final HttpClient client,
+      final ObjectMapper objectMapper,
+      final @Nullable PomCache pomCache,
+      final MetadataCache metadataCache
   ) {
     this.baseUri = Objects.requireNonNull(baseUri);
     this.client = Objects.requireNonNull(client);
     this.objectMapper = objectMapper;
+    this.pomCache = pomCache;
+    this.metadataCache = Objects.requireNonNull(metadataCache);
   }
 
   @Override
@@ -107,6 +129,14 @@ public final class RemoteRepositoryImpl implements RemoteRepository {
 
   @Override
   public Optional<Pom> getPom(final GroupArtifactVersion gav) {
+    if (pomCache != null) {
+      final Optional<Pom> cached = pomCache.get(gav);
+      if (cached.isPresent()) {
+        log.debug("Found {} POM in cache", gav);
+        return cached;
+      }
+    }
+
     final URI uri = buildUri(gav, ".pom");
     log.debug("Downloading {} POM from {}", gav, uri);
     final var request = HttpRequest
@@ -129,138 +159,26 @@ public final class RemoteRepositoryImpl implements RemoteRepository {
       return Optional.empty();
     }
 
-    final Model model;
+    if (pomCache == null) {
+      try (final InputStream is = response.body()) {
+        return Optional.of(PomReader.read(is));
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    final byte[] raw;
     try (final InputStream is = response.body()) {
-      final var spf = SAXParserFactory.newInstance();
-      spf.setNamespaceAware(true);
-
-      final XMLReader xmlReader = spf
-          .newSAXParser()
-          .getXMLReader();
-
-      // some POMs may lack namespace declaration
-      // which is necessary for JAXB unmarshalling to succeed
-      final XMLFilter filter = new NamespaceAddingFilter("http://maven.apache.org/POM/4.0.0");
-      filter.setParent(xmlReader);
-
-      final var inputSource = new InputSource(is);
-      final var saxSource = new SAXSource(filter, inputSource);
-
-      final var context = JAXBContext.newInstance(Model.class);
-      final var unmarshaller = context.createUnmarshaller();
-      @SuppressWarnings("unchecked")
-      final var element = (JAXBElement<Model>) unmarshaller.unmarshal(saxSource);
-      model = element.getValue();
+      raw = is.readAllBytes();
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
-    } catch (final JAXBException | ParserConfigurationException | SAXException e) {
-      throw new IllegalStateException(e);
     }
 
-    final Pom result = toPom(model);
+    final Pom result = PomReader.read(new ByteArrayInputStream(raw));
+    pomCache.put(gav, raw, result);
     return Optional.of(result);
   }
 
-  private static Pom toPom(final Model model) {
-    final Pom.Parent parent = mapParent(model.getParent());
-
-    String groupId = model.getGroupId();
-    if (groupId == null) {
-      groupId = parent.groupId();
-    }
-
-    String version = model.getVersion();
-    if (version == null) {
-      version = parent.version();
-    }
-
-    final List<Pom.Dependency> dependencies = mapDependencies(model.getDependencies());
-    final List<Pom.Dependency> dependencyManagement = model.getDependencyManagement() != null
-        ? mapDependencies(model.getDependencyManagement().getDependencies())
-        : List.of();
-    final Map<String, String> properties = mapProperties(model.getProperties());
-    return new Pom(
-        groupId,
-        model.getArtifactId(),
-        version,
-        parent,
-        properties,
-        dependencyManagement,
-        dependencies
-    );
-  }
-
-  private static Pom.Parent mapParent(final Parent parent) {
-    if (parent == null) {
-      return null;
-    }
-
-    return new Pom.Parent(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
-  }
-
-  private static List<Pom.Dependency> mapDependencies(final Model.Dependencies container) {
-    return container != null ? mapDependencies(container.getDependency()) : List.of();
-  }
-
-  private static List<Pom.Dependency> mapDependencies(
-      final DependencyManagement.Dependencies container
-  ) {
-    return container != null ? mapDependencies(container.getDependency()) : List.of();
-  }
-
-  private static List<Pom.Dependency> mapDependencies(
-      final List<org.apache.maven.pom._4_0.Dependency> dependencies
-  ) {
-    if (dependencies == null || dependencies.isEmpty()) {
-      return List.of();
-    }
-
-    return dependencies
-        .stream()
-        .map(d -> {
-          final boolean optional = "true".equals(d.getOptional());
-          final var scope = d.getScope() == null
-              ? Pom.Dependency.Scope.COMPILE
-              : Pom.Dependency.Scope.valueOf(d.getScope().toUpperCase(Locale.US));
-          final Set<GroupArtifact> exclusions;
-          if (d.getExclusions() == null) {
-            exclusions = Set.of();
-          } else {
-            exclusions = d.getExclusions().getExclusion()
-                .stream()
-                .map(exclusion -> new GroupArtifact(
-                    exclusion.getGroupId(),
-                    exclusion.getArtifactId())
-                )
-                .collect(toUnmodifiableSet());
-          }
-
-          return new Pom.Dependency(
-              d.getGroupId(),
-              d.getArtifactId(),
-              d.getVersion(),
-              scope,
-              exclusions,
-              optional
-          );
-        })
-        .toList();
-  }
-
-  private static Map<String, String> mapProperties(final Model.Properties container) {
-    if (container == null) {
-      return Map.of();
-    }
-
-    return container.getAny()
-        .stream()
-        .filter(Node::hasChildNodes)
-        .collect(toUnmodifiableMap(
-            Node::getNodeName,
-            element -> element.getFirstChild().getNodeValue()
-        ));
-  }
-
   private URI buildUri(final GroupArtifactVersion gav, final String suffix) {
     // TODO: fragile - use dedicated URI builder
     final String result = baseUri
@@ -294,14 +212,40 @@ public final class RemoteRepositoryImpl implements RemoteRepository {
       throw new IllegalStateException(e);
     }
 
+    final MetadataCache.@Nullable Entry metadata = getMetadata(ga, uri);
+    if (metadata == null) {
+      return Optional.empty();
+    }
+
+    return metadata.findMax(range);
+  }
+
+  /**
+   * Gets artifact metadata from cache, fetching or revalidating it if necessary.
+   *
+   * @return Metadata, null if it's not found neither in cache nor in repository
+   */
+  private MetadataCache.@Nullable Entry getMetadata(final GroupArtifact ga, final URI uri) {
+    final MetadataCache.@Nullable Entry cached = metadataCache.get(ga);
+    if (cached != null && !metadataCache.needsRefresh(cached)) {
+      log.debug("Found {} metadata in cache", ga);
+      return cached;
+    }
+
     log.debug("Downloading {} metadata from {}", ga, uri);
-    final var request = HttpRequest
+    final var requestBuilder = HttpRequest
         .newBuilder(uri)
-        .GET()
-        .build();
+        .GET();
+    if (cached != null && cached.etag() != null) {
+      requestBuilder.header("If-None-Match", cached.etag());
+    }
+    if (cached != null && cached.lastModified() != null) {
+      requestBuilder.header("If-Modified-Since", cached.lastModified());
+    }
+
     final HttpResponse<InputStream> response;
     try {
-      response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+      response = client.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofInputStream());
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     } catch (final InterruptedException e) {
@@ -309,75 +253,33 @@ public final class RemoteRepositoryImpl implements RemoteRepository {
       throw new IllegalStateException(e);
     }
 
-    final boolean is2xx = response.statusCode() >= 200 && response.statusCode() < 300;
-    if (!is2xx) {
-      log.warn("Downloading {} metadata failed, response status: {}", ga, response.statusCode());
-      return Optional.empty();
-    }
-
-    final Metadata metadata;
+    final List<String> versions;
     try (final InputStream is = response.body()) {
-      final var spf = SAXParserFactory.newInstance();
-      spf.setNamespaceAware(true);
-
-      final XMLReader xmlReader = spf
-          .newSAXParser()
-          .getXMLReader();
-
-      // some POMs may lack namespace declaration
-      // which is necessary for JAXB unmarshalling to succeed
-      final XMLFilter filter = new NamespaceAddingFilter("http://maven.apache.org/METADATA/1.1.0");
-      filter.setParent(xmlReader);
-
-      final var inputSource = new InputSource(is);
-      final var saxSource = new SAXSource(filter, inputSource);
-
-      final var context = JAXBContext.newInstance("org.apache.maven.metadata._1_1");
-      final var unmarshaller = context.createUnmarshaller();
-      @SuppressWarnings("unchecked")
-      final var element = (JAXBElement<Metadata>) unmarshaller.unmarshal(saxSource);
-      metadata = element.getValue();
+      if (response.statusCode() == 304 && cached != null) {
+        log.debug("{} metadata not modified", ga);
+        final MetadataCache.Entry revalidated = cached.revalidatedAt(Instant.now());
+        metadataCache.put(ga, revalidated);
+        return revalidated;
+      }
+
+      final boolean is2xx = response.statusCode() >= 200 && response.statusCode() < 300;
+      if (!is2xx) {
+        log.warn("Downloading {} metadata failed, response status: {}", ga, response.statusCode());
+        return null;
+      }
+
+      versions = PomReader.readVersions(is);
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
-    } catch (final JAXBException | ParserConfigurationException | SAXException e) {
-      throw new IllegalStateException(e);
     }
 
-    return metadata.getVersioning().getVersions().getVersion()
-        .stream()
-        .map(ComparableVersion::new)
-        .filter(range::contains)
-        .max(naturalOrder())
-        .map(ComparableVersion::getCanonical);
-  }
-
-  /**
-   * XML filter that adds Maven namespace if it's missing.
-   * <p>
-   * This way it's not necessary to change received XML.
-   */
-  public static final class NamespaceAddingFilter extends XMLFilterImpl {
-
-    private final String namespace;
-
-    public NamespaceAddingFilter(final String namespace) {
-      this.namespace = namespace;
-    }
-
-    @Override
-    public void startElement(
-        final String uri,
-        final String localName,
-        final String qName,
-        final Attributes attributes
-    ) throws SAXException {
-      final boolean uriPresent = uri != null && !uri.isBlank();
-      super.startElement(
-          uriPresent ? uri : namespace,
-          localName,
-          qName,
-          attributes
-      );
-    }
+    final var result = new MetadataCache.Entry(
+        MetadataCache.Entry.sorted(versions),
+        response.headers().firstValue("ETag").orElse(null),
+        response.headers().firstValue("Last-Modified").orElse(null),
+        Instant.now()
+    );
+    metadataCache.put(ga, result);
+    return result;
   }
 }
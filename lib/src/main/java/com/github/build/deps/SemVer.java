@@ -5,7 +5,6 @@ import static java.util.stream.Collectors.joining;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.function.Predicate;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import org.jspecify.annotations.Nullable;
@@ -18,67 +17,93 @@ import org.jspecify.annotations.Nullable;
  */
 public final class SemVer implements Comparable<SemVer> {
 
+  /**
+   * Parses version in a single pass over the version core, without intermediate strings.
+   *
+   * @param value Version string, surrounding whitespace ignored
+   * @return Parsed version
+   * @throws IllegalArgumentException If value is not a valid version
+   */
   public static SemVer parse(final String value) {
     Objects.requireNonNull(value);
     final String trimmedValue = value.strip();
-    final int hyphenIndex = trimmedValue.indexOf('-');
-    final int plusSignIndex = trimmedValue.indexOf('+');
 
-    final String versionCore;
+    final int majorEnd = digitsEnd(trimmedValue, 0);
+    final int major = parseCorePart(trimmedValue, 0, majorEnd, "Major");
+    final int minorStart = skipDot(trimmedValue, majorEnd);
+    final int minorEnd = digitsEnd(trimmedValue, minorStart);
+    final int minor = parseCorePart(trimmedValue, minorStart, minorEnd, "Minor");
+    final int patchStart = skipDot(trimmedValue, minorEnd);
+    final int patchEnd = digitsEnd(trimmedValue, patchStart);
+    final int patch = parseCorePart(trimmedValue, patchStart, patchEnd, "Patch");
+
     String preRelease = null;
     String build = null;
-    if (hyphenIndex != -1) {
-      if (plusSignIndex != -1) {
-        if (plusSignIndex > hyphenIndex) {
-          versionCore = trimmedValue.substring(0, hyphenIndex);
-          preRelease = trimmedValue.substring(hyphenIndex + 1, plusSignIndex);
-          build = trimmedValue.substring(plusSignIndex + 1);
+    if (patchEnd < trimmedValue.length()) {
+      final char separator = trimmedValue.charAt(patchEnd);
+      if (separator == '-') {
+        final int plusSignIndex = trimmedValue.indexOf('+', patchEnd + 1);
+        if (plusSignIndex == -1) {
+          preRelease = trimmedValue.substring(patchEnd + 1);
         } else {
-          // hyphens after plus sign considered part of build
-          versionCore = trimmedValue.substring(0, plusSignIndex);
+          preRelease = trimmedValue.substring(patchEnd + 1, plusSignIndex);
           build = trimmedValue.substring(plusSignIndex + 1);
         }
+      } else if (separator == '+') {
+        // hyphens after plus sign considered part of build
+        build = trimmedValue.substring(patchEnd + 1);
       } else {
-        versionCore = trimmedValue.substring(0, hyphenIndex);
-        preRelease = trimmedValue.substring(hyphenIndex + 1);
+        throw new IllegalArgumentException("Invalid version core");
       }
-    } else if (plusSignIndex != -1) {
-      versionCore = trimmedValue.substring(0, plusSignIndex);
-      build = trimmedValue.substring(plusSignIndex + 1);
-    } else {
-      versionCore = trimmedValue;
     }
 
-    final Matcher versionCoreMatcher = VERSION_CORE_FORMAT.matcher(versionCore);
-    if (!versionCoreMatcher.matches()) {
+    return of(major, minor, patch, preRelease, build);
+  }
+
+  private static int digitsEnd(final String value, final int start) {
+    int index = start;
+    while (index < value.length() && value.charAt(index) >= '0' && value.charAt(index) <= '9') {
+      index++;
+    }
+
+    return index;
+  }
+
+  private static int skipDot(final String value, final int index) {
+    if (index == value.length() || value.charAt(index) != '.') {
       throw new IllegalArgumentException("Invalid version core");
     }
 
-    final String majorStr = versionCoreMatcher.group("major");
-    final int major = Integer.parseInt(majorStr);
-    if (hasLeadingZeroes(major, majorStr)) {
-      throw new IllegalArgumentException("Major part must not contain leading zeroes");
+    return index + 1;
+  }
+
+  private static int parseCorePart(
+      final String value,
+      final int start,
+      final int end,
+      final String partName
+  ) {
+    if (start == end) {
+      throw new IllegalArgumentException("Invalid version core");
     }
 
-    final String minorStr = versionCoreMatcher.group("minor");
-    final int minor = Integer.parseInt(minorStr);
-    if (hasLeadingZeroes(minor, minorStr)) {
-      throw new IllegalArgumentException("Minor part must not contain leading zeroes");
+    if (end - start > 1 && value.charAt(start) == '0') {
+      throw new IllegalArgumentException(partName + " part must not contain leading zeroes");
     }
 
-    final String patchStr = versionCoreMatcher.group("patch");
-    final int patch = Integer.parseInt(patchStr);
-    if (hasLeadingZeroes(patch, patchStr)) {
-      throw new IllegalArgumentException("Patch part must not contain leading zeroes");
+    int result = 0;
+    for (int i = start; i < end; i++) {
+      final int digit = value.charAt(i) - '0';
+      if (result > (Integer.MAX_VALUE - digit) / 10) {
+        throw new IllegalArgumentException(partName + " part is too large");
+      }
+
+      result = result * 10 + digit;
     }
 
-    return of(major, minor, patch, preRelease, build);
+    return result;
   }
 
-  private static final Pattern VERSION_CORE_FORMAT = Pattern.compile(
-      "^(?<major>\\d+)\\.(?<minor>\\d+)\\.(?<patch>\\d+)$"
-  );
-
   public static SemVer of(
       final int major,
       final int minor,
@@ -163,8 +188,13 @@ public final class SemVer implements Comparable<SemVer> {
     this.patch = patch;
     this.preRelease = preRelease;
     this.build = build;
+    this.orderingKey = orderingKey(major, minor, patch, preRelease == null);
   }
 
+  private static final int KEY_PART_BITS = 20;
+
+  private static final int KEY_PART_MAX = (1 << KEY_PART_BITS) - 1;
+
   private static final Predicate<String> PRE_RELEASE_FORMAT = Pattern
       .compile("^[0-9A-Za-z-]+(\\.[0-9A-Za-z-]+)*$")
       .asMatchPredicate();
@@ -173,12 +203,55 @@ public final class SemVer implements Comparable<SemVer> {
   private final int patch;
   private final Object @Nullable [] preRelease;
   private final @Nullable String build;
+  private final long orderingKey;
+
 
+  /**
+   * Packs version core into {@value #KEY_PART_BITS}-bit slots, followed by a bit set for release
+   * versions, so that release follows its pre-releases. Part not fitting into its slot saturates
+   * it along with all lower bits, so that keys never contradict version ordering.
+   */
+  private static long orderingKey(
+      final int major,
+      final int minor,
+      final int patch,
+      final boolean release
+  ) {
+    final int minorBits = 2 * KEY_PART_BITS + 1;
+    if (major >= KEY_PART_MAX) {
+      return (1L << KEY_PART_BITS + minorBits) - 1;
+    }
+
+    final long majorKey = (long) major << minorBits;
+    final int patchBits = KEY_PART_BITS + 1;
+    if (minor >= KEY_PART_MAX) {
+      return majorKey | (1L << minorBits) - 1;
+    }
+
+    final long minorKey = majorKey | (long) minor << patchBits;
+    if (patch >= KEY_PART_MAX) {
+      return minorKey | (1L << patchBits) - 1;
+    }
+
+    return minorKey | (long) patch << 1 | (release ? 1 : 0);
+  }
 
   private static boolean hasLeadingZeroes(final int number, final String numberStr) {
     return number == 0 && numberStr.length() > 1 || number > 0 && numberStr.startsWith("0");
   }
 
+  /**
+   * Returns primitive key for sorting large lists of versions without comparing them as objects.
+   * <p>
+   * Version with lower key is lower. Versions having the same key, e.g. pre-releases of the same
+   * version core, must be compared as objects.
+   *
+   * @return Ordering key
+   */
+  public long orderingKey() {
+    return orderingKey;
+  }
+
   @Override
   public String toString() {
     final var sb = new StringBuilder()
@@ -209,6 +282,10 @@ public final class SemVer implements Comparable<SemVer> {
 
   @Override
   public int compareTo(final SemVer o) {
+    if (orderingKey != o.orderingKey) {
+      return Long.compare(orderingKey, o.orderingKey);
+    }
+
     if (major != o.major) {
       return Integer.compare(major, o.major);
     }
@@ -0,0 +1,134 @@
+package com.github.build.deps;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Pre-parsed comparable form of Maven version, ordered the same way as {@link ComparableVersion}.
+ * <p>
+ * Versions of up to {@value #MAX_COMPONENTS} numeric components, each not exceeding
+ * {@value #MAX_COMPONENT}, like {@code 1.2.3}, are packed into a single long, so comparing two
+ * such versions takes a single primitive comparison without allocation. Other versions fall back
+ * to {@link ComparableVersion}. Keys are interned, so each version string is parsed once.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class VersionKey implements Comparable<VersionKey> {
+
+  private static final int MAX_COMPONENTS = 4;
+
+  /**
+   * Highest packed component value, so that packed versions are never negative.
+   */
+  private static final int MAX_COMPONENT = Short.MAX_VALUE;
+
+  private static final long NOT_PACKED = -1;
+
+  private static final Map<String, VersionKey> INTERNED = new ConcurrentHashMap<>();
+
+  private final String value;
+
+  private final ComparableVersion comparable;
+
+  private final long packed;
+
+  private final boolean numeric;
+
+  private VersionKey(final String value) {
+    this.value = value;
+    this.comparable = new ComparableVersion(value);
+    this.packed = pack(value);
+    this.numeric = packed != NOT_PACKED;
+  }
+
+  /**
+   * @param value Version string
+   * @return Interned key of version
+   */
+  public static VersionKey of(final String value) {
+    Objects.requireNonNull(value);
+    if (value.isBlank()) {
+      throw new IllegalArgumentException();
+    }
+
+    return INTERNED.computeIfAbsent(value, VersionKey::new);
+  }
+
+  @Override
+  public int compareTo(final VersionKey other) {
+    if (numeric && other.numeric) {
+      return Long.compare(packed, other.packed);
+    }
+
+    return comparable.compareTo(other.comparable);
+  }
+
+  @Override
+  public boolean equals(final @Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof VersionKey other)) {
+      return false;
+    }
+    if (numeric && other.numeric) {
+      return packed == other.packed;
+    }
+
+    return comparable.equals(other.comparable);
+  }
+
+  @Override
+  public int hashCode() {
+    // consistent with equals for equal numeric and non-numeric keys, like 1 and 1.0.0.0.0
+    return comparable.hashCode();
+  }
+
+  /**
+   * @return Version string the key was created from
+   */
+  @Override
+  public String toString() {
+    return value;
+  }
+
+  /**
+   * Packs dot-separated numeric components into 16-bit slots from the highest one, missing
+   * components being zero, which is how {@link ComparableVersion} pads shorter versions.
+   */
+  private static long pack(final String value) {
+    long result = 0;
+    int components = 0;
+    int component = 0;
+    int digits = 0;
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c >= '0' && c <= '9') {
+        component = component * 10 + (c - '0');
+        digits++;
+        if (component > MAX_COMPONENT) {
+          return NOT_PACKED;
+        }
+      } else if (c == '.' && digits > 0 && components < MAX_COMPONENTS - 1) {
+        result = result << Short.SIZE | component;
+        components++;
+        component = 0;
+        digits = 0;
+      } else {
+        return NOT_PACKED;
+      }
+    }
+
+    if (digits == 0) {
+      return NOT_PACKED;
+    }
+
+    result = result << Short.SIZE | component;
+    components++;
+    return result << Short.SIZE * (MAX_COMPONENTS - components);
+  }
+}
@@ -4,17 +4,34 @@ import com.github.build.deps.GroupArtifact;
 import com.github.build.deps.GroupArtifactVersion;
 import com.github.build.deps.MavenVersion;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.IntConsumer;
 import java.util.function.Predicate;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Dependency graph.
+ * <p>
+ * Nodes are addressed by integer IDs, with root having ID {@value #ROOT_ID}. Tree structure is
+ * kept in primitive arrays of parent, first child, last child and sibling IDs, and each node path
+ * is indexed, so adding, looking up and removing a node does not walk the path from the root.
+ * Equal values are interned, so values of all nodes with the same artifact are the same instance.
+ * <p>
+ * Exclusion sets are interned as well, and each node refers to its own exclusions and to the
+ * exclusions inherited from its ancestors by set ID. Since sets along a path rarely change, nodes
+ * share the same few sets, each kept as a bit set over artifact IDs, so checking whether a node is
+ * excluded takes constant time, and memory is proportional to the number of distinct sets rather
+ * than to the number of nodes.
+ *
  * @author noavarice
  * @since 1.0.0
  */
@@ -22,8 +39,72 @@ public final class Graph {
 
   private static final Logger log = LoggerFactory.getLogger(Graph.class);
 
-  private final List<Node> nodes = new ArrayList<>();
+  private static final int ROOT_ID = 0;
 
+  private static final int NO_NODE = -1;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private static final int EMPTY_EXCLUSIONS = 0;
+
+  private final Map<GraphValue, GraphValue> internedValues = new HashMap<>();
+
+  private final Map<GraphPath, Integer> ids = new HashMap<>();
+
+  private final List<@Nullable GraphValue> values = new ArrayList<>();
+
+  private final Map<GroupArtifact, Integer> artifactIds = new HashMap<>();
+
+  private final Map<Set<GroupArtifact>, Integer> exclusionSetIds = new HashMap<>();
+
+  private final List<Set<GroupArtifact>> exclusionSets = new ArrayList<>();
+
+  private final List<BitSet> exclusionBits = new ArrayList<>();
+
+  /**
+   * IDs of exclusion set unions, keyed by pair of inherited set ID and own set ID.
+   */
+  private final Map<Long, Integer> unionIds = new HashMap<>();
+
+  private final List<GraphPath> paths = new ArrayList<>();
+
+  private final BitSet excluded = new BitSet();
+
+  private int[] parents = new int[INITIAL_CAPACITY];
+
+  private int[] firstChildren = new int[INITIAL_CAPACITY];
+
+  private int[] lastChildren = new int[INITIAL_CAPACITY];
+
+  private int[] nextSiblings = new int[INITIAL_CAPACITY];
+
+  private int[] previousSiblings = new int[INITIAL_CAPACITY];
+
+  private int[] ownExclusions = new int[INITIAL_CAPACITY];
+
+  /**
+   * IDs of sets of artifacts excluded by node or any of its ancestors.
+   */
+  private int[] inheritedExclusions = new int[INITIAL_CAPACITY];
+
+  private int size;
+
+  public Graph() {
+    internExclusions(Set.of());
+    newNode(NO_NODE, null, EMPTY_EXCLUSIONS, GraphPath.ROOT);
+  }
+
+  /**
+   * Adds value as the last child of the node at the specified path.
+   * <p>
+   * Adding value already present at the path replaces its exclusions, so the last declaration
+   * wins, as with a child POM redeclaring dependency of its parent.
+   *
+   * @param value      Value to add
+   * @param exclusions Artifacts excluded from value dependencies
+   * @param path       Path to parent node
+   * @throws IllegalArgumentException If path is not present in graph
+   */
   public void add(
       final GraphValue value,
       final Set<GroupArtifact> exclusions,
@@ -33,39 +114,27 @@ public final class Graph {
     Objects.requireNonNull(exclusions);
     Objects.requireNonNull(path);
 
-    var currentPath = GraphPath.ROOT;
-    var currentNodes = this.nodes;
-
-    final var exclusionsDuringPath = new HashSet<>();
-    final var excludedBy = new HashSet<GraphPath>();
-
-    for (final GraphValue pathPart : path) {
-      boolean found = false;
-      for (final Node currentNode : currentNodes) {
-        if (currentNode.value.equals(pathPart)) {
-          currentPath = currentPath.addLast(pathPart);
-          if (exclusionsDuringPath.contains(pathPart.groupArtifact())) {
-            excludedBy.add(currentPath);
-          }
-
-          exclusionsDuringPath.addAll(currentNode.exclusions);
-          currentNodes = currentNode.nodes;
-          found = true;
-          break;
-        }
-      }
-
-      if (!found) {
-        throw new IllegalArgumentException("Path not found");
-      }
+    final @Nullable Integer parent = ids.get(path);
+    if (parent == null) {
+      throw new IllegalArgumentException("Path not found");
     }
 
-    if (exclusionsDuringPath.contains(value.groupArtifact())) {
-      excludedBy.add(path);
+    final GraphValue interned = internedValues.computeIfAbsent(value, ignored -> value);
+    final GraphPath nodePath = path.addLast(interned);
+    final @Nullable Integer existing = ids.get(nodePath);
+    if (existing != null) {
+      log.debug("{} is already present in graph, replacing its exclusions", nodePath);
+      replaceExclusions(existing, internExclusions(exclusions));
+      return;
     }
 
-    final var newNode = new Node(value, exclusions, excludedBy);
-    currentNodes.add(newNode);
+    final int node = newNode(parent, interned, internExclusions(exclusions), nodePath);
+    final @Nullable Integer artifactId = artifactIds.get(interned.groupArtifact());
+    final boolean excludedByAncestor = artifactId != null
+        && exclusionBits.get(inheritedExclusions[parent]).get(artifactId);
+    if (excluded.get(parent) || excludedByAncestor) {
+      excluded.set(node);
+    }
   }
 
   public boolean removeLast(final GraphPath path) {
@@ -74,47 +143,33 @@ public final class Graph {
       return false;
     }
 
-    var currentNodes = this.nodes;
-    for (final GraphValue value : path.removeLast()) {
-      boolean found = false;
-      for (final Node currentNode : currentNodes) {
-        if (currentNode.value.equals(value)) {
-          currentNodes = currentNode.nodes;
-          found = true;
-          break;
-        }
-      }
+    final @Nullable Integer node = ids.get(path);
+    if (node == null) {
+      return false;
+    }
 
-      if (!found) {
-        return false;
+    unlink(node);
+    int[] stack = new int[INITIAL_CAPACITY];
+    int stackSize = 0;
+    stack[stackSize++] = node;
+    while (stackSize > 0) {
+      final int current = stack[--stackSize];
+      ids.remove(paths.get(current));
+      for (int child = firstChildren[current]; child != NO_NODE; child = nextSiblings[child]) {
+        if (stackSize == stack.length) {
+          stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = child;
       }
     }
 
-    final GraphValue toRemove = path.getLast();
-    return currentNodes.removeIf(node -> node.value.equals(toRemove));
+    return true;
   }
 
   // TODO: should this method account for exclusions?
   public boolean contains(final GraphPath path) {
     Objects.requireNonNull(path);
-
-    var currentNodes = nodes;
-    for (final GraphValue value : path) {
-      boolean found = false;
-      for (final Node currentNode : currentNodes) {
-        if (currentNode.value.equals(value)) {
-          currentNodes = currentNode.nodes;
-          found = true;
-          break;
-        }
-      }
-
-      if (!found) {
-        return false;
-      }
-    }
-
-    return true;
+    return ids.containsKey(path);
   }
 
   public Set<GraphPath> findAllPaths(final GroupArtifact groupArtifact) {
@@ -125,30 +180,18 @@ public final class Graph {
   private Set<GraphPath> findAllPaths(final Predicate<GraphValue> condition) {
     Objects.requireNonNull(condition);
 
-    record State(GraphPath path, List<Node> nodes) {
-
-      State {
-        Objects.requireNonNull(path);
-        nodes = List.copyOf(nodes);
-      }
-
-      State next(final Node node) {
-        return new State(path.addLast(node.value), node.nodes);
-      }
-    }
-
-    final var queue = new ArrayList<State>();
-    queue.addLast(new State(GraphPath.ROOT, nodes));
-
     final var result = new HashSet<GraphPath>();
-    while (!queue.isEmpty()) {
-      final State state = queue.removeFirst();
-      for (final Node node : state.nodes) {
-        final GraphValue gav = node.value;
-        if (condition.test(gav)) {
-          result.add(state.path.addLast(gav));
-        } else if (!node.nodes.isEmpty()) {
-          queue.addLast(state.next(node));
+    final var queue = new int[size];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = ROOT_ID;
+    while (head < tail) {
+      final int node = queue[head++];
+      for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+        if (condition.test(value(child))) {
+          result.add(paths.get(child));
+        } else if (firstChildren[child] != NO_NODE) {
+          queue[tail++] = child;
         }
       }
     }
@@ -156,117 +199,265 @@ public final class Graph {
     return result;
   }
 
+  /**
+   * Resolves graph, leaving single version of each artifact.
+   *
+   * @return Resolved graph
+   * @see #resolveDependencies()
+   */
   public Graph resolve() {
-    record State(GraphPath path, List<Node> nodes) {
+    final var result = new Graph();
+    resolve(node -> result.add(
+        value(node),
+        exclusionSets.get(ownExclusions[node]),
+        paths.get(parents[node])
+    ));
+    return result;
+  }
 
-      State {
-        Objects.requireNonNull(path);
-        nodes = List.copyOf(nodes);
-      }
+  /**
+   * Resolves graph to a set of dependencies without building resolved graph.
+   *
+   * @return Resolved dependencies, same as dependencies of {@link #resolve() resolved graph}
+   */
+  public Set<GroupArtifactVersion> resolveDependencies() {
+    final var result = new HashSet<GroupArtifactVersion>();
+    resolve(node -> result.add(toGroupArtifactVersion(value(node))));
+    return Set.copyOf(result);
+  }
 
-      State next(final Node node) {
-        return new State(path.addLast(node.value), node.nodes);
+  /**
+   * Resolves conflicts in a single breadth-first pass.
+   * <p>
+   * Excluded nodes are skipped along with their subtrees. The nearest node of each artifact wins,
+   * and among nodes of the same depth the first one wins, unless they are declared by the same
+   * parent, in which case the last declaration wins. Subtrees of losing nodes are not visited.
+   *
+   * @param winners Consumer of winning nodes, called in breadth-first order, so parent is always
+   *                consumed before its children
+   */
+  private void resolve(final IntConsumer winners) {
+    final Map<GroupArtifact, Integer> winnerByArtifact = new HashMap<>();
+    final var replaced = new BitSet();
+    final var queue = new int[size];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = ROOT_ID;
+    while (head < tail) {
+      final int node = queue[head++];
+      if (replaced.get(node)) {
+        continue;
       }
-    }
-
-    final var queue = new ArrayList<State>();
-    queue.add(new State(GraphPath.ROOT, nodes));
 
-    final var result = new Graph();
+      if (node != ROOT_ID) {
+        winners.accept(node);
+      }
 
-    final Map<GroupArtifact, List<GraphPath>> artifactPaths = new HashMap<>();
-    do {
-      final State currentState = queue.removeFirst();
-      for (final Node node : currentState.nodes) {
-        final GroupArtifact groupArtifact = node.value.groupArtifact();
-        final boolean excluded = !node.excludedBy.isEmpty();
-        if (excluded) {
-          if (log.isDebugEnabled()) {
-            log.debug("{} is excluded by {}", groupArtifact, node.excludedBy);
-          } else {
-            log.debug("{} is excluded", groupArtifact);
-          }
+      for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+        final GroupArtifact groupArtifact = value(child).groupArtifact();
+        if (excluded.get(child)) {
+          log.debug("{} is excluded at {}", groupArtifact, paths.get(child));
           continue;
         }
 
-        final List<GraphPath> paths = artifactPaths
-            .computeIfAbsent(groupArtifact, ignored -> new ArrayList<>());
-        paths.add(currentState.path.addLast(node.value));
-        result.add(node.value, node.exclusions, currentState.path);
-        queue.add(currentState.next(node));
-      }
-    } while (!queue.isEmpty());
-
-    // resolving conflicts
-    for (final GroupArtifact groupArtifact : artifactPaths.keySet()) {
-      final var paths = artifactPaths.get(groupArtifact);
-      if (paths.size() < 2) {
-        continue;
-      }
-
-      log.debug("Found conflicts for {}: {}", groupArtifact, paths);
-      GraphPath picked = paths.getFirst();
-      for (int i = 1; i < paths.size(); i++) {
-        final GraphPath path = paths.get(i);
-        if (path.isDuplicateWith(picked)) {
-          log.debug("Path {} is duplicate with {}, picking {} as latest", path, picked, path);
-          result.removeLast(picked);
-          picked = path;
+        final @Nullable Integer winner = winnerByArtifact.get(groupArtifact);
+        if (winner == null) {
+          winnerByArtifact.put(groupArtifact, child);
+          queue[tail++] = child;
+        } else if (parents[winner] == node) {
+          log.debug("Path {} is duplicate with {}, picking {} as latest",
+              paths.get(child),
+              paths.get(winner),
+              paths.get(child)
+          );
+          replaced.set(winner);
+          winnerByArtifact.put(groupArtifact, child);
+          queue[tail++] = child;
         } else {
-          log.debug("Path {} conflicts with {}, picking {} as earliest", path, picked, picked);
-          result.removeLast(path);
+          log.debug("Path {} conflicts with {}, picking {} as earliest",
+              paths.get(child),
+              paths.get(winner),
+              paths.get(winner)
+          );
         }
       }
     }
-
-    return result;
   }
 
   public Set<GroupArtifactVersion> toDependencies() {
-    if (nodes.isEmpty()) {
-      return Set.of();
+    final var result = new HashSet<GroupArtifactVersion>();
+    final var queue = new int[size];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = ROOT_ID;
+    while (head < tail) {
+      final int node = queue[head++];
+      for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+        result.add(toGroupArtifactVersion(value(child)));
+        queue[tail++] = child;
+      }
     }
 
-    final var queue = new ArrayList<>(nodes);
-    final var result = new HashSet<GroupArtifactVersion>();
+    return Set.copyOf(result);
+  }
 
-    do {
-      final Node currentNode = queue.removeFirst();
-      switch (currentNode.value.version()) {
-        case MavenVersion.Exact exact ->
-            result.add(currentNode.value.groupArtifact().withVersion(exact.value()));
-        case MavenVersion.Range range ->
-            throw new UnsupportedOperationException(); // FIXME: handle ranges
+  private int newNode(
+      final int parent,
+      @Nullable final GraphValue value,
+      final int nodeExclusions,
+      final GraphPath path
+  ) {
+    if (size == parents.length) {
+      final int capacity = size * 2;
+      parents = Arrays.copyOf(parents, capacity);
+      firstChildren = Arrays.copyOf(firstChildren, capacity);
+      lastChildren = Arrays.copyOf(lastChildren, capacity);
+      nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+      previousSiblings = Arrays.copyOf(previousSiblings, capacity);
+      ownExclusions = Arrays.copyOf(ownExclusions, capacity);
+      inheritedExclusions = Arrays.copyOf(inheritedExclusions, capacity);
+    }
+
+    final int node = size++;
+    values.add(value);
+    ownExclusions[node] = nodeExclusions;
+    inheritedExclusions[node] = parent == NO_NODE
+        ? nodeExclusions
+        : unionExclusions(inheritedExclusions[parent], nodeExclusions);
+    paths.add(path);
+    ids.put(path, node);
+
+    parents[node] = parent;
+    firstChildren[node] = NO_NODE;
+    lastChildren[node] = NO_NODE;
+    nextSiblings[node] = NO_NODE;
+    previousSiblings[node] = NO_NODE;
+    if (parent != NO_NODE) {
+      final int previous = lastChildren[parent];
+      if (previous == NO_NODE) {
+        firstChildren[parent] = node;
+      } else {
+        nextSiblings[previous] = node;
+        previousSiblings[node] = previous;
       }
-      queue.addAll(currentNode.nodes);
-    } while (!queue.isEmpty());
+      lastChildren[parent] = node;
+    }
 
-    return Set.copyOf(result);
+    return node;
+  }
+
+  /**
+   * Replaces own exclusions of node, updating inherited exclusions of node and its descendants.
+   */
+  private void replaceExclusions(final int node, final int nodeExclusions) {
+    if (ownExclusions[node] == nodeExclusions) {
+      return;
+    }
+
+    ownExclusions[node] = nodeExclusions;
+    inheritedExclusions[node] = unionExclusions(inheritedExclusions[parents[node]], nodeExclusions);
+    int[] stack = new int[INITIAL_CAPACITY];
+    int stackSize = 0;
+    stack[stackSize++] = node;
+    while (stackSize > 0) {
+      final int current = stack[--stackSize];
+      final BitSet currentExclusions = exclusionBits.get(inheritedExclusions[current]);
+      for (int child = firstChildren[current]; child != NO_NODE; child = nextSiblings[child]) {
+        inheritedExclusions[child] = unionExclusions(
+            inheritedExclusions[current],
+            ownExclusions[child]
+        );
+        final @Nullable Integer artifactId = artifactIds.get(value(child).groupArtifact());
+        excluded.set(
+            child,
+            excluded.get(current) || artifactId != null && currentExclusions.get(artifactId)
+        );
+        if (stackSize == stack.length) {
+          stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = child;
+      }
+    }
   }
 
-  private static final class Node {
+  /**
+   * @return ID of interned exclusion set equal to the specified one
+   */
+  private int internExclusions(final Set<GroupArtifact> exclusions) {
+    final @Nullable Integer existing = exclusionSetIds.get(exclusions);
+    if (existing != null) {
+      return existing;
+    }
+
+    final Set<GroupArtifact> copy = Set.copyOf(exclusions);
+    final var bits = new BitSet();
+    for (final GroupArtifact groupArtifact : copy) {
+      bits.set(artifactIds.computeIfAbsent(groupArtifact, ignored -> artifactIds.size()));
+    }
 
-    private final GraphValue value;
+    final int id = exclusionSets.size();
+    exclusionSets.add(copy);
+    exclusionBits.add(bits);
+    exclusionSetIds.put(copy, id);
+    return id;
+  }
 
-    private final Set<GroupArtifact> exclusions;
+  /**
+   * @return ID of interned union of exclusion sets with the specified IDs
+   */
+  private int unionExclusions(final int inherited, final int own) {
+    if (own == EMPTY_EXCLUSIONS || own == inherited) {
+      return inherited;
+    }
+    if (inherited == EMPTY_EXCLUSIONS) {
+      return own;
+    }
 
-    private final Set<GraphPath> excludedBy;
+    final long key = ((long) inherited << Integer.SIZE) | own;
+    final @Nullable Integer existing = unionIds.get(key);
+    if (existing != null) {
+      return existing;
+    }
 
-    private final List<Node> nodes = new ArrayList<>();
+    final var union = new HashSet<>(exclusionSets.get(inherited));
+    union.addAll(exclusionSets.get(own));
+    final int id = internExclusions(union);
+    unionIds.put(key, id);
+    return id;
+  }
 
-    private Node(
-        final GraphValue value,
-        final Set<GroupArtifact> exclusions,
-        final Set<GraphPath> excludedBy
-    ) {
-      this.value = Objects.requireNonNull(value);
-      this.exclusions = Set.copyOf(exclusions);
-      this.excludedBy = Set.copyOf(excludedBy);
+  /**
+   * Detaches node from its parent, leaving node subtree intact.
+   */
+  private void unlink(final int node) {
+    final int parent = parents[node];
+    final int previous = previousSiblings[node];
+    final int next = nextSiblings[node];
+    if (previous == NO_NODE) {
+      firstChildren[parent] = next;
+    } else {
+      nextSiblings[previous] = next;
     }
 
-    @Override
-    public String toString() {
-      return value.toString();
+    if (next == NO_NODE) {
+      lastChildren[parent] = previous;
+    } else {
+      previousSiblings[next] = previous;
     }
+
+    nextSiblings[node] = NO_NODE;
+    previousSiblings[node] = NO_NODE;
+  }
+
+  private static GroupArtifactVersion toGroupArtifactVersion(final GraphValue value) {
+    return switch (value.version()) {
+      case MavenVersion.Exact exact -> value.groupArtifact().withVersion(exact.value());
+      case MavenVersion.Range range ->
+          throw new UnsupportedOperationException(); // FIXME: handle ranges
+    };
+  }
+
+  private GraphValue value(final int node) {
+    return Objects.requireNonNull(values.get(node));
   }
 }
@@ -1,84 +1,139 @@
 package com.github.build.deps.graph;
 
-import static java.util.stream.Collectors.joining;
-
-import com.github.build.deps.GroupArtifact;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.StringJoiner;
+import org.jspecify.annotations.Nullable;
 
 /**
+ * Path from dependency graph root to some node.
+ * <p>
+ * Path is an immutable linked list pointing from the last value to its prefix, so adding and
+ * removing the last value takes constant time and paths sharing a prefix share its memory. Hash
+ * code is computed incrementally, and comparing paths having the same prefix instance does not
+ * walk the prefix.
+ *
  * @author noavarice
  * @since 1.0.0
  */
 public final class GraphPath implements Iterable<GraphValue> {
 
-  public static final GraphPath ROOT = new GraphPath();
+  public static final GraphPath ROOT = new GraphPath(null, null);
+
+  @Nullable
+  private final GraphPath prefix;
+
+  @Nullable
+  private final GraphValue last;
 
-  private final List<GraphValue> nodes;
+  private final int size;
+
+  private final int hash;
 
   public GraphPath(final GraphValue... values) {
     this(List.of(values));
   }
 
   public GraphPath(final List<GraphValue> nodes) {
-    this.nodes = List.copyOf(nodes);
+    // paths created from values don't share prefix with root constant
+    GraphPath prefix = new GraphPath(null, null);
+    for (int i = 0; i < nodes.size() - 1; i++) {
+      prefix = prefix.addLast(nodes.get(i));
+    }
+
+    if (nodes.isEmpty()) {
+      this.prefix = null;
+      this.last = null;
+      this.size = 0;
+      this.hash = 1;
+    } else {
+      this.prefix = prefix;
+      this.last = Objects.requireNonNull(nodes.getLast());
+      this.size = nodes.size();
+      this.hash = 31 * prefix.hash + last.hashCode();
+    }
+  }
+
+  private GraphPath(@Nullable final GraphPath prefix, @Nullable final GraphValue last) {
+    this.prefix = prefix;
+    this.last = last;
+    if (prefix == null || last == null) {
+      this.size = 0;
+      this.hash = 1;
+    } else {
+      this.size = prefix.size + 1;
+      this.hash = 31 * prefix.hash + last.hashCode();
+    }
   }
 
   public GraphPath addLast(final GraphValue value) {
-    final var result = new ArrayList<>(nodes);
-    result.add(value);
-    return new GraphPath(result);
+    Objects.requireNonNull(value);
+    return new GraphPath(this, value);
   }
 
   public GraphPath removeLast() {
-    final var result = new ArrayList<>(nodes);
-    result.removeLast();
-    return new GraphPath(result);
+    if (prefix == null) {
+      throw new NoSuchElementException();
+    }
+
+    return prefix;
   }
 
   public GraphValue getLast() {
-    return nodes.getLast();
+    if (last == null) {
+      throw new NoSuchElementException();
+    }
+
+    return last;
   }
 
   public boolean isRoot() {
-    return nodes.isEmpty();
+    return size == 0;
+  }
+
+  /**
+   * @return Number of values in path
+   */
+  public int size() {
+    return size;
   }
 
   public boolean isDuplicateWith(final GraphPath other) {
-    if (nodes.size() != other.nodes.size()) {
+    if (size != other.size) {
       return false;
     }
 
-    if (nodes.isEmpty()) {
+    if (prefix == null || other.prefix == null) {
       return true;
     }
 
-    for (int i = 0; i < nodes.size() - 1; i++) {
-      final GraphValue c1 = nodes.get(i);
-      final GraphValue c2 = other.nodes.get(i);
-      if (!c1.equals(c2)) {
-        return false;
-      }
-    }
-
-    final GroupArtifact ga1 = nodes.getLast().groupArtifact();
-    final GroupArtifact ga2 = other.nodes.getLast().groupArtifact();
-    return ga1.equals(ga2);
+    return prefix.equals(other.prefix)
+        && getLast().groupArtifact().equals(other.getLast().groupArtifact());
   }
 
   @Override
   public String toString() {
-    return nodes
-        .stream()
-        .map(GraphValue::toString)
-        .collect(joining(" -> "));
+    final var joiner = new StringJoiner(" -> ");
+    for (final GraphValue value : this) {
+      joiner.add(value.toString());
+    }
+
+    return joiner.toString();
   }
 
   @Override
   public Iterator<GraphValue> iterator() {
-    return nodes.stream().iterator();
+    final var values = new GraphValue[size];
+    GraphPath current = this;
+    for (int i = size - 1; i >= 0; i--) {
+      values[i] = current.last;
+      current = current.prefix;
+    }
+
+    return Arrays.asList(values).iterator();
   }
 
   @Override
@@ -86,15 +141,26 @@ public final class GraphPath implements Iterable<GraphValue> {
     if (this == o) {
       return true;
     }
-    if (o == null || getClass() != o.getClass()) {
+    if (!(o instanceof GraphPath other) || size != other.size || hash != other.hash) {
       return false;
     }
-    final GraphPath that = (GraphPath) o;
-    return Objects.equals(nodes, that.nodes);
+
+    @Nullable GraphPath first = this;
+    @Nullable GraphPath second = other;
+    while (first != second && first != null && second != null) {
+      if (!Objects.equals(first.last, second.last)) {
+        return false;
+      }
+
+      first = first.prefix;
+      second = second.prefix;
+    }
+
+    return true;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(nodes);
+    return hash;
   }
 }
@@ -19,9 +19,12 @@ public final class GraphValue {
 
   private final MavenVersion version;
 
+  private final int hash;
+
   public GraphValue(final GroupArtifact groupArtifact, final MavenVersion version) {
     this.groupArtifact = Objects.requireNonNull(groupArtifact);
     this.version = Objects.requireNonNull(version);
+    this.hash = 31 * groupArtifact.hashCode() + version.hashCode();
   }
 
   public GroupArtifact groupArtifact() {
@@ -34,6 +37,9 @@ public final class GraphValue {
 
   @Override
   public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
     if (o instanceof GraphValue graphValue) {
       return Objects.equals(groupArtifact, graphValue.groupArtifact)
           && Objects.equals(version, graphValue.version);
@@ -44,7 +50,7 @@ public final class GraphValue {
 
   @Override
   public int hashCode() {
-    return Objects.hash(groupArtifact, version);
+    return hash;
   }
 
   @Override
@@ -0,0 +1,173 @@
+package com.github.build.schedule;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes {@link TaskGraph} on a bounded thread pool.
+ * <p>
+ * Task becomes ready once all of its dependencies finish successfully. Among ready tasks, the
+ * one with the longest critical path (see {@link TaskGraph#priority(BuildTask.Id)}) starts
+ * first, so that long dependency chains are not delayed by short independent tasks. After the
+ * first failure, no new tasks are started, but already running tasks are allowed to finish.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class BuildScheduler {
+
+  private static final Logger log = LoggerFactory.getLogger(BuildScheduler.class);
+
+  private final int parallelism;
+
+  public BuildScheduler() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  public BuildScheduler(final int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Parallelism must be positive");
+    }
+
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Runs all tasks from the graph.
+   *
+   * @param graph Task graph
+   * @return True if all tasks succeeded, false otherwise
+   */
+  public boolean run(final TaskGraph graph) {
+    Objects.requireNonNull(graph);
+    log.info("Running {} tasks with parallelism {}", graph.tasks().size(), parallelism);
+
+    final Comparator<BuildTask.Id> criticalPathFirst = Comparator
+        .comparingLong(graph::priority)
+        .reversed()
+        .thenComparing(BuildTask.Id::toString);
+    final var ready = new PriorityQueue<>(criticalPathFirst);
+    final var remainingDependencies = new HashMap<BuildTask.Id, Integer>();
+    for (final BuildTask task : graph.tasks()) {
+      final int count = graph.dependencies(task.id()).size();
+      remainingDependencies.put(task.id(), count);
+      if (count == 0) {
+        ready.add(task.id());
+      }
+    }
+
+    final var threadCounter = new AtomicInteger();
+    try (final ExecutorService executor = Executors.newFixedThreadPool(
+        parallelism,
+        runnable -> {
+          final var thread = new Thread(runnable, "build-" + threadCounter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+    )) {
+      final CompletionService<Result> completionService = new ExecutorCompletionService<>(
+          executor
+      );
+      final Set<BuildTask.Id> failed = new HashSet<>();
+      int running = 0;
+      int finished = 0;
+      while (true) {
+        while (failed.isEmpty() && running < parallelism && !ready.isEmpty()) {
+          final BuildTask task = graph.task(ready.poll());
+          completionService.submit(() -> execute(task));
+          running++;
+        }
+
+        if (running == 0) {
+          break;
+        }
+
+        final Result result = take(completionService);
+        running--;
+        finished++;
+        if (!result.success()) {
+          failed.add(result.id());
+          continue;
+        }
+
+        for (final BuildTask.Id dependent : graph.dependents(result.id())) {
+          final int remaining = remainingDependencies.merge(dependent, -1, Integer::sum);
+          if (remaining == 0) {
+            ready.add(dependent);
+          }
+        }
+      }
+
+      if (!failed.isEmpty()) {
+        log.error("Tasks {} failed, {} of {} tasks finished",
+            failed,
+            finished,
+            graph.tasks().size()
+        );
+        return false;
+      }
+
+      log.info("All {} tasks finished successfully", finished);
+      return true;
+    }
+  }
+
+  private static Result take(final CompletionService<Result> completionService) {
+    final Future<Result> future;
+    try {
+      future = completionService.take();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (final ExecutionException e) {
+      // execute() never throws
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Result execute(final BuildTask task) {
+    log.info("[task={}] Started", task.id());
+    final long start = System.nanoTime();
+    boolean success;
+    try {
+      success = task.action().getAsBoolean();
+    } catch (final RuntimeException e) {
+      log.error("[task={}] Failed with exception", task.id(), e);
+      success = false;
+    }
+
+    final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    if (success) {
+      log.info("[task={}] Finished in {} ms", task.id(), elapsedMillis);
+    } else {
+      log.error("[task={}] Failed in {} ms", task.id(), elapsedMillis);
+    }
+
+    return new Result(task.id(), success);
+  }
+
+  private record Result(BuildTask.Id id, boolean success) {
+
+  }
+}
@@ -0,0 +1,65 @@
+package com.github.build.schedule;
+
+import com.github.build.Project;
+import com.github.build.SourceSet;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Single unit of work executed by {@link BuildScheduler}.
+ *
+ * @param id     Task ID, unique within {@link TaskGraph}
+ * @param weight Relative cost estimate used for critical-path-first ordering, must be positive
+ * @param action Task action, returns true on success and false on failure
+ * @author noavarice
+ * @since 1.0.0
+ */
+public record BuildTask(Id id, long weight, BooleanSupplier action) {
+
+  public BuildTask {
+    Objects.requireNonNull(id);
+    if (weight <= 0) {
+      throw new IllegalArgumentException("Task weight must be positive");
+    }
+
+    Objects.requireNonNull(action);
+  }
+
+  /**
+   * Task ID.
+   *
+   * @param project Project task belongs to
+   * @param name    Task name, unique within project
+   */
+  public record Id(Project.Id project, String name) {
+
+    public static Id compile(final Project.Id project, final SourceSet.Id sourceSet) {
+      return new Id(project, "compile:" + sourceSet);
+    }
+
+    public static Id copyResources(final Project.Id project, final SourceSet.Id sourceSet) {
+      return new Id(project, "resources:" + sourceSet);
+    }
+
+    public static Id jar(final Project.Id project) {
+      return new Id(project, "jar");
+    }
+
+    public static Id test(final Project.Id project) {
+      return new Id(project, "test");
+    }
+
+    public Id {
+      Objects.requireNonNull(project);
+      name = Objects.requireNonNull(name).strip();
+      if (name.isBlank()) {
+        throw new IllegalArgumentException("Must not be empty");
+      }
+    }
+
+    @Override
+    public String toString() {
+      return project + ":" + name;
+    }
+  }
+}
@@ -0,0 +1,381 @@
+package com.github.build.schedule;
+
+import com.github.build.Project;
+import com.github.build.SourceSet;
+import com.github.build.deps.Dependency;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Directed acyclic graph of build tasks.
+ * <p>
+ * Edges between standard tasks (compilation, copying resources, creating JAR and running tests)
+ * are derived from {@link Dependency.OnProject} and {@link Dependency.OnSourceSet} dependencies
+ * of project source sets, so that the graph mirrors what {@code BuildService} and
+ * {@code TestService} expect to be already built. Additional edges (e.g., for source generation
+ * tasks) can be declared explicitly via {@link Builder#dependsOn(BuildTask.Id, BuildTask.Id)}.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class TaskGraph {
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Default weights of standard tasks. Only relative values matter.
+   */
+  public static final long COMPILE_WEIGHT = 10;
+
+  public static final long COPY_RESOURCES_WEIGHT = 1;
+
+  public static final long JAR_WEIGHT = 2;
+
+  public static final long TEST_WEIGHT = 10;
+
+  private final Map<BuildTask.Id, BuildTask> tasks;
+
+  private final Map<BuildTask.Id, Set<BuildTask.Id>> dependencies;
+
+  private final Map<BuildTask.Id, Set<BuildTask.Id>> dependents;
+
+  private final Map<BuildTask.Id, Long> priorities;
+
+  private TaskGraph(
+      final Map<BuildTask.Id, BuildTask> tasks,
+      final Map<BuildTask.Id, Set<BuildTask.Id>> dependencies
+  ) {
+    this.tasks = Map.copyOf(tasks);
+
+    final var dependenciesCopy = new HashMap<BuildTask.Id, Set<BuildTask.Id>>();
+    final var dependentsCopy = new HashMap<BuildTask.Id, Set<BuildTask.Id>>();
+    for (final BuildTask.Id id : tasks.keySet()) {
+      dependenciesCopy.put(id, new LinkedHashSet<>());
+      dependentsCopy.put(id, new LinkedHashSet<>());
+    }
+
+    dependencies.forEach((task, taskDependencies) -> {
+      if (!tasks.containsKey(task)) {
+        throw new IllegalArgumentException("Unknown task " + task);
+      }
+
+      for (final BuildTask.Id dependency : taskDependencies) {
+        if (!tasks.containsKey(dependency)) {
+          throw new IllegalArgumentException(
+              "Task " + task + " depends on unknown task " + dependency
+          );
+        }
+
+        dependenciesCopy.get(task).add(dependency);
+        dependentsCopy.get(dependency).add(task);
+      }
+    });
+
+    this.dependencies = copyOf(dependenciesCopy);
+    this.dependents = copyOf(dependentsCopy);
+    this.priorities = Map.copyOf(computePriorities());
+  }
+
+  private static Map<BuildTask.Id, Set<BuildTask.Id>> copyOf(
+      final Map<BuildTask.Id, Set<BuildTask.Id>> map
+  ) {
+    final var result = new HashMap<BuildTask.Id, Set<BuildTask.Id>>();
+    map.forEach((id, ids) -> result.put(id, Set.copyOf(ids)));
+    return Map.copyOf(result);
+  }
+
+  /**
+   * Computes critical path length for every task, i.e. the heaviest path from the task to any
+   * task nobody depends on, including the task itself. Fails if graph contains cycles.
+   */
+  private Map<BuildTask.Id, Long> computePriorities() {
+    // Kahn's algorithm over reversed edges, so that every task is visited after its dependents
+    final var remainingDependents = new HashMap<BuildTask.Id, Integer>();
+    final var queue = new ArrayList<BuildTask.Id>();
+    dependents.forEach((id, ids) -> {
+      remainingDependents.put(id, ids.size());
+      if (ids.isEmpty()) {
+        queue.addLast(id);
+      }
+    });
+
+    final var result = new HashMap<BuildTask.Id, Long>();
+    while (!queue.isEmpty()) {
+      final BuildTask.Id id = queue.removeFirst();
+      long maxDependentPriority = 0;
+      for (final BuildTask.Id dependent : dependents.get(id)) {
+        maxDependentPriority = Math.max(maxDependentPriority, result.get(dependent));
+      }
+
+      result.put(id, tasks.get(id).weight() + maxDependentPriority);
+      for (final BuildTask.Id dependency : dependencies.get(id)) {
+        final int remaining = remainingDependents.merge(dependency, -1, Integer::sum);
+        if (remaining == 0) {
+          queue.addLast(dependency);
+        }
+      }
+    }
+
+    if (result.size() != tasks.size()) {
+      final List<BuildTask.Id> cycled = tasks.keySet()
+          .stream()
+          .filter(id -> !result.containsKey(id))
+          .toList();
+      throw new IllegalStateException("Task graph contains cycle between tasks " + cycled);
+    }
+
+    return result;
+  }
+
+  public Collection<BuildTask> tasks() {
+    return tasks.values();
+  }
+
+  public BuildTask task(final BuildTask.Id id) {
+    return Objects.requireNonNull(tasks.get(id));
+  }
+
+  public Set<BuildTask.Id> dependencies(final BuildTask.Id id) {
+    return Objects.requireNonNull(dependencies.get(id));
+  }
+
+  public Set<BuildTask.Id> dependents(final BuildTask.Id id) {
+    return Objects.requireNonNull(dependents.get(id));
+  }
+
+  /**
+   * Returns task priority used for critical-path-first scheduling.
+   *
+   * @param id Task ID
+   * @return Sum of task weights along the heaviest path starting from the specified task
+   */
+  public long priority(final BuildTask.Id id) {
+    return Objects.requireNonNull(priorities.get(id));
+  }
+
+  public static final class Builder {
+
+    private final Map<BuildTask.Id, BuildTask> tasks = new LinkedHashMap<>();
+
+    private final Map<BuildTask.Id, StandardTask> standardTasks = new LinkedHashMap<>();
+
+    private final Map<BuildTask.Id, Set<BuildTask.Id>> dependencies = new HashMap<>();
+
+    private Builder() {
+    }
+
+    public Builder compile(
+        final Project project,
+        final SourceSet.Id sourceSetId,
+        final BooleanSupplier action
+    ) {
+      final var id = BuildTask.Id.compile(project.id(), sourceSetId);
+      return standardTask(
+          new BuildTask(id, COMPILE_WEIGHT, action),
+          new StandardTask(Kind.COMPILE, project, sourceSetId)
+      );
+    }
+
+    public Builder copyResources(
+        final Project project,
+        final SourceSet.Id sourceSetId,
+        final Runnable action
+    ) {
+      Objects.requireNonNull(action);
+      final var id = BuildTask.Id.copyResources(project.id(), sourceSetId);
+      final BooleanSupplier supplier = () -> {
+        action.run();
+        return true;
+      };
+      return standardTask(
+          new BuildTask(id, COPY_RESOURCES_WEIGHT, supplier),
+          new StandardTask(Kind.COPY_RESOURCES, project, sourceSetId)
+      );
+    }
+
+    public Builder createJar(final Project project, final Runnable action) {
+      Objects.requireNonNull(action);
+      final var id = BuildTask.Id.jar(project.id());
+      final BooleanSupplier supplier = () -> {
+        action.run();
+        return true;
+      };
+      return standardTask(
+          new BuildTask(id, JAR_WEIGHT, supplier),
+          new StandardTask(Kind.JAR, project, SourceSet.Id.MAIN)
+      );
+    }
+
+    public Builder test(final Project project, final BooleanSupplier action) {
+      final var id = BuildTask.Id.test(project.id());
+      return standardTask(
+          new BuildTask(id, TEST_WEIGHT, action),
+          new StandardTask(Kind.TEST, project, project.testSourceSet().id())
+      );
+    }
+
+    /**
+     * Adds custom task. Custom tasks have no implicit dependencies.
+     *
+     * @param project Project task belongs to
+     * @param name    Task name
+     * @param weight  Relative cost estimate
+     * @param action  Task action
+     * @return This builder
+     */
+    public Builder task(
+        final Project project,
+        final String name,
+        final long weight,
+        final BooleanSupplier action
+    ) {
+      final var task = new BuildTask(new BuildTask.Id(project.id(), name), weight, action);
+      putTask(task);
+      return this;
+    }
+
+    /**
+     * Declares explicit dependency between tasks.
+     *
+     * @param task       Dependent task
+     * @param dependency Task that must finish successfully before dependent task starts
+     * @return This builder
+     */
+    public Builder dependsOn(final BuildTask.Id task, final BuildTask.Id dependency) {
+      Objects.requireNonNull(task);
+      Objects.requireNonNull(dependency);
+      if (task.equals(dependency)) {
+        throw new IllegalArgumentException("Task cannot depend on itself");
+      }
+
+      dependencies.computeIfAbsent(task, ignored -> new LinkedHashSet<>()).add(dependency);
+      return this;
+    }
+
+    public TaskGraph build() {
+      final var allDependencies = new HashMap<BuildTask.Id, Set<BuildTask.Id>>();
+      dependencies.forEach((id, ids) -> allDependencies.put(id, new LinkedHashSet<>(ids)));
+      standardTasks.forEach((id, standardTask) -> {
+        final Set<BuildTask.Id> derived = allDependencies.computeIfAbsent(
+            id,
+            ignored -> new LinkedHashSet<>()
+        );
+        deriveDependencies(standardTask, derived);
+      });
+
+      return new TaskGraph(tasks, allDependencies);
+    }
+
+    private Builder standardTask(final BuildTask task, final StandardTask standardTask) {
+      putTask(task);
+      standardTasks.put(task.id(), standardTask);
+      return this;
+    }
+
+    private void putTask(final BuildTask task) {
+      if (tasks.containsKey(task.id())) {
+        throw new IllegalArgumentException("Task " + task.id() + " already added");
+      }
+
+      tasks.put(task.id(), task);
+    }
+
+    private void deriveDependencies(
+        final StandardTask standardTask,
+        final Set<BuildTask.Id> result
+    ) {
+      final Project project = standardTask.project();
+      final Project.Id projectId = project.id();
+      switch (standardTask.kind()) {
+        case COMPILE -> {
+          final SourceSet sourceSet = project.sourceSet(standardTask.sourceSetId());
+          for (final Dependency dependency : sourceSet.compileClasspath()) {
+            switch (dependency) {
+              case Dependency.OnProject onProject -> addIfPresent(
+                  BuildTask.Id.compile(onProject.project().id(), SourceSet.Id.MAIN),
+                  result
+              );
+              case Dependency.OnSourceSet onSourceSet -> addIfPresent(
+                  BuildTask.Id.compile(projectId, onSourceSet.sourceSet().id()),
+                  result
+              );
+              default -> {
+                // remote and local JAR dependencies are not produced by tasks
+              }
+            }
+          }
+        }
+        case COPY_RESOURCES -> {
+          // copying resources depends on nothing but sources
+        }
+        case JAR -> {
+          addIfPresent(BuildTask.Id.compile(projectId, SourceSet.Id.MAIN), result);
+          addIfPresent(BuildTask.Id.copyResources(projectId, SourceSet.Id.MAIN), result);
+        }
+        case TEST -> {
+          final SourceSet.Id sourceSetId = standardTask.sourceSetId();
+          addIfPresent(BuildTask.Id.compile(projectId, sourceSetId), result);
+          addIfPresent(BuildTask.Id.copyResources(projectId, sourceSetId), result);
+          deriveRuntimeDependencies(project, project.sourceSet(sourceSetId), result);
+        }
+      }
+    }
+
+    private void deriveRuntimeDependencies(
+        final Project project,
+        final SourceSet sourceSet,
+        final Set<BuildTask.Id> result
+    ) {
+      for (final Dependency dependency : sourceSet.runtimeClasspath()) {
+        switch (dependency) {
+          // test runtime uses JARs of other projects
+          case Dependency.OnProject onProject -> addIfPresent(
+              BuildTask.Id.jar(onProject.project().id()),
+              result
+          );
+          case Dependency.OnSourceSet onSourceSet -> {
+            final SourceSet.Id id = onSourceSet.sourceSet().id();
+            addIfPresent(BuildTask.Id.compile(project.id(), id), result);
+            addIfPresent(BuildTask.Id.copyResources(project.id(), id), result);
+            deriveRuntimeDependencies(project, onSourceSet.sourceSet(), result);
+          }
+          default -> {
+            // remote and local JAR dependencies are not produced by tasks
+          }
+        }
+      }
+    }
+
+    private void addIfPresent(final BuildTask.Id id, final Set<BuildTask.Id> result) {
+      if (tasks.containsKey(id)) {
+        result.add(id);
+      }
+    }
+  }
+
+  private enum Kind {
+    COMPILE,
+    COPY_RESOURCES,
+    JAR,
+    TEST,
+  }
+
+  private record StandardTask(Kind kind, Project project, SourceSet.Id sourceSetId) {
+
+    private StandardTask {
+      Objects.requireNonNull(kind);
+      Objects.requireNonNull(project);
+      Objects.requireNonNull(sourceSetId);
+    }
+  }
+}
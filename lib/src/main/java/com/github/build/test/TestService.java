@@ -26,7 +26,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.ServiceLoader;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import org.jspecify.annotations.Nullable;
@@ -225,13 +224,16 @@ public final class TestService {
     }
 
     if (!remoteDependencies.isEmpty()) {
-      final Set<GroupArtifactVersion> artifacts = dependencyService.resolveTransitive(
+      final Path lockfile = workdir
+          .resolve(project.path())
+          .resolve(project.artifactLayout().rootDir())
+          .resolve("locks")
+          .resolve("test-runtime-" + project.testSourceSet().id() + ".lock");
+      final Map<GroupArtifactVersion, Path> localArtifacts = dependencyService.resolveToLocal(
           remoteDependencies,
           // TODO: should we add constraints from main source set here too?
-          project.testSourceSet().dependencyConstraints()
-      );
-      final Map<GroupArtifactVersion, Path> localArtifacts = dependencyService.fetchToLocal(
-          artifacts
+          project.testSourceSet().dependencyConstraints(),
+          lockfile
       );
       testRuntimeClasspath.addAll(localArtifacts.values());
     }
@@ -0,0 +1,140 @@
+package com.github.build.uptodate;
+
+import static java.util.stream.Collectors.toUnmodifiableSet;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Declaration of build step inputs and outputs, used for deciding whether step can be skipped.
+ * <p>
+ * Input and output paths may point to files or directories; directories are considered
+ * recursively. Values are arbitrary named inputs not backed by files, like compiler options.
+ *
+ * @param name       Step name, used for logging
+ * @param values     Named input values
+ * @param inputs     Input files and directories
+ * @param outputs    Output files and directories
+ * @param localState Files and directories step keeps between executions for its own needs (e.g.,
+ *                   incremental compilation state), deleted when outputs are restored from cache
+ * @param cacheRoot  Directory relative to which outputs are stored in build cache, null if step
+ *                   outputs must not be cached. All outputs must be inside this directory
+ * @author noavarice
+ * @see UpToDateChecker
+ * @since 1.0.0
+ */
+public record Step(
+    String name,
+    Map<String, String> values,
+    Set<Path> inputs,
+    Set<Path> outputs,
+    Set<Path> localState,
+    @Nullable Path cacheRoot
+) {
+
+  public Step {
+    Objects.requireNonNull(name);
+    values = Map.copyOf(values);
+    inputs = normalize(inputs);
+    outputs = normalize(outputs);
+    if (outputs.isEmpty()) {
+      throw new IllegalArgumentException("Step must declare at least one output");
+    }
+
+    localState = normalize(localState);
+    if (cacheRoot != null) {
+      cacheRoot = cacheRoot.normalize().toAbsolutePath();
+      for (final Path output : outputs) {
+        if (!output.startsWith(cacheRoot) || output.equals(cacheRoot)) {
+          throw new IllegalArgumentException(
+              "Output " + output + " is not inside cache root " + cacheRoot
+          );
+        }
+      }
+    }
+  }
+
+  public static Builder named(final String name) {
+    return new Builder(name);
+  }
+
+  private static Set<Path> normalize(final Set<Path> paths) {
+    return paths
+        .stream()
+        .map(Path::normalize)
+        .map(Path::toAbsolutePath)
+        .collect(toUnmodifiableSet());
+  }
+
+  public static final class Builder {
+
+    private final String name;
+
+    private final Map<String, String> values = new TreeMap<>();
+
+    private final Set<Path> inputs = new HashSet<>();
+
+    private final Set<Path> outputs = new HashSet<>();
+
+    private final Set<Path> localState = new HashSet<>();
+
+    @Nullable
+    private Path cacheRoot;
+
+    private Builder(final String name) {
+      this.name = Objects.requireNonNull(name);
+    }
+
+    public Builder value(final String key, final String value) {
+      Objects.requireNonNull(key);
+      Objects.requireNonNull(value);
+      values.put(key, value);
+      return this;
+    }
+
+    public Builder input(final Path path) {
+      Objects.requireNonNull(path);
+      inputs.add(path);
+      return this;
+    }
+
+    public Builder inputs(final Collection<Path> paths) {
+      paths.forEach(this::input);
+      return this;
+    }
+
+    public Builder output(final Path path) {
+      Objects.requireNonNull(path);
+      outputs.add(path);
+      return this;
+    }
+
+    public Builder localState(final Path path) {
+      Objects.requireNonNull(path);
+      localState.add(path);
+      return this;
+    }
+
+    /**
+     * Allows caching step outputs.
+     *
+     * @param root Directory relative to which input and output paths are considered, so that
+     *             the same step in a different location gets the same cache entry
+     * @return This builder
+     */
+    public Builder cacheable(final Path root) {
+      this.cacheRoot = Objects.requireNonNull(root);
+      return this;
+    }
+
+    public Step build() {
+      return new Step(name, values, inputs, outputs, localState, cacheRoot);
+    }
+  }
+}
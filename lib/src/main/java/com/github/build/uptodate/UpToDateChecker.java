@@ -0,0 +1,382 @@
+package com.github.build.uptodate;
+
+import com.github.build.cache.BuildCache;
+import com.github.build.util.FileUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Skips build steps whose inputs and outputs did not change since the last successful execution.
+ * <p>
+ * After each successful execution, a snapshot of step inputs and outputs is stored in a file.
+ * Snapshot contains content hash of every input and output file along with its size and
+ * modification time. Next time, file is re-hashed only if its size or modification time differ
+ * from the ones in snapshot, so checking unchanged step mostly costs listing its files.
+ * <p>
+ * If build cache is configured, outputs of cacheable steps (see {@link Step#cacheRoot()}) are
+ * stored in cache after execution and restored from cache instead of executing step with the same
+ * inputs again. Cache key is computed from step values and input contents, with input paths made
+ * relative to the cache root, so the same step in a different checkout gets the same key.
+ *
+ * @author noavarice
+ * @since 1.0.0
+ */
+public final class UpToDateChecker {
+
+  private static final Logger log = LoggerFactory.getLogger(UpToDateChecker.class);
+
+  private static final int SNAPSHOT_FORMAT_VERSION = 1;
+
+  /**
+   * Hash recorded for declared paths that do not exist.
+   */
+  private static final String MISSING = "missing";
+
+  /**
+   * Hash recorded for declared paths that are directories, so that empty directory differs from
+   * a missing one.
+   */
+  private static final String DIRECTORY = "directory";
+
+  @Nullable
+  private final BuildCache buildCache;
+
+  public UpToDateChecker() {
+    this(null);
+  }
+
+  /**
+   * @param buildCache Build cache for outputs of cacheable steps, null if caching is disabled
+   */
+  public UpToDateChecker(@Nullable final BuildCache buildCache) {
+    this.buildCache = buildCache;
+  }
+
+  /**
+   * Runs step action unless step is up-to-date.
+   *
+   * @param snapshotFile Path to a file storing step snapshot
+   * @param step         Step declaration
+   * @param action       Step action, returns true on success and false otherwise
+   * @return True if step is up-to-date or action succeeds, false otherwise
+   */
+  public boolean run(final Path snapshotFile, final Step step, final BooleanSupplier action) {
+    Objects.requireNonNull(snapshotFile);
+    Objects.requireNonNull(step);
+    Objects.requireNonNull(action);
+
+    final Snapshot previous = Snapshot.read(snapshotFile);
+    final Map<Path, FileFingerprint> previousFiles = previous == null
+        ? Map.of()
+        : previous.files();
+    final String valuesHash = valuesHash(step.values());
+    final Map<Path, FileFingerprint> inputs = fingerprint(step.inputs(), previousFiles);
+    if (previous != null && previous.valuesHash().equals(valuesHash)) {
+      final Map<Path, FileFingerprint> outputs = fingerprint(step.outputs(), previousFiles);
+      if (sameContent(previous.inputs(), inputs) && sameContent(previous.outputs(), outputs)) {
+        log.info("[step={}] UP-TO-DATE", step.name());
+        final var current = new Snapshot(valuesHash, inputs, outputs);
+        if (!current.equals(previous)) {
+          // keeping file metadata fresh to avoid re-hashing touched but unchanged files
+          current.write(snapshotFile);
+        }
+        return true;
+      }
+    }
+
+    try {
+      Files.deleteIfExists(snapshotFile);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    final Path cacheRoot = step.cacheRoot();
+    final String cacheKey = buildCache == null || cacheRoot == null
+        ? null
+        : cacheKey(cacheRoot, step, inputs);
+    if (cacheKey != null && buildCache.load(cacheKey, cacheRoot, step.outputs())) {
+      log.info("[step={}] FROM-CACHE", step.name());
+      // local state describes outputs replaced by the restored ones
+      step.localState().forEach(FileUtils::delete);
+      final Map<Path, FileFingerprint> outputs = fingerprint(step.outputs(), Map.of());
+      new Snapshot(valuesHash, inputs, outputs).write(snapshotFile);
+      return true;
+    }
+
+    if (!action.getAsBoolean()) {
+      return false;
+    }
+
+    if (cacheKey != null) {
+      buildCache.store(cacheKey, cacheRoot, step.outputs());
+    }
+
+    final Map<Path, FileFingerprint> outputs = fingerprint(step.outputs(), Map.of());
+    new Snapshot(valuesHash, inputs, outputs).write(snapshotFile);
+    return true;
+  }
+
+  /**
+   * Computes cache key from step values and input contents. Inputs inside cache root are
+   * identified by their path relative to root, other inputs (e.g., JARs from local repository) by
+   * file name.
+   */
+  private static String cacheKey(
+      final Path cacheRoot,
+      final Step step,
+      final Map<Path, FileFingerprint> inputs
+  ) {
+    final List<String> lines = new ArrayList<>();
+    for (final Map.Entry<String, String> entry : step.values().entrySet()) {
+      lines.add("value " + entry.getKey() + '=' + entry.getValue());
+    }
+
+    for (final Path input : step.inputs()) {
+      final Path name = input.startsWith(cacheRoot)
+          ? cacheRoot.relativize(input)
+          : input.getFileName();
+      final FileFingerprint fingerprint = inputs.get(input);
+      lines.add("input " + name + '=' + fingerprint.hash());
+      if (fingerprint.hash().equals(DIRECTORY)) {
+        for (final Map.Entry<Path, FileFingerprint> entry : inputs.entrySet()) {
+          if (!entry.getKey().equals(input) && entry.getKey().startsWith(input)) {
+            final Path file = name.resolve(input.relativize(entry.getKey()));
+            lines.add("input " + file + '=' + entry.getValue().hash());
+          }
+        }
+      }
+    }
+
+    lines.sort(Comparator.naturalOrder());
+    final MessageDigest digest = sha256();
+    for (final String line : lines) {
+      digest.update(line.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) '\n');
+    }
+
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static boolean sameContent(
+      final Map<Path, FileFingerprint> previous,
+      final Map<Path, FileFingerprint> current
+  ) {
+    if (!previous.keySet().equals(current.keySet())) {
+      return false;
+    }
+
+    for (final Map.Entry<Path, FileFingerprint> entry : current.entrySet()) {
+      if (!previous.get(entry.getKey()).hash().equals(entry.getValue().hash())) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Computes fingerprints of declared paths and of all files inside declared directories.
+   *
+   * @param paths    Declared paths
+   * @param previous Fingerprints from previous snapshot, reused for files with unchanged metadata
+   */
+  private static Map<Path, FileFingerprint> fingerprint(
+      final Set<Path> paths,
+      final Map<Path, FileFingerprint> previous
+  ) {
+    final var result = new HashMap<Path, FileFingerprint>();
+    for (final Path path : paths) {
+      if (Files.notExists(path)) {
+        result.put(path, new FileFingerprint(0, 0, MISSING));
+      } else if (Files.isDirectory(path)) {
+        result.put(path, new FileFingerprint(0, 0, DIRECTORY));
+        for (final Path file : FileUtils.listAll(path, Comparator.naturalOrder())) {
+          if (Files.isRegularFile(file)) {
+            result.put(file, fingerprintFile(file, previous.get(file)));
+          }
+        }
+      } else {
+        result.put(path, fingerprintFile(path, previous.get(path)));
+      }
+    }
+
+    return result;
+  }
+
+  private static FileFingerprint fingerprintFile(
+      final Path file,
+      @Nullable final FileFingerprint previous
+  ) {
+    final BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    final long size = attributes.size();
+    final long lastModified = attributes.lastModifiedTime().toMillis();
+    if (previous != null && previous.size() == size && previous.lastModified() == lastModified) {
+      return previous;
+    }
+
+    final MessageDigest digest = sha256();
+    final var buffer = new byte[8192];
+    try (final InputStream in = Files.newInputStream(file)) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return new FileFingerprint(size, lastModified, HexFormat.of().formatHex(digest.digest()));
+  }
+
+  private static String valuesHash(final Map<String, String> values) {
+    final MessageDigest digest = sha256();
+    for (final Map.Entry<String, String> entry : new TreeMap<>(values).entrySet()) {
+      digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      digest.update(entry.getValue().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+    }
+
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @param size         File size in bytes
+   * @param lastModified File modification time in milliseconds since epoch
+   * @param hash         File content hash, or a marker for missing paths and directories
+   */
+  private record FileFingerprint(long size, long lastModified, String hash) {
+
+    private FileFingerprint {
+      Objects.requireNonNull(hash);
+    }
+  }
+
+  private record Snapshot(
+      String valuesHash,
+      Map<Path, FileFingerprint> inputs,
+      Map<Path, FileFingerprint> outputs
+  ) {
+
+    /**
+     * Returns fingerprints of both inputs and outputs.
+     */
+    private Map<Path, FileFingerprint> files() {
+      final var result = new HashMap<>(outputs);
+      result.putAll(inputs);
+      return result;
+    }
+
+    private static @Nullable Snapshot read(final Path file) {
+      if (Files.notExists(file)) {
+        return null;
+      }
+
+      try (final var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+        if (in.readInt() != SNAPSHOT_FORMAT_VERSION) {
+          log.debug("Snapshot {} has unsupported format", file);
+          return null;
+        }
+
+        final String valuesHash = in.readUTF();
+        final Map<Path, FileFingerprint> inputs = readFingerprints(in);
+        final Map<Path, FileFingerprint> outputs = readFingerprints(in);
+        return new Snapshot(valuesHash, inputs, outputs);
+      } catch (final IOException e) {
+        log.warn("Failed to read snapshot {}", file, e);
+        return null;
+      }
+    }
+
+    private static Map<Path, FileFingerprint> readFingerprints(
+        final DataInputStream in
+    ) throws IOException {
+      final int count = in.readInt();
+      final var result = new HashMap<Path, FileFingerprint>(count);
+      for (int i = 0; i < count; i++) {
+        final Path path = Path.of(in.readUTF());
+        final long size = in.readLong();
+        final long lastModified = in.readLong();
+        final String hash = in.readUTF();
+        result.put(path, new FileFingerprint(size, lastModified, hash));
+      }
+
+      return result;
+    }
+
+    /**
+     * Writes snapshot to a temporary file first, so that interrupted write never leaves corrupted
+     * snapshot behind.
+     */
+    private void write(final Path file) {
+      final Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+      try {
+        Files.createDirectories(file.getParent());
+        try (final var out = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(tempFile))
+        )) {
+          out.writeInt(SNAPSHOT_FORMAT_VERSION);
+          out.writeUTF(valuesHash);
+          writeFingerprints(out, inputs);
+          writeFingerprints(out, outputs);
+        }
+
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private static void writeFingerprints(
+        final DataOutputStream out,
+        final Map<Path, FileFingerprint> fingerprints
+    ) throws IOException {
+      out.writeInt(fingerprints.size());
+      for (final Map.Entry<Path, FileFingerprint> entry : fingerprints.entrySet()) {
+        out.writeUTF(entry.getKey().toString());
+        out.writeLong(entry.getValue().size());
+        out.writeLong(entry.getValue().lastModified());
+        out.writeUTF(entry.getValue().hash());
+      }
+    }
+  }
+}
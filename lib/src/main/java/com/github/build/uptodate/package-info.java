@@ -0,0 +1,6 @@
+/**
+ * @author noavarice
+ * @since 1.0.0
+ */
+@org.jspecify.annotations.NullMarked
+package com.github.build.uptodate;
@@ -339,4 +339,111 @@ class GraphTest {
     final Set<GroupArtifactVersion> actual = graph.toDependencies();
     assertThat(actual).isEqualTo(expected);
   }
+
+  @DisplayName("Check resolving to dependencies is the same as resolving graph")
+  @Test
+  void testResolveDependencies() {
+    final var graph = new Graph();
+    graph.add(starterTomcat, Set.of(), GraphPath.ROOT);
+    graph.add(jakartaAnnotations, Set.of(), new GraphPath(starterTomcat));
+    graph.add(tomcatEmbedCore, Set.of(), new GraphPath(starterTomcat));
+    graph.add(tomcatEmbedWebsocket, Set.of(), new GraphPath(starterTomcat));
+    graph.add(tomcatAnnotations, Set.of(), new GraphPath(starterTomcat, tomcatEmbedCore));
+    graph.add(tomcatEmbedCore, Set.of(), new GraphPath(starterTomcat, tomcatEmbedWebsocket));
+
+    assertThat(graph.resolveDependencies()).isEqualTo(graph.resolve().toDependencies());
+  }
+
+  @DisplayName("Check dependency of conflicting node is kept if reachable via winning node")
+  @Test
+  void testDependencyOfLosingNodeReachableViaWinner() {
+    final var first = GraphValue.of(GroupArtifactVersion.parse("org.example:first:1.0.0"));
+    final var second = GraphValue.of(GroupArtifactVersion.parse("org.example:second:1.0.0"));
+    final var common1 = GraphValue.of(GroupArtifactVersion.parse("org.example:common:1.0.0"));
+    final var common2 = GraphValue.of(GroupArtifactVersion.parse("org.example:common:2.0.0"));
+    final var util = GraphValue.of(GroupArtifactVersion.parse("org.example:util:1.0.0"));
+    final var shared = GraphValue.of(GroupArtifactVersion.parse("org.example:shared:1.0.0"));
+
+    // shared is nearer via losing common:2.0.0, but still reachable via winning common:1.0.0
+    final var graph = new Graph();
+    graph.add(first, Set.of(), GraphPath.ROOT);
+    graph.add(second, Set.of(), GraphPath.ROOT);
+    graph.add(common1, Set.of(), new GraphPath(first));
+    graph.add(common2, Set.of(), new GraphPath(second));
+    graph.add(util, Set.of(), new GraphPath(first, common1));
+    graph.add(shared, Set.of(), new GraphPath(second, common2));
+    graph.add(shared, Set.of(), new GraphPath(first, common1, util));
+
+    final Set<GroupArtifactVersion> expected = Set.of(
+        GroupArtifactVersion.parse("org.example:first:1.0.0"),
+        GroupArtifactVersion.parse("org.example:second:1.0.0"),
+        GroupArtifactVersion.parse("org.example:common:1.0.0"),
+        GroupArtifactVersion.parse("org.example:util:1.0.0"),
+        GroupArtifactVersion.parse("org.example:shared:1.0.0")
+    );
+    assertThat(graph.resolveDependencies()).isEqualTo(expected);
+    assertThat(graph.resolve().toDependencies()).isEqualTo(expected);
+    assertTrue(graph.resolve().contains(new GraphPath(first, common1, util, shared)));
+  }
+
+  @DisplayName("Check exclusions of all ancestors are applied")
+  @Test
+  void testExclusionsOfAllAncestors() {
+    final var graph = new Graph();
+    graph.add(starterTomcat, Set.of(jakartaAnnotations.groupArtifact()), GraphPath.ROOT);
+    graph.add(
+        tomcatEmbedWebsocket,
+        Set.of(tomcatAnnotations.groupArtifact()),
+        new GraphPath(starterTomcat)
+    );
+    graph.add(tomcatEmbedCore, Set.of(), new GraphPath(starterTomcat, tomcatEmbedWebsocket));
+    final var corePath = new GraphPath(starterTomcat, tomcatEmbedWebsocket, tomcatEmbedCore);
+    graph.add(tomcatAnnotations, Set.of(), corePath);
+    graph.add(jakartaAnnotations, Set.of(), corePath);
+    graph.add(tomcatEmbedEl, Set.of(), corePath);
+
+    final Set<GroupArtifactVersion> expected = Set.of(
+        starterTomcatGav,
+        tomcatEmbedWebsocketGav,
+        tomcatEmbedCoreGav,
+        tomcatEmbedElGav
+    );
+    assertThat(graph.resolveDependencies()).isEqualTo(expected);
+    assertThat(graph.resolve().toDependencies()).isEqualTo(expected);
+  }
+
+  @DisplayName("Check exclusions of the last declaration of the same value are applied")
+  @Test
+  void testExclusionsOfLastDeclaration() {
+    // parent POM declares starter without exclusions, child POM redeclares it with exclusions
+    final var graph = new Graph();
+    graph.add(starterTomcat, Set.of(), GraphPath.ROOT);
+    graph.add(starterTomcat, Set.of(tomcatEmbedEl.groupArtifact()), GraphPath.ROOT);
+    final var starterPath = new GraphPath(starterTomcat);
+    graph.add(tomcatEmbedCore, Set.of(), starterPath);
+    graph.add(tomcatEmbedEl, Set.of(), starterPath);
+
+    final Set<GroupArtifactVersion> expected = Set.of(starterTomcatGav, tomcatEmbedCoreGav);
+    assertThat(graph.resolveDependencies()).isEqualTo(expected);
+    assertThat(graph.resolve().toDependencies()).isEqualTo(expected);
+  }
+
+  @DisplayName("Check replacing exclusions of the same value updates its descendants")
+  @Test
+  void testReplacedExclusionsAppliedToDescendants() {
+    final var graph = new Graph();
+    graph.add(starterTomcat, Set.of(tomcatEmbedEl.groupArtifact()), GraphPath.ROOT);
+    final var starterPath = new GraphPath(starterTomcat);
+    graph.add(tomcatEmbedCore, Set.of(), starterPath);
+    graph.add(tomcatEmbedEl, Set.of(), new GraphPath(starterTomcat, tomcatEmbedCore));
+    graph.add(starterTomcat, Set.of(), GraphPath.ROOT);
+
+    final Set<GroupArtifactVersion> expected = Set.of(
+        starterTomcatGav,
+        tomcatEmbedCoreGav,
+        tomcatEmbedElGav
+    );
+    assertThat(graph.resolveDependencies()).isEqualTo(expected);
+    assertThat(graph.resolve().toDependencies()).isEqualTo(expected);
+  }
 }
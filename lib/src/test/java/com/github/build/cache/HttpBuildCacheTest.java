@@ -0,0 +1,138 @@
+package com.github.build.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("HTTP build cache tests")
+class HttpBuildCacheTest {
+
+  private final HttpClient client = HttpClient.newHttpClient();
+
+  @TempDir
+  private Path tempDir;
+
+  private BuildCacheServer server;
+
+  private HttpBuildCache cache;
+
+  private Path root;
+
+  private Path classesDir;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = new BuildCacheServer(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+        new LocalBuildCache(tempDir.resolve("server"), 1024 * 1024)
+    );
+    cache = new HttpBuildCache(server.uri(), client);
+
+    root = tempDir.resolve("first");
+    classesDir = Files.createDirectories(root.resolve("build/classes/main"));
+    Files.writeString(classesDir.resolve("Calculator.class"), "calculator");
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.close();
+  }
+
+  @DisplayName("Check missing entry is not loaded")
+  @Test
+  void missingEntryNotLoaded() {
+    assertFalse(cache.load("missing", root, Set.of(classesDir)));
+    assertThat(classesDir.resolve("Calculator.class")).hasContent("calculator");
+  }
+
+  @DisplayName("Check stored entry is loaded into a different root")
+  @Test
+  void storedEntryLoaded() {
+    cache.store("key", root, Set.of(classesDir));
+
+    final Path otherRoot = tempDir.resolve("second");
+    final Path otherClassesDir = otherRoot.resolve("build/classes/main");
+    assertTrue(cache.load("key", otherRoot, Set.of(otherClassesDir)));
+    assertThat(otherClassesDir.resolve("Calculator.class")).hasContent("calculator");
+  }
+
+  @DisplayName("Check existing entry is not replaced")
+  @Test
+  void existingEntryNotReplaced() throws Exception {
+    cache.store("key", root, Set.of(classesDir));
+
+    final var request = HttpRequest
+        .newBuilder(server.uri().resolve("key"))
+        .header("If-None-Match", "*")
+        .PUT(HttpRequest.BodyPublishers.ofString("garbage"))
+        .build();
+    final HttpResponse<Void> response = client.send(
+        request,
+        HttpResponse.BodyHandlers.discarding()
+    );
+    assertThat(response.statusCode()).isEqualTo(412);
+
+    final Path otherRoot = tempDir.resolve("second");
+    final Path otherClassesDir = otherRoot.resolve("build/classes/main");
+    assertTrue(cache.load("key", otherRoot, Set.of(otherClassesDir)));
+  }
+
+  @DisplayName("Check conditional request for existing entry returns 304")
+  @Test
+  void conditionalRequestReturnsNotModified() throws Exception {
+    cache.store("key", root, Set.of(classesDir));
+
+    final var request = HttpRequest
+        .newBuilder(server.uri().resolve("key"))
+        .header("If-None-Match", "\"key\"")
+        .GET()
+        .build();
+    final HttpResponse<Void> response = client.send(
+        request,
+        HttpResponse.BodyHandlers.discarding()
+    );
+    assertThat(response.statusCode()).isEqualTo(304);
+  }
+
+  @DisplayName("Check interrupted load is a miss and keeps interrupt status")
+  @Test
+  void interruptedLoadIsMiss() {
+    cache.store("key", root, Set.of(classesDir));
+
+    final Path otherRoot = tempDir.resolve("second");
+    final Path otherClassesDir = otherRoot.resolve("build/classes/main");
+    Thread.currentThread().interrupt();
+    final boolean loaded = cache.load("key", otherRoot, Set.of(otherClassesDir));
+    assertTrue(Thread.interrupted());
+    assertFalse(loaded);
+  }
+
+  @DisplayName("Check interrupted store is skipped and keeps interrupt status")
+  @Test
+  void interruptedStoreSkipped() {
+    Thread.currentThread().interrupt();
+    cache.store("key", root, Set.of(classesDir));
+    assertTrue(Thread.interrupted());
+
+    final Path otherRoot = tempDir.resolve("second");
+    assertFalse(cache.load("key", otherRoot, Set.of(otherRoot.resolve("build/classes/main"))));
+  }
+}
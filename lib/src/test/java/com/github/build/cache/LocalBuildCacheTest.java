@@ -0,0 +1,104 @@
+package com.github.build.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("Local build cache tests")
+class LocalBuildCacheTest {
+
+  @TempDir
+  private Path tempDir;
+
+  private Path cacheDir;
+
+  private Path root;
+
+  private Path classesDir;
+
+  private Path jar;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    cacheDir = tempDir.resolve("cache");
+    root = tempDir.resolve("first");
+    classesDir = Files.createDirectories(root.resolve("build/classes/main/org/example"))
+        .getParent()
+        .getParent();
+    Files.writeString(classesDir.resolve("org/example/Calculator.class"), "calculator");
+    Files.createDirectories(classesDir.resolve("org/empty"));
+    jar = Files.writeString(root.resolve("build/calculator.jar"), "jar");
+  }
+
+  @DisplayName("Check outputs are restored into a different root")
+  @Test
+  void outputsRestoredIntoDifferentRoot() throws IOException {
+    final var cache = new LocalBuildCache(cacheDir, 1024 * 1024);
+    cache.store("key", root, Set.of(classesDir, jar));
+
+    final Path otherRoot = tempDir.resolve("second");
+    final Path otherClassesDir = otherRoot.resolve("build/classes/main");
+    final Path otherJar = otherRoot.resolve("build/calculator.jar");
+    Files.createDirectories(otherClassesDir);
+    final Path staleClass = Files.writeString(otherClassesDir.resolve("Stale.class"), "stale");
+
+    assertTrue(cache.load("key", otherRoot, Set.of(otherClassesDir, otherJar)));
+    assertThat(otherClassesDir.resolve("org/example/Calculator.class")).hasContent("calculator");
+    assertThat(otherClassesDir.resolve("org/empty")).isEmptyDirectory();
+    assertThat(otherJar).hasContent("jar");
+    assertThat(staleClass).doesNotExist();
+  }
+
+  @DisplayName("Check loading missing entry leaves outputs untouched")
+  @Test
+  void missingEntryLeavesOutputsUntouched() {
+    final var cache = new LocalBuildCache(cacheDir, 1024 * 1024);
+    assertFalse(cache.load("missing", root, Set.of(classesDir, jar)));
+    assertThat(jar).hasContent("jar");
+  }
+
+  @DisplayName("Check least recently used entries are evicted")
+  @Test
+  void leastRecentlyUsedEntriesEvicted() throws IOException {
+    // measuring entry size first to set limit to exactly two entries
+    final var measuringCache = new LocalBuildCache(tempDir.resolve("measure"), Long.MAX_VALUE);
+    measuringCache.store("key", root, Set.of(jar));
+    final long entrySize = Files.size(tempDir.resolve("measure/key.zip"));
+
+    final var cache = new LocalBuildCache(cacheDir, 2 * entrySize);
+    cache.store("first", root, Set.of(jar));
+    Files.setLastModifiedTime(cacheDir.resolve("first.zip"), FileTime.fromMillis(1_000));
+    cache.store("second", root, Set.of(jar));
+    Files.setLastModifiedTime(cacheDir.resolve("second.zip"), FileTime.fromMillis(2_000));
+
+    // first entry becomes the most recently used one
+    assertTrue(cache.load("first", root, Set.of(jar)));
+    cache.store("third", root, Set.of(jar));
+
+    assertThat(cacheDir.resolve("first.zip")).exists();
+    assertThat(cacheDir.resolve("second.zip")).doesNotExist();
+    assertThat(cacheDir.resolve("third.zip")).exists();
+  }
+
+  @DisplayName("Check non-alphanumeric keys are rejected")
+  @Test
+  void nonAlphanumericKeysRejected() {
+    final var cache = new LocalBuildCache(cacheDir, 1024 * 1024);
+    assertThatThrownBy(() -> cache.load("../key", root, Set.of(jar)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
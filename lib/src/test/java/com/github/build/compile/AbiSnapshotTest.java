@@ -0,0 +1,182 @@
+package com.github.build.compile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("ABI snapshot tests")
+class AbiSnapshotTest {
+
+  private final CompileService compileService = new CompileService();
+
+  @TempDir
+  private Path tempDir;
+
+  private Path source;
+
+  private Path classesDir;
+
+  private Path snapshotFile;
+
+  @BeforeEach
+  void setUp() {
+    source = tempDir.resolve("src/org/example/Calculator.java");
+    classesDir = tempDir.resolve("build/classes/main");
+    snapshotFile = tempDir.resolve("build/abi/main.abi");
+    compile("""
+        package org.example;
+        public class Calculator {
+          public static final int SCALE = 10;
+          public int add(int a, int b) { return a + b; }
+        }
+        """);
+  }
+
+  @DisplayName("Check snapshot is not changed if only method body and private members changed")
+  @Test
+  void notChangedOnImplementationChange() {
+    final String snapshot = readSnapshot();
+
+    compile("""
+        package org.example;
+        public class Calculator {
+          public static final int SCALE = 10;
+          public int add(int a, int b) { return log(b + a); }
+          private int log(int value) {
+            Runnable r = new Runnable() { public void run() {} };
+            return value;
+          }
+        }
+        """);
+    assertThat(readSnapshot()).isEqualTo(snapshot);
+  }
+
+  @DisplayName("Check snapshot is changed if public method added")
+  @Test
+  void changedOnMethodAdded() {
+    final String snapshot = readSnapshot();
+
+    compile("""
+        package org.example;
+        public class Calculator {
+          public static final int SCALE = 10;
+          public int add(int a, int b) { return a + b; }
+          public int subtract(int a, int b) { return a - b; }
+        }
+        """);
+    assertThat(readSnapshot()).isNotEqualTo(snapshot);
+  }
+
+  @DisplayName("Check snapshot is changed if constant value changed")
+  @Test
+  void changedOnConstantChange() {
+    final String snapshot = readSnapshot();
+
+    compile("""
+        package org.example;
+        public class Calculator {
+          public static final int SCALE = 100;
+          public int add(int a, int b) { return a + b; }
+        }
+        """);
+    assertThat(readSnapshot()).isNotEqualTo(snapshot);
+  }
+
+  @DisplayName("Check snapshot is changed if method deprecated")
+  @Test
+  void changedOnAnnotationAdded() {
+    final String snapshot = readSnapshot();
+
+    compile("""
+        package org.example;
+        public class Calculator {
+          public static final int SCALE = 10;
+          @Deprecated(since = "2.0")
+          public int add(int a, int b) { return a + b; }
+        }
+        """);
+    final String deprecated = readSnapshot();
+    assertThat(deprecated).isNotEqualTo(snapshot);
+
+    compile("""
+        package org.example;
+        public class Calculator {
+          public static final int SCALE = 10;
+          @Deprecated(since = "3.0")
+          public int add(int a, int b) { return a + b; }
+        }
+        """);
+    assertThat(readSnapshot()).isNotEqualTo(deprecated);
+  }
+
+  @DisplayName("Check snapshot is changed if record components changed")
+  @Test
+  void changedOnRecordComponentsChange() {
+    compile("""
+        package org.example;
+        public record Calculator(int scale, int precision) {}
+        """);
+    final String snapshot = readSnapshot();
+
+    // swapped components of the same type keep the same members
+    compile("""
+        package org.example;
+        public record Calculator(int precision, int scale) {}
+        """);
+    assertThat(readSnapshot()).isNotEqualTo(snapshot);
+  }
+
+  @DisplayName("Check snapshot lists named classes only")
+  @Test
+  void namedClassesOnly() {
+    compile("""
+        package org.example;
+        public class Calculator {
+          public int add(int a, int b) {
+            Runnable r = new Runnable() { public void run() {} };
+            return a + b;
+          }
+          public static class Result {}
+        }
+        """);
+    assertThat(readSnapshot().lines().map(line -> line.split(" ")[0]))
+        .containsExactly("org/example/Calculator", "org/example/Calculator$Result");
+  }
+
+  private void compile(final String content) {
+    try {
+      Files.createDirectories(source.getParent());
+      Files.writeString(source, content);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    assertTrue(compileService.compile(new CompileArgs(
+        Set.of(source),
+        classesDir,
+        Set.of(),
+        CompilerOptions.EMPTY
+    )));
+    AbiSnapshot.write(classesDir, snapshotFile);
+  }
+
+  private String readSnapshot() {
+    try {
+      return Files.readString(snapshotFile);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
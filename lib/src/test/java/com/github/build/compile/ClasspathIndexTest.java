@@ -0,0 +1,192 @@
+package com.github.build.compile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import javax.tools.JavaFileObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("Classpath index tests")
+class ClasspathIndexTest {
+
+  private final ClasspathIndex index = new ClasspathIndex(1024 * 1024);
+
+  @TempDir
+  private Path tempDir;
+
+  private Path jar;
+
+  @BeforeEach
+  void setUp() {
+    final Path sourceDir = write("lib/org/example/Calculator.java", """
+        package org.example;
+        public class Calculator {
+          public int add(int a, int b) { return a + b; }
+        }
+        """).getParent();
+    final Path classesDir = tempDir.resolve("lib-classes");
+    assertTrue(new CompileService().compile(new CompileArgs(
+        Set.of(sourceDir.resolve("Calculator.java")),
+        classesDir,
+        Set.of(),
+        CompilerOptions.EMPTY
+    )));
+
+    jar = tempDir.resolve("calculator.jar");
+    writeJar(jar, classesDir.resolve("org/example/Calculator.class"));
+  }
+
+  @DisplayName("Check JAR entries are indexed by package")
+  @Test
+  void entriesIndexedByPackage() throws IOException {
+    final JarIndex jarIndex = index.get(jar);
+    assertThat(jarIndex).isNotNull();
+
+    final List<JarIndex.Entry> entries = jarIndex.list("org.example", 0);
+    assertThat(entries)
+        .extracting(JarIndex.Entry::binaryName, JarIndex.Entry::kind)
+        .containsExactly(tuple("org.example.Calculator", JavaFileObject.Kind.CLASS));
+    assertThat(jarIndex.list("org", 0)).isEmpty();
+  }
+
+  @DisplayName("Check JAR entries are found by name for target release")
+  @Test
+  void entriesFoundByName() throws IOException {
+    final Path multiRelease = tempDir.resolve("multi-release.jar");
+    final var manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().put(Attributes.Name.MULTI_RELEASE, "true");
+    try (final var out = new JarOutputStream(Files.newOutputStream(multiRelease), manifest)) {
+      for (final String name : List.of(
+          "org/example/Versioned.class",
+          "META-INF/versions/11/org/example/Versioned.class",
+          "META-INF/versions/17/org/example/Versioned.class"
+      )) {
+        out.putNextEntry(new JarEntry(name));
+        out.write(new byte[]{1, 2, 3});
+      }
+    }
+
+    final JarIndex jarIndex = index.get(multiRelease);
+    assertThat(jarIndex).isNotNull();
+    assertThat(jarIndex.find("org/example/Versioned.class", 0))
+        .extracting(JarIndex.Entry::version)
+        .isEqualTo(0);
+    assertThat(jarIndex.find("org/example/Versioned.class", 16))
+        .extracting(JarIndex.Entry::version)
+        .isEqualTo(11);
+    assertThat(jarIndex.find("org/example/Versioned.class", 21))
+        .extracting(JarIndex.Entry::version)
+        .isEqualTo(17);
+    assertThat(jarIndex.find("org/example/Missing.class", 21)).isNull();
+  }
+
+  @DisplayName("Check index is reused until JAR is changed")
+  @Test
+  void indexReusedUntilChanged() throws IOException {
+    final JarIndex first = index.get(jar);
+    assertThat(index.get(jar)).isSameAs(first);
+
+    try (final var out = new JarOutputStream(Files.newOutputStream(jar))) {
+      out.putNextEntry(new JarEntry("org/example/Other.class"));
+      out.write(new byte[]{1, 2, 3});
+    }
+
+    final JarIndex second = index.get(jar);
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.list("org.example", 0))
+        .extracting(JarIndex.Entry::binaryName)
+        .containsExactly("org.example.Other");
+  }
+
+  @DisplayName("Check missing JARs are not indexed")
+  @Test
+  void missingJarNotIndexed() throws IOException {
+    assertThat(index.get(tempDir.resolve("missing.jar"))).isNull();
+    assertThat(index.get(tempDir)).isNull();
+  }
+
+  @DisplayName("Check corrupt JAR is reported")
+  @Test
+  void corruptJarReported() throws IOException {
+    final Path corrupt = write("corrupt.jar", "text");
+    assertThatThrownBy(() -> index.get(corrupt))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining(corrupt.toString());
+
+    final Path source = write("app/org/example/app/App.java", """
+        package org.example.app;
+        import org.example.Calculator;
+        public class App {
+          int run() { return new Calculator().add(1, 2); }
+        }
+        """);
+    final Path classesDir = tempDir.resolve("app-classes");
+    assertFalse(new CompileService().compile(new CompileArgs(
+        Set.of(source),
+        classesDir,
+        Set.of(corrupt, jar),
+        CompilerOptions.EMPTY
+    )));
+    assertThat(classesDir.resolve("org/example/app/App.class")).doesNotExist();
+  }
+
+  @DisplayName("Check sources are compiled against indexed JAR")
+  @Test
+  void compiledAgainstIndexedJar() {
+    final Path source = write("app/org/example/app/App.java", """
+        package org.example.app;
+        import org.example.Calculator;
+        public class App {
+          int run() { return new Calculator().add(1, 2); }
+        }
+        """);
+    final Path classesDir = tempDir.resolve("app-classes");
+
+    assertTrue(new CompileService().compile(new CompileArgs(
+        Set.of(source),
+        classesDir,
+        Set.of(jar),
+        CompilerOptions.EMPTY
+    )));
+    assertThat(classesDir.resolve("org/example/app/App.class")).isRegularFile();
+  }
+
+  private Path write(final String relativePath, final String content) {
+    final Path path = tempDir.resolve(relativePath);
+    try {
+      Files.createDirectories(path.getParent());
+      return Files.writeString(path, content);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeJar(final Path jar, final Path classFile) {
+    try (final var out = new JarOutputStream(Files.newOutputStream(jar))) {
+      out.putNextEntry(new JarEntry("org/example/Calculator.class"));
+      out.write(Files.readAllBytes(classFile));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
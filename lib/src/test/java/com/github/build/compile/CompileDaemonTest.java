@@ -0,0 +1,103 @@
+package com.github.build.compile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("Compile daemon tests")
+class CompileDaemonTest {
+
+  @TempDir
+  private Path tempDir;
+
+  private Path socketPath;
+
+  private CompileDaemon daemon;
+
+  private Thread daemonThread;
+
+  private CompileService service;
+
+  @BeforeEach
+  void setUp() throws InterruptedException {
+    socketPath = tempDir.resolve("daemon/compile.sock");
+    daemon = new CompileDaemon(socketPath, 1, Duration.ofMinutes(1));
+    daemonThread = Thread.ofPlatform().start(daemon::run);
+    while (!Files.exists(socketPath)) {
+      Thread.sleep(10);
+    }
+
+    service = new CompileService(socketPath);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    daemon.stop();
+    daemonThread.join();
+  }
+
+  @DisplayName("Check sources are compiled by daemon repeatedly")
+  @Test
+  void sourcesCompiled() {
+    final Path source = write("Calculator.java", "public class Calculator {}");
+    final Path classesDir = tempDir.resolve("build/classes/main");
+
+    for (int i = 0; i < 2; i++) {
+      assertTrue(service.compile(new CompileArgs(
+          Set.of(source),
+          classesDir,
+          Set.of(),
+          CompilerOptions.EMPTY
+      )));
+    }
+
+    assertThat(classesDir.resolve("Calculator.class")).isRegularFile();
+  }
+
+  @DisplayName("Check compilation error is reported by daemon")
+  @Test
+  void compilationErrorReported() {
+    final Path source = write("Broken.java", "public class Broken { int x() { return y; } }");
+    final Path classesDir = tempDir.resolve("build/classes/main");
+
+    assertFalse(service.compile(new CompileArgs(
+        Set.of(source),
+        classesDir,
+        Set.of(),
+        CompilerOptions.EMPTY
+    )));
+    assertThat(classesDir.resolve("Broken.class")).doesNotExist();
+  }
+
+  @DisplayName("Check socket file is deleted when daemon stops")
+  @Test
+  void socketDeletedOnStop() throws InterruptedException {
+    daemon.stop();
+    daemonThread.join();
+    assertThat(socketPath).doesNotExist();
+  }
+
+  private Path write(final String fileName, final String content) {
+    try {
+      final Path path = Files.createDirectories(tempDir.resolve("src")).resolve(fileName);
+      return Files.writeString(path, content);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,209 @@
+package com.github.build.compile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("Incremental compiler tests")
+class IncrementalCompilerTest {
+
+  private final IncrementalCompiler compiler = new IncrementalCompiler(new CompileService());
+
+  @TempDir
+  private Path tempDir;
+
+  private Path sourceDir;
+
+  private Path classesDir;
+
+  private Path stateFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    sourceDir = Files.createDirectories(tempDir.resolve("src/org/example"));
+    classesDir = tempDir.resolve("build/classes/main");
+    stateFile = tempDir.resolve("build/incremental/main.state");
+
+    write("Calculator.java", """
+        package org.example;
+        public class Calculator {
+          public int add(int a, int b) { return a + b; }
+        }
+        """);
+    write("CalculatorUser.java", """
+        package org.example;
+        public class CalculatorUser {
+          int use() { return new Calculator().add(1, 2); }
+        }
+        """);
+    write("Independent.java", """
+        package org.example;
+        public class Independent {
+        }
+        """);
+    assertTrue(compiler.compile(args(), stateFile));
+  }
+
+  @DisplayName("Check nothing is recompiled if sources not changed")
+  @Test
+  void nothingRecompiledIfNotChanged() {
+    final FileTime calculator = lastModified("Calculator");
+    final FileTime user = lastModified("CalculatorUser");
+
+    assertTrue(compiler.compile(args(), stateFile));
+    assertThat(lastModified("Calculator")).isEqualTo(calculator);
+    assertThat(lastModified("CalculatorUser")).isEqualTo(user);
+  }
+
+  @DisplayName("Check dependents are not recompiled if only method body changed")
+  @Test
+  void dependentsNotRecompiledOnBodyChange() {
+    final FileTime user = lastModified("CalculatorUser");
+    write("Calculator.java", """
+        package org.example;
+        public class Calculator {
+          public int add(int a, int b) { return b + a; }
+        }
+        """);
+
+    assertTrue(compiler.compile(args(), stateFile));
+    assertThat(lastModified("CalculatorUser")).isEqualTo(user);
+  }
+
+  @DisplayName("Check dependents are recompiled if API changed")
+  @Test
+  void dependentsRecompiledOnApiChange() {
+    final FileTime user = lastModified("CalculatorUser");
+    final FileTime independent = lastModified("Independent");
+    write("Calculator.java", """
+        package org.example;
+        public class Calculator {
+          public int add(int a, int b) { return a + b; }
+          public int subtract(int a, int b) { return a - b; }
+        }
+        """);
+
+    assertTrue(compiler.compile(args(), stateFile));
+    assertThat(lastModified("CalculatorUser")).isNotEqualTo(user);
+    assertThat(lastModified("Independent")).isEqualTo(independent);
+  }
+
+  @DisplayName("Check incompatible API change is detected in dependents")
+  @Test
+  void incompatibleApiChangeDetected() {
+    write("Calculator.java", """
+        package org.example;
+        public class Calculator {
+          public long add(long a, long b) { return a + b; }
+        }
+        """);
+
+    assertFalse(compiler.compile(args(), stateFile));
+    assertThat(stateFile).doesNotExist();
+  }
+
+  @DisplayName("Check API change is detected in dependents using class through subclass")
+  @Test
+  void apiChangeDetectedThroughSubclass() {
+    write("Extended.java", """
+        package org.example;
+        public class Extended extends Calculator {
+        }
+        """);
+    write("ExtendedUser.java", """
+        package org.example;
+        public class ExtendedUser {
+          int use() { return new Extended().add(1, 2); }
+        }
+        """);
+    assertTrue(compiler.compile(args(), stateFile));
+
+    write("Calculator.java", """
+        package org.example;
+        public class Calculator {
+        }
+        """);
+    write("CalculatorUser.java", """
+        package org.example;
+        public class CalculatorUser {
+        }
+        """);
+
+    assertFalse(compiler.compile(args(), stateFile));
+  }
+
+  @DisplayName("Check class files of removed sources are deleted")
+  @Test
+  void classFilesOfRemovedSourcesDeleted() throws IOException {
+    Files.delete(sourceDir.resolve("Independent.java"));
+
+    assertTrue(compiler.compile(args(), stateFile));
+    assertThat(classesDir.resolve("org/example/Independent.class")).doesNotExist();
+    assertThat(classesDir.resolve("org/example/Calculator.class")).isNotEmptyFile();
+  }
+
+  @DisplayName("Check class files of removed nested classes are deleted")
+  @Test
+  void classFilesOfRemovedNestedClassesDeleted() {
+    write("Independent.java", """
+        package org.example;
+        public class Independent {
+          static class Nested {
+          }
+        }
+        """);
+    assertTrue(compiler.compile(args(), stateFile));
+    assertThat(classesDir.resolve("org/example/Independent$Nested.class")).isNotEmptyFile();
+
+    write("Independent.java", """
+        package org.example;
+        public class Independent {
+        }
+        """);
+    assertTrue(compiler.compile(args(), stateFile));
+    assertThat(classesDir.resolve("org/example/Independent$Nested.class")).doesNotExist();
+  }
+
+  private CompileArgs args() {
+    final Set<Path> sources;
+    try (final Stream<Path> stream = Files.list(sourceDir)) {
+      sources = stream.collect(Collectors.toSet());
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return new CompileArgs(sources, classesDir, Set.of(), CompilerOptions.EMPTY);
+  }
+
+  private void write(final String fileName, final String content) {
+    try {
+      Files.writeString(sourceDir.resolve(fileName), content);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private FileTime lastModified(final String className) {
+    try {
+      return Files.getLastModifiedTime(classesDir.resolve("org/example/" + className + ".class"));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
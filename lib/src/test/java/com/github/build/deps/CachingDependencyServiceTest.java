@@ -0,0 +1,99 @@
+package com.github.build.deps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("Caching dependency service tests")
+class CachingDependencyServiceTest {
+
+  private static final GroupArtifactVersion FIRST = GroupArtifactVersion.parse(
+      "org.example:first:1.0.0"
+  );
+
+  private static final GroupArtifactVersion SECOND = GroupArtifactVersion.parse(
+      "org.example:second:1.0.0"
+  );
+
+  private static final DependencyConstraints CONSTRAINTS = DependencyConstraints
+      .builder()
+      .withExactVersion("org.example:bom:1.0.0")
+      .build();
+
+  private final CountingDependencyService delegate = new CountingDependencyService(
+      GroupArtifactVersion.parse("org.example:common:1.0.0"),
+      null
+  );
+
+  private final CachingDependencyService service = new CachingDependencyService(delegate);
+
+  @DisplayName("Check same resolution is done once")
+  @Test
+  void sameResolutionDoneOnce() {
+    final Set<GroupArtifactVersion> first = service.resolveTransitive(
+        List.of(FIRST, SECOND),
+        CONSTRAINTS
+    );
+    final Set<GroupArtifactVersion> second = service.resolveTransitive(
+        List.of(FIRST, SECOND),
+        CONSTRAINTS.copy().build()
+    );
+
+    assertThat(second).isEqualTo(first);
+    assertThat(delegate.resolutions).hasValue(1);
+    assertThat(service.misses()).isEqualTo(1);
+    assertThat(service.hits()).isEqualTo(1);
+  }
+
+  @DisplayName("Check different roots, root order or constraints are resolved separately")
+  @Test
+  void differentInputsResolvedSeparately() {
+    service.resolveTransitive(List.of(FIRST, SECOND), CONSTRAINTS);
+    service.resolveTransitive(List.of(SECOND, FIRST), CONSTRAINTS);
+    service.resolveTransitive(List.of(FIRST), CONSTRAINTS);
+    service.resolveTransitive(List.of(FIRST, SECOND), DependencyConstraints.EMPTY);
+
+    assertThat(delegate.resolutions).hasValue(4);
+    assertThat(service.misses()).isEqualTo(4);
+    assertThat(service.hits()).isZero();
+  }
+
+  @DisplayName("Check concurrent requests wait for single resolution")
+  @Test
+  void concurrentRequestsResolvedOnce() {
+    delegate.slow = true;
+    final var futures = new ArrayList<Future<Set<GroupArtifactVersion>>>();
+    try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(() -> service.resolveTransitive(List.of(FIRST), CONSTRAINTS)));
+      }
+    }
+
+    assertThat(futures).allSatisfy(future -> assertThat(future.resultNow()).contains(FIRST));
+    assertThat(delegate.resolutions).hasValue(1);
+    assertThat(service.hits()).isEqualTo(7);
+  }
+
+  @DisplayName("Check failed resolution is not cached")
+  @Test
+  void failureNotCached() {
+    delegate.failing.set(true);
+    assertThatThrownBy(() -> service.resolveTransitive(List.of(FIRST), CONSTRAINTS))
+        .isInstanceOf(IllegalStateException.class);
+
+    delegate.failing.set(false);
+    assertThat(service.resolveTransitive(List.of(FIRST), CONSTRAINTS)).contains(FIRST);
+    assertThat(delegate.resolutions).hasValue(2);
+  }
+}
@@ -0,0 +1,106 @@
+package com.github.build.deps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("Coordinates interning tests")
+class CoordinatesTest {
+
+  @DisplayName("Check equal coordinates are the same instance")
+  @Test
+  void equalCoordinatesSameInstance() {
+    final GroupArtifact groupArtifact = Coordinates.groupArtifact(
+        new String("org.example"),
+        new String("interned")
+    );
+    assertThat(Coordinates.groupArtifact("org.example", "interned")).isSameAs(groupArtifact);
+    assertThat(Coordinates.groupArtifact(" org.example ", "interned "))
+        .isSameAs(groupArtifact);
+
+    final GroupArtifactVersion gav = groupArtifact.withVersion("1.0.0");
+    assertThat(Coordinates.groupArtifactVersion("org.example", "interned", "1.0.0")).isSameAs(gav);
+    assertThat(Coordinates.groupArtifactVersion(" org.example", "interned", " 1.0.0 "))
+        .isSameAs(gav);
+    assertThat(gav.groupArtifact()).isSameAs(groupArtifact);
+  }
+
+  @DisplayName("Check coordinates differing only by whitespace are interned once")
+  @Test
+  void whitespaceNotCountedAsMiss() {
+    Coordinates.groupArtifactVersion("org.example", "stripped", "1.0.0");
+    final long misses = Coordinates.misses();
+    Coordinates.groupArtifactVersion(" org.example", "stripped ", "\t1.0.0\n");
+    assertThat(Coordinates.misses()).isEqualTo(misses);
+  }
+
+  @DisplayName("Check strings differing only by whitespace share canonical instance")
+  @Test
+  void stringsStripped() {
+    final String canonical = Coordinates.string("canonical-string");
+    assertThat(Coordinates.string(" canonical-string\t")).isSameAs(canonical);
+    assertThat(Coordinates.string(new String("canonical-string"))).isSameAs(canonical);
+  }
+
+  @DisplayName("Check interned coordinates are equal to not interned ones")
+  @Test
+  void internedEqualToNotInterned() {
+    final var groupArtifact = new GroupArtifact("org.example", "not-interned");
+    assertThat(Coordinates.groupArtifact("org.example", "not-interned"))
+        .isEqualTo(groupArtifact)
+        .hasSameHashCodeAs(groupArtifact);
+
+    final var gav = new GroupArtifactVersion("org.example", "not-interned", "1.0.0");
+    assertThat(groupArtifact.withVersion("1.0.0"))
+        .isEqualTo(gav)
+        .hasSameHashCodeAs(gav);
+  }
+
+  @DisplayName("Check blank coordinates are not interned")
+  @Test
+  void blankCoordinatesNotInterned() {
+    assertThatThrownBy(() -> Coordinates.groupArtifact("org.example", " "))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Coordinates.groupArtifactVersion("org.example", "blank", ""))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @DisplayName("Check POMs share dependency coordinates")
+  @Test
+  void pomsShareDependencyCoordinates() {
+    final String content = """
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>app</artifactId>
+          <version>1.0.0</version>
+          <dependencies>
+            <dependency>
+              <groupId>org.example</groupId>
+              <artifactId>shared</artifactId>
+              <version>2.0.0</version>
+            </dependency>
+          </dependencies>
+        </project>
+        """;
+    final Pom first = PomReader.read(
+        new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))
+    );
+    final Pom second = PomReader.read(
+        new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))
+    );
+
+    final Pom.Dependency firstDependency = first.dependencies().getFirst();
+    final Pom.Dependency secondDependency = second.dependencies().getFirst();
+    assertThat(secondDependency.groupId()).isSameAs(firstDependency.groupId());
+    assertThat(secondDependency.version()).isSameAs(firstDependency.version());
+    assertThat(secondDependency.groupArtifact()).isSameAs(firstDependency.groupArtifact());
+    assertThat(second.gav()).isSameAs(first.gav());
+  }
+}
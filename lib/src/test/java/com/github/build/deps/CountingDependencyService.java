@@ -0,0 +1,106 @@
+package com.github.build.deps;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Dependency service resolving any artifacts to themselves and a single transitive artifact,
+ * counting resolutions.
+ *
+ * @author noavarice
+ */
+final class CountingDependencyService implements DependencyService {
+
+  final AtomicInteger resolutions = new AtomicInteger();
+
+  final AtomicBoolean failing = new AtomicBoolean();
+
+  volatile boolean slow;
+
+  private final GroupArtifactVersion transitive;
+
+  private final @Nullable LocalRepository localRepository;
+
+  /**
+   * @param transitive      Artifact added to every resolution
+   * @param localRepository Repository to fetch artifacts to, JARs are saved there with their
+   *                        coordinates as content; if null, fetching is not supported
+   */
+  CountingDependencyService(
+      final GroupArtifactVersion transitive,
+      final @Nullable LocalRepository localRepository
+  ) {
+    this.transitive = transitive;
+    this.localRepository = localRepository;
+  }
+
+  @Override
+  @SuppressWarnings("removal")
+  public Set<GroupArtifactVersion> resolveTransitive(final GroupArtifactVersion artifact) {
+    return resolveTransitive(List.of(artifact), DependencyConstraints.EMPTY);
+  }
+
+  @Override
+  public Set<GroupArtifactVersion> resolveTransitive(
+      final List<GroupArtifactVersion> artifacts,
+      final DependencyConstraints constraints
+  ) {
+    resolutions.incrementAndGet();
+    if (slow) {
+      try {
+        Thread.sleep(100);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+    }
+
+    if (failing.get()) {
+      throw new IllegalStateException("Resolution failed");
+    }
+
+    final var result = new HashSet<>(artifacts);
+    result.add(transitive);
+    return result;
+  }
+
+  @Override
+  public Map<GroupArtifactVersion, Path> fetchToLocal(final Set<GroupArtifactVersion> artifacts) {
+    if (localRepository == null) {
+      throw new UnsupportedOperationException();
+    }
+
+    final var result = new HashMap<GroupArtifactVersion, Path>();
+    for (final GroupArtifactVersion gav : artifacts) {
+      if (!localRepository.jarPresent(gav) || Files.notExists(localRepository.getPath(gav))) {
+        localRepository.saveJar(gav, gav.toString().getBytes(StandardCharsets.UTF_8));
+      }
+
+      result.put(gav, localRepository.getPath(gav));
+    }
+
+    return result;
+  }
+
+  @Override
+  public Path fetchToLocal(final GroupArtifactVersion artifact, final String classifier) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public DependencyConstraints getConstraints(
+      final GroupArtifactVersion bom,
+      final GroupArtifactVersion... other
+  ) {
+    throw new UnsupportedOperationException();
+  }
+}
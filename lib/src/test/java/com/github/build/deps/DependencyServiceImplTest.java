@@ -0,0 +1,207 @@
+package com.github.build.deps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("Dependency service tests")
+class DependencyServiceImplTest {
+
+  @TempDir
+  private Path tempDir;
+
+  @DisplayName("Fetching to local repository tests")
+  @Nested
+  class FetchToLocal {
+
+    @DisplayName("Check artifacts are fetched concurrently within repository limit")
+    @Test
+    void fetchedConcurrentlyWithinLimit() {
+      final var remoteRepository = new SlowRemoteRepository(Set.of(), Map.of());
+      final var service = new DependencyServiceImpl(
+          List.of(remoteRepository),
+          new LocalRepository(tempDir, Map.of()),
+          3
+      );
+      final Set<GroupArtifactVersion> artifacts = IntStream
+          .range(0, 12)
+          .mapToObj(i -> new GroupArtifactVersion("org.example", "artifact-" + i, "1.0.0"))
+          .collect(Collectors.toSet());
+
+      final Map<GroupArtifactVersion, Path> result = service.fetchToLocal(artifacts);
+      assertThat(result).containsOnlyKeys(artifacts);
+      assertThat(result.values()).allSatisfy(path -> assertThat(path).isRegularFile());
+      assertThat(remoteRepository.maxConcurrentCalls.get()).isBetween(2, 3);
+    }
+
+    @DisplayName("Check indexed JAR removed from disk is fetched again")
+    @Test
+    void removedJarFetchedAgain() throws IOException {
+      final var gav = new GroupArtifactVersion("org.example", "removed", "1.0.0");
+      final var service = new DependencyServiceImpl(
+          List.of(new SlowRemoteRepository(Set.of(), Map.of())),
+          new LocalRepository(tempDir, Map.of())
+      );
+      Files.delete(service.fetchToLocal(Set.of(gav)).get(gav));
+
+      assertThat(service.fetchToLocal(Set.of(gav)).get(gav)).isRegularFile();
+    }
+
+    @DisplayName("Check all failed artifacts are reported")
+    @Test
+    void allFailuresReported() {
+      final var first = new GroupArtifactVersion("org.example", "missing-first", "1.0.0");
+      final var second = new GroupArtifactVersion("org.example", "missing-second", "1.0.0");
+      final var present = new GroupArtifactVersion("org.example", "present", "1.0.0");
+      final var localRepository = new LocalRepository(tempDir, Map.of());
+      final var service = new DependencyServiceImpl(
+          List.of(new SlowRemoteRepository(Set.of(first, second), Map.of())),
+          localRepository
+      );
+
+      assertThatThrownBy(() -> service.fetchToLocal(Set.of(first, second, present)))
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessageContaining(first.toString())
+          .hasMessageContaining(second.toString())
+          .satisfies(e -> assertThat(e.getSuppressed()).hasSize(2));
+      assertThat(localRepository.jarPresent(present)).isTrue();
+    }
+  }
+
+  @DisplayName("Transitive resolution tests")
+  @Nested
+  class ResolveTransitive {
+
+    @DisplayName("Check POMs of the same level are fetched concurrently and conflicts resolved")
+    @Test
+    void levelFetchedConcurrently() {
+      final var root = new GroupArtifactVersion("org.example", "root", "1.0.0");
+      final var remoteRepository = new SlowRemoteRepository(Set.of(), Map.of(
+          root, pom(root, "org.example:first:1.0.0", "org.example:second:1.0.0"),
+          gav("org.example:first:1.0.0"), pom(
+              gav("org.example:first:1.0.0"),
+              "org.example:common:1.0.0"
+          ),
+          gav("org.example:second:1.0.0"), pom(
+              gav("org.example:second:1.0.0"),
+              "org.example:common:2.0.0"
+          ),
+          gav("org.example:common:1.0.0"), pom(gav("org.example:common:1.0.0")),
+          gav("org.example:common:2.0.0"), pom(gav("org.example:common:2.0.0"))
+      ));
+      final var service = new DependencyServiceImpl(
+          List.of(remoteRepository),
+          new LocalRepository(tempDir, Map.of())
+      );
+
+      assertThat(service.resolveTransitive(root)).containsExactlyInAnyOrder(
+          root,
+          gav("org.example:first:1.0.0"),
+          gav("org.example:second:1.0.0"),
+          gav("org.example:common:1.0.0")
+      );
+      assertThat(remoteRepository.maxConcurrentCalls.get()).isGreaterThan(1);
+    }
+
+    private static Pom pom(final GroupArtifactVersion gav, final String... dependencies) {
+      return new Pom(
+          gav.groupId(),
+          gav.artifactId(),
+          gav.version(),
+          null,
+          Map.of(),
+          List.of(),
+          Stream
+              .of(dependencies)
+              .map(DependencyServiceImplTest::gav)
+              .map(d -> new Pom.Dependency(
+                  d.groupId(),
+                  d.artifactId(),
+                  d.version(),
+                  Pom.Dependency.Scope.COMPILE,
+                  Set.of(),
+                  false
+              ))
+              .toList()
+      );
+    }
+  }
+
+  private static GroupArtifactVersion gav(final String value) {
+    return GroupArtifactVersion.parse(value);
+  }
+
+  private static final class SlowRemoteRepository implements RemoteRepository {
+
+    private final Set<GroupArtifactVersion> missing;
+
+    private final Map<GroupArtifactVersion, Pom> poms;
+
+    private final AtomicInteger concurrentCalls = new AtomicInteger();
+
+    private final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+
+    private SlowRemoteRepository(
+        final Set<GroupArtifactVersion> missing,
+        final Map<GroupArtifactVersion, Pom> poms
+    ) {
+      this.missing = missing;
+      this.poms = poms;
+    }
+
+    @Override
+    public Optional<ArtifactDownloadResult> download(final GroupArtifactVersion dependency) {
+      simulateLatency();
+      if (missing.contains(dependency)) {
+        return Optional.empty();
+      }
+
+      final byte[] content = dependency.toString().getBytes(StandardCharsets.UTF_8);
+      return Optional.of(new ArtifactDownloadResult(new ByteArrayInputStream(content)));
+    }
+
+    @Override
+    public Optional<Pom> getPom(final GroupArtifactVersion gav) {
+      simulateLatency();
+      return Optional.ofNullable(poms.get(gav));
+    }
+
+    @Override
+    public Optional<String> findMax(final GroupArtifact ga, final MavenVersion.Range range) {
+      return Optional.empty();
+    }
+
+    private void simulateLatency() {
+      final int current = concurrentCalls.incrementAndGet();
+      maxConcurrentCalls.accumulateAndGet(current, Math::max);
+      try {
+        Thread.sleep(50);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      } finally {
+        concurrentCalls.decrementAndGet();
+      }
+    }
+  }
+}
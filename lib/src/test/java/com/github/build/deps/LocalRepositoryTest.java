@@ -2,15 +2,32 @@ package com.github.build.deps;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 
 import com.github.build.ResourceUtils;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -56,6 +73,46 @@ class LocalRepositoryTest {
     };
   }
 
+  @DisplayName("Check saving JAR from stream works")
+  @TestFactory
+  DynamicTest[] savingJarFromStreamWorks(@TempDir final Path tempDir) {
+    final var repository = new LocalRepository(
+        tempDir,
+        Map.of("sha256", "SHA-256", "sha1", "SHA-1")
+    );
+
+    final GroupArtifactVersion gav = GroupArtifactVersion.parse("org.slf4j:slf4j-api:2.0.17");
+    final byte[] jarBytes = ResourceUtils.read("/slf4j-api-2.0.17.jar");
+
+    final var artifactDir = tempDir.resolve("org/slf4j/slf4j-api/2.0.17");
+    final var expectedJarPath = artifactDir.resolve("slf4j-api-2.0.17.jar");
+    return new DynamicTest[]{
+        dynamicTest(
+            "Check method works",
+            () -> assertThat(
+                repository.saveJar(gav, new ByteArrayInputStream(jarBytes))
+            ).isEqualTo(expectedJarPath)
+        ),
+        dynamicTest(
+            "Check JAR created",
+            () -> assertThat(expectedJarPath).hasBinaryContent(jarBytes)
+        ),
+        dynamicTest(
+            "Check hash files created",
+            () -> assertAll(
+                () -> assertThat(artifactDir.resolve("slf4j-api-2.0.17.sha256")).hasContent(
+                    "7b751d952061954d5abfed7181c1f645d336091b679891591d63329c622eb832"
+                ),
+                () -> assertThat(artifactDir.resolve("slf4j-api-2.0.17.sha1")).exists()
+            )
+        ),
+        dynamicTest(
+            "Check no temporary files left",
+            () -> assertThat(artifactDir).isDirectoryNotContaining("glob:**.tmp")
+        ),
+    };
+  }
+
   @DisplayName("Checking JAR presence works")
   @TestFactory
   DynamicTest[] checkingJarPresenceWorks(@TempDir final Path tempDir) {
@@ -79,4 +136,189 @@ class LocalRepositoryTest {
         ),
     };
   }
+
+  @DisplayName("Check concurrent saves of the same JAR don't corrupt it")
+  @Test
+  void concurrentSavesConsistent(@TempDir final Path tempDir)
+      throws IOException, NoSuchAlgorithmException {
+    final GroupArtifactVersion gav = GroupArtifactVersion.parse("org.slf4j:slf4j-api:2.0.17");
+    final byte[] jarBytes = ResourceUtils.read("/slf4j-api-2.0.17.jar");
+    final var contents = new ArrayList<byte[]>();
+    final var futures = new ArrayList<Future<Path>>();
+    try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 8; i++) {
+        // each save has own repository instance like separate builds do and own content,
+        // so JAR and hash files written by different saves would not match
+        final byte[] content = Arrays.copyOf(jarBytes, jarBytes.length + 1);
+        content[jarBytes.length] = (byte) i;
+        contents.add(content);
+        final var repository = new LocalRepository(tempDir, Map.of("sha256", "SHA-256"));
+        futures.add(executor.submit(() -> repository.saveJar(gav, new ChunkedStream(content))));
+      }
+    }
+
+    assertThat(futures).allSatisfy(future -> assertThat(future.resultNow()).isRegularFile());
+    final Path artifactDir = tempDir.resolve("org/slf4j/slf4j-api/2.0.17");
+    final byte[] saved = Files.readAllBytes(artifactDir.resolve("slf4j-api-2.0.17.jar"));
+    assertThat(contents).anySatisfy(content -> assertThat(saved).isEqualTo(content));
+    assertThat(artifactDir.resolve("slf4j-api-2.0.17.sha256")).hasContent(
+        HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(saved))
+    );
+    assertThat(artifactDir).isDirectoryNotContaining("glob:**.tmp");
+
+    final var repository = new LocalRepository(tempDir, Map.of());
+    assertTrue(repository.jarPresent(gav));
+    assertThat(repository.getPath(gav)).isEqualTo(futures.getFirst().resultNow());
+  }
+
+  /**
+   * Stream returning content in small chunks, so concurrent saves interleave.
+   */
+  private static final class ChunkedStream extends ByteArrayInputStream {
+
+    private ChunkedStream(final byte[] content) {
+      super(content);
+    }
+
+    @Override
+    public synchronized int read(final byte[] b, final int off, final int len) {
+      Thread.yield();
+      return super.read(b, off, Math.min(len, 1024));
+    }
+  }
+
+  @DisplayName("Index tests")
+  @Nested
+  class Index {
+
+    private final GroupArtifactVersion gav = GroupArtifactVersion.parse(
+        "org.slf4j:slf4j-api:2.0.17"
+    );
+
+    private final byte[] jarBytes = ResourceUtils.read("/slf4j-api-2.0.17.jar");
+
+    @DisplayName("Check saved JAR is served from index")
+    @Test
+    void savedJarServedFromIndex(@TempDir final Path tempDir) throws IOException {
+      final Path jarPath = new LocalRepository(tempDir, Map.of()).saveJar(gav, jarBytes);
+      assertThat(tempDir.resolve("artifacts.index")).isRegularFile();
+
+      // not looking at file system, so removed JAR is still present until index is rebuilt
+      Files.delete(jarPath);
+      final var repository = new LocalRepository(tempDir, Map.of());
+      assertTrue(repository.jarPresent(gav));
+      assertThat(repository.getPath(gav)).isEqualTo(jarPath);
+
+      repository.invalidate(gav);
+      assertFalse(repository.jarPresent(gav));
+    }
+
+    @DisplayName("Check checksum of unchanged JAR is served from index")
+    @Test
+    void checksumServedFromIndex(@TempDir final Path tempDir) throws IOException {
+      final var repository = new LocalRepository(tempDir, Map.of("sha256", "SHA-256"));
+      final Path jarPath = repository.saveJar(gav, jarBytes);
+      final String checksum = LocalRepository.sha256(jarPath);
+      assertThat(repository.checksum(gav, jarPath)).isEqualTo(checksum);
+
+      // same size and modification time, so content is not read again
+      final FileTime lastModified = Files.getLastModifiedTime(jarPath);
+      final byte[] changed = jarBytes.clone();
+      changed[changed.length / 2]++;
+      Files.write(jarPath, changed);
+      Files.setLastModifiedTime(jarPath, lastModified);
+      assertThat(repository.checksum(gav, jarPath)).isEqualTo(checksum);
+
+      Files.setLastModifiedTime(jarPath, FileTime.fromMillis(lastModified.toMillis() + 1000));
+      assertThat(repository.checksum(gav, jarPath))
+          .isEqualTo(LocalRepository.sha256(jarPath))
+          .isNotEqualTo(checksum);
+
+      Files.delete(jarPath);
+      assertThat(repository.checksum(gav, jarPath)).isNull();
+    }
+
+    @DisplayName("Check rebuilding index drops removed JARs")
+    @Test
+    void rebuildDropsRemovedJars(@TempDir final Path tempDir) throws IOException {
+      final Path jarPath = new LocalRepository(tempDir, Map.of()).saveJar(gav, jarBytes);
+      Files.delete(jarPath);
+
+      LocalRepository.main(new String[]{tempDir.toString()});
+      assertFalse(new LocalRepository(tempDir, Map.of()).jarPresent(gav));
+    }
+
+    @DisplayName("Check JARs saved before index existed are indexed")
+    @Test
+    void existingJarsIndexed(@TempDir final Path tempDir) throws IOException {
+      new LocalRepository(tempDir, Map.of("sha256", "SHA-256")).saveJar(gav, jarBytes);
+      Files.delete(tempDir.resolve("artifacts.index"));
+
+      final var repository = new LocalRepository(tempDir, Map.of());
+      assertTrue(repository.jarPresent(gav));
+      assertThat(tempDir.resolve("artifacts.index")).isRegularFile();
+    }
+
+    @DisplayName("Check JAR put into repository by other tool is found")
+    @Test
+    void jarPutByOtherToolFound(@TempDir final Path tempDir) throws IOException {
+      final var repository = new LocalRepository(tempDir, Map.of());
+      assertFalse(repository.jarPresent(gav));
+
+      final Path jarPath = tempDir.resolve("org/slf4j/slf4j-api/2.0.17/slf4j-api-2.0.17.jar");
+      Files.createDirectories(jarPath.getParent());
+      Files.write(jarPath, jarBytes);
+      assertTrue(repository.jarPresent(gav));
+
+      Files.delete(jarPath);
+      assertTrue(new LocalRepository(tempDir, Map.of()).jarPresent(gav));
+    }
+
+    @DisplayName("Check concurrent saves of different JARs are all indexed")
+    @Test
+    void concurrentSavesIndexed(@TempDir final Path tempDir) throws IOException {
+      final var gavs = new ArrayList<GroupArtifactVersion>();
+      final var futures = new ArrayList<Future<Path>>();
+      try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (int i = 0; i < 16; i++) {
+          final var other = GroupArtifactVersion.parse("org.example:artifact-" + i + ":1.0.0");
+          gavs.add(other);
+          // separate instances in one process, like builds running in the same daemon
+          final var repository = new LocalRepository(tempDir, Map.of());
+          futures.add(executor.submit(() -> repository.saveJar(other, jarBytes)));
+        }
+      }
+
+      assertThat(futures).allSatisfy(future -> assertThat(future.resultNow()).isRegularFile());
+      for (final Future<Path> future : futures) {
+        Files.delete(future.resultNow());
+      }
+
+      // JARs are removed, so they are present only if served from index
+      final var repository = new LocalRepository(tempDir, Map.of());
+      assertThat(gavs).allSatisfy(other -> assertTrue(repository.jarPresent(other)));
+    }
+
+    @DisplayName("Check torn index record is discarded")
+    @Test
+    void tornRecordDiscarded(@TempDir final Path tempDir) throws IOException {
+      final var other = GroupArtifactVersion.parse("org.example:other:1.0.0");
+      final var repository = new LocalRepository(tempDir, Map.of());
+      repository.saveJar(gav, jarBytes);
+      final Path index = tempDir.resolve("artifacts.index");
+      final long sizeWithFirst = Files.size(index);
+      repository.saveJar(other, jarBytes);
+      Files.delete(repository.getPath(other));
+
+      // simulating crash in the middle of appending the second record
+      try (final FileChannel channel = FileChannel.open(index, StandardOpenOption.WRITE)) {
+        channel.truncate(Files.size(index) - 3);
+      }
+
+      final var reloaded = new LocalRepository(tempDir, Map.of());
+      assertTrue(reloaded.jarPresent(gav));
+      assertFalse(reloaded.jarPresent(other));
+      assertThat(index).hasSize(sizeWithFirst);
+    }
+  }
 }
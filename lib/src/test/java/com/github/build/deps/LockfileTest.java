@@ -0,0 +1,163 @@
+package com.github.build.deps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("Lockfile tests")
+class LockfileTest {
+
+  private static final GroupArtifactVersion DIRECT = GroupArtifactVersion.parse(
+      "org.example:app:1.0.0"
+  );
+
+  private static final GroupArtifactVersion TRANSITIVE = GroupArtifactVersion.parse(
+      "org.example:lib:2.0.0"
+  );
+
+  private static final DependencyConstraints CONSTRAINTS = DependencyConstraints
+      .builder()
+      .withExactVersion("org.example:bom:1.0.0")
+      .build();
+
+  @TempDir
+  private Path tempDir;
+
+  private LocalRepository localRepository;
+
+  private CountingDependencyService service;
+
+  private Path lockfile;
+
+  @BeforeEach
+  void setUp() {
+    localRepository = new LocalRepository(tempDir, Map.of("sha256", "SHA-256"));
+    service = new CountingDependencyService(TRANSITIVE, localRepository);
+    lockfile = tempDir.resolve("locks").resolve("compile-main.lock");
+  }
+
+  @DisplayName("Check lockfile is written and read back")
+  @Test
+  void lockfileRoundTrip() {
+    final Map<GroupArtifactVersion, Path> resolved = service.resolveToLocal(
+        List.of(DIRECT),
+        CONSTRAINTS,
+        lockfile
+    );
+
+    final Lockfile locked = Lockfile.read(lockfile);
+    assertThat(locked).isNotNull();
+    assertThat(locked.checksums()).containsOnlyKeys(DIRECT, TRANSITIVE);
+    assertThat(locked.matches(List.of(DIRECT), CONSTRAINTS)).isTrue();
+    assertThat(locked.matches(List.of(DIRECT, TRANSITIVE), CONSTRAINTS)).isFalse();
+    assertThat(locked.matches(List.of(DIRECT), DependencyConstraints.EMPTY)).isFalse();
+    assertThat(locked.verify(resolved, service::checksum)).isTrue();
+  }
+
+  @DisplayName("Check resolution is skipped if inputs are not changed")
+  @Test
+  void resolutionSkipped() {
+    final Map<GroupArtifactVersion, Path> first = service.resolveToLocal(
+        List.of(DIRECT),
+        CONSTRAINTS,
+        lockfile
+    );
+    final Map<GroupArtifactVersion, Path> second = service.resolveToLocal(
+        List.of(DIRECT),
+        CONSTRAINTS,
+        lockfile
+    );
+
+    assertThat(second).isEqualTo(first);
+    assertThat(service.resolutions).hasValue(1);
+  }
+
+  @DisplayName("Check dependencies are resolved again if inputs are changed")
+  @Test
+  void resolvedAgainOnChangedInputs() {
+    service.resolveToLocal(List.of(DIRECT), CONSTRAINTS, lockfile);
+    service.resolveToLocal(List.of(DIRECT), DependencyConstraints.EMPTY, lockfile);
+
+    assertThat(service.resolutions).hasValue(2);
+  }
+
+  @DisplayName("Check dependencies are resolved again if locked checksum does not match")
+  @Test
+  void resolvedAgainOnChecksumMismatch() {
+    service.resolveToLocal(List.of(DIRECT), CONSTRAINTS, lockfile);
+    localRepository.saveJar(TRANSITIVE, "changed".getBytes(StandardCharsets.UTF_8));
+    service.resolveToLocal(List.of(DIRECT), CONSTRAINTS, lockfile);
+
+    assertThat(service.resolutions).hasValue(2);
+    final Lockfile locked = Lockfile.read(lockfile);
+    assertThat(locked).isNotNull();
+    assertThat(locked.verify(
+        Map.of(
+            DIRECT, localRepository.getPath(DIRECT),
+            TRANSITIVE, localRepository.getPath(TRANSITIVE)
+        ),
+        service::checksum
+    )).isTrue();
+  }
+
+  @DisplayName("Check locked JAR changed on disk is detected despite unchanged hash file")
+  @Test
+  void changedJarDetected() throws IOException {
+    final Map<GroupArtifactVersion, Path> resolved = service.resolveToLocal(
+        List.of(DIRECT),
+        CONSTRAINTS,
+        lockfile
+    );
+    final Path jarPath = resolved.get(TRANSITIVE);
+    final Path hashFile = jarPath.resolveSibling("lib-2.0.0.sha256");
+    final String hash = Files.readString(hashFile);
+
+    Files.write(jarPath, "corrupted".getBytes(StandardCharsets.UTF_8));
+    assertThat(hashFile).hasContent(hash);
+
+    final Lockfile locked = Lockfile.read(lockfile);
+    assertThat(locked).isNotNull();
+    assertThat(locked.verify(resolved, service::checksum)).isFalse();
+  }
+
+  @DisplayName("Check missing locked JAR fails verification instead of failing build")
+  @Test
+  void missingJarNotVerified() throws IOException {
+    final Map<GroupArtifactVersion, Path> resolved = service.resolveToLocal(
+        List.of(DIRECT),
+        CONSTRAINTS,
+        lockfile
+    );
+    Files.delete(resolved.get(TRANSITIVE));
+
+    final Lockfile locked = Lockfile.read(lockfile);
+    assertThat(locked).isNotNull();
+    assertThat(locked.verify(resolved, service::checksum)).isFalse();
+    assertThat(service.resolveToLocal(List.of(DIRECT), CONSTRAINTS, lockfile))
+        .containsOnlyKeys(DIRECT, TRANSITIVE)
+        .allSatisfy((gav, path) -> assertThat(path).isRegularFile());
+  }
+
+  @DisplayName("Check corrupted lockfile is ignored")
+  @Test
+  void corruptedLockfileIgnored() throws IOException {
+    Files.createDirectories(lockfile.getParent());
+    Files.write(lockfile, new byte[]{0, 0, 0, 1, 0});
+
+    assertThat(Lockfile.read(lockfile)).isNull();
+    assertThat(service.resolveToLocal(List.of(DIRECT), CONSTRAINTS, lockfile))
+        .containsOnlyKeys(DIRECT, TRANSITIVE);
+  }
+}
@@ -0,0 +1,182 @@
+package com.github.build.deps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("Metadata cache tests")
+class MetadataCacheTest {
+
+  private static final GroupArtifact GA = new GroupArtifact("org.example", "app");
+
+  private static final MetadataCache.Entry ENTRY = new MetadataCache.Entry(
+      MetadataCache.Entry.sorted(List.of("2.0.0", "1.0.0", "1.5.0-beta", "1.5.0", "3.0.0")),
+      "\"etag\"",
+      null,
+      Instant.now()
+  );
+
+  @TempDir
+  private Path tempDir;
+
+  @DisplayName("Check finding highest version in range works")
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {
+      "[1.0.0,2.0.0];2.0.0",
+      "[1.0.0,2.0.0);1.5.0",
+      "(,1.5.0];1.5.0",
+      "[1.0.0,);3.0.0",
+      "(2.0.0,3.0.0);''",
+      "[1.2.0,1.4.0];''",
+      "(,0.1.0];''",
+  })
+  void findingMaxWorks(final String range, final String expected) {
+    final var parsed = (MavenVersion.Range) MavenVersion.parse(range);
+    if (expected.isEmpty()) {
+      assertThat(ENTRY.findMax(parsed)).isEmpty();
+    } else {
+      assertThat(ENTRY.findMax(parsed)).hasValue(expected);
+    }
+  }
+
+  @DisplayName("Check entry is persisted to disk")
+  @Test
+  void entryPersisted() {
+    new MetadataCache(tempDir, "central", Duration.ofHours(1)).put(GA, ENTRY);
+
+    final MetadataCache.Entry loaded = new MetadataCache(tempDir, "central", Duration.ofHours(1))
+        .get(GA);
+    assertThat(loaded).isNotNull();
+    assertThat(loaded.versions()).isEqualTo(ENTRY.versions());
+    assertThat(loaded.etag()).isEqualTo(ENTRY.etag());
+    assertThat(new MetadataCache(tempDir, "other", Duration.ofHours(1)).get(GA)).isNull();
+  }
+
+  @DisplayName("Check failed write keeps entry in memory")
+  @Test
+  void failedWriteKeptInMemory() throws IOException {
+    // regular file in place of group directory makes entry unwritable
+    Files.writeString(tempDir.resolve("org"), "");
+    final var cache = new MetadataCache(tempDir, "central", Duration.ofHours(1));
+    cache.put(GA, ENTRY);
+
+    assertThat(cache.get(GA)).isSameAs(ENTRY);
+  }
+
+  @DisplayName("Check entry needs refresh after refresh interval")
+  @Test
+  void entryNeedsRefresh() {
+    final MetadataCache.Entry old = ENTRY.revalidatedAt(Instant.now().minus(Duration.ofHours(2)));
+    final MetadataCache cache = MetadataCache.inMemory(Duration.ofHours(1));
+    assertThat(cache.needsRefresh(ENTRY)).isFalse();
+    assertThat(cache.needsRefresh(old)).isTrue();
+    assertThat(MetadataCache.inMemory(Duration.ZERO).needsRefresh(ENTRY)).isTrue();
+  }
+
+  @DisplayName("Remote repository metadata lookup tests")
+  @Nested
+  class RemoteLookup {
+
+    private final AtomicInteger fullResponses = new AtomicInteger();
+
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+      server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+      server.createContext("/org/example/app/maven-metadata.xml", exchange -> {
+        if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+          notModifiedResponses.incrementAndGet();
+          exchange.sendResponseHeaders(304, -1);
+          exchange.close();
+          return;
+        }
+
+        fullResponses.incrementAndGet();
+        final byte[] body = """
+            <metadata>
+              <versioning>
+                <versions>
+                  <version>1.0.0</version>
+                  <version>1.1.0</version>
+                  <version>2.0.0</version>
+                </versions>
+              </versioning>
+            </metadata>
+            """.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        exchange.sendResponseHeaders(200, body.length);
+        try (final OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      });
+      server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+      server.stop(0);
+    }
+
+    @DisplayName("Check metadata is fetched once within refresh interval")
+    @Test
+    void fetchedOnceWithinRefreshInterval() {
+      final RemoteRepository repository = repository(Duration.ofHours(1));
+      final var range = (MavenVersion.Range) MavenVersion.parse("[1.0.0,2.0.0)");
+
+      assertThat(repository.findMax(GA, range)).hasValue("1.1.0");
+      assertThat(repository.findMax(GA, range)).hasValue("1.1.0");
+      assertThat(fullResponses).hasValue(1);
+      assertThat(notModifiedResponses).hasValue(0);
+    }
+
+    @DisplayName("Check metadata is revalidated after refresh interval")
+    @Test
+    void revalidatedAfterRefreshInterval() {
+      final RemoteRepository repository = repository(Duration.ZERO);
+      final var range = (MavenVersion.Range) MavenVersion.parse("[1.0.0,)");
+
+      assertThat(repository.findMax(GA, range)).hasValue("2.0.0");
+      assertThat(repository.findMax(GA, range)).hasValue("2.0.0");
+      assertThat(fullResponses).hasValue(1);
+      assertThat(notModifiedResponses).hasValue(1);
+    }
+
+    private RemoteRepository repository(final Duration refreshInterval) {
+      return new RemoteRepositoryImpl(
+          URI.create("http://localhost:" + server.getAddress().getPort()),
+          HttpClient.newHttpClient(),
+          new ObjectMapper(),
+          null,
+          new MetadataCache(tempDir, "test", refreshInterval)
+      );
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package com.github.build.deps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("POM cache tests")
+class PomCacheTest {
+
+  private static final byte[] RAW = "<project/>".getBytes(StandardCharsets.UTF_8);
+
+  @TempDir
+  private Path tempDir;
+
+  private PomCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new PomCache(tempDir, Duration.ofMinutes(1));
+  }
+
+  @DisplayName("Check cached POM is read back as is")
+  @Test
+  void cachedPomReadBack() {
+    final Pom pom = pom("1.0.0");
+    cache.put(pom.gav(), RAW, pom);
+
+    assertThat(cache.get(pom.gav())).hasValueSatisfying(cached -> {
+      assertThat(cached).usingRecursiveComparison().isEqualTo(pom);
+    });
+    assertThat(tempDir.resolve("org/example/app/1.0.0/app-1.0.0.pom")).hasBinaryContent(RAW);
+  }
+
+  @DisplayName("Check release POM is never stale")
+  @Test
+  void releaseNeverStale() throws IOException {
+    final Pom pom = pom("1.0.0");
+    cache.put(pom.gav(), RAW, pom);
+    makeOld(pom.gav());
+
+    assertThat(cache.get(pom.gav())).isPresent();
+  }
+
+  @DisplayName("Check snapshot POM becomes stale after TTL")
+  @Test
+  void snapshotStaleAfterTtl() throws IOException {
+    final Pom pom = pom("1.0.0-SNAPSHOT");
+    cache.put(pom.gav(), RAW, pom);
+    assertThat(cache.get(pom.gav())).isPresent();
+
+    makeOld(pom.gav());
+    assertThat(cache.get(pom.gav())).isEmpty();
+  }
+
+  @DisplayName("Check corrupted cache entry is ignored")
+  @Test
+  void corruptedEntryIgnored() throws IOException {
+    final Pom pom = pom("1.0.0");
+    cache.put(pom.gav(), RAW, pom);
+    Files.write(modelPath(pom.gav()), new byte[]{0, 0, 0, 1, 42});
+
+    assertThat(cache.get(pom.gav())).isEmpty();
+  }
+
+  @DisplayName("Check failed write does not fail caller")
+  @Test
+  void failedWriteIgnored() {
+    final Pom pom = pom("1.0.0");
+    final Pom huge = new Pom(
+        pom.groupId(),
+        pom.artifactId(),
+        pom.version(),
+        pom.parent(),
+        Map.of("license.text", "x".repeat(70_000)),
+        pom.dependencyManagement(),
+        pom.dependencies()
+    );
+    cache.put(huge.gav(), RAW, huge);
+
+    assertThat(cache.get(huge.gav())).isEmpty();
+  }
+
+  private void makeOld(final GroupArtifactVersion gav) throws IOException {
+    final Instant hourAgo = Instant.now().minus(Duration.ofHours(1));
+    Files.setLastModifiedTime(modelPath(gav), FileTime.from(hourAgo));
+  }
+
+  private Path modelPath(final GroupArtifactVersion gav) {
+    return tempDir.resolve(
+        "org/example/app/" + gav.version() + "/app-" + gav.version() + ".pom.bin"
+    );
+  }
+
+  private static Pom pom(final String version) {
+    return new Pom(
+        "org.example",
+        "app",
+        version,
+        new Pom.Parent("org.example", "parent", "1.0.0"),
+        Map.of("slf4j.version", "2.0.17"),
+        List.of(new Pom.Dependency(
+            "org.slf4j",
+            "slf4j-bom",
+            "${slf4j.version}",
+            Pom.Dependency.Scope.IMPORT,
+            Set.of(),
+            false
+        )),
+        List.of(
+            new Pom.Dependency(
+                "org.slf4j",
+                "slf4j-api",
+                null,
+                Pom.Dependency.Scope.COMPILE,
+                Set.of(new GroupArtifact("org.example", "excluded")),
+                false
+            ),
+            new Pom.Dependency(
+                "org.example",
+                "optional",
+                "1.0.0",
+                Pom.Dependency.Scope.RUNTIME,
+                Set.of(),
+                true
+            )
+        )
+    );
+  }
+}
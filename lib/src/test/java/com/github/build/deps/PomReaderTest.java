@@ -0,0 +1,162 @@
+package com.github.build.deps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("POM reader tests")
+class PomReaderTest {
+
+  @DisplayName("Check reading POM works")
+  @Test
+  void readingPomWorks() {
+    final Pom pom = PomReader.read(stream("""
+        <?xml version="1.0" encoding="UTF-8"?>
+        <project xmlns="http://maven.apache.org/POM/4.0.0">
+          <modelVersion>4.0.0</modelVersion>
+          <parent>
+            <groupId>org.example</groupId>
+            <artifactId>parent</artifactId>
+            <version>1.0.0</version>
+          </parent>
+          <artifactId>app</artifactId>
+          <properties>
+            <slf4j.version>2.0.17</slf4j.version>
+            <empty.property/>
+          </properties>
+          <dependencyManagement>
+            <dependencies>
+              <dependency>
+                <groupId>org.junit</groupId>
+                <artifactId>junit-bom</artifactId>
+                <version>5.13.4</version>
+                <type>pom</type>
+                <scope>import</scope>
+              </dependency>
+            </dependencies>
+          </dependencyManagement>
+          <dependencies>
+            <!-- comments are ignored -->
+            <dependency>
+              <groupId>org.slf4j</groupId>
+              <artifactId>slf4j-api</artifactId>
+              <version>${slf4j.version}</version>
+              <exclusions>
+                <exclusion>
+                  <groupId>org.example</groupId>
+                  <artifactId>excluded</artifactId>
+                </exclusion>
+              </exclusions>
+            </dependency>
+            <dependency>
+              <groupId>org.example</groupId>
+              <artifactId>optional</artifactId>
+              <scope>runtime</scope>
+              <optional>true</optional>
+            </dependency>
+          </dependencies>
+          <build>
+            <plugins>
+              <plugin>
+                <artifactId>maven-surefire-plugin</artifactId>
+                <dependencies>
+                  <dependency>
+                    <groupId>org.example</groupId>
+                    <artifactId>plugin-dependency</artifactId>
+                  </dependency>
+                </dependencies>
+              </plugin>
+            </plugins>
+          </build>
+        </project>
+        """));
+
+    assertThat(pom.gav()).isEqualTo(GroupArtifactVersion.parse("org.example:app:1.0.0"));
+    assertThat(pom.parent()).isEqualTo(new Pom.Parent("org.example", "parent", "1.0.0"));
+    assertThat(pom.properties()).containsExactly(Map.entry("slf4j.version", "2.0.17"));
+    assertThat(pom.dependencyManagement()).containsExactly(new Pom.Dependency(
+        "org.junit",
+        "junit-bom",
+        "5.13.4",
+        Pom.Dependency.Scope.IMPORT,
+        Set.of(),
+        false
+    ));
+    assertThat(pom.dependencies()).containsExactly(
+        new Pom.Dependency(
+            "org.slf4j",
+            "slf4j-api",
+            "${slf4j.version}",
+            Pom.Dependency.Scope.COMPILE,
+            Set.of(new GroupArtifact("org.example", "excluded")),
+            false
+        ),
+        new Pom.Dependency(
+            "org.example",
+            "optional",
+            null,
+            Pom.Dependency.Scope.RUNTIME,
+            Set.of(),
+            true
+        )
+    );
+  }
+
+  @DisplayName("Check reading POM without namespace works")
+  @Test
+  void readingPomWithoutNamespaceWorks() {
+    final Pom pom = PomReader.read(stream("""
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>app</artifactId>
+          <version>1.0.0</version>
+        </project>
+        """));
+
+    assertThat(pom.gav()).isEqualTo(GroupArtifactVersion.parse("org.example:app:1.0.0"));
+    assertThat(pom.parent()).isNull();
+    assertThat(pom.dependencies()).isEmpty();
+  }
+
+  @DisplayName("Check reading malformed POM fails")
+  @Test
+  void readingMalformedPomFails() {
+    assertThatThrownBy(() -> PomReader.read(stream("<project><groupId>")))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @DisplayName("Check reading metadata versions works")
+  @Test
+  void readingVersionsWorks() {
+    final var versions = PomReader.readVersions(stream("""
+        <metadata>
+          <groupId>org.example</groupId>
+          <artifactId>app</artifactId>
+          <versioning>
+            <latest>2.0.0</latest>
+            <versions>
+              <version>1.0.0</version>
+              <version> 1.1.0 </version>
+              <version>2.0.0</version>
+            </versions>
+          </versioning>
+        </metadata>
+        """));
+
+    assertThat(versions).containsExactly("1.0.0", "1.1.0", "2.0.0");
+  }
+
+  private static InputStream stream(final String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
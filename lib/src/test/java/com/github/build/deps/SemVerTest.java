@@ -158,6 +158,8 @@ class SemVerTest {
         "", " ",
         "1", "1.2", // incomplete version core
         "00.1.0", "01.0.0", "1.00.0", "1.0.00", // leading zeroes
+        "1.2.3.4", "1.2.3x", ".1.2.3", "1..2.3", // unexpected characters
+        "2147483648.0.0", "1.99999999999.0", // parts not fitting into int
     })
     void testInvalidValueParsingFails(final String value) {
       assertThrows(IllegalArgumentException.class, () -> SemVer.parse(value));
@@ -273,5 +275,35 @@ class SemVerTest {
           .toList();
       assertEquals(expected, actual);
     }
+
+    @DisplayName("Check ordering keys agree with comparison")
+    @Test
+    void testOrderingKeys() {
+      final List<SemVer> versions = List.of(
+          SemVer.parse("0.0.1"),
+          SemVer.parse("1.0.0-alpha"),
+          SemVer.parse("1.0.0-beta"),
+          SemVer.parse("1.0.0"),
+          SemVer.parse("1.0.1"),
+          SemVer.parse("1.1048575.0"),
+          SemVer.parse("1.1048576.0-alpha"),
+          SemVer.parse("1.1048576.0"),
+          SemVer.parse("1.2147483647.0"),
+          SemVer.parse("2.0.0"),
+          SemVer.parse("1048575.0.0"),
+          SemVer.parse("2147483647.0.0")
+      );
+      for (final SemVer first : versions) {
+        for (final SemVer second : versions) {
+          final int comparison = first.compareTo(second);
+          final int keyComparison = Long.compare(first.orderingKey(), second.orderingKey());
+          if (keyComparison != 0) {
+            assertEquals(Integer.signum(comparison), keyComparison, first + " vs " + second);
+          }
+        }
+      }
+
+      assertEquals(versions, versions.reversed().stream().sorted().toList());
+    }
   }
 }
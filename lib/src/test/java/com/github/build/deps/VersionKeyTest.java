@@ -0,0 +1,94 @@
+package com.github.build.deps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("Version key tests")
+class VersionKeyTest {
+
+  private static final List<String> VERSIONS = List.of(
+      "1",
+      "1.0",
+      "1.0.0",
+      "1.0.0.0",
+      "1.0.0.0.0",
+      "1.0.0.1",
+      "1.0.1",
+      "1.1",
+      "1.01",
+      "1.10",
+      "1.2.3",
+      "1.2.3.4",
+      "1.2.3.4.5",
+      "2",
+      "10.0",
+      "32767",
+      "32768",
+      "20240101",
+      "1-SNAPSHOT",
+      "1.0.0-SNAPSHOT",
+      "1.0-alpha-1",
+      "1.0-beta",
+      "1.0-rc1",
+      "1.0.Final",
+      "1.0-sp",
+      "1.0.0-1",
+      "1.",
+      "1..2",
+      ".1"
+  );
+
+  @DisplayName("Check ordering is the same as of comparable version")
+  @Test
+  void orderingSameAsComparableVersion() {
+    for (final String first : VERSIONS) {
+      for (final String second : VERSIONS) {
+        final int expected = new ComparableVersion(first).compareTo(new ComparableVersion(second));
+        final int actual = VersionKey.of(first).compareTo(VersionKey.of(second));
+        assertThat(Integer.signum(actual))
+            .as("%s compared to %s", first, second)
+            .isEqualTo(Integer.signum(expected));
+        if (expected == 0) {
+          assertThat(VersionKey.of(first)).isEqualTo(VersionKey.of(second));
+          assertThat(VersionKey.of(first)).hasSameHashCodeAs(VersionKey.of(second));
+        } else {
+          assertThat(VersionKey.of(first)).isNotEqualTo(VersionKey.of(second));
+        }
+      }
+    }
+  }
+
+  @DisplayName("Check keys are interned")
+  @Test
+  void keysInterned() {
+    assertThat(VersionKey.of(new String("1.2.3"))).isSameAs(VersionKey.of("1.2.3"));
+    assertThat(VersionKey.of("1.2.3")).hasToString("1.2.3");
+  }
+
+  @DisplayName("Check range contains version")
+  @ParameterizedTest
+  @CsvSource({
+      "'[1.0,2.0)', 1.0, true",
+      "'[1.0,2.0)', 1.0.0, true",
+      "'[1.0,2.0)', 1.5.3, true",
+      "'[1.0,2.0)', 2.0.0, false",
+      "'[1.0,2.0)', 2.0-SNAPSHOT, true",
+      "'(1.0,2.0]', 1, false",
+      "'(1.0,2.0]', 2, true",
+      "'(,1.0]', 0.9, true",
+      "'[1.0,)', 1.0-SNAPSHOT, false",
+  })
+  void rangeContainsVersion(final String range, final String version, final boolean expected) {
+    final var parsed = (MavenVersion.Range) MavenVersion.parse(range);
+    assertThat(parsed.contains(VersionKey.of(version))).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,162 @@
+package com.github.build.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.build.Project;
+import com.github.build.SourceSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("Build scheduler tests")
+class BuildSchedulerTest {
+
+  private final Project utils = Project
+      .withId("utils")
+      .withSourceSet(SourceSet.withMainDefaults().build())
+      .withSourceSet(SourceSet.withTestDefaults().build())
+      .build();
+
+  private final Project unrelated = Project
+      .withId("unrelated")
+      .withSourceSet(SourceSet.withMainDefaults().build())
+      .withSourceSet(SourceSet.withTestDefaults().build())
+      .build();
+
+  private final Project app = createApp();
+
+  private Project createApp() {
+    final var main = SourceSet
+        .withMainDefaults()
+        .compileAndRunWith(utils)
+        .build();
+    final var test = SourceSet
+        .withTestDefaults()
+        .compileAndRunWith(main)
+        .build();
+    return Project
+        .withId("app")
+        .withSourceSet(main)
+        .withSourceSet(test)
+        .build();
+  }
+
+  @DisplayName("Check edges are derived from source set dependencies")
+  @Test
+  void edgesDerivedFromDependencies() {
+    final TaskGraph graph = TaskGraph.builder()
+        .compile(utils, SourceSet.Id.MAIN, () -> true)
+        .createJar(utils, () -> {
+        })
+        .compile(app, SourceSet.Id.MAIN, () -> true)
+        .copyResources(app, SourceSet.Id.MAIN, () -> {
+        })
+        .compile(app, SourceSet.Id.TEST, () -> true)
+        .test(app, () -> true)
+        .build();
+
+    assertThat(graph.dependencies(BuildTask.Id.compile(app.id(), SourceSet.Id.MAIN)))
+        .containsExactly(BuildTask.Id.compile(utils.id(), SourceSet.Id.MAIN));
+    assertThat(graph.dependencies(BuildTask.Id.compile(app.id(), SourceSet.Id.TEST)))
+        .containsExactly(BuildTask.Id.compile(app.id(), SourceSet.Id.MAIN));
+    assertThat(graph.dependencies(BuildTask.Id.test(app.id())))
+        .containsExactlyInAnyOrder(
+            BuildTask.Id.compile(app.id(), SourceSet.Id.TEST),
+            BuildTask.Id.compile(app.id(), SourceSet.Id.MAIN),
+            BuildTask.Id.copyResources(app.id(), SourceSet.Id.MAIN),
+            BuildTask.Id.jar(utils.id())
+        );
+  }
+
+  @DisplayName("Check critical path is used as priority")
+  @Test
+  void criticalPathUsedAsPriority() {
+    final TaskGraph graph = TaskGraph.builder()
+        .compile(utils, SourceSet.Id.MAIN, () -> true)
+        .compile(app, SourceSet.Id.MAIN, () -> true)
+        .compile(unrelated, SourceSet.Id.MAIN, () -> true)
+        .build();
+
+    assertThat(graph.priority(BuildTask.Id.compile(utils.id(), SourceSet.Id.MAIN)))
+        .isEqualTo(2 * TaskGraph.COMPILE_WEIGHT);
+    assertThat(graph.priority(BuildTask.Id.compile(unrelated.id(), SourceSet.Id.MAIN)))
+        .isEqualTo(TaskGraph.COMPILE_WEIGHT);
+  }
+
+  @DisplayName("Check cycles are rejected")
+  @Test
+  void cyclesRejected() {
+    final var first = new BuildTask.Id(utils.id(), "first");
+    final var second = new BuildTask.Id(utils.id(), "second");
+    final TaskGraph.Builder builder = TaskGraph.builder()
+        .task(utils, first.name(), 1, () -> true)
+        .task(utils, second.name(), 1, () -> true)
+        .dependsOn(first, second)
+        .dependsOn(second, first);
+    assertThatThrownBy(builder::build).isInstanceOf(IllegalStateException.class);
+  }
+
+  @DisplayName("Check dependencies run before dependents and independent tasks run concurrently")
+  @Test
+  void dependenciesRunFirst() {
+    final List<BuildTask.Id> order = new CopyOnWriteArrayList<>();
+    // both independent compilations must be running at the same time to pass the latch
+    final var latch = new CountDownLatch(2);
+    final TaskGraph graph = TaskGraph.builder()
+        .compile(utils, SourceSet.Id.MAIN, () -> {
+          latch.countDown();
+          order.add(BuildTask.Id.compile(utils.id(), SourceSet.Id.MAIN));
+          return await(latch);
+        })
+        .compile(unrelated, SourceSet.Id.MAIN, () -> {
+          latch.countDown();
+          order.add(BuildTask.Id.compile(unrelated.id(), SourceSet.Id.MAIN));
+          return await(latch);
+        })
+        .compile(app, SourceSet.Id.MAIN, () -> {
+          order.add(BuildTask.Id.compile(app.id(), SourceSet.Id.MAIN));
+          return true;
+        })
+        .build();
+
+    assertTrue(new BuildScheduler(2).run(graph));
+    assertThat(order).hasSize(3);
+    assertThat(order.getLast()).isEqualTo(BuildTask.Id.compile(app.id(), SourceSet.Id.MAIN));
+  }
+
+  @DisplayName("Check dependents of failed task are not run")
+  @Test
+  void dependentsOfFailedTaskNotRun() {
+    final List<BuildTask.Id> executed = new CopyOnWriteArrayList<>();
+    final TaskGraph graph = TaskGraph.builder()
+        .compile(utils, SourceSet.Id.MAIN, () -> {
+          throw new IllegalStateException("Compilation crashed");
+        })
+        .compile(app, SourceSet.Id.MAIN, () -> {
+          executed.add(BuildTask.Id.compile(app.id(), SourceSet.Id.MAIN));
+          return true;
+        })
+        .build();
+
+    assertFalse(new BuildScheduler(2).run(graph));
+    assertThat(executed).isEmpty();
+  }
+
+  private static boolean await(final CountDownLatch latch) {
+    try {
+      return latch.await(10, TimeUnit.SECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.github.build.uptodate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author noavarice
+ */
+@DisplayName("Up-to-date checker tests")
+class UpToDateCheckerTest {
+
+  private final UpToDateChecker checker = new UpToDateChecker();
+
+  private final AtomicInteger executions = new AtomicInteger();
+
+  @TempDir
+  private Path tempDir;
+
+  private Path inputDir;
+
+  private Path output;
+
+  private Path snapshotFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    inputDir = Files.createDirectories(tempDir.resolve("input"));
+    Files.writeString(inputDir.resolve("first.txt"), "first");
+    output = tempDir.resolve("output.txt");
+    snapshotFile = tempDir.resolve("snapshots/step.snapshot");
+  }
+
+  @DisplayName("Check step is skipped if nothing changed")
+  @Test
+  void skippedIfNothingChanged() {
+    assertTrue(run("value"));
+    assertTrue(run("value"));
+    assertThat(executions).hasValue(1);
+  }
+
+  @DisplayName("Check step is skipped if input file touched but not changed")
+  @Test
+  void skippedIfInputTouched() throws IOException {
+    assertTrue(run("value"));
+    Files.setLastModifiedTime(
+        inputDir.resolve("first.txt"),
+        FileTime.from(Instant.now().plusSeconds(60))
+    );
+    assertTrue(run("value"));
+    assertThat(executions).hasValue(1);
+  }
+
+  @DisplayName("Check step is executed if input file changed")
+  @Test
+  void executedIfInputChanged() throws IOException {
+    assertTrue(run("value"));
+    Files.writeString(inputDir.resolve("first.txt"), "changed");
+    assertTrue(run("value"));
+    assertThat(executions).hasValue(2);
+  }
+
+  @DisplayName("Check step is executed if input file added")
+  @Test
+  void executedIfInputAdded() throws IOException {
+    assertTrue(run("value"));
+    Files.writeString(inputDir.resolve("second.txt"), "second");
+    assertTrue(run("value"));
+    assertThat(executions).hasValue(2);
+  }
+
+  @DisplayName("Check step is executed if input value changed")
+  @Test
+  void executedIfValueChanged() {
+    assertTrue(run("value"));
+    assertTrue(run("another value"));
+    assertThat(executions).hasValue(2);
+  }
+
+  @DisplayName("Check step is executed if output removed")
+  @Test
+  void executedIfOutputRemoved() throws IOException {
+    assertTrue(run("value"));
+    Files.delete(output);
+    assertTrue(run("value"));
+    assertThat(executions).hasValue(2);
+    assertThat(output).isRegularFile();
+  }
+
+  @DisplayName("Check step is executed again after failure")
+  @Test
+  void executedAgainAfterFailure() {
+    final Step step = step("value");
+    assertFalse(checker.run(snapshotFile, step, () -> {
+      executions.incrementAndGet();
+      return false;
+    }));
+    assertThat(snapshotFile).doesNotExist();
+
+    assertTrue(run("value"));
+    assertThat(executions).hasValue(2);
+  }
+
+  private boolean run(final String value) {
+    return checker.run(snapshotFile, step(value), () -> {
+      executions.incrementAndGet();
+      try {
+        Files.writeString(output, "output");
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return true;
+    });
+  }
+
+  private Step step(final String value) {
+    return Step
+        .named("test")
+        .value("key", value)
+        .input(inputDir)
+        .output(output)
+        .build();
+  }
+}